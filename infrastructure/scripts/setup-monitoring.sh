@@ -42,6 +42,9 @@ TEMPO_CHART_VERSION="1.4.1"
 NODE_EXPORTER_CHART_VERSION="4.3.0"
 KUBE_STATE_METRICS_CHART_VERSION="4.10.0"
 
+# Aggregating push gateway for mobile native module metrics
+METRICS_AGGREGATION_GATEWAY_IMAGE="${METRICS_AGGREGATION_GATEWAY_IMAGE:-ghcr.io/zapier/prom-aggregation-gateway:v0.7.0}"
+
 # Specify the application namespace we will monitor
 APP_NAMESPACE="ai-talent-marketplace"
 
@@ -1111,6 +1114,88 @@ EOF
     return 0
 }
 
+# Deploy the aggregating push gateway the mobile apps push native module metrics to.
+# Unlike the Pushgateway installed with Prometheus, which keeps only the last push per
+# group, it sums the increments pushed by every install into one series set. Prometheus
+# scrapes it through the mobile-metrics-aggregator job, which selects pods labelled
+# app=metrics-aggregation-gateway in the application namespace.
+setup_metrics_aggregation_gateway() {
+    log "INFO" "Setting up metrics aggregation gateway..."
+    
+    cat <<EOF > "$TMP_DIR/metrics-aggregation-gateway.yaml"
+apiVersion: apps/v1
+kind: Deployment
+metadata:
+  name: metrics-aggregation-gateway
+  namespace: $APP_NAMESPACE
+  labels:
+    app: metrics-aggregation-gateway
+    app.kubernetes.io/part-of: ai-talent-marketplace
+spec:
+  # Sums live in memory: a second replica would split them between pods
+  replicas: 1
+  strategy:
+    type: Recreate
+  selector:
+    matchLabels:
+      app: metrics-aggregation-gateway
+  template:
+    metadata:
+      labels:
+        app: metrics-aggregation-gateway
+        app.kubernetes.io/part-of: ai-talent-marketplace
+      annotations:
+        prometheus.io/scrape: "true"
+        prometheus.io/port: "80"
+    spec:
+      containers:
+      - name: gateway
+        image: $METRICS_AGGREGATION_GATEWAY_IMAGE
+        ports:
+        - name: http
+          containerPort: 80
+        readinessProbe:
+          tcpSocket:
+            port: http
+          periodSeconds: 10
+        livenessProbe:
+          tcpSocket:
+            port: http
+          periodSeconds: 30
+        resources:
+          limits:
+            cpu: 200m
+            memory: 256Mi
+          requests:
+            cpu: 50m
+            memory: 64Mi
+---
+apiVersion: v1
+kind: Service
+metadata:
+  name: metrics-aggregation-gateway
+  namespace: $APP_NAMESPACE
+  labels:
+    app: metrics-aggregation-gateway
+spec:
+  selector:
+    app: metrics-aggregation-gateway
+  ports:
+  - name: http
+    port: 80
+    targetPort: http
+EOF
+    
+    kubectl apply -f "$TMP_DIR/metrics-aggregation-gateway.yaml"
+    
+    # Wait for the gateway to be ready
+    log "INFO" "Waiting for metrics aggregation gateway to be ready..."
+    kubectl rollout status deployment/metrics-aggregation-gateway -n "$APP_NAMESPACE" --timeout=300s
+    
+    log "INFO" "Metrics aggregation gateway setup completed"
+    return 0
+}
+
 # Configure ingress for monitoring components
 configure_ingress() {
     log "INFO" "Configuring ingress for monitoring components..."
@@ -1234,6 +1319,38 @@ spec:
               number: 80
 EOF
     
+    # Create ingress for the metrics aggregation gateway. Apps push over the internet, so only
+    # the push paths are exposed; the aggregated /metrics stays inside the cluster.
+    cat <<EOF > "$TMP_DIR/metrics-push-ingress.yaml"
+apiVersion: networking.k8s.io/v1
+kind: Ingress
+metadata:
+  name: metrics-push
+  namespace: $APP_NAMESPACE
+  annotations:
+    kubernetes.io/ingress.class: $INGRESS_CLASS
+    nginx.ingress.kubernetes.io/ssl-redirect: "true"
+    nginx.ingress.kubernetes.io/proxy-body-size: "64k"
+    nginx.ingress.kubernetes.io/limit-rps: "5"
+    cert-manager.io/cluster-issuer: "letsencrypt-prod"
+spec:
+  tls:
+  - hosts:
+    - metrics-push.$DOMAIN
+    secretName: metrics-push-tls
+  rules:
+  - host: metrics-push.$DOMAIN
+    http:
+      paths:
+      - path: /metrics/job/
+        pathType: Prefix
+        backend:
+          service:
+            name: metrics-aggregation-gateway
+            port:
+              number: 80
+EOF
+    
     # Create basic auth secret for Prometheus and Alertmanager
     # Generate a secure password
     PROMETHEUS_PASSWORD=$(openssl rand -base64 12)
@@ -1255,11 +1372,13 @@ EOF
     kubectl apply -f "$TMP_DIR/prometheus-auth.yaml"
     kubectl apply -f "$TMP_DIR/prometheus-ingress.yaml"
     kubectl apply -f "$TMP_DIR/alertmanager-ingress.yaml"
+    kubectl apply -f "$TMP_DIR/metrics-push-ingress.yaml"
     
     log "INFO" "Ingress configured for monitoring components"
     log "INFO" "Grafana URL: https://grafana.$DOMAIN"
     log "INFO" "Prometheus URL: https://prometheus.$DOMAIN (login: admin / $PROMETHEUS_PASSWORD)"
     log "INFO" "Alertmanager URL: https://alertmanager.$DOMAIN (login: admin / $PROMETHEUS_PASSWORD)"
+    log "INFO" "Mobile metrics push URL (METRICS_PUSH_URL for app builds): https://metrics-push.$DOMAIN"
     
     return 0
 }
@@ -1942,6 +2061,12 @@ main() {
         exit 1
     fi
     
+    # Setup metrics aggregation gateway
+    if ! setup_metrics_aggregation_gateway; then
+        log "ERROR" "Failed to set up metrics aggregation gateway."
+        exit 1
+    fi
+    
     # Setup RBAC
     if ! setup_rbac; then
         log "ERROR" "Failed to set up RBAC."
@@ -15,13 +15,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import com.aitalentmarketplace.modules.BiometricModule;
+import com.aitalentmarketplace.modules.CacheModule;
+import com.aitalentmarketplace.modules.NativeMetricsModule;
 import com.aitalentmarketplace.modules.NotificationModule;
 import com.aitalentmarketplace.modules.SecureStorageModule;
+import com.aitalentmarketplace.modules.SecureStoreWarmup;
 
 /**
  * Main application class for the AI Talent Marketplace Android app.
  * Initializes React Native environment and registers custom native modules
- * for biometric authentication, secure storage, and notification services.
+ * for biometric authentication, secure storage, caching and notification services.
  */
 public class MainApplication extends Application implements ReactApplication {
 
@@ -45,6 +48,13 @@ public class MainApplication extends Application implements ReactApplication {
         super.onCreate();
         // Initialize SoLoader for loading native libraries
         SoLoader.init(this, /* native exopackage */ false);
+
+        // Open the encrypted secure store in the background so the first
+        // SecureStorageModule read does not pay for Keystore and keyset loading
+        SecureStoreWarmup.start(this);
+
+        // Push native module latency metrics in the background, if an endpoint is configured
+        NativeMetricsExport.start(this);
         
         // Application-specific initialization can be added here
         // For example, initializing crash reporting, analytics, etc.
@@ -69,6 +79,8 @@ public class MainApplication extends Application implements ReactApplication {
             modules.add(new BiometricModule(reactContext));
             modules.add(new NotificationModule(reactContext));
             modules.add(new SecureStorageModule(reactContext));
+            modules.add(new NativeMetricsModule(reactContext));
+            modules.add(new CacheModule(reactContext));
             
             return modules;
         }
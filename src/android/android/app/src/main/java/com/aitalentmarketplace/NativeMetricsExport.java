@@ -0,0 +1,75 @@
+package com.aitalentmarketplace;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.net.MalformedURLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts pushing NativeMetrics to the aggregating push gateway configured at build time
+ * (METRICS_PUSH_URL).
+ *
+ * Every installation pushes its increments to the same grouping key (job mobile_native, the app
+ * version and platform) and the gateway sums them, so there is one series per method and app
+ * version rather than one per device. Nothing is pushed when no URL is configured.
+ */
+public final class NativeMetricsExport {
+    private static final String TAG = "NativeMetricsExport";
+    private static final String JOB = "mobile_native";
+    private static final String PREFERENCES_NAME = "aitalentmarketplace_metrics";
+    private static final String LEGACY_INSTANCE_ID_KEY = "instance_id"; // Per-install ID of older versions
+    private static final long PUSH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long MAX_BACKOFF_MS = TimeUnit.HOURS.toMillis(1);
+
+    private static MetricsPusher pusher; // Guarded by NativeMetricsExport.class
+
+    private NativeMetricsExport() {
+        // Static holder, not instantiable
+    }
+
+    /**
+     * Starts the pusher on a background thread, so touching preferences never delays startup.
+     * Does nothing if no endpoint is configured or the pusher is already running.
+     *
+     * @param context Any context; the application context is kept
+     */
+    public static void start(Context context) {
+        if (BuildConfig.METRICS_PUSH_URL.isEmpty()) {
+            return;
+        }
+        final Context appContext = context.getApplicationContext();
+        new Thread(() -> startPusher(appContext), TAG).start();
+    }
+
+    private static synchronized void startPusher(Context context) {
+        if (pusher != null) {
+            return;
+        }
+
+        forgetLegacyInstanceId(context);
+        Map<String, String> labels = new LinkedHashMap<>();
+        labels.put("app_version", BuildConfig.VERSION_NAME);
+        labels.put("platform", "android");
+        try {
+            pusher = new MetricsPusher(MetricsPusher.groupingUrl(BuildConfig.METRICS_PUSH_URL, JOB, labels),
+                    PUSH_INTERVAL_MS, MAX_BACKOFF_MS, true);
+            pusher.start();
+        } catch (MalformedURLException e) {
+            Log.e(TAG, "Invalid metrics push URL: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Removes the per-install ID older versions pushed under; it is no longer sent anywhere
+     */
+    private static void forgetLegacyInstanceId(Context context) {
+        SharedPreferences preferences = context.getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+        if (preferences.contains(LEGACY_INSTANCE_ID_KEY)) {
+            preferences.edit().remove(LEGACY_INSTANCE_ID_KEY).apply();
+        }
+    }
+}
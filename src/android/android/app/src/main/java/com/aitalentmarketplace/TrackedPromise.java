@@ -0,0 +1,139 @@
+package com.aitalentmarketplace;
+
+import com.facebook.react.bridge.Promise; // React Native 0.72.x
+import com.facebook.react.bridge.WritableMap; // React Native 0.72.x
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Promise wrapper that records a bridge call in its MethodMetrics when the call settles.
+ *
+ * The call's queue wait ends when markStarted() is first invoked (modules that hand work to an
+ * executor call it at the top of the task); if it never is, the whole call counts as execution.
+ * Only the first resolve or reject is recorded, matching React Native's own promise semantics.
+ */
+public final class TrackedPromise implements Promise {
+    private static final String UNSPECIFIED_ERROR = "EUNSPECIFIED"; // Code React Native uses when none is given
+    private static final AtomicIntegerFieldUpdater<TrackedPromise> SETTLED =
+            AtomicIntegerFieldUpdater.newUpdater(TrackedPromise.class, "settled");
+
+    private final Promise delegate;
+    private final MethodMetrics metrics;
+    private final long calledAtNanos;
+    private volatile long startedAtNanos;
+    private volatile int settled;
+
+    private TrackedPromise(Promise delegate, MethodMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.calledAtNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts tracking a bridge call
+     *
+     * @param metrics Registry of the calling module
+     * @param method Name of the bridge method
+     * @param promise Promise received from the bridge
+     * @return Promise to use in place of the bridge's
+     */
+    public static Promise track(NativeMetrics metrics, String method, Promise promise) {
+        return new TrackedPromise(promise, metrics.method(method));
+    }
+
+    /**
+     * Marks the end of a tracked call's queue wait. Does nothing for untracked promises or
+     * after the first call.
+     *
+     * @param promise Promise returned by track()
+     */
+    public static void markStarted(Promise promise) {
+        if (promise instanceof TrackedPromise) {
+            TrackedPromise tracked = (TrackedPromise) promise;
+            if (tracked.startedAtNanos == 0) {
+                tracked.startedAtNanos = System.nanoTime();
+            }
+        }
+    }
+
+    @Override
+    public void resolve(Object value) {
+        settle(null);
+        delegate.resolve(value);
+    }
+
+    @Override
+    public void reject(String code, String message) {
+        settle(code != null ? code : UNSPECIFIED_ERROR);
+        delegate.reject(code, message);
+    }
+
+    @Override
+    public void reject(String code, Throwable throwable) {
+        settle(code != null ? code : UNSPECIFIED_ERROR);
+        delegate.reject(code, throwable);
+    }
+
+    @Override
+    public void reject(String code, String message, Throwable throwable) {
+        settle(code != null ? code : UNSPECIFIED_ERROR);
+        delegate.reject(code, message, throwable);
+    }
+
+    @Override
+    public void reject(Throwable throwable) {
+        settle(UNSPECIFIED_ERROR);
+        delegate.reject(throwable);
+    }
+
+    @Override
+    public void reject(Throwable throwable, WritableMap userInfo) {
+        settle(UNSPECIFIED_ERROR);
+        delegate.reject(throwable, userInfo);
+    }
+
+    @Override
+    public void reject(String code, WritableMap userInfo) {
+        settle(code != null ? code : UNSPECIFIED_ERROR);
+        delegate.reject(code, userInfo);
+    }
+
+    @Override
+    public void reject(String code, Throwable throwable, WritableMap userInfo) {
+        settle(code != null ? code : UNSPECIFIED_ERROR);
+        delegate.reject(code, throwable, userInfo);
+    }
+
+    @Override
+    public void reject(String code, String message, WritableMap userInfo) {
+        settle(code != null ? code : UNSPECIFIED_ERROR);
+        delegate.reject(code, message, userInfo);
+    }
+
+    @Override
+    public void reject(String code, String message, Throwable throwable, WritableMap userInfo) {
+        settle(code != null ? code : UNSPECIFIED_ERROR);
+        delegate.reject(code, message, throwable, userInfo);
+    }
+
+    @Override
+    @Deprecated
+    public void reject(String message) {
+        settle(UNSPECIFIED_ERROR);
+        delegate.reject(message);
+    }
+
+    /**
+     * Records the call once
+     *
+     * @param errorCode Rejection code, or null on success
+     */
+    private void settle(String errorCode) {
+        if (!SETTLED.compareAndSet(this, 0, 1)) {
+            return;
+        }
+        long now = System.nanoTime();
+        long started = startedAtNanos != 0 ? startedAtNanos : calledAtNanos;
+        metrics.record(started - calledAtNanos, now - started, errorCode);
+    }
+}
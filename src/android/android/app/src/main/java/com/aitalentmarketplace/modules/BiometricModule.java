@@ -6,15 +6,23 @@ import com.facebook.react.bridge.ReactMethod; // React Native 0.72.x
 import com.facebook.react.bridge.Promise; // React Native 0.72.x
 import com.facebook.react.bridge.ReadableMap; // React Native 0.72.x
 
+import com.aitalentmarketplace.NativeMetrics;
+import com.aitalentmarketplace.TrackedPromise;
+
 import androidx.biometric.BiometricPrompt; // androidx.biometric:biometric:1.2.0-alpha05
 import androidx.biometric.BiometricManager; // androidx.biometric:biometric:1.2.0-alpha05
 import androidx.fragment.app.FragmentActivity; // androidx.fragment:fragment:1.5.5
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
+import javax.crypto.Cipher;
+
 import android.os.Handler;
 import android.os.Looper;
+import android.security.keystore.KeyPermanentlyInvalidatedException;
 import android.util.Log;
 
 /**
@@ -22,12 +30,20 @@ import android.util.Log;
  * This module leverages Android's BiometricPrompt API to securely authenticate users using
  * fingerprint or face recognition, supporting the platform's security requirements and
  * integrating with the app's authentication flow.
+ *
+ * Secrets stored with setBiometricSecret are sealed to a Keystore key that only a biometric
+ * prompt can unlock (see BiometricSecretStore), and getSecretWithBiometrics returns one from the
+ * prompt's success callback in a single call. The prompt's Cipher is prepared in the background
+ * ahead of time, so only the unlocked decryption remains after the user authenticates.
  */
 public class BiometricModule extends ReactContextBaseJavaModule {
     private static final String TAG = "BiometricModule";
     
     private final ReactApplicationContext reactContext;
     private final Executor executor;
+    private final NativeMetrics metrics;
+    private final BiometricSecretStore secrets;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     /**
      * Constructor for BiometricModule
@@ -38,6 +54,11 @@ public class BiometricModule extends ReactContextBaseJavaModule {
         super(reactContext);
         this.reactContext = reactContext;
         this.executor = Executors.newSingleThreadExecutor();
+        this.metrics = NativeMetrics.forModule(getName());
+        this.secrets = new BiometricSecretStore(reactContext);
+        if (BiometricSecretStore.isSupported()) {
+            executor.execute(secrets::prepare);
+        }
     }
 
     /**
@@ -53,10 +74,11 @@ public class BiometricModule extends ReactContextBaseJavaModule {
     /**
      * Checks if biometric authentication is available on the device
      * 
-     * @param promise Promise to resolve/reject with the result
+     * @param jsPromise Promise to resolve/reject with the result
      */
     @ReactMethod
-    public void isBiometricAvailable(Promise promise) {
+    public void isBiometricAvailable(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "isBiometricAvailable", jsPromise);
         try {
             BiometricManager biometricManager = BiometricManager.from(reactContext);
             
@@ -113,10 +135,11 @@ public class BiometricModule extends ReactContextBaseJavaModule {
     /**
      * Determines what type of biometric authentication is available on the device
      * 
-     * @param promise Promise to resolve/reject with the result
+     * @param jsPromise Promise to resolve/reject with the result
      */
     @ReactMethod
-    public void getBiometricType(Promise promise) {
+    public void getBiometricType(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getBiometricType", jsPromise);
         try {
             BiometricManager biometricManager = BiometricManager.from(reactContext);
             int canAuthenticate = biometricManager.canAuthenticate(BiometricManager.Authenticators.BIOMETRIC_STRONG);
@@ -155,17 +178,12 @@ public class BiometricModule extends ReactContextBaseJavaModule {
      * Prompts the user for biometric authentication
      * 
      * @param options Options for the biometric prompt (title, subtitle, description, etc.)
-     * @param promise Promise to resolve/reject with the result
+     * @param jsPromise Promise to resolve/reject with the result
      */
     @ReactMethod
-    public void authenticateWithBiometrics(ReadableMap options, Promise promise) {
+    public void authenticateWithBiometrics(ReadableMap options, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "authenticateWithBiometrics", jsPromise);
         try {
-            // Extract options with defaults
-            String title = options.hasKey("title") ? options.getString("title") : "Biometric Authentication";
-            String subtitle = options.hasKey("subtitle") ? options.getString("subtitle") : "Confirm your identity";
-            String description = options.hasKey("description") ? options.getString("description") : "Use your biometric to authenticate";
-            String cancelButtonText = options.hasKey("cancelButtonText") ? options.getString("cancelButtonText") : "Cancel";
-            
             // Get current activity
             FragmentActivity activity = null;
             if (getCurrentActivity() instanceof FragmentActivity) {
@@ -178,13 +196,7 @@ public class BiometricModule extends ReactContextBaseJavaModule {
             }
 
             // Build the biometric prompt info
-            final BiometricPrompt.PromptInfo promptInfo = new BiometricPrompt.PromptInfo.Builder()
-                .setTitle(title)
-                .setSubtitle(subtitle)
-                .setDescription(description)
-                .setNegativeButtonText(cancelButtonText)
-                .setConfirmationRequired(true)
-                .build();
+            final BiometricPrompt.PromptInfo promptInfo = buildPromptInfo(options).build();
 
             // Create the biometric prompt
             final FragmentActivity finalActivity = activity;
@@ -195,27 +207,10 @@ public class BiometricModule extends ReactContextBaseJavaModule {
                         super.onAuthenticationError(errorCode, errString);
                         
                         // Map common error codes to readable responses
-                        switch (errorCode) {
-                            case BiometricPrompt.ERROR_NEGATIVE_BUTTON:
-                            case BiometricPrompt.ERROR_USER_CANCELED:
-                                promise.resolve("CANCELED");
-                                break;
-                            case BiometricPrompt.ERROR_LOCKOUT:
-                                promise.reject("ERR_BIOMETRIC_LOCKOUT", 
-                                        "Too many attempts. Try again later.");
-                                break;
-                            case BiometricPrompt.ERROR_LOCKOUT_PERMANENT:
-                                promise.reject("ERR_BIOMETRIC_LOCKOUT_PERMANENT", 
-                                        "Too many attempts. Biometric authentication disabled.");
-                                break;
-                            case BiometricPrompt.ERROR_NO_BIOMETRICS:
-                                promise.reject("ERR_NO_BIOMETRICS", 
-                                        "No biometric features enrolled on this device.");
-                                break;
-                            default:
-                                promise.reject("ERR_BIOMETRIC_" + errorCode, 
-                                        "Authentication error: " + errString);
-                                break;
+                        if (isCancellation(errorCode)) {
+                            promise.resolve("CANCELED");
+                        } else {
+                            rejectAuthenticationError(promise, errorCode, errString);
                         }
                     }
 
@@ -246,7 +241,8 @@ public class BiometricModule extends ReactContextBaseJavaModule {
                 });
 
             // Show the biometric prompt on the main thread
-            new Handler(Looper.getMainLooper()).post(() -> {
+            mainHandler.post(() -> {
+                TrackedPromise.markStarted(promise);
                 try {
                     biometricPrompt.authenticate(promptInfo);
                 } catch (Exception e) {
@@ -260,4 +256,223 @@ public class BiometricModule extends ReactContextBaseJavaModule {
             promise.reject("ERR_BIOMETRIC_AUTH", "Biometric authentication error: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Seals a secret so that it can only be read back with getSecretWithBiometrics. No prompt is
+     * shown; sealing only needs the public half of the Keystore key.
+     *
+     * @param key Name to store the secret under
+     * @param value Secret to store
+     * @param jsPromise Promise to resolve with true once the secret is stored
+     */
+    @ReactMethod
+    public void setBiometricSecret(String key, String value, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "setBiometricSecret", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
+        }
+        if (value == null) {
+            promise.reject("ERR_INVALID_VALUE", "Value cannot be null");
+            return;
+        }
+        if (!BiometricSecretStore.isSupported()) {
+            promise.reject("ERR_BIOMETRIC_UNAVAILABLE", "Biometric-bound keys require Android 6.0 or later");
+            return;
+        }
+
+        executor.execute(() -> {
+            TrackedPromise.markStarted(promise);
+            byte[] plaintext = value.getBytes(StandardCharsets.UTF_8);
+            try {
+                secrets.put(key, plaintext);
+                promise.resolve(true);
+                secrets.prepare();
+            } catch (Exception e) {
+                Log.e(TAG, "Error in setBiometricSecret: " + e.getMessage(), e);
+                promise.reject("ERR_BIOMETRIC_SECRET", "Failed to store biometric secret: " + e.getMessage());
+            } finally {
+                Arrays.fill(plaintext, (byte) 0);
+            }
+        });
+    }
+
+    /**
+     * Shows a biometric prompt bound to the Keystore key and, once the user authenticates,
+     * returns the secret stored under the key. The secret is decrypted with the Cipher the
+     * prompt unlocked, so it cannot be obtained without a successful biometric match.
+     *
+     * @param key Name the secret was stored under
+     * @param promptOptions Options for the biometric prompt (title, subtitle, description, etc.)
+     * @param jsPromise Promise to resolve with the secret, or null if none is stored. Rejects
+     *                  with ERR_BIOMETRIC_CANCELED if the user dismisses the prompt, and with
+     *                  ERR_BIOMETRIC_KEY_INVALIDATED if a biometric enrollment deleted the stored
+     *                  secrets.
+     */
+    @ReactMethod
+    public void getSecretWithBiometrics(String key, ReadableMap promptOptions, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getSecretWithBiometrics", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
+        }
+        if (!BiometricSecretStore.isSupported()) {
+            promise.reject("ERR_BIOMETRIC_UNAVAILABLE", "Biometric-bound keys require Android 6.0 or later");
+            return;
+        }
+        if (!(getCurrentActivity() instanceof FragmentActivity)) {
+            promise.reject("ERR_ACTIVITY_UNAVAILABLE", "Activity is not available or not a FragmentActivity");
+            return;
+        }
+        final FragmentActivity activity = (FragmentActivity) getCurrentActivity();
+        final BiometricPrompt.PromptInfo promptInfo = buildPromptInfo(promptOptions)
+                .setAllowedAuthenticators(BiometricManager.Authenticators.BIOMETRIC_STRONG)
+                .build();
+
+        executor.execute(() -> {
+            final byte[] record = secrets.getRecord(key);
+            if (record == null) {
+                TrackedPromise.markStarted(promise);
+                promise.resolve(null);
+                return;
+            }
+
+            final Cipher cipher;
+            try {
+                cipher = secrets.takeCipher();
+            } catch (KeyPermanentlyInvalidatedException e) {
+                Log.w(TAG, "Biometric secret key was invalidated by a biometric enrollment");
+                secrets.invalidate();
+                promise.reject("ERR_BIOMETRIC_KEY_INVALIDATED",
+                        "Biometric enrollment changed; stored biometric secrets were deleted");
+                return;
+            } catch (Exception e) {
+                Log.e(TAG, "Error preparing biometric secret cipher: " + e.getMessage(), e);
+                promise.reject("ERR_BIOMETRIC_SECRET", "Failed to prepare biometric secret: " + e.getMessage());
+                return;
+            }
+
+            final BiometricPrompt.AuthenticationCallback callback = new BiometricPrompt.AuthenticationCallback() {
+                @Override
+                public void onAuthenticationError(int errorCode, CharSequence errString) {
+                    super.onAuthenticationError(errorCode, errString);
+                    if (isCancellation(errorCode)) {
+                        promise.reject("ERR_BIOMETRIC_CANCELED", "Biometric authentication was canceled");
+                    } else {
+                        rejectAuthenticationError(promise, errorCode, errString);
+                    }
+                    secrets.prepare(); // The Cipher was handed to this prompt; prepare one for the next
+                }
+
+                @Override
+                public void onAuthenticationSucceeded(BiometricPrompt.AuthenticationResult result) {
+                    super.onAuthenticationSucceeded(result);
+                    BiometricPrompt.CryptoObject cryptoObject = result.getCryptoObject();
+                    byte[] plaintext = null;
+                    try {
+                        if (cryptoObject == null || cryptoObject.getCipher() == null) {
+                            throw new IllegalStateException("Prompt returned no Cipher");
+                        }
+                        plaintext = secrets.open(cryptoObject.getCipher(), key, record);
+                        promise.resolve(new String(plaintext, StandardCharsets.UTF_8));
+                    } catch (Exception e) {
+                        Log.e(TAG, "Error decrypting biometric secret: " + e.getMessage(), e);
+                        promise.reject("ERR_BIOMETRIC_SECRET", "Failed to decrypt biometric secret: " + e.getMessage());
+                    } finally {
+                        if (plaintext != null) {
+                            Arrays.fill(plaintext, (byte) 0);
+                        }
+                    }
+                    secrets.prepare();
+                }
+
+                @Override
+                public void onAuthenticationFailed() {
+                    super.onAuthenticationFailed();
+                    // Not recognized; the prompt stays up for another attempt
+                    Log.d(TAG, "Biometric authentication failed - not recognized");
+                }
+            };
+
+            mainHandler.post(() -> {
+                TrackedPromise.markStarted(promise);
+                try {
+                    new BiometricPrompt(activity, executor, callback)
+                            .authenticate(promptInfo, new BiometricPrompt.CryptoObject(cipher));
+                } catch (Exception e) {
+                    Log.e(TAG, "Error displaying biometric prompt: " + e.getMessage(), e);
+                    promise.reject("ERR_BIOMETRIC_PROMPT", "Error displaying biometric prompt: " + e.getMessage());
+                }
+            });
+        });
+    }
+
+    /**
+     * Deletes a secret stored with setBiometricSecret
+     *
+     * @param key Name the secret was stored under
+     * @param jsPromise Promise to resolve with true if the secret is gone
+     */
+    @ReactMethod
+    public void removeBiometricSecret(String key, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "removeBiometricSecret", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
+        }
+
+        executor.execute(() -> {
+            TrackedPromise.markStarted(promise);
+            if (secrets.remove(key)) {
+                promise.resolve(true);
+            } else {
+                promise.reject("ERR_BIOMETRIC_SECRET", "Failed to remove biometric secret");
+            }
+        });
+    }
+
+    /**
+     * Reads the prompt texts from the JS options, falling back to defaults
+     */
+    private static BiometricPrompt.PromptInfo.Builder buildPromptInfo(ReadableMap options) {
+        String title = options != null && options.hasKey("title") ? options.getString("title") : "Biometric Authentication";
+        String subtitle = options != null && options.hasKey("subtitle") ? options.getString("subtitle") : "Confirm your identity";
+        String description = options != null && options.hasKey("description") ? options.getString("description") : "Use your biometric to authenticate";
+        String cancelButtonText = options != null && options.hasKey("cancelButtonText") ? options.getString("cancelButtonText") : "Cancel";
+
+        return new BiometricPrompt.PromptInfo.Builder()
+            .setTitle(title)
+            .setSubtitle(subtitle)
+            .setDescription(description)
+            .setNegativeButtonText(cancelButtonText)
+            .setConfirmationRequired(true);
+    }
+
+    private static boolean isCancellation(int errorCode) {
+        return errorCode == BiometricPrompt.ERROR_NEGATIVE_BUTTON || errorCode == BiometricPrompt.ERROR_USER_CANCELED;
+    }
+
+    /**
+     * Rejects with the error code JS expects for a prompt error other than a cancellation
+     */
+    private static void rejectAuthenticationError(Promise promise, int errorCode, CharSequence errString) {
+        switch (errorCode) {
+            case BiometricPrompt.ERROR_LOCKOUT:
+                promise.reject("ERR_BIOMETRIC_LOCKOUT", 
+                        "Too many attempts. Try again later.");
+                break;
+            case BiometricPrompt.ERROR_LOCKOUT_PERMANENT:
+                promise.reject("ERR_BIOMETRIC_LOCKOUT_PERMANENT", 
+                        "Too many attempts. Biometric authentication disabled.");
+                break;
+            case BiometricPrompt.ERROR_NO_BIOMETRICS:
+                promise.reject("ERR_NO_BIOMETRICS", 
+                        "No biometric features enrolled on this device.");
+                break;
+            default:
+                promise.reject("ERR_BIOMETRIC_" + errorCode, 
+                        "Authentication error: " + errString);
+                break;
+        }
+    }
+}
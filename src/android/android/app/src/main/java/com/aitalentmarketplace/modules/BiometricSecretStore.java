@@ -0,0 +1,202 @@
+package com.aitalentmarketplace.modules;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyPermanentlyInvalidatedException;
+import android.security.keystore.KeyProperties;
+import android.util.Base64;
+import android.util.Log;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.crypto.Cipher;
+
+/**
+ * Secrets that can only be read back through a biometric prompt. Each secret is sealed with
+ * WrappedSecret to an RSA key pair in the Android Keystore whose private key requires strong
+ * biometric authentication for every use, so storing a secret needs no prompt, and reading one
+ * needs the Cipher that BiometricPrompt unlocks. The sealed records are not readable without
+ * the key, so they are kept in plain SharedPreferences.
+ *
+ * Initializing the private key Cipher loads the Keystore and costs a Keystore round trip, so
+ * prepare() does it ahead of time and takeCipher() hands the prepared Cipher to the next prompt.
+ * A biometric enrollment permanently invalidates the key; the secrets sealed to it are then
+ * deleted, and have to be stored again.
+ */
+final class BiometricSecretStore {
+    private static final String TAG = "BiometricSecretStore";
+    private static final String ANDROID_KEYSTORE = "AndroidKeyStore";
+    private static final String KEY_ALIAS = "aitalentmarketplace_biometric_secret_key";
+    private static final int KEY_SIZE_BITS = 2048;
+    private static final String PREFERENCES_NAME = "biometric_secrets";
+
+    private final SharedPreferences preferences;
+    private final AtomicReference<Cipher> preparedCipher = new AtomicReference<>();
+
+    /**
+     * @param context Any context
+     */
+    BiometricSecretStore(Context context) {
+        this.preferences = context.getApplicationContext().getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * @return true if the device can create authentication-bound Keystore keys
+     */
+    static boolean isSupported() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.M;
+    }
+
+    /**
+     * Seals and stores a secret, generating the key pair on first use
+     *
+     * @param name Name to store the secret under
+     * @param plaintext Secret to store; not modified
+     * @throws GeneralSecurityException if the key cannot be generated or used
+     * @throws IOException if the Keystore cannot be loaded or the record cannot be written
+     */
+    synchronized void put(String name, byte[] plaintext) throws GeneralSecurityException, IOException {
+        byte[] record = WrappedSecret.seal(loadOrGeneratePublicKey(), name, plaintext);
+        if (!preferences.edit().putString(name, Base64.encodeToString(record, Base64.NO_WRAP)).commit()) {
+            throw new IOException("Failed to write biometric secret " + name);
+        }
+    }
+
+    /**
+     * @return The sealed record stored under the name, or null if there is none
+     */
+    byte[] getRecord(String name) {
+        String encoded = preferences.getString(name, null);
+        return encoded != null ? Base64.decode(encoded, Base64.NO_WRAP) : null;
+    }
+
+    /**
+     * @return true if the secret was removed or did not exist
+     */
+    synchronized boolean remove(String name) {
+        return preferences.edit().remove(name).commit();
+    }
+
+    /**
+     * Initializes the Cipher for the next prompt, unless one is already prepared or no secret
+     * has been stored yet. Meant for a background thread; failures are left for takeCipher()
+     * to report.
+     */
+    void prepare() {
+        if (preparedCipher.get() != null || preferences.getAll().isEmpty()) {
+            return;
+        }
+        try {
+            preparedCipher.compareAndSet(null, newCipher());
+        } catch (KeyPermanentlyInvalidatedException e) {
+            Log.w(TAG, "Biometric secret key was invalidated by a biometric enrollment");
+            invalidate();
+        } catch (GeneralSecurityException | IOException e) {
+            Log.w(TAG, "Failed to prepare biometric secret cipher: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the prepared Cipher, or initializes one if none is prepared. Each Cipher is
+     * handed out once, as a prompt consumes it.
+     *
+     * @throws KeyPermanentlyInvalidatedException if a biometric enrollment invalidated the key
+     * @throws GeneralSecurityException if the key is missing or cannot be used
+     * @throws IOException if the Keystore cannot be loaded
+     */
+    Cipher takeCipher() throws GeneralSecurityException, IOException {
+        Cipher cipher = preparedCipher.getAndSet(null);
+        return cipher != null ? cipher : newCipher();
+    }
+
+    /**
+     * Opens a sealed record with a Cipher the user has unlocked
+     *
+     * @return The plaintext; zero it when done
+     * @throws GeneralSecurityException if the Cipher is not unlocked or the record does not open
+     */
+    byte[] open(Cipher unlockedCipher, String name, byte[] record) throws GeneralSecurityException {
+        return WrappedSecret.open(unlockedCipher, name, record);
+    }
+
+    /**
+     * Deletes the key and every secret sealed to it, once the key can no longer be used
+     */
+    synchronized void invalidate() {
+        preparedCipher.set(null);
+        try {
+            KeyStore keyStore = loadKeyStore();
+            if (keyStore.containsAlias(KEY_ALIAS)) {
+                keyStore.deleteEntry(KEY_ALIAS);
+            }
+        } catch (GeneralSecurityException | IOException e) {
+            Log.w(TAG, "Failed to delete invalidated biometric secret key: " + e.getMessage(), e);
+        }
+        if (!preferences.edit().clear().commit()) {
+            Log.w(TAG, "Failed to delete biometric secrets sealed to an invalidated key");
+        }
+    }
+
+    private Cipher newCipher() throws GeneralSecurityException, IOException {
+        PrivateKey key = (PrivateKey) loadKeyStore().getKey(KEY_ALIAS, null);
+        if (key == null) {
+            throw new GeneralSecurityException("No biometric secret key");
+        }
+        return WrappedSecret.newUnwrapCipher(key);
+    }
+
+    private PublicKey loadOrGeneratePublicKey() throws GeneralSecurityException, IOException {
+        KeyStore keyStore = loadKeyStore();
+        if (!keyStore.containsAlias(KEY_ALIAS)) {
+            generateKeyPair();
+        }
+        Certificate certificate = keyStore.getCertificate(KEY_ALIAS);
+        if (certificate == null) {
+            throw new GeneralSecurityException("No certificate for the biometric secret key");
+        }
+        // A software copy of the public key, so encryption runs outside the Keystore and can use
+        // the OAEP parameters the Keystore would reject for a public key operation
+        return KeyFactory.getInstance(KeyProperties.KEY_ALGORITHM_RSA)
+                .generatePublic(new X509EncodedKeySpec(certificate.getPublicKey().getEncoded()));
+    }
+
+    @SuppressWarnings("deprecation") // setUserAuthenticationValidityDurationSeconds before API 30
+    private static void generateKeyPair() throws GeneralSecurityException {
+        KeyGenParameterSpec.Builder builder = new KeyGenParameterSpec.Builder(KEY_ALIAS,
+                KeyProperties.PURPOSE_ENCRYPT | KeyProperties.PURPOSE_DECRYPT)
+                .setKeySize(KEY_SIZE_BITS)
+                .setBlockModes(KeyProperties.BLOCK_MODE_ECB)
+                .setEncryptionPaddings(KeyProperties.ENCRYPTION_PADDING_RSA_OAEP)
+                .setDigests(KeyProperties.DIGEST_SHA256)
+                .setUserAuthenticationRequired(true);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            builder.setInvalidatedByBiometricEnrollment(true);
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            builder.setUserAuthenticationParameters(0, KeyProperties.AUTH_BIOMETRIC_STRONG);
+        } else {
+            builder.setUserAuthenticationValidityDurationSeconds(-1); // Every use needs a CryptoObject prompt
+        }
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(KeyProperties.KEY_ALGORITHM_RSA, ANDROID_KEYSTORE);
+        generator.initialize(builder.build());
+        generator.generateKeyPair();
+    }
+
+    private static KeyStore loadKeyStore() throws GeneralSecurityException, IOException {
+        KeyStore keyStore = KeyStore.getInstance(ANDROID_KEYSTORE);
+        keyStore.load(null);
+        return keyStore;
+    }
+}
@@ -0,0 +1,361 @@
+package com.aitalentmarketplace.modules;
+
+import com.facebook.react.bridge.ReactContextBaseJavaModule; // React Native 0.72.x
+import com.facebook.react.bridge.ReactApplicationContext; // React Native 0.72.x
+import com.facebook.react.bridge.ReactMethod; // React Native 0.72.x
+import com.facebook.react.bridge.Promise; // React Native 0.72.x
+import com.facebook.react.bridge.ReadableMap; // React Native 0.72.x
+import com.facebook.react.bridge.WritableMap; // React Native 0.72.x
+import com.facebook.react.bridge.LifecycleEventListener; // React Native 0.72.x
+import com.facebook.react.bridge.Arguments; // React Native 0.72.x
+
+import com.aitalentmarketplace.NativeMetrics;
+import com.aitalentmarketplace.TrackedPromise;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Cache Module for React Native that keeps non-sensitive API responses (job listings, profiles)
+ * in a persistent on-disk cache with a time-to-live per entry and a total size budget.
+ *
+ * Each entry is its own file in the app's cache directory (see DiskCache), so reading one entry
+ * never loads or parses the others, and expiry is checked without reading the value at all.
+ * When the budget is exceeded the least recently used entries are evicted, and a sweep deletes
+ * expired entries every sweep interval while the app is in the foreground and once whenever it
+ * is backgrounded. Entries can be encrypted with the secure storage data key (see
+ * SecureStoreKeys), which is only unwrapped once an encrypted entry is used. All disk work runs
+ * on a dedicated StorageExecutor, so requests for one key run in the order they were made.
+ */
+public class CacheModule extends ReactContextBaseJavaModule implements LifecycleEventListener {
+    private static final String TAG = "CacheModule";
+    private static final String CACHE_DIRECTORY = "native_cache";
+    private static final int CACHE_READER_THREADS = 2;
+    private static final int CACHE_MAX_QUEUE_DEPTH = 256;
+    private static final long DEFAULT_MAX_BYTES = 16 * 1024 * 1024;
+    private static final long DEFAULT_SWEEP_INTERVAL_MS = 5 * 60 * 1000;
+
+    private final ReactApplicationContext reactContext;
+    private final StorageExecutor cacheExecutor;
+    private final DiskCache cache;
+    private final NativeMetrics metrics;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable periodicSweep = new Runnable() {
+        @Override
+        public void run() {
+            submitSweep();
+            mainHandler.postDelayed(this, sweepIntervalMs);
+        }
+    };
+    private volatile long sweepIntervalMs = DEFAULT_SWEEP_INTERVAL_MS;
+
+    /**
+     * Constructor for CacheModule
+     *
+     * @param reactContext The React Native application context
+     */
+    public CacheModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+        this.cacheExecutor = new StorageExecutor(TAG, CACHE_READER_THREADS, CACHE_MAX_QUEUE_DEPTH);
+        this.cache = new DiskCache(new File(reactContext.getCacheDir(), CACHE_DIRECTORY), DEFAULT_MAX_BYTES,
+                () -> SecureStoreKeys.getOrCreateBackend(reactContext)); // Index loads on first use
+        this.metrics = NativeMetrics.forModule(getName());
+        reactContext.addLifecycleEventListener(this);
+    }
+
+    /**
+     * Returns the name of this module for React Native
+     *
+     * @return Name of the module
+     */
+    @Override
+    public String getName() {
+        return "CacheModule";
+    }
+
+    /**
+     * Stops sweeping and shuts down the cache executor when the React instance is torn down
+     */
+    @Override
+    public void onCatalystInstanceDestroy() {
+        super.onCatalystInstanceDestroy();
+        reactContext.removeLifecycleEventListener(this);
+        mainHandler.removeCallbacks(periodicSweep);
+        cacheExecutor.shutdown();
+    }
+
+    /**
+     * Sweeps periodically while the app is in the foreground
+     */
+    @Override
+    public void onHostResume() {
+        mainHandler.removeCallbacks(periodicSweep);
+        mainHandler.postDelayed(periodicSweep, sweepIntervalMs);
+    }
+
+    /**
+     * Sweeps once as the app goes to the background, then stops until it returns
+     */
+    @Override
+    public void onHostPause() {
+        mainHandler.removeCallbacks(periodicSweep);
+        submitSweep();
+    }
+
+    @Override
+    public void onHostDestroy() {
+        mainHandler.removeCallbacks(periodicSweep);
+    }
+
+    /**
+     * Caches a value, replacing any previous value under the key
+     *
+     * @param key Key to cache the value under
+     * @param value Value to cache, typically JSON
+     * @param ttlMs Time-to-live in milliseconds; must be positive
+     * @param encrypted Whether to encrypt the value on disk with the secure storage data key
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void setItem(String key, String value, double ttlMs, boolean encrypted, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "setItem", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
+        }
+
+        if (value == null) {
+            promise.reject("ERR_INVALID_VALUE", "Value cannot be null");
+            return;
+        }
+
+        if (!(ttlMs > 0)) {
+            promise.reject("ERR_INVALID_VALUE", "TTL must be positive");
+            return;
+        }
+
+        submitWrite(key, promise, () -> {
+            try {
+                cache.put(key, value, (long) ttlMs, encrypted);
+                promise.resolve(true);
+            } catch (IllegalArgumentException e) {
+                promise.reject("ERR_INVALID_VALUE", e.getMessage());
+            } catch (Exception e) {
+                Log.e(TAG, "Error in setItem: " + e.getMessage(), e);
+                promise.reject("ERR_CACHE_EXCEPTION", "Failed to cache item: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Retrieves a cached value
+     *
+     * @param key Key of the value
+     * @param jsPromise Promise to resolve with the value, or null if it is absent or expired
+     */
+    @ReactMethod
+    public void getItem(String key, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getItem", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
+        }
+
+        submitRead(key, promise, () -> {
+            try {
+                promise.resolve(cache.get(key));
+            } catch (Exception e) {
+                Log.e(TAG, "Error in getItem: " + e.getMessage(), e);
+                promise.reject("ERR_CACHE_EXCEPTION", "Failed to get cached item: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Removes a cached value
+     *
+     * @param key Key of the value
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void removeItem(String key, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "removeItem", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
+        }
+
+        submitWrite(key, promise, () -> {
+            if (cache.remove(key)) {
+                promise.resolve(true);
+            } else {
+                promise.reject("ERR_STORAGE_FAILED", "Failed to remove cached item");
+            }
+        });
+    }
+
+    /**
+     * Removes every cached value
+     *
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void clear(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "clear", jsPromise);
+        submitWrite((Collection<String>) null, promise, () -> {
+            if (cache.clear()) {
+                promise.resolve(true);
+            } else {
+                promise.reject("ERR_STORAGE_FAILED", "Failed to clear the cache");
+            }
+        });
+    }
+
+    /**
+     * Configures the cache
+     *
+     * @param options Object with optional maxBytes (number; entries are evicted at once if the
+     *                cache is over the new budget) and sweepIntervalMs (number)
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void configure(ReadableMap options, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "configure", jsPromise);
+        final boolean resize = options.hasKey("maxBytes");
+        final long maxBytes;
+        final long intervalMs;
+        try {
+            maxBytes = resize ? (long) options.getDouble("maxBytes") : 0;
+            intervalMs = options.hasKey("sweepIntervalMs") ? (long) options.getDouble("sweepIntervalMs") : sweepIntervalMs;
+        } catch (Exception e) {
+            Log.e(TAG, "Error in configure: " + e.getMessage(), e);
+            promise.reject("ERR_INVALID_VALUE", "Failed to configure cache: " + e.getMessage());
+            return;
+        }
+
+        if ((resize && maxBytes <= 0) || intervalMs <= 0) {
+            promise.reject("ERR_INVALID_VALUE", "Cache size and sweep interval must be positive");
+            return;
+        }
+
+        sweepIntervalMs = intervalMs; // Takes effect from the next scheduled sweep
+        if (!resize) {
+            promise.resolve(true);
+            return;
+        }
+
+        submitWrite((Collection<String>) null, promise, () -> {
+            cache.setMaxBytes(maxBytes);
+            promise.resolve(true);
+        });
+    }
+
+    /**
+     * Returns the size and hit/miss counters of the cache
+     *
+     * @param jsPromise Promise to resolve with entries, totalBytes, maxBytes, hits, misses,
+     *                  evictions and expirations
+     */
+    @ReactMethod
+    public void getStats(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getStats", jsPromise);
+        submitRead((Collection<String>) null, promise, () -> {
+            try {
+                WritableMap stats = Arguments.createMap();
+                stats.putInt("entries", cache.size());
+                stats.putDouble("totalBytes", cache.getTotalBytes());
+                stats.putDouble("maxBytes", cache.getMaxBytes());
+                stats.putDouble("hits", cache.getHits());
+                stats.putDouble("misses", cache.getMisses());
+                stats.putDouble("evictions", cache.getEvictions());
+                stats.putDouble("expirations", cache.getExpirations());
+                promise.resolve(stats);
+            } catch (Exception e) {
+                Log.e(TAG, "Error in getStats: " + e.getMessage(), e);
+                promise.reject("ERR_STATS_UNAVAILABLE", "Failed to get cache stats: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Queues a sweep of expired entries, which runs alone like a clear
+     */
+    private void submitSweep() {
+        try {
+            cacheExecutor.submitWrite((Collection<String>) null, () -> {
+                try {
+                    int expired = cache.sweep();
+                    if (expired > 0) {
+                        Log.d(TAG, "Swept " + expired + " expired cache entries");
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "Error sweeping the cache: " + e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Cache executor rejected sweep: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queues a read of one key (or every key when null) on the cache executor, rejecting the
+     * promise if the queue is full
+     */
+    private void submitRead(String key, Promise promise, Runnable task) {
+        try {
+            cacheExecutor.submitRead(key, () -> {
+                TrackedPromise.markStarted(promise);
+                task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Cache executor rejected read: " + e.getMessage());
+            promise.reject("ERR_STORAGE_BUSY", "Cache is busy: " + e.getMessage());
+        }
+    }
+
+    private void submitRead(Collection<String> keys, Promise promise, Runnable task) {
+        try {
+            cacheExecutor.submitRead(keys, () -> {
+                TrackedPromise.markStarted(promise);
+                task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Cache executor rejected read: " + e.getMessage());
+            promise.reject("ERR_STORAGE_BUSY", "Cache is busy: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queues a write of one key (or every key when null) on the cache executor, rejecting the
+     * promise if the queue is full
+     */
+    private void submitWrite(String key, Promise promise, Runnable task) {
+        try {
+            cacheExecutor.submitWrite(key, () -> {
+                TrackedPromise.markStarted(promise);
+                task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Cache executor rejected write: " + e.getMessage());
+            promise.reject("ERR_STORAGE_BUSY", "Cache is busy: " + e.getMessage());
+        }
+    }
+
+    private void submitWrite(Collection<String> keys, Promise promise, Runnable task) {
+        try {
+            cacheExecutor.submitWrite(keys, () -> {
+                TrackedPromise.markStarted(promise);
+                task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Cache executor rejected write: " + e.getMessage());
+            promise.reject("ERR_STORAGE_BUSY", "Cache is busy: " + e.getMessage());
+        }
+    }
+}
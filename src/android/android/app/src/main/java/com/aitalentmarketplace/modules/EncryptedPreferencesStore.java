@@ -0,0 +1,112 @@
+package com.aitalentmarketplace.modules;
+
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SecureStore backed by an EncryptedSharedPreferences file. Stores are now kept in
+ * LogStructuredStore files; this remains for migrating existing preferences files and as a
+ * fallback when the log cannot be opened.
+ *
+ * The file also holds an encrypted SortedKeyIndex under a reserved key, updated in the same
+ * commit as the entries it describes. Enumerating keys then decrypts that one value instead
+ * of every key and value in the file, as SharedPreferences.getAll() does. Files written before
+ * the index existed are indexed once, on first use.
+ */
+final class EncryptedPreferencesStore implements SecureStore {
+    private static final String TAG = "EncryptedPreferencesStore";
+    private static final String KEY_INDEX_KEY = "\u0000key_index";
+
+    private final SharedPreferences preferences;
+    private SortedKeyIndex keyIndex; // Guarded by this; loaded lazily
+
+    EncryptedPreferencesStore(SharedPreferences preferences) {
+        this.preferences = preferences;
+    }
+
+    @Override
+    public String get(String key) {
+        if (KEY_INDEX_KEY.equals(key)) {
+            return null;
+        }
+        return preferences.getString(key, null);
+    }
+
+    @Override
+    public synchronized boolean apply(Map<String, String> entries) {
+        SortedKeyIndex nextIndex = loadKeyIndex().copy();
+        SharedPreferences.Editor editor = preferences.edit();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            if (KEY_INDEX_KEY.equals(entry.getKey())) {
+                continue;
+            }
+            if (entry.getValue() != null) {
+                editor.putString(entry.getKey(), entry.getValue());
+                nextIndex.add(entry.getKey());
+            } else {
+                editor.remove(entry.getKey());
+                nextIndex.remove(entry.getKey());
+            }
+        }
+        editor.putString(KEY_INDEX_KEY, nextIndex.encode());
+
+        boolean success = editor.commit(); // Using commit for synchronous write
+        if (success) {
+            keyIndex = nextIndex;
+        }
+        return success;
+    }
+
+    @Override
+    public synchronized boolean clear() {
+        boolean success = preferences.edit().clear().commit();
+        if (success) {
+            keyIndex = new SortedKeyIndex();
+        }
+        return success;
+    }
+
+    @Override
+    public synchronized List<String> keys() {
+        return loadKeyIndex().all();
+    }
+
+    @Override
+    public synchronized List<String> keysWithPrefix(String prefix) {
+        return loadKeyIndex().withPrefix(prefix);
+    }
+
+    /**
+     * Returns the in-memory key index, reading it from the file or rebuilding it on first use
+     */
+    private SortedKeyIndex loadKeyIndex() {
+        if (keyIndex != null) {
+            return keyIndex;
+        }
+
+        String encoded = preferences.getString(KEY_INDEX_KEY, null);
+        if (encoded != null) {
+            try {
+                keyIndex = SortedKeyIndex.decode(encoded);
+                return keyIndex;
+            } catch (IllegalArgumentException e) {
+                Log.w(TAG, "Discarding unreadable key index: " + e.getMessage());
+            }
+        }
+
+        // No usable index yet: pay the full decrypt once and persist the result
+        Set<String> storedKeys = new HashSet<>(preferences.getAll().keySet());
+        storedKeys.remove(KEY_INDEX_KEY);
+        SortedKeyIndex rebuilt = new SortedKeyIndex(storedKeys);
+        if (!preferences.edit().putString(KEY_INDEX_KEY, rebuilt.encode()).commit()) {
+            Log.w(TAG, "Failed to persist rebuilt key index");
+        }
+        keyIndex = rebuilt;
+        return keyIndex;
+    }
+}
@@ -0,0 +1,33 @@
+package com.aitalentmarketplace.modules;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+
+/**
+ * CryptoBackend over an Android Keystore key. The key material never enters the process;
+ * each operation runs inside the Keystore, and the cached per-thread Cipher only saves the
+ * provider lookup and Cipher construction in front of it.
+ */
+final class KeystoreCryptoBackend extends GcmCryptoBackend {
+    private final SecretKey key;
+
+    /**
+     * @param key Handle to an AES key in the Android Keystore, usable with AES/GCM/NoPadding
+     */
+    KeystoreCryptoBackend(SecretKey key) {
+        this.key = key;
+    }
+
+    @Override
+    SecretKey key() {
+        return key;
+    }
+
+    @Override
+    void initEncrypt(Cipher cipher, SecretKey key) throws GeneralSecurityException {
+        // Keystore keys require randomized encryption, so the Keystore picks the IV itself
+        cipher.init(Cipher.ENCRYPT_MODE, key);
+    }
+}
@@ -0,0 +1,102 @@
+package com.aitalentmarketplace.modules;
+
+import com.facebook.react.bridge.ReactContextBaseJavaModule; // React Native 0.72.x
+import com.facebook.react.bridge.ReactApplicationContext; // React Native 0.72.x
+import com.facebook.react.bridge.ReactMethod; // React Native 0.72.x
+import com.facebook.react.bridge.Promise; // React Native 0.72.x
+import com.facebook.react.bridge.WritableMap; // React Native 0.72.x
+import com.facebook.react.bridge.Arguments; // React Native 0.72.x
+
+import com.aitalentmarketplace.LatencyHistogram;
+import com.aitalentmarketplace.MethodMetrics;
+import com.aitalentmarketplace.NativeMetrics;
+
+import android.util.Log;
+
+import java.util.Map;
+
+/**
+ * React Native module that exposes the per-method call counts, error counts and latency
+ * histograms recorded by the app's other native modules (see NativeMetrics).
+ */
+public class NativeMetricsModule extends ReactContextBaseJavaModule {
+    private static final String TAG = "NativeMetricsModule";
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    /**
+     * Constructor for NativeMetricsModule
+     *
+     * @param reactContext The React Native application context
+     */
+    public NativeMetricsModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    /**
+     * Returns the name of this module for React Native
+     *
+     * @return Name of the module
+     */
+    @Override
+    public String getName() {
+        return "NativeMetricsModule";
+    }
+
+    /**
+     * Returns a snapshot of the metrics of every native method called so far
+     *
+     * @param promise Promise to resolve with a map of "Module.method" to { calls, errors,
+     *                errorsByCode, queueWait, execution }, where queueWait and execution hold
+     *                count, meanMs, p50Ms, p90Ms, p99Ms, p999Ms and maxMs
+     */
+    @ReactMethod
+    public void getNativeMetrics(Promise promise) {
+        try {
+            WritableMap snapshot = Arguments.createMap();
+            for (MethodMetrics method : NativeMetrics.snapshot()) {
+                WritableMap errorsByCode = Arguments.createMap();
+                for (Map.Entry<String, Long> entry : method.getErrorsByCode().entrySet()) {
+                    errorsByCode.putDouble(entry.getKey(), entry.getValue());
+                }
+
+                WritableMap entry = Arguments.createMap();
+                entry.putDouble("calls", method.getCalls());
+                entry.putDouble("errors", method.getErrors());
+                entry.putMap("errorsByCode", errorsByCode);
+                entry.putMap("queueWait", toLatencyMap(method.getQueueWait()));
+                entry.putMap("execution", toLatencyMap(method.getExecution()));
+                snapshot.putMap(method.getModule() + "." + method.getMethod(), entry);
+            }
+            promise.resolve(snapshot);
+        } catch (Exception e) {
+            Log.e(TAG, "Error in getNativeMetrics: " + e.getMessage(), e);
+            promise.reject("ERR_METRICS_UNAVAILABLE", "Failed to get native metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Clears every recorded metric, e.g. at the start of a measured scenario
+     *
+     * @param promise Promise to resolve once the metrics are cleared
+     */
+    @ReactMethod
+    public void resetNativeMetrics(Promise promise) {
+        NativeMetrics.resetAll();
+        promise.resolve(true);
+    }
+
+    /**
+     * Summarizes a histogram in milliseconds
+     */
+    private static WritableMap toLatencyMap(LatencyHistogram histogram) {
+        WritableMap latency = Arguments.createMap();
+        latency.putDouble("count", histogram.getCount());
+        latency.putDouble("meanMs", histogram.getMeanMicros() / MICROS_PER_MILLI);
+        latency.putDouble("p50Ms", histogram.getValueAtPercentile(50) / MICROS_PER_MILLI);
+        latency.putDouble("p90Ms", histogram.getValueAtPercentile(90) / MICROS_PER_MILLI);
+        latency.putDouble("p99Ms", histogram.getValueAtPercentile(99) / MICROS_PER_MILLI);
+        latency.putDouble("p999Ms", histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI);
+        latency.putDouble("maxMs", histogram.getMaxMicros() / MICROS_PER_MILLI);
+        return latency;
+    }
+}
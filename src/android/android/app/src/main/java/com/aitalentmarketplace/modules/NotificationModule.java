@@ -7,6 +7,12 @@ import com.facebook.react.bridge.Promise; // version 0.72.x
 import com.facebook.react.bridge.WritableMap; // version 0.72.x
 import com.facebook.react.bridge.Arguments; // version 0.72.x
 import com.facebook.react.bridge.ReadableMap; // version 0.72.x
+import com.facebook.react.bridge.ReadableArray; // version 0.72.x
+import com.facebook.react.bridge.WritableArray; // version 0.72.x
+import com.facebook.react.bridge.ReadableType; // version 0.72.x
+
+import com.aitalentmarketplace.NativeMetrics;
+import com.aitalentmarketplace.TrackedPromise;
 
 import androidx.core.app.NotificationCompat; // version 1.10.1
 import androidx.core.app.ActivityCompat; // version 1.10.1
@@ -25,7 +31,12 @@ import com.google.firebase.messaging.FirebaseMessaging; // version 23.1.2
 import com.google.firebase.messaging.FirebaseMessagingService; // version 23.1.2
 import com.google.firebase.iid.FirebaseInstanceId; // version 23.1.2
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -33,6 +44,14 @@ import java.util.concurrent.atomic.AtomicReference;
  * notification functionality for the AI Talent Marketplace Android app. It integrates 
  * with Firebase Cloud Messaging (FCM) for push notifications and Android's notification 
  * system for local notifications.
+ *
+ * Local notification IDs come from a NotificationIdRegistry rather than the clock, so a burst
+ * of notifications cannot overwrite each other. Notifications for the same server message or
+ * job are given the same ID, so a repeat delivery updates the one already shown. Bursts go
+ * through createLocalNotifications, which groups them and posts a capped number of children
+ * plus one summary per group (see NotificationBatch). Posts go through the process-wide
+ * NotificationPoster, which paces them to the rate Android accepts, keeps only the latest
+ * update of a notification still waiting, and posts higher priority channels first.
  */
 public class NotificationModule extends ReactContextBaseJavaModule {
     
@@ -43,9 +62,25 @@ public class NotificationModule extends ReactContextBaseJavaModule {
     private static final String CHANNEL_ID_MESSAGES = "messages";
     private static final String CHANNEL_ID_PAYMENTS = "payments";
     private static final String CHANNEL_ID_GENERAL = "general";
+    private static final String NOTIFICATION_IDS_FILE = "notification_ids";
+    private static final int MAX_NOTIFICATION_KEYS = 500;
+    // Writes changed notification ID mappings off the calling thread; shared by every instance
+    private static final Executor NOTIFICATION_IDS_WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "NotificationIdWriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Android keeps at most 50 notifications per app and rate-limits posting, so a burst only
+    // posts the most recent few of each group; the summary lists the rest
+    private static final int MAX_CHILDREN_PER_GROUP = 4;
+    private static final int MAX_SUMMARY_LINES = 5;
+    private static final String GROUP_KEY_PREFIX = "ai_talent_marketplace.";
     
     private ReactApplicationContext reactContext;
     private NotificationManager notificationManager;
+    private final NativeMetrics metrics;
+    private NotificationIdRegistry notificationIds; // Loaded on first use
+    private final NotificationPoster poster;
     
     /**
      * Constructor for NotificationModule that initializes the module with ReactApplicationContext.
@@ -56,7 +91,9 @@ public class NotificationModule extends ReactContextBaseJavaModule {
     public NotificationModule(ReactApplicationContext reactContext) {
         super(reactContext);
         this.reactContext = reactContext;
+        this.metrics = NativeMetrics.forModule(getName());
         notificationManager = (NotificationManager) reactContext.getSystemService(Context.NOTIFICATION_SERVICE);
+        poster = NotificationPoster.get(reactContext);
         createNotificationChannels();
         Log.d(TAG, "NotificationModule initialized");
     }
@@ -142,10 +179,11 @@ public class NotificationModule extends ReactContextBaseJavaModule {
      * Retrieves the current notification settings for the app.
      * Returns enabled status for the app overall and for each notification channel.
      *
-     * @param promise Promise to resolve with notification settings info
+     * @param jsPromise Promise to resolve with notification settings info
      */
     @ReactMethod
-    public void getNotificationSettings(Promise promise) {
+    public void getNotificationSettings(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getNotificationSettings", jsPromise);
         try {
             Log.d(TAG, "Getting notification settings");
             WritableMap settings = Arguments.createMap();
@@ -189,10 +227,11 @@ public class NotificationModule extends ReactContextBaseJavaModule {
      * Registers the device for Firebase Cloud Messaging push notifications.
      * Retrieves the FCM token and subscribes to the 'all' topic.
      *
-     * @param promise Promise to resolve with the FCM token
+     * @param jsPromise Promise to resolve with the FCM token
      */
     @ReactMethod
-    public void registerForPushNotifications(Promise promise) {
+    public void registerForPushNotifications(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "registerForPushNotifications", jsPromise);
         Log.d(TAG, "Registering for push notifications");
         try {
             FirebaseMessaging.getInstance().getToken()
@@ -228,10 +267,11 @@ public class NotificationModule extends ReactContextBaseJavaModule {
     /**
      * Retrieves the current Firebase Cloud Messaging token for the device.
      *
-     * @param promise Promise to resolve with the FCM token
+     * @param jsPromise Promise to resolve with the FCM token
      */
     @ReactMethod
-    public void getFirebaseToken(Promise promise) {
+    public void getFirebaseToken(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getFirebaseToken", jsPromise);
         Log.d(TAG, "Getting Firebase token");
         try {
             FirebaseMessaging.getInstance().getToken()
@@ -255,110 +295,274 @@ public class NotificationModule extends ReactContextBaseJavaModule {
     /**
      * Creates and displays a local notification.
      * Supports different notification channels and custom actions.
+     * A notification with a key (or a data.messageId or data.jobId) replaces the one previously
+     * shown for that key instead of adding another, and does not alert again.
      *
-     * @param notificationData Map containing notification details (title, body, channelId, data)
-     * @param promise Promise to resolve with the notification ID
+     * @param notificationData Map containing notification details (title, body, channelId, data, key)
+     * @param jsPromise Promise to resolve with the notification ID
      */
     @ReactMethod
-    public void createLocalNotification(ReadableMap notificationData, Promise promise) {
+    public void createLocalNotification(ReadableMap notificationData, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "createLocalNotification", jsPromise);
         try {
             Log.d(TAG, "Creating local notification");
             
-            // Extract notification data
-            String title = notificationData.hasKey("title") ? notificationData.getString("title") : "AI Talent Marketplace";
-            String body = notificationData.hasKey("body") ? notificationData.getString("body") : "";
-            String channelId = notificationData.hasKey("channelId") ? notificationData.getString("channelId") : CHANNEL_ID_GENERAL;
             ReadableMap data = notificationData.hasKey("data") ? notificationData.getMap("data") : null;
             
-            // Create a unique notification ID
-            int notificationId = (int) (System.currentTimeMillis() % Integer.MAX_VALUE);
-            
-            // Create an intent for when the notification is tapped
-            Intent intent = new Intent(reactContext, reactContext.getCurrentActivity().getClass());
-            intent.setFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+            // Reuse the ID of the notification shown for the same server ID, else allocate a new one
+            String notificationKey = notificationKeyOf(notificationData, data);
+            NotificationIdRegistry.Mapping mapping = notificationKey != null
+                    ? notificationIds().map(notificationKey)
+                    : new NotificationIdRegistry.Mapping(notificationIds().allocate(), false);
+            int notificationId = mapping.id;
             
-            // Add any custom data to the intent
-            if (data != null) {
-                intent.putExtra("notificationData", data.toString());
-            }
+            NotificationCompat.Builder builder = buildNotification(notificationData, notificationId, mapping.existed);
             
-            PendingIntent pendingIntent = PendingIntent.getActivity(
-                    reactContext,
-                    notificationId,
-                    intent,
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-            );
+            // Show the notification, once the rate limit allows
+            poster.post(notificationId, priorityOf(channelIdOf(notificationData)), builder.build());
+            Log.d(TAG, "Local notification created with ID: " + notificationId);
             
-            // Build the notification
-            NotificationCompat.Builder builder = new NotificationCompat.Builder(reactContext, channelId)
-                    .setContentTitle(title)
-                    .setContentText(body)
-                    .setSmallIcon(reactContext.getResources().getIdentifier(
-                            "ic_notification", "drawable", reactContext.getPackageName()))
-                    .setContentIntent(pendingIntent)
-                    .setAutoCancel(true);
+            promise.resolve(notificationId);
+        } catch (Exception e) {
+            Log.e(TAG, "Error creating local notification: " + e.getMessage(), e);
+            promise.reject("notification_error", "Failed to create local notification", e);
+        }
+    }
+    
+    /**
+     * Creates several local notifications at once, e.g. the events received while offline.
+     * Notifications are grouped by their group (or data.conversationId, else their channel).
+     * Each group posts at most its four most recent notifications, plus an InboxStyle summary
+     * when it has more than one, so a burst costs a few NotificationManager calls instead of
+     * one per event. Keys work as in createLocalNotification, and a later notification in the
+     * array replaces an earlier one with the same key.
+     *
+     * @param notifications Array of notification maps as taken by createLocalNotification, oldest first
+     * @param jsPromise Promise to resolve with { notificationIds, summaryIds, posted }, where
+     *                  notificationIds holds the posted ID for each input (null when it was only
+     *                  listed in its group's summary or replaced by a later one)
+     */
+    @ReactMethod
+    public void createLocalNotifications(ReadableArray notifications, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "createLocalNotifications", jsPromise);
+        if (notifications == null) {
+            promise.reject("notification_error", "Notifications cannot be null");
+            return;
+        }
+        try {
+            List<ReadableMap> maps = new ArrayList<>(notifications.size());
+            List<NotificationBatch.Item> items = new ArrayList<>(notifications.size());
+            for (int i = 0; i < notifications.size(); i++) {
+                if (notifications.getType(i) != ReadableType.Map) {
+                    promise.reject("notification_error", "Notification at index " + i + " must be an object");
+                    return;
+                }
+                ReadableMap notificationData = notifications.getMap(i);
+                ReadableMap data = notificationData.hasKey("data") ? notificationData.getMap("data") : null;
+                maps.add(notificationData);
+                items.add(new NotificationBatch.Item(i,
+                        groupKeyOf(notificationData, data),
+                        notificationKeyOf(notificationData, data),
+                        stringValueOf(notificationData, "title"),
+                        notificationData.hasKey("body") ? notificationData.getString("body") : ""));
+            }
             
-            // Add actions if specified
-            if (notificationData.hasKey("actions")) {
-                ReadableMap actions = notificationData.getMap("actions");
-                
-                if (actions.hasKey("view") && actions.getBoolean("view")) {
-                    builder.addAction(
-                            android.R.drawable.ic_menu_view,
-                            "View",
-                            pendingIntent
-                    );
+            Integer[] notificationIds = new Integer[maps.size()];
+            WritableArray summaryIds = Arguments.createArray();
+            int posted = 0;
+            for (NotificationBatch.Group group : NotificationBatch.plan(items, MAX_CHILDREN_PER_GROUP)) {
+                String groupKey = GROUP_KEY_PREFIX + group.key;
+                for (NotificationBatch.Item item : group.posted) {
+                    NotificationIdRegistry.Mapping mapping = item.key != null
+                            ? notificationIds().map(item.key)
+                            : new NotificationIdRegistry.Mapping(notificationIds().allocate(), false);
+                    int notificationId = mapping.id;
+                    NotificationCompat.Builder builder = buildNotification(maps.get(item.index), notificationId, mapping.existed);
+                    if (group.needsSummary()) {
+                        // Only the summary alerts, once for the whole group
+                        builder.setGroup(groupKey)
+                                .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY);
+                    }
+                    poster.post(notificationId, priorityOf(channelIdOf(maps.get(item.index))), builder.build());
+                    notificationIds[item.index] = notificationId;
+                    posted++;
                 }
                 
-                if (actions.hasKey("dismiss") && actions.getBoolean("dismiss")) {
-                    Intent dismissIntent = new Intent(reactContext, DismissNotificationReceiver.class);
-                    dismissIntent.putExtra("notificationId", notificationId);
-                    PendingIntent dismissPendingIntent = PendingIntent.getBroadcast(
-                            reactContext,
-                            (int) (Math.random() * Integer.MAX_VALUE),
-                            dismissIntent,
-                            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-                    );
-                    
-                    builder.addAction(
-                            android.R.drawable.ic_menu_close_clear_cancel,
-                            "Dismiss",
-                            dismissPendingIntent
-                    );
+                if (group.needsSummary()) {
+                    int summaryId = notificationIds().summaryIdFor(group.key);
+                    ReadableMap latestData = maps.get(group.latest().index);
+                    poster.post(summaryId, priorityOf(channelIdOf(latestData)),
+                            buildGroupSummary(group, summaryId, groupKey, latestData));
+                    summaryIds.pushInt(summaryId);
+                    posted++;
                 }
             }
+            Log.d(TAG, "Created " + maps.size() + " local notifications with " + posted + " posts");
             
-            // Set priority based on channel
-            if (CHANNEL_ID_JOB_MATCHES.equals(channelId) || 
-                CHANNEL_ID_MESSAGES.equals(channelId) || 
-                CHANNEL_ID_PAYMENTS.equals(channelId)) {
-                builder.setPriority(NotificationCompat.PRIORITY_HIGH);
-            } else {
-                builder.setPriority(NotificationCompat.PRIORITY_DEFAULT);
+            WritableArray ids = Arguments.createArray();
+            for (Integer notificationId : notificationIds) {
+                if (notificationId != null) {
+                    ids.pushInt(notificationId);
+                } else {
+                    ids.pushNull();
+                }
             }
+            WritableMap result = Arguments.createMap();
+            result.putArray("notificationIds", ids);
+            result.putArray("summaryIds", summaryIds);
+            result.putInt("posted", posted);
+            promise.resolve(result);
+        } catch (Exception e) {
+            Log.e(TAG, "Error creating local notifications: " + e.getMessage(), e);
+            promise.reject("notification_error", "Failed to create local notifications", e);
+        }
+    }
+    
+    /**
+     * Builds the InboxStyle summary of a group, which opens like its most recent notification
+     *
+     * @param group Group to summarize
+     * @param summaryId ID the summary will be posted under
+     * @param groupKey Key passed to setGroup for the group's children
+     * @param latestData JS description of the group's most recent notification
+     */
+    private android.app.Notification buildGroupSummary(NotificationBatch.Group group, int summaryId,
+                                                       String groupKey, ReadableMap latestData) {
+        String commonTitle = group.commonTitle();
+        String title = commonTitle != null ? commonTitle : group.size() + " new notifications";
+        
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle()
+                .setBigContentTitle(title);
+        for (String line : group.summaryLines(MAX_SUMMARY_LINES)) {
+            style.addLine(line);
+        }
+        if (group.size() > MAX_SUMMARY_LINES) {
+            style.setSummaryText("+" + (group.size() - MAX_SUMMARY_LINES) + " more");
+        }
+        
+        // Starts from the latest notification for its channel, tap intent and priority
+        return buildNotification(latestData, summaryId, true)
+                .setContentTitle(title)
+                .setContentText(group.latest().text)
+                .setStyle(style)
+                .setNumber(group.size())
+                .setGroup(groupKey)
+                .setGroupSummary(true)
+                .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
+                .setOnlyAlertOnce(false)
+                .build();
+    }
+    
+    /**
+     * Builds a local notification from its JS description: content, tap intent, actions and
+     * priority for its channel
+     *
+     * @param notificationData Map containing notification details (title, body, channelId, data, actions)
+     * @param notificationId ID the notification will be posted under
+     * @param isUpdate true if it replaces a notification already shown, so it does not alert again
+     */
+    private NotificationCompat.Builder buildNotification(ReadableMap notificationData, int notificationId, boolean isUpdate) {
+        // Extract notification data
+        String title = notificationData.hasKey("title") ? notificationData.getString("title") : "AI Talent Marketplace";
+        String body = notificationData.hasKey("body") ? notificationData.getString("body") : "";
+        String channelId = channelIdOf(notificationData);
+        ReadableMap data = notificationData.hasKey("data") ? notificationData.getMap("data") : null;
+        
+        // Create an intent for when the notification is tapped. The launcher activity is used
+        // rather than the current one, which is null while the app is in the background.
+        Intent intent = reactContext.getPackageManager().getLaunchIntentForPackage(reactContext.getPackageName());
+        if (intent == null) {
+            intent = new Intent(Intent.ACTION_MAIN).setPackage(reactContext.getPackageName());
+        }
+        intent.setFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+        
+        // Add any custom data to the intent
+        if (data != null) {
+            intent.putExtra("notificationData", data.toString());
+        }
+        
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+                reactContext,
+                notificationId,
+                intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+        
+        // Build the notification
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(reactContext, channelId)
+                .setContentTitle(title)
+                .setContentText(body)
+                .setSmallIcon(reactContext.getResources().getIdentifier(
+                        "ic_notification", "drawable", reactContext.getPackageName()))
+                .setContentIntent(pendingIntent)
+                .setOnlyAlertOnce(isUpdate)
+                .setAutoCancel(true);
+        
+        // Add actions if specified
+        if (notificationData.hasKey("actions")) {
+            ReadableMap actions = notificationData.getMap("actions");
             
-            // Show the notification
-            notificationManager.notify(notificationId, builder.build());
-            Log.d(TAG, "Local notification created with ID: " + notificationId);
+            if (actions.hasKey("view") && actions.getBoolean("view")) {
+                builder.addAction(
+                        android.R.drawable.ic_menu_view,
+                        "View",
+                        pendingIntent
+                );
+            }
             
-            promise.resolve(notificationId);
-        } catch (Exception e) {
-            Log.e(TAG, "Error creating local notification: " + e.getMessage(), e);
-            promise.reject("notification_error", "Failed to create local notification", e);
+            if (actions.hasKey("dismiss") && actions.getBoolean("dismiss")) {
+                Intent dismissIntent = new Intent(reactContext, DismissNotificationReceiver.class);
+                dismissIntent.putExtra("notificationId", notificationId);
+                PendingIntent dismissPendingIntent = PendingIntent.getBroadcast(
+                        reactContext,
+                        (int) (Math.random() * Integer.MAX_VALUE),
+                        dismissIntent,
+                        PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+                );
+                
+                builder.addAction(
+                        android.R.drawable.ic_menu_close_clear_cancel,
+                        "Dismiss",
+                        dismissPendingIntent
+                );
+            }
         }
+        
+        // Set priority based on channel
+        builder.setPriority(priorityOf(channelId));
+        
+        return builder;
+    }
+    
+    private static String channelIdOf(ReadableMap notificationData) {
+        return notificationData.hasKey("channelId") ? notificationData.getString("channelId") : CHANNEL_ID_GENERAL;
+    }
+    
+    /**
+     * Returns the priority of a channel's notifications, which also orders posts waiting for
+     * the rate limit
+     */
+    private static int priorityOf(String channelId) {
+        if (CHANNEL_ID_JOB_MATCHES.equals(channelId) || 
+            CHANNEL_ID_MESSAGES.equals(channelId) || 
+            CHANNEL_ID_PAYMENTS.equals(channelId)) {
+            return NotificationCompat.PRIORITY_HIGH;
+        }
+        return NotificationCompat.PRIORITY_DEFAULT;
     }
     
     /**
      * Cancels a specific notification by ID.
      *
      * @param notificationId ID of the notification to cancel
-     * @param promise Promise to resolve with success status
+     * @param jsPromise Promise to resolve with success status
      */
     @ReactMethod
-    public void cancelNotification(int notificationId, Promise promise) {
+    public void cancelNotification(int notificationId, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "cancelNotification", jsPromise);
         try {
             Log.d(TAG, "Cancelling notification with ID: " + notificationId);
-            notificationManager.cancel(notificationId);
+            poster.cancel(notificationId);
             promise.resolve(true);
         } catch (Exception e) {
             Log.e(TAG, "Error cancelling notification: " + e.getMessage(), e);
@@ -366,16 +570,40 @@ public class NotificationModule extends ReactContextBaseJavaModule {
         }
     }
     
+    /**
+     * Cancels the notification shown for a server message or job ID and forgets its ID.
+     *
+     * @param notificationKey Key passed to createLocalNotification, or "message:<id>" / "job:<id>"
+     *                        for notifications keyed by data.messageId / data.jobId
+     * @param jsPromise Promise to resolve with true if a notification was mapped to the key
+     */
+    @ReactMethod
+    public void cancelNotificationByKey(String notificationKey, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "cancelNotificationByKey", jsPromise);
+        try {
+            Integer notificationId = notificationKey != null ? notificationIds().forget(notificationKey) : null;
+            if (notificationId != null) {
+                Log.d(TAG, "Cancelling notification with ID: " + notificationId);
+                poster.cancel(notificationId);
+            }
+            promise.resolve(notificationId != null);
+        } catch (Exception e) {
+            Log.e(TAG, "Error cancelling notification: " + e.getMessage(), e);
+            promise.reject("cancel_notification_error", "Failed to cancel notification", e);
+        }
+    }
+    
     /**
      * Cancels all pending notifications.
      *
-     * @param promise Promise to resolve with success status
+     * @param jsPromise Promise to resolve with success status
      */
     @ReactMethod
-    public void cancelAllNotifications(Promise promise) {
+    public void cancelAllNotifications(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "cancelAllNotifications", jsPromise);
         try {
             Log.d(TAG, "Cancelling all notifications");
-            notificationManager.cancelAll();
+            poster.cancelAll();
             promise.resolve(true);
         } catch (Exception e) {
             Log.e(TAG, "Error cancelling all notifications: " + e.getMessage(), e);
@@ -383,14 +611,40 @@ public class NotificationModule extends ReactContextBaseJavaModule {
         }
     }
     
+    /**
+     * Returns the counters of the notification post queue. Posts are deferred when they exceed
+     * the rate Android accepts, and coalesced when a newer update of the same notification
+     * replaced them while they waited.
+     *
+     * @param jsPromise Promise to resolve with { pending, offered, posted, deferred, coalesced }
+     */
+    @ReactMethod
+    public void getNotificationStats(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getNotificationStats", jsPromise);
+        try {
+            NotificationPostQueue<?> queue = poster.getQueue();
+            WritableMap stats = Arguments.createMap();
+            stats.putInt("pending", queue.getPendingCount());
+            stats.putDouble("offered", queue.getOffered());
+            stats.putDouble("posted", queue.getReleased());
+            stats.putDouble("deferred", queue.getDeferred());
+            stats.putDouble("coalesced", queue.getCoalesced());
+            promise.resolve(stats);
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting notification stats: " + e.getMessage(), e);
+            promise.reject("notification_error", "Failed to get notification stats", e);
+        }
+    }
+    
     /**
      * Opens the app's notification settings screen.
      * Uses appropriate settings Intent based on Android version.
      *
-     * @param promise Promise to resolve with success status
+     * @param jsPromise Promise to resolve with success status
      */
     @ReactMethod
-    public void openNotificationSettings(Promise promise) {
+    public void openNotificationSettings(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "openNotificationSettings", jsPromise);
         try {
             Log.d(TAG, "Opening notification settings");
             Intent intent;
@@ -422,10 +676,11 @@ public class NotificationModule extends ReactContextBaseJavaModule {
     /**
      * Checks if notifications are enabled for the app.
      *
-     * @param promise Promise to resolve with boolean result
+     * @param jsPromise Promise to resolve with boolean result
      */
     @ReactMethod
-    public void areNotificationsEnabled(Promise promise) {
+    public void areNotificationsEnabled(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "areNotificationsEnabled", jsPromise);
         try {
             boolean enabled = areNotificationsEnabledInternal();
             Log.d(TAG, "Notifications enabled: " + enabled);
@@ -454,10 +709,11 @@ public class NotificationModule extends ReactContextBaseJavaModule {
      * Subscribes the device to a Firebase Cloud Messaging topic.
      *
      * @param topic Topic name to subscribe to
-     * @param promise Promise to resolve with success status
+     * @param jsPromise Promise to resolve with success status
      */
     @ReactMethod
-    public void subscribeToTopic(String topic, Promise promise) {
+    public void subscribeToTopic(String topic, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "subscribeToTopic", jsPromise);
         try {
             Log.d(TAG, "Subscribing to topic: " + topic);
             FirebaseMessaging.getInstance().subscribeToTopic(topic)
@@ -482,10 +738,11 @@ public class NotificationModule extends ReactContextBaseJavaModule {
      * Unsubscribes the device from a Firebase Cloud Messaging topic.
      *
      * @param topic Topic name to unsubscribe from
-     * @param promise Promise to resolve with success status
+     * @param jsPromise Promise to resolve with success status
      */
     @ReactMethod
-    public void unsubscribeFromTopic(String topic, Promise promise) {
+    public void unsubscribeFromTopic(String topic, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "unsubscribeFromTopic", jsPromise);
         try {
             Log.d(TAG, "Unsubscribing from topic: " + topic);
             FirebaseMessaging.getInstance().unsubscribeFromTopic(topic)
@@ -506,6 +763,70 @@ public class NotificationModule extends ReactContextBaseJavaModule {
         }
     }
     
+    /**
+     * Returns the notification ID registry, loading it on first use
+     */
+    private synchronized NotificationIdRegistry notificationIds() {
+        if (notificationIds == null) {
+            notificationIds = new NotificationIdRegistry(
+                    new File(reactContext.getNoBackupFilesDir(), NOTIFICATION_IDS_FILE), MAX_NOTIFICATION_KEYS,
+                    NOTIFICATION_IDS_WRITER);
+        }
+        return notificationIds;
+    }
+    
+    /**
+     * Returns the group a notification is batched under: the explicit group, else its
+     * conversation, else its channel
+     */
+    private static String groupKeyOf(ReadableMap notificationData, ReadableMap data) {
+        String group = stringValueOf(notificationData, "group");
+        if (group != null) {
+            return group;
+        }
+        String conversationId = stringValueOf(data, "conversationId");
+        if (conversationId != null) {
+            return "conversation:" + conversationId;
+        }
+        String channelId = stringValueOf(notificationData, "channelId");
+        return "channel:" + (channelId != null ? channelId : CHANNEL_ID_GENERAL);
+    }
+    
+    /**
+     * Returns the key that identifies what a notification is about across deliveries: the
+     * explicit key, else the server message or job ID in its data, else null.
+     */
+    private static String notificationKeyOf(ReadableMap notificationData, ReadableMap data) {
+        String key = stringValueOf(notificationData, "key");
+        if (key != null) {
+            return key;
+        }
+        String messageId = stringValueOf(data, "messageId");
+        if (messageId != null) {
+            return "message:" + messageId;
+        }
+        String jobId = stringValueOf(data, "jobId");
+        return jobId != null ? "job:" + jobId : null;
+    }
+    
+    /**
+     * Reads a string or numeric ID from a map, or null if it is absent or empty
+     */
+    private static String stringValueOf(ReadableMap map, String name) {
+        if (map == null || !map.hasKey(name) || map.isNull(name)) {
+            return null;
+        }
+        if (map.getType(name) == ReadableType.Number) {
+            double number = map.getDouble(name);
+            return number == Math.rint(number) ? Long.toString((long) number) : Double.toString(number);
+        }
+        if (map.getType(name) == ReadableType.String) {
+            String value = map.getString(name);
+            return value.isEmpty() ? null : value;
+        }
+        return null;
+    }
+    
     /**
      * Helper BroadcastReceiver class for dismissing notifications.
      * This is used by the "Dismiss" action in notifications.
@@ -515,9 +836,8 @@ public class NotificationModule extends ReactContextBaseJavaModule {
         public void onReceive(Context context, Intent intent) {
             int notificationId = intent.getIntExtra("notificationId", -1);
             if (notificationId != -1) {
-                NotificationManager notificationManager = 
-                        (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-                notificationManager.cancel(notificationId);
+                // Also drops an update still waiting to be posted, which would bring it back
+                NotificationPoster.get(context).cancel(notificationId);
             }
         }
     }
@@ -0,0 +1,150 @@
+package com.aitalentmarketplace.modules;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.aitalentmarketplace.NativeMetrics;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Posts local notifications through a NotificationPostQueue, so bursts are paced to what
+ * Android accepts instead of being dropped by the system. Posts that fit the rate go out right
+ * away on the poster thread; the rest wait there, coalesced by ID, and go out highest priority
+ * first as tokens free up.
+ *
+ * Posts, cancellations and drains all run on the poster thread in the order they were made, so
+ * a cancel can never be overtaken by a post that was queued before it: either the post is still
+ * pending and is dropped, or it has already been shown and is cancelled.
+ *
+ * The rate limit applies to the whole app, so there is one poster per process, shared by every
+ * React instance. Each post is recorded as the "notify" method of the NotificationModule
+ * metrics, with the time it waited in the queue as its queue wait.
+ */
+final class NotificationPoster {
+    private static final String TAG = "NotificationPoster";
+    // Android drops updates beyond about ten per second; stay below that
+    private static final int BURST_SIZE = 8;
+    private static final double POSTS_PER_SECOND = 8;
+
+    private static NotificationPoster instance; // Guarded by NotificationPoster.class
+
+    private final NotificationManager notificationManager;
+    private final NotificationPostQueue<Notification> queue =
+            new NotificationPostQueue<>(BURST_SIZE, POSTS_PER_SECOND, SystemClock.elapsedRealtime());
+    private final NativeMetrics metrics = NativeMetrics.forModule("NotificationModule");
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "NotificationPoster");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private final Runnable drain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    private NotificationPoster(Context context) {
+        this.notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+    }
+
+    /**
+     * @param context Any context
+     * @return The process-wide poster
+     */
+    static synchronized NotificationPoster get(Context context) {
+        if (instance == null) {
+            instance = new NotificationPoster(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Queues a notification, replacing one still waiting with the same ID
+     *
+     * @param notificationId ID to post the notification under
+     * @param priority Release priority; higher goes first when posts have to wait
+     * @param notification Notification to post
+     */
+    void post(final int notificationId, final int priority, final Notification notification) {
+        final long queuedAt = SystemClock.elapsedRealtime();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                boolean due = queue.offer(notificationId, priority, notification, queuedAt);
+                scheduleDrain(due ? 0 : queue.delayMillis(SystemClock.elapsedRealtime()));
+            }
+        });
+    }
+
+    /**
+     * Cancels a notification, including a post of it still waiting in the queue
+     */
+    void cancel(final int notificationId) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                queue.remove(notificationId);
+                notificationManager.cancel(notificationId);
+            }
+        });
+    }
+
+    /**
+     * Cancels every notification of the app, including the posts still waiting in the queue
+     */
+    void cancelAll() {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                queue.clear();
+                notificationManager.cancelAll();
+            }
+        });
+    }
+
+    /**
+     * @return The queue, for its counters
+     */
+    NotificationPostQueue<Notification> getQueue() {
+        return queue;
+    }
+
+    private void scheduleDrain(long delayMillis) {
+        if (delayMillis >= 0 && drainScheduled.compareAndSet(false, true)) {
+            executor.schedule(drain, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        long now = SystemClock.elapsedRealtime();
+        List<NotificationPostQueue.Post<Notification>> posts = queue.take(now);
+        for (NotificationPostQueue.Post<Notification> post : posts) {
+            long started = System.nanoTime();
+            String errorCode = null;
+            try {
+                notificationManager.notify(post.id, post.notification);
+            } catch (RuntimeException e) {
+                errorCode = "notification_error";
+                Log.e(TAG, "Error posting notification " + post.id + ": " + e.getMessage(), e);
+            }
+            metrics.method("notify").record(TimeUnit.MILLISECONDS.toNanos(now - post.queuedAtMillis),
+                    System.nanoTime() - started, errorCode);
+        }
+        scheduleDrain(queue.delayMillis(SystemClock.elapsedRealtime()));
+    }
+}
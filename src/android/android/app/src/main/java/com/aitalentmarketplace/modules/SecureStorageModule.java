@@ -5,48 +5,105 @@ import com.facebook.react.bridge.ReactApplicationContext; // React Native 0.72.x
 import com.facebook.react.bridge.ReactMethod; // React Native 0.72.x
 import com.facebook.react.bridge.Promise; // React Native 0.72.x
 import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.Arguments;
+import com.facebook.react.modules.core.DeviceEventManagerModule; // React Native 0.72.x
+
+import com.aitalentmarketplace.NativeMetrics;
+import com.aitalentmarketplace.TrackedPromise;
 
-import androidx.security.crypto.EncryptedSharedPreferences; // androidx.security:security-crypto:1.1.0-alpha06
-import androidx.security.crypto.MasterKey; // androidx.security:security-crypto:1.1.0-alpha06
 import androidx.security.crypto.MasterKeys; // androidx.security:security-crypto:1.1.0-alpha06
 
-import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Base64;
 import android.util.Log;
+import android.view.Choreographer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.security.KeyStore;
-import java.io.IOException;
-import java.security.GeneralSecurityException;
 
 /**
  * Secure Storage Module for React Native that provides encrypted storage capabilities
- * using Android's EncryptedSharedPreferences with AES-256 encryption
+ * using an append-only log of AES-256-GCM records keyed by the Android Keystore.
+ *
+ * Every method takes a service namespace, and each service is kept in its own encrypted store
+ * (see SecureStoreRegistry, which also migrates data written by earlier versions to
+ * EncryptedSharedPreferences). Stores encrypt through the CryptoBackend from SecureStoreKeys,
+ * which caches a Cipher per thread instead of creating one per operation, and encrypts values
+ * under a data key unwrapped from the Keystore once per session. The data key is wiped when
+ * the React instance is torn down and after the app has spent the data key idle timeout in
+ * the background. All storage work runs on a dedicated StorageExecutor rather than the React
+ * native-modules thread, so slow commits do not hold up calls to other native modules. Binary
+ * values (setBytes) are kept as raw bytes in their own blob files rather than as base64
+ * strings. Decrypted values can optionally be kept in a zeroizing in-memory cache, which is
+ * flushed when the app is backgrounded. JS can subscribe to changes of chosen keys instead of
+ * polling them: committed sets, removals and clears are batched by a ChangeBatcher and emitted
+ * as one SecureStorageChanged device event per frame, carrying keys but never values.
  */
-public class SecureStorageModule extends ReactContextBaseJavaModule {
+public class SecureStorageModule extends ReactContextBaseJavaModule implements LifecycleEventListener {
     private static final String TAG = "SecureStorageModule";
-    private static final String SHARED_PREFERENCES_NAME = "aitalentmarketplace_secure_storage";
     private static final String MASTER_KEY_ALIAS = "_androidx_security_master_key_";
+    private static final int STORAGE_READER_THREADS = 2;
+    private static final int STORAGE_MAX_QUEUE_DEPTH = 256;
+    private static final long STORE_WARMUP_TIMEOUT_MS = 10000;
+    private static final int DEFAULT_CACHE_MAX_ENTRIES = 32;
+    private static final long DEFAULT_CACHE_TTL_MS = 5 * 60 * 1000;
+    private static final long DEFAULT_DATA_KEY_IDLE_TIMEOUT_MS = 60 * 1000;
+    private static final String BLOB_KEY_PREFIX = "\u0000blob\u0000"; // Keeps blob and item keys apart in the executor
+    private static final String BYTES_NAME_PREFIX = "\u0000bytes\u0000"; // Keeps binary values and blobs apart in the blob store
+    private static final String CHANGE_EVENT = "SecureStorageChanged";
 
     private final ReactApplicationContext reactContext;
-    private SharedPreferences sharedPreferences;
+    private final StorageExecutor storageExecutor;
+    private final SecureStoreRegistry storeRegistry;
+    private final SecureValueCache valueCache;
+    private final HotValueSnapshot hotValues;
+    private final NativeMetrics metrics;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable wipeDataKey = SecureStoreKeys::wipeDataKey;
+    private final ChangeBatcher changes = new ChangeBatcher();
+    private final Choreographer.FrameCallback emitChanges = frameTimeNanos -> emitChanges();
+    private final Runnable scheduleChangeEvent = () -> Choreographer.getInstance().postFrameCallback(emitChanges);
+    private volatile long dataKeyIdleTimeoutMs = DEFAULT_DATA_KEY_IDLE_TIMEOUT_MS;
 
     /**
      * Constructor for SecureStorageModule
-     * 
+     *
      * @param reactContext The React Native application context
      */
     public SecureStorageModule(ReactApplicationContext reactContext) {
         super(reactContext);
         this.reactContext = reactContext;
-        this.sharedPreferences = null; // Will be lazily initialized
+        this.storageExecutor = new StorageExecutor(TAG, STORAGE_READER_THREADS, STORAGE_MAX_QUEUE_DEPTH);
+        this.storeRegistry = new SecureStoreRegistry(reactContext, STORE_WARMUP_TIMEOUT_MS); // Stores open lazily
+        this.valueCache = new SecureValueCache(); // Disabled until configureCache is called
+        this.hotValues = SecureStoreWarmup.hotValues();
+        this.metrics = NativeMetrics.forModule(getName());
+        reactContext.addLifecycleEventListener(this);
+        loadMissingHotValues();
     }
 
     /**
      * Returns the name of this module for React Native
-     * 
+     *
      * @return Name of the module
      */
     @Override
@@ -55,14 +112,56 @@ public class SecureStorageModule extends ReactContextBaseJavaModule {
     }
 
     /**
-     * Securely stores a key-value pair using EncryptedSharedPreferences
-     * 
+     * Stops the storage executor and wipes the data key when the React instance is torn down.
+     * Work already queued is still allowed to finish, unwrapping the key again if it must.
+     */
+    @Override
+    public void onCatalystInstanceDestroy() {
+        super.onCatalystInstanceDestroy();
+        reactContext.removeLifecycleEventListener(this);
+        mainHandler.removeCallbacks(wipeDataKey);
+        mainHandler.removeCallbacks(scheduleChangeEvent);
+        changes.reset();
+        valueCache.invalidateAll();
+        storageExecutor.shutdown();
+        SecureStoreKeys.wipeDataKey();
+    }
+
+    /**
+     * Keeps the data key if the app returns before its idle timeout; the cache refills on demand
+     */
+    @Override
+    public void onHostResume() {
+        mainHandler.removeCallbacks(wipeDataKey);
+    }
+
+    /**
+     * Wipes cached plaintext when the app goes to the background, and schedules the data key
+     * to be wiped once the app has stayed there for the idle timeout
+     */
+    @Override
+    public void onHostPause() {
+        valueCache.invalidateAll();
+        mainHandler.removeCallbacks(wipeDataKey);
+        mainHandler.postDelayed(wipeDataKey, dataKeyIdleTimeoutMs);
+    }
+
+    @Override
+    public void onHostDestroy() {
+        valueCache.invalidateAll();
+    }
+
+    /**
+     * Securely stores a key-value pair in the service's encrypted store
+     *
      * @param key Key to store the value under
      * @param value Value to be stored
-     * @param promise Promise to resolve/reject with the result
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve/reject with the result
      */
     @ReactMethod
-    public void setItem(String key, String value, Promise promise) {
+    public void setItem(String key, String value, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "setItem", jsPromise);
         if (key == null || key.isEmpty()) {
             promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
             return;
@@ -73,200 +172,1434 @@ public class SecureStorageModule extends ReactContextBaseJavaModule {
             return;
         }
 
-        try {
-            SharedPreferences prefs = getSecurePreferences();
-            if (prefs != null) {
-                SharedPreferences.Editor editor = prefs.edit();
-                editor.putString(key, value);
-                boolean success = editor.commit(); // Using commit for synchronous write
-                
-                if (success) {
-                    promise.resolve(true);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put(key, value);
+        writeEntries("setItem", service, entries, promise,
+                "Failed to write to secure storage", "Failed to store item securely: ");
+    }
+
+    /**
+     * Retrieves a securely stored value by its key
+     *
+     * @param key Key to retrieve the value for
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void getItem(String key, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getItem", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
+        }
+
+        final String scopedKey = SecureStoreRegistry.scopedKey(service, key);
+        String cached = valueCache.get(scopedKey);
+        if (cached != null) {
+            promise.resolve(cached);
+            return;
+        }
+
+        // Taken before queueing, so a write queued after this read but committed before it runs
+        // still invalidates the value it reads
+        final long cacheGeneration = valueCache.generation();
+        submitRead(scopedKey, promise, () -> {
+            try {
+                SecureStore store = storeRegistry.open(service);
+                if (store != null) {
+                    String value = store.get(key);
+                    valueCache.put(scopedKey, key, value, cacheGeneration);
+                    promise.resolve(value);
                 } else {
-                    promise.reject("ERR_STORAGE_FAILED", "Failed to write to secure storage");
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
                 }
-            } else {
-                promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+            } catch (Exception e) {
+                Log.e(TAG, "Error in getItem: " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), "Failed to get item securely: " + e.getMessage());
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error in setItem: " + e.getMessage(), e);
-            promise.reject("ERR_SECURITY_EXCEPTION", "Failed to store item securely: " + e.getMessage());
+        });
+    }
+
+    /**
+     * Removes a securely stored item by its key
+     *
+     * @param key Key to remove
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void removeItem(String key, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "removeItem", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
         }
+
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put(key, null);
+        writeEntries("removeItem", service, entries, promise,
+                "Failed to remove from secure storage", "Failed to remove item securely: ");
     }
 
     /**
-     * Retrieves a securely stored value by its key
-     * 
-     * @param key Key to retrieve the value for
-     * @param promise Promise to resolve/reject with the result
+     * Retrieves several securely stored values in a single bridge call.
+     * All lookups share one store instead of one promise per key.
+     *
+     * @param keys Array of keys to retrieve
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve with a map of key to value (null when absent)
      */
     @ReactMethod
-    public void getItem(String key, Promise promise) {
+    public void multiGet(ReadableArray keys, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "multiGet", jsPromise);
+        if (keys == null) {
+            promise.reject("ERR_INVALID_KEY", "Keys cannot be null");
+            return;
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            if (!isValidKey(keys, i)) {
+                promise.reject("ERR_INVALID_KEY", "Key at index " + i + " cannot be null or empty");
+                return;
+            }
+        }
+
+        final List<String> keyList = toKeyList(keys);
+        final List<String> scopedKeys = toScopedKeys(service, keyList);
+        if (valueCache.isEnabled()) {
+            WritableMap cachedResult = Arguments.createMap();
+            boolean allCached = true;
+            for (int i = 0; i < keyList.size(); i++) {
+                String cached = valueCache.get(scopedKeys.get(i));
+                if (cached == null) {
+                    allCached = false;
+                    break;
+                }
+                cachedResult.putString(keyList.get(i), cached);
+            }
+            if (allCached) {
+                promise.resolve(cachedResult);
+                return;
+            }
+        }
+
+        final long cacheGeneration = valueCache.generation(); // Before queueing, as in getItem
+        submitRead(scopedKeys, promise, () -> {
+            try {
+                SecureStore store = storeRegistry.open(service);
+                if (store != null) {
+                    WritableMap result = Arguments.createMap();
+                    for (int i = 0; i < keyList.size(); i++) {
+                        String key = keyList.get(i);
+                        String value = store.get(key);
+                        valueCache.put(scopedKeys.get(i), key, value, cacheGeneration);
+                        if (value != null) {
+                            result.putString(key, value);
+                        } else {
+                            result.putNull(key);
+                        }
+                    }
+                    promise.resolve(result);
+                } else {
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error in multiGet: " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), "Failed to get items securely: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Securely stores several key-value pairs in a single store transaction.
+     * Either every pair is committed or none are.
+     *
+     * @param pairs Array of [key, value] arrays to store
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void multiSet(ReadableArray pairs, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "multiSet", jsPromise);
+        if (pairs == null) {
+            promise.reject("ERR_INVALID_VALUE", "Pairs cannot be null");
+            return;
+        }
+
+        for (int i = 0; i < pairs.size(); i++) {
+            if (pairs.getType(i) != ReadableType.Array || pairs.getArray(i).size() != 2) {
+                promise.reject("ERR_INVALID_VALUE", "Entry at index " + i + " must be a [key, value] pair");
+                return;
+            }
+            ReadableArray pair = pairs.getArray(i);
+            if (!isValidKey(pair, 0)) {
+                promise.reject("ERR_INVALID_KEY", "Key at index " + i + " cannot be null or empty");
+                return;
+            }
+            if (pair.getType(1) != ReadableType.String) {
+                promise.reject("ERR_INVALID_VALUE", "Value at index " + i + " must be a string");
+                return;
+            }
+        }
+
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            ReadableArray pair = pairs.getArray(i);
+            entries.put(pair.getString(0), pair.getString(1));
+        }
+        writeEntries("multiSet", service, entries, promise,
+                "Failed to write to secure storage", "Failed to store items securely: ");
+    }
+
+    /**
+     * Removes several securely stored items in a single store transaction
+     *
+     * @param keys Array of keys to remove
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void multiRemove(ReadableArray keys, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "multiRemove", jsPromise);
+        if (keys == null) {
+            promise.reject("ERR_INVALID_KEY", "Keys cannot be null");
+            return;
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            if (!isValidKey(keys, i)) {
+                promise.reject("ERR_INVALID_KEY", "Key at index " + i + " cannot be null or empty");
+                return;
+            }
+        }
+
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (String key : toKeyList(keys)) {
+            entries.put(key, null);
+        }
+        writeEntries("multiRemove", service, entries, promise,
+                "Failed to remove from secure storage", "Failed to remove items securely: ");
+    }
+
+    /**
+     * Atomically replaces a value if it currently equals an expected value. Reading, comparing
+     * and writing happen in one task on the storage writer thread, so no other write to the key
+     * can interleave, and the outcome comes back in a single bridge call.
+     *
+     * @param key Key to update
+     * @param expected Value the key must currently hold; null means the key must be absent
+     * @param newValue Value to store; null removes the key
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve with { swapped, value }, where value is the value stored
+     *                after the call (the new value if swapped, otherwise the current one)
+     */
+    @ReactMethod
+    public void compareAndSet(String key, String expected, String newValue, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "compareAndSet", jsPromise);
         if (key == null || key.isEmpty()) {
             promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
             return;
         }
 
-        try {
-            SharedPreferences prefs = getSecurePreferences();
-            if (prefs != null) {
-                String value = prefs.getString(key, null);
-                promise.resolve(value);
-            } else {
-                promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+        submitUpdate("compareAndSet", service, key, new AtomicUpdate(newValue) {
+            @Override
+            boolean applies(String current) {
+                return expected == null ? current == null : expected.equals(current);
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error in getItem: " + e.getMessage(), e);
-            promise.reject("ERR_SECURITY_EXCEPTION", "Failed to get item securely: " + e.getMessage());
+
+            @Override
+            Object outcome(String previous, boolean written) {
+                WritableMap result = Arguments.createMap();
+                result.putBoolean("swapped", written);
+                result.putString("value", written ? newValue : previous);
+                return result;
+            }
+        }, promise);
+    }
+
+    /**
+     * Like compareAndSet, but when the swap applies also writes companion entries in the same
+     * store record. Used where a second key must never be seen out of step with the compared
+     * one, e.g. rotating the refresh token together with the auth token it was issued with:
+     * whoever observes the new refresh token can also read the new auth token.
+     *
+     * @param key Key to compare and update
+     * @param expected Value the key must currently hold; null means the key must be absent
+     * @param newValue Value to store; null removes the key
+     * @param companions Array of [key, value] arrays written only if the swap applies; a null
+     *                   value removes the key
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve with { swapped, value }, as compareAndSet does
+     */
+    @ReactMethod
+    public void compareAndSetWith(String key, String expected, String newValue, ReadableArray companions,
+                                  String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "compareAndSetWith", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
+        }
+
+        if (companions == null) {
+            promise.reject("ERR_INVALID_VALUE", "Companions cannot be null");
+            return;
         }
+
+        for (int i = 0; i < companions.size(); i++) {
+            if (companions.getType(i) != ReadableType.Array || companions.getArray(i).size() != 2) {
+                promise.reject("ERR_INVALID_VALUE", "Companion at index " + i + " must be a [key, value] pair");
+                return;
+            }
+            ReadableArray pair = companions.getArray(i);
+            if (!isValidKey(pair, 0) || key.equals(pair.getString(0))) {
+                promise.reject("ERR_INVALID_KEY", "Companion key at index " + i
+                        + " cannot be null, empty or the compared key");
+                return;
+            }
+            if (pair.getType(1) != ReadableType.String && pair.getType(1) != ReadableType.Null) {
+                promise.reject("ERR_INVALID_VALUE", "Companion value at index " + i + " must be a string or null");
+                return;
+            }
+        }
+
+        Map<String, String> extra = new LinkedHashMap<>();
+        for (int i = 0; i < companions.size(); i++) {
+            ReadableArray pair = companions.getArray(i);
+            extra.put(pair.getString(0), pair.getType(1) == ReadableType.Null ? null : pair.getString(1));
+        }
+
+        submitUpdate("compareAndSetWith", service, key, new AtomicUpdate(newValue, extra) {
+            @Override
+            boolean applies(String current) {
+                return expected == null ? current == null : expected.equals(current);
+            }
+
+            @Override
+            Object outcome(String previous, boolean written) {
+                WritableMap result = Arguments.createMap();
+                result.putBoolean("swapped", written);
+                result.putString("value", written ? newValue : previous);
+                return result;
+            }
+        }, promise);
     }
 
     /**
-     * Removes a securely stored item by its key
-     * 
-     * @param key Key to remove
-     * @param promise Promise to resolve/reject with the result
+     * Atomically stores a value and returns the one it replaced
+     *
+     * @param key Key to update
+     * @param value Value to store; null removes the key
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve with the previous value, or null if there was none
      */
     @ReactMethod
-    public void removeItem(String key, Promise promise) {
+    public void getAndSet(String key, String value, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getAndSet", jsPromise);
         if (key == null || key.isEmpty()) {
             promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
             return;
         }
 
-        try {
-            SharedPreferences prefs = getSecurePreferences();
-            if (prefs != null) {
-                SharedPreferences.Editor editor = prefs.edit();
-                editor.remove(key);
-                boolean success = editor.commit(); // Using commit for synchronous write
-                
-                if (success) {
+        submitUpdate("getAndSet", service, key, new AtomicUpdate(value) {
+            @Override
+            boolean applies(String current) {
+                return true;
+            }
+
+            @Override
+            Object outcome(String previous, boolean written) {
+                return previous;
+            }
+        }, promise);
+    }
+
+    /**
+     * Atomically stores a value only if the key has none
+     *
+     * @param key Key to set
+     * @param value Value to store
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve with { set, value }, where value is the value stored after the call
+     */
+    @ReactMethod
+    public void setIfAbsent(String key, String value, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "setIfAbsent", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
+        }
+
+        if (value == null) {
+            promise.reject("ERR_INVALID_VALUE", "Value cannot be null");
+            return;
+        }
+
+        submitUpdate("setIfAbsent", service, key, new AtomicUpdate(value) {
+            @Override
+            boolean applies(String current) {
+                return current == null;
+            }
+
+            @Override
+            Object outcome(String previous, boolean written) {
+                WritableMap result = Arguments.createMap();
+                result.putBoolean("set", written);
+                result.putString("value", written ? value : previous);
+                return result;
+            }
+        }, promise);
+    }
+
+    /**
+     * Returns all keys stored in a service's secure store, in ascending order.
+     * Keys come from the store's encrypted key index, so no values are decrypted.
+     *
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void getAllKeys(String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getAllKeys", jsPromise);
+        submitRead((Collection<String>) null, promise, () -> {
+            try {
+                SecureStore store = storeRegistry.open(service);
+                if (store != null) {
+                    promise.resolve(toWritableArray(store.keys()));
+                } else {
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error in getAllKeys: " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), "Failed to get all keys: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Returns the keys of a service's secure store that start with a prefix, in ascending order.
+     * Like getAllKeys, this scans the key index and decrypts no values.
+     *
+     * @param prefix Prefix to match; an empty prefix matches every key
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void getKeysWithPrefix(String prefix, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getKeysWithPrefix", jsPromise);
+        if (prefix == null) {
+            promise.reject("ERR_INVALID_KEY", "Prefix cannot be null");
+            return;
+        }
+
+        submitRead((Collection<String>) null, promise, () -> {
+            try {
+                SecureStore store = storeRegistry.open(service);
+                if (store != null) {
+                    promise.resolve(toWritableArray(store.keysWithPrefix(prefix)));
+                } else {
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error in getKeysWithPrefix: " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), "Failed to get keys with prefix: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Securely stores a large value as its own encrypted file, outside the service's item store.
+     * Suited to payloads such as cached profiles or offline job data, which would otherwise be
+     * rewritten along with every other secret.
+     *
+     * @param key Key to store the blob under; blobs and items have separate key spaces
+     * @param value Value to be stored
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void setBlob(String key, String value, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "setBlob", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
+        }
+
+        if (value == null) {
+            promise.reject("ERR_INVALID_VALUE", "Value cannot be null");
+            return;
+        }
+
+        submitWrite(blobExecutorKey(service, key), promise, () -> {
+            try {
+                BlobStore blobs = storeRegistry.openBlobs(service);
+                if (blobs != null) {
+                    blobs.put(key, value);
                     promise.resolve(true);
                 } else {
-                    promise.reject("ERR_STORAGE_FAILED", "Failed to remove from secure storage");
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
                 }
-            } else {
-                promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+            } catch (IllegalArgumentException e) {
+                promise.reject("ERR_INVALID_VALUE", e.getMessage());
+            } catch (Exception e) {
+                Log.e(TAG, "Error in setBlob: " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), "Failed to store blob securely: " + e.getMessage());
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error in removeItem: " + e.getMessage(), e);
-            promise.reject("ERR_SECURITY_EXCEPTION", "Failed to remove item securely: " + e.getMessage());
+        });
+    }
+
+    /**
+     * Retrieves a blob stored with setBlob. Only this blob's file is read and decrypted.
+     *
+     * @param key Key of the blob
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve with the value, or null if no blob is stored under the key
+     */
+    @ReactMethod
+    public void getBlob(String key, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getBlob", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
         }
+
+        submitRead(blobExecutorKey(service, key), promise, () -> {
+            try {
+                BlobStore blobs = storeRegistry.openBlobs(service);
+                if (blobs != null) {
+                    promise.resolve(blobs.get(key));
+                } else {
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error in getBlob: " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), "Failed to get blob securely: " + e.getMessage());
+            }
+        });
     }
 
     /**
-     * Returns all keys stored in the secure storage
-     * 
-     * @param promise Promise to resolve/reject with the result
+     * Removes a blob stored with setBlob
+     *
+     * @param key Key of the blob
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve/reject with the result
      */
     @ReactMethod
-    public void getAllKeys(Promise promise) {
-        try {
-            SharedPreferences prefs = getSecurePreferences();
-            if (prefs != null) {
-                Map<String, ?> allEntries = prefs.getAll();
-                Set<String> keySet = allEntries.keySet();
-                
-                WritableArray keyArray = Arguments.createArray();
-                for (String key : keySet) {
-                    keyArray.pushString(key);
+    public void removeBlob(String key, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "removeBlob", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
+        }
+
+        submitWrite(blobExecutorKey(service, key), promise, () -> {
+            try {
+                BlobStore blobs = storeRegistry.openBlobs(service);
+                if (blobs == null) {
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+                } else if (blobs.remove(key)) {
+                    promise.resolve(true);
+                } else {
+                    promise.reject("ERR_STORAGE_FAILED", "Failed to remove blob from secure storage");
                 }
-                
-                promise.resolve(keyArray);
-            } else {
-                promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+            } catch (Exception e) {
+                Log.e(TAG, "Error in removeBlob: " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), "Failed to remove blob securely: " + e.getMessage());
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error in getAllKeys: " + e.getMessage(), e);
-            promise.reject("ERR_SECURITY_EXCEPTION", "Failed to get all keys: " + e.getMessage());
+        });
+    }
+
+    /**
+     * Securely stores a binary value, such as key material or a signed attestation. The value
+     * crosses the bridge base64-encoded, the most compact form the legacy bridge carries, and is
+     * decoded here and stored as raw bytes in its own blob file, so it is neither held as a
+     * string nor inflated on disk.
+     *
+     * @param key Key to store the value under; binary values, blobs and items have separate key spaces
+     * @param base64Value Value to be stored, base64-encoded
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void setBytes(String key, String base64Value, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "setBytes", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
         }
+
+        if (base64Value == null) {
+            promise.reject("ERR_INVALID_VALUE", "Value cannot be null");
+            return;
+        }
+
+        submitWrite(bytesExecutorKey(service, key), promise, () -> {
+            byte[] value = null;
+            try {
+                value = Base64.decode(base64Value, Base64.DEFAULT);
+                BlobStore blobs = storeRegistry.openBlobs(service);
+                if (blobs != null) {
+                    blobs.put(BYTES_NAME_PREFIX + key, value);
+                    promise.resolve(true);
+                } else {
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+                }
+            } catch (IllegalArgumentException e) {
+                promise.reject("ERR_INVALID_VALUE", e.getMessage());
+            } catch (Exception e) {
+                Log.e(TAG, "Error in setBytes: " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), "Failed to store bytes securely: " + e.getMessage());
+            } finally {
+                if (value != null) {
+                    Arrays.fill(value, (byte) 0);
+                }
+            }
+        });
     }
 
     /**
-     * Clears all items from secure storage
-     * 
-     * @param promise Promise to resolve/reject with the result
+     * Retrieves a binary value stored with setBytes
+     *
+     * @param key Key of the value
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve with the value base64-encoded, or null if no value is
+     *                  stored under the key
      */
     @ReactMethod
-    public void clear(Promise promise) {
-        try {
-            SharedPreferences prefs = getSecurePreferences();
-            if (prefs != null) {
-                SharedPreferences.Editor editor = prefs.edit();
-                editor.clear();
-                boolean success = editor.commit(); // Using commit for synchronous write
-                
-                if (success) {
+    public void getBytes(String key, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getBytes", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
+        }
+
+        submitRead(bytesExecutorKey(service, key), promise, () -> {
+            byte[] value = null;
+            try {
+                BlobStore blobs = storeRegistry.openBlobs(service);
+                if (blobs != null) {
+                    value = blobs.getBytes(BYTES_NAME_PREFIX + key);
+                    promise.resolve(value != null ? Base64.encodeToString(value, Base64.NO_WRAP) : null);
+                } else {
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error in getBytes: " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), "Failed to get bytes securely: " + e.getMessage());
+            } finally {
+                if (value != null) {
+                    Arrays.fill(value, (byte) 0);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes a binary value stored with setBytes
+     *
+     * @param key Key of the value
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void removeBytes(String key, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "removeBytes", jsPromise);
+        if (key == null || key.isEmpty()) {
+            promise.reject("ERR_INVALID_KEY", "Key cannot be null or empty");
+            return;
+        }
+
+        submitWrite(bytesExecutorKey(service, key), promise, () -> {
+            try {
+                BlobStore blobs = storeRegistry.openBlobs(service);
+                if (blobs == null) {
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+                } else if (blobs.remove(BYTES_NAME_PREFIX + key)) {
                     promise.resolve(true);
                 } else {
-                    promise.reject("ERR_STORAGE_FAILED", "Failed to clear secure storage");
+                    promise.reject("ERR_STORAGE_FAILED", "Failed to remove bytes from secure storage");
                 }
-            } else {
-                promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+            } catch (Exception e) {
+                Log.e(TAG, "Error in removeBytes: " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), "Failed to remove bytes securely: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Clears all items, blobs and binary values from a service's secure store. Other services are not touched.
+     *
+     * @param service Service namespace; null or empty selects the default service
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void clear(String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "clear", jsPromise);
+        final List<String> serviceHotKeys = hotKeysOf(service);
+        valueCache.invalidateAll();
+        hotValues.markAbsent(serviceHotKeys);
+        boolean queued = submitWrite((Collection<String>) null, promise, () -> {
+            boolean success = false;
+            try {
+                SecureStore store = storeRegistry.open(service);
+                if (store != null) {
+                    BlobStore blobs = storeRegistry.openBlobs(service);
+                    success = store.clear();
+                    success &= blobs == null || blobs.clear();
+
+                    if (success) {
+                        publishChange(changes.recordClear(SecureStoreRegistry.normalizeService(service)));
+                        promise.resolve(true);
+                    } else {
+                        promise.reject("ERR_STORAGE_FAILED", "Failed to clear secure storage");
+                    }
+                } else {
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error in clear: " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), "Failed to clear secure storage: " + e.getMessage());
+            } finally {
+                for (String scopedKey : serviceHotKeys) {
+                    if (success) {
+                        hotValues.update(scopedKey, null);
+                    } else {
+                        hotValues.invalidate(scopedKey);
+                    }
+                }
+            }
+        });
+        if (!queued) {
+            for (String scopedKey : serviceHotKeys) {
+                hotValues.invalidate(scopedKey); // Marked absent for a clear that will never run
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error in clear: " + e.getMessage(), e);
-            promise.reject("ERR_SECURITY_EXCEPTION", "Failed to clear secure storage: " + e.getMessage());
         }
     }
 
     /**
      * Checks if KeyStore secure storage is available on the device
-     * 
-     * @param promise Promise to resolve with boolean indicating availability
+     *
+     * @param jsPromise Promise to resolve with boolean indicating availability
      */
     @ReactMethod
-    public void isKeyStoreAvailable(Promise promise) {
+    public void isKeyStoreAvailable(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "isKeyStoreAvailable", jsPromise);
+        submitRead((Collection<String>) null, promise, () -> {
+            try {
+                // Test KeyStore availability
+                KeyStore keyStore = KeyStore.getInstance("AndroidKeyStore");
+                keyStore.load(null);
+
+                // Try to open the default store to test full availability
+                SecureStore testStore = storeRegistry.open(null);
+                promise.resolve(testStore != null);
+            } catch (Exception e) {
+                Log.e(TAG, "KeyStore not available: " + e.getMessage(), e);
+                promise.resolve(false); // Resolve with false since this is a capability check
+            }
+        });
+    }
+
+    /**
+     * Returns contention statistics for the storage executor so slow storage calls can be
+     * attributed to queueing rather than encryption or disk I/O
+     *
+     * @param jsPromise Promise to resolve with queue depth, task counts, wait times, the
+     *                startup warm-up duration in milliseconds (-1 while the warm-up is running),
+     *                whether the data key is unwrapped, how often it was unwrapped, how many
+     *                values were still encrypted directly with the Keystore key, and how many
+     *                stores are still migrating in the background
+     */
+    @ReactMethod
+    public void getStorageStats(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getStorageStats", jsPromise);
         try {
-            // Test KeyStore availability
-            KeyStore keyStore = KeyStore.getInstance("AndroidKeyStore");
-            keyStore.load(null);
-            
-            // Try to initialize secure preferences to test full availability
-            SharedPreferences testPrefs = getSecurePreferences();
-            promise.resolve(testPrefs != null);
+            WritableMap stats = Arguments.createMap();
+            stats.putInt("queueDepth", storageExecutor.getQueueDepth());
+            stats.putInt("maxQueueDepth", storageExecutor.getMaxQueueDepth());
+            stats.putDouble("completedTasks", storageExecutor.getCompletedTasks());
+            stats.putDouble("rejectedTasks", storageExecutor.getRejectedTasks());
+            stats.putDouble("totalWaitMs", nanosToMillis(storageExecutor.getTotalWaitNanos()));
+            stats.putDouble("maxWaitMs", nanosToMillis(storageExecutor.getMaxWaitNanos()));
+            stats.putDouble("warmupMs", SecureStoreWarmup.getWarmupDurationMs());
+            EnvelopeCryptoBackend crypto = SecureStoreKeys.getBackendIfCreated();
+            stats.putBoolean("dataKeyUnwrapped", crypto != null && crypto.isUnwrapped());
+            stats.putDouble("dataKeyUnwraps", crypto != null ? crypto.getUnwraps() : 0);
+            stats.putDouble("legacyDecryptions", crypto != null ? crypto.getLegacyOpens() : 0);
+            stats.putInt("pendingMigrations", SecureStoreRegistry.getPendingMigrations());
+            promise.resolve(stats);
         } catch (Exception e) {
-            Log.e(TAG, "KeyStore not available: " + e.getMessage(), e);
-            promise.resolve(false); // Resolve with false since this is a capability check
+            Log.e(TAG, "Error in getStorageStats: " + e.getMessage(), e);
+            promise.reject("ERR_STATS_UNAVAILABLE", "Failed to get storage stats: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Synchronously returns the value of a hot key from the in-memory snapshot.
+     * Runs on the JS thread, so it never waits for the store: if the store is still
+     * initializing or the key's value has not been loaded yet, it throws immediately and
+     * callers should fall back to getItem.
+     *
+     * @param key Hot key registered through setHotKeys
+     * @param service Service namespace; null or empty selects the default service
+     * @return The stored value, or null if the key has no value
+     */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public String getItemSync(String key, String service) {
+        long calledAt = System.nanoTime();
+        String errorCode = null;
+        try {
+            return readHotValue(key, service);
+        } catch (RuntimeException e) {
+            errorCode = errorCodeOf(e);
+            throw e;
+        } finally {
+            metrics.method("getItemSync").record(0, System.nanoTime() - calledAt, errorCode);
+        }
+    }
+
+    /**
+     * Looks up a hot key for getItemSync, throwing with an "ERR_...: message" text when it cannot
+     */
+    private String readHotValue(String key, String service) {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("ERR_INVALID_KEY: Key cannot be null or empty");
         }
+
+        if (!SecureStoreWarmup.isReady()) {
+            throw new IllegalStateException("ERR_NOT_READY: Secure storage is still initializing");
+        }
+
+        String scopedKey = SecureStoreRegistry.scopedKey(service, key);
+        if (!hotValues.isHot(scopedKey)) {
+            throw new IllegalStateException("ERR_NOT_HOT_KEY: Key is not registered with setHotKeys");
+        }
+
+        HotValueSnapshot.Value snapshot = hotValues.lookup(scopedKey);
+        if (snapshot == null) {
+            reloadHotValue(scopedKey);
+            throw new IllegalStateException("ERR_NOT_READY: Key has not been loaded yet");
+        }
+        return snapshot.value;
     }
 
     /**
-     * Private helper method to get or create the EncryptedSharedPreferences instance
-     * 
-     * @return The encrypted shared preferences instance, or null if creation fails
+     * Registers the keys served by getItemSync and loads their values into memory.
+     * The key names are persisted so later launches preload them during the startup warm-up.
+     *
+     * @param keys Array of hot keys; replaces any previously registered set
+     * @param service Service namespace the keys belong to; null or empty selects the default service
+     * @param jsPromise Promise to resolve once the values are loaded
      */
-    private SharedPreferences getSecurePreferences() {
-        if (sharedPreferences != null) {
-            return sharedPreferences;
+    @ReactMethod
+    public void setHotKeys(ReadableArray keys, String service, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "setHotKeys", jsPromise);
+        if (keys == null) {
+            promise.reject("ERR_INVALID_KEY", "Keys cannot be null");
+            return;
         }
 
+        for (int i = 0; i < keys.size(); i++) {
+            if (!isValidKey(keys, i)) {
+                promise.reject("ERR_INVALID_KEY", "Key at index " + i + " cannot be null or empty");
+                return;
+            }
+        }
+
+        final List<String> keyList = toKeyList(keys);
+        final List<String> scopedKeys = toScopedKeys(service, keyList);
+        hotValues.setHotKeys(scopedKeys);
+        SecureStoreWarmup.persistHotKeys(reactContext, new LinkedHashSet<>(scopedKeys));
+
+        submitRead(scopedKeys, promise, () -> {
+            try {
+                SecureStore store = storeRegistry.open(service);
+                if (store != null) {
+                    for (int i = 0; i < keyList.size(); i++) {
+                        if (hotValues.lookup(scopedKeys.get(i)) == null) {
+                            hotValues.loadIfAbsent(scopedKeys.get(i), store.get(keyList.get(i)));
+                        }
+                    }
+                    promise.resolve(true);
+                } else {
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error in setHotKeys: " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), "Failed to load hot keys: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Enables, reconfigures or disables the in-memory cache of decrypted values.
+     * Reconfiguring wipes everything currently cached.
+     *
+     * @param options Map with optional enabled (boolean), maxEntries (number),
+     *                defaultTtlMs (number) and ttls (map of key to TTL in ms; 0 disables caching for that key)
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void configureCache(ReadableMap options, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "configureCache", jsPromise);
         try {
-            // Create or get master key
-            MasterKey masterKey = new MasterKey.Builder(reactContext)
-                    .setKeyScheme(MasterKey.KeyScheme.AES256_GCM)
-                    .build();
-
-            // Create the EncryptedSharedPreferences
-            sharedPreferences = EncryptedSharedPreferences.create(
-                    reactContext,
-                    SHARED_PREFERENCES_NAME,
-                    masterKey,
-                    EncryptedSharedPreferences.PrefKeyEncryptionScheme.AES256_SIV,
-                    EncryptedSharedPreferences.PrefValueEncryptionScheme.AES256_GCM
-            );
-            
-            return sharedPreferences;
-        } catch (GeneralSecurityException e) {
-            Log.e(TAG, "Security exception in getSecurePreferences: " + e.getMessage(), e);
-            return null;
-        } catch (IOException e) {
-            Log.e(TAG, "IO exception in getSecurePreferences: " + e.getMessage(), e);
-            return null;
+            boolean enabled = !options.hasKey("enabled") || options.getBoolean("enabled");
+            int maxEntries = options.hasKey("maxEntries") ? options.getInt("maxEntries") : DEFAULT_CACHE_MAX_ENTRIES;
+            long defaultTtlMs = options.hasKey("defaultTtlMs") ? (long) options.getDouble("defaultTtlMs") : DEFAULT_CACHE_TTL_MS;
+
+            Map<String, Long> keyTtls = new HashMap<>();
+            if (options.hasKey("ttls")) {
+                ReadableMap ttls = options.getMap("ttls");
+                ReadableMapKeySetIterator iterator = ttls.keySetIterator();
+                while (iterator.hasNextKey()) {
+                    String key = iterator.nextKey();
+                    keyTtls.put(key, (long) ttls.getDouble(key));
+                }
+            }
+
+            if (maxEntries < 0 || defaultTtlMs < 0) {
+                promise.reject("ERR_INVALID_VALUE", "Cache size and TTL cannot be negative");
+                return;
+            }
+
+            valueCache.configure(enabled, maxEntries, defaultTtlMs, keyTtls);
+            promise.resolve(true);
         } catch (Exception e) {
-            Log.e(TAG, "Unexpected error in getSecurePreferences: " + e.getMessage(), e);
-            return null;
+            Log.e(TAG, "Error in configureCache: " + e.getMessage(), e);
+            promise.reject("ERR_INVALID_VALUE", "Failed to configure cache: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns hit/miss counters for the in-memory value cache
+     *
+     * @param jsPromise Promise to resolve with enabled, size, hits, misses, evictions and expirations
+     */
+    @ReactMethod
+    public void getCacheStats(Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "getCacheStats", jsPromise);
+        try {
+            WritableMap stats = Arguments.createMap();
+            stats.putBoolean("enabled", valueCache.isEnabled());
+            stats.putInt("size", valueCache.size());
+            stats.putDouble("hits", valueCache.getHits());
+            stats.putDouble("misses", valueCache.getMisses());
+            stats.putDouble("evictions", valueCache.getEvictions());
+            stats.putDouble("expirations", valueCache.getExpirations());
+            promise.resolve(stats);
+        } catch (Exception e) {
+            Log.e(TAG, "Error in getCacheStats: " + e.getMessage(), e);
+            promise.reject("ERR_STATS_UNAVAILABLE", "Failed to get cache stats: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sets how long the app may stay in the background before the unwrapped data key is wiped.
+     * A shorter timeout narrows the window in which the key sits in memory; the cost is one
+     * Keystore unwrap on the first storage call after returning.
+     *
+     * @param timeoutMs Idle timeout in milliseconds; 0 wipes the key as soon as the app is backgrounded
+     * @param jsPromise Promise to resolve/reject with the result
+     */
+    @ReactMethod
+    public void setDataKeyIdleTimeout(double timeoutMs, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "setDataKeyIdleTimeout", jsPromise);
+        if (timeoutMs < 0 || Double.isNaN(timeoutMs)) {
+            promise.reject("ERR_INVALID_VALUE", "Idle timeout cannot be negative");
+            return;
+        }
+
+        dataKeyIdleTimeoutMs = (long) timeoutMs;
+        promise.resolve(true);
+    }
+
+    /**
+     * Subscribes to changes of a service's keys. Committed sets, removals and clears that match
+     * the filter are delivered in SecureStorageChanged events, at most one per frame, as
+     * { subscriptions: { [subscriptionId]: [{ service, key, type }] } } where type is "set",
+     * "remove" or "clear" (key is null for "clear"). Values are never included; read the keys
+     * that changed if their values are needed. Only the latest change of each key since the last
+     * event is delivered.
+     *
+     * @param subscriptionId ID chosen by JS; subscribing again with the same ID replaces the filter
+     * @param filter { service, keys, prefixes }: service null or empty selects the default
+     *               service; without keys and prefixes every key of the service matches
+     * @param jsPromise Promise to resolve with true once the subscription is active
+     */
+    @ReactMethod
+    public void subscribeChanges(String subscriptionId, ReadableMap filter, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "subscribeChanges", jsPromise);
+        if (subscriptionId == null || subscriptionId.isEmpty()) {
+            promise.reject("ERR_INVALID_SUBSCRIPTION", "Subscription ID cannot be null or empty");
+            return;
+        }
+
+        try {
+            String service = filter != null && filter.hasKey("service") && !filter.isNull("service")
+                    ? filter.getString("service") : null;
+            List<String> keys = filterKeys(filter, "keys");
+            List<String> prefixes = filterKeys(filter, "prefixes");
+            if (keys == null || prefixes == null) {
+                promise.reject("ERR_INVALID_KEY", "Filter keys and prefixes cannot be null or empty");
+                return;
+            }
+            changes.subscribe(subscriptionId,
+                    new ChangeBatcher.Filter(SecureStoreRegistry.normalizeService(service), keys, prefixes));
+            promise.resolve(true);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Error in subscribeChanges: " + e.getMessage(), e);
+            promise.reject("ERR_INVALID_SUBSCRIPTION", "Invalid change filter: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ends a change subscription. Unknown IDs are ignored.
+     *
+     * @param subscriptionId ID passed to subscribeChanges
+     * @param jsPromise Promise to resolve with true
+     */
+    @ReactMethod
+    public void unsubscribeChanges(String subscriptionId, Promise jsPromise) {
+        final Promise promise = TrackedPromise.track(metrics, "unsubscribeChanges", jsPromise);
+        if (subscriptionId != null) {
+            changes.unsubscribe(subscriptionId);
+        }
+        promise.resolve(true);
+    }
+
+    /**
+     * Required by NativeEventEmitter; subscriptions are managed by subscribeChanges
+     */
+    @ReactMethod
+    public void addListener(String eventName) {
+        // Events are only recorded for active subscriptions
+    }
+
+    /**
+     * Required by NativeEventEmitter; subscriptions are managed by unsubscribeChanges
+     */
+    @ReactMethod
+    public void removeListeners(double count) {
+        // Events are only recorded for active subscriptions
+    }
+
+    /**
+     * Queues a single-transaction write of the given entries on the storage executor.
+     * Cached values are invalidated and hot-key snapshots updated as soon as the write is
+     * queued, then confirmed or invalidated once the commit result is known.
+     *
+     * @param method Name of the calling bridge method, for logging
+     * @param service Service namespace
+     * @param entries Key to new value; a null value removes the key
+     * @param promise Promise to resolve/reject with the result
+     * @param failedMessage Rejection message when the commit reports failure
+     * @param errorPrefix Rejection message prefix when the write throws
+     */
+    private void writeEntries(final String method, final String service, final Map<String, String> entries,
+                              final Promise promise, final String failedMessage, final String errorPrefix) {
+        final List<String> scopedKeys = toScopedKeys(service, entries.keySet());
+        int index = 0;
+        for (String value : entries.values()) {
+            String scopedKey = scopedKeys.get(index++);
+            valueCache.invalidate(scopedKey);
+            hotValues.update(scopedKey, value);
+        }
+
+        boolean queued = submitWrite(scopedKeys, promise, () -> {
+            boolean success = false;
+            try {
+                SecureStore store = storeRegistry.open(service);
+                if (store != null) {
+                    success = store.apply(entries);
+
+                    if (success) {
+                        String normalized = SecureStoreRegistry.normalizeService(service);
+                        for (Map.Entry<String, String> entry : entries.entrySet()) {
+                            publishChange(changes.record(normalized, entry.getKey(),
+                                    entry.getValue() != null ? ChangeBatcher.SET : ChangeBatcher.REMOVE));
+                        }
+                        promise.resolve(true);
+                    } else {
+                        promise.reject("ERR_STORAGE_FAILED", failedMessage);
+                    }
+                } else {
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error in " + method + ": " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), errorPrefix + e.getMessage());
+            } finally {
+                int position = 0;
+                for (String value : entries.values()) {
+                    String scopedKey = scopedKeys.get(position++);
+                    valueCache.invalidate(scopedKey); // Drops anything cached while the write was queued
+                    if (success) {
+                        hotValues.update(scopedKey, value);
+                    } else {
+                        hotValues.invalidate(scopedKey);
+                    }
+                }
+            }
+        });
+        if (!queued) {
+            // The snapshot was updated ahead of a write that will never run
+            for (String scopedKey : scopedKeys) {
+                hotValues.invalidate(scopedKey);
+            }
+        }
+    }
+
+    /**
+     * Queues a read-modify-write of one key as a single writer-thread task. The executor runs
+     * writes to a key one at a time, after any reads of it submitted earlier have finished, so
+     * the read, the decision and the commit cannot interleave with another request for the key.
+     * Companion entries of the update are committed in the same store record, and the task
+     * holds their keys too, so readers of them wait for the outcome.
+     */
+    private void submitUpdate(final String method, final String service, final String key,
+                              final AtomicUpdate update, final Promise promise) {
+        final Map<String, String> entries = new LinkedHashMap<>(update.companions);
+        entries.put(key, update.newValue);
+        final List<String> scopedKeys = toScopedKeys(service, entries.keySet());
+        for (String scopedKey : scopedKeys) {
+            valueCache.invalidate(scopedKey);
+        }
+
+        Runnable task = () -> {
+            try {
+                SecureStore store = storeRegistry.open(service);
+                if (store == null) {
+                    promise.reject("ERR_SECURITY_UNAVAILABLE", "Secure storage is not available");
+                    return;
+                }
+
+                String current = store.get(key);
+                boolean written = false;
+                if (update.applies(current)) {
+                    if (!store.apply(entries)) {
+                        invalidateHotValues(scopedKeys);
+                        promise.reject("ERR_STORAGE_FAILED", "Failed to write to secure storage");
+                        return;
+                    }
+                    written = true;
+                    String normalized = SecureStoreRegistry.normalizeService(service);
+                    int index = 0;
+                    for (Map.Entry<String, String> entry : entries.entrySet()) {
+                        String scopedKey = scopedKeys.get(index++);
+                        valueCache.invalidate(scopedKey);
+                        hotValues.update(scopedKey, entry.getValue());
+                        publishChange(changes.record(normalized, entry.getKey(),
+                                entry.getValue() != null ? ChangeBatcher.SET : ChangeBatcher.REMOVE));
+                    }
+                }
+                promise.resolve(update.outcome(current, written));
+            } catch (Exception e) {
+                invalidateHotValues(scopedKeys);
+                Log.e(TAG, "Error in " + method + ": " + e.getMessage(), e);
+                promise.reject(securityErrorCodeOf(e), "Failed to update item securely: " + e.getMessage());
+            }
+        };
+        if (scopedKeys.size() == 1) {
+            submitWrite(scopedKeys.get(0), promise, task);
+        } else {
+            submitWrite(scopedKeys, promise, task);
+        }
+    }
+
+    /**
+     * Drops the hot-key snapshots of keys whose write failed
+     */
+    private void invalidateHotValues(List<String> scopedKeys) {
+        for (String scopedKey : scopedKeys) {
+            hotValues.invalidate(scopedKey);
+        }
+    }
+
+    /**
+     * Schedules a change event for the next frame when the first change since the last event
+     * was recorded
+     *
+     * @param first Result of ChangeBatcher.record or recordClear
+     */
+    private void publishChange(boolean first) {
+        if (first) {
+            mainHandler.post(scheduleChangeEvent);
+        }
+    }
+
+    /**
+     * Emits the changes recorded since the last frame as one event. Runs on the main thread.
+     */
+    private void emitChanges() {
+        Map<String, List<ChangeBatcher.Change>> batch = changes.drain();
+        if (batch.isEmpty() || !reactContext.hasActiveCatalystInstance()) {
+            return;
+        }
+
+        WritableMap subscriptions = Arguments.createMap();
+        for (Map.Entry<String, List<ChangeBatcher.Change>> entry : batch.entrySet()) {
+            WritableArray list = Arguments.createArray();
+            for (ChangeBatcher.Change change : entry.getValue()) {
+                WritableMap item = Arguments.createMap();
+                item.putString("service", change.service);
+                item.putString("key", change.key);
+                item.putString("type", change.type);
+                list.pushMap(item);
+            }
+            subscriptions.putArray(entry.getKey(), list);
+        }
+        WritableMap event = Arguments.createMap();
+        event.putMap("subscriptions", subscriptions);
+        reactContext.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class).emit(CHANGE_EVENT, event);
+    }
+
+    /**
+     * Queues a read of one key on the storage executor, rejecting the promise if the queue is full.
+     * Like the other submit helpers, it ends the call's metered queue wait when the task starts.
+     */
+    private void submitRead(String key, Promise promise, Runnable task) {
+        try {
+            storageExecutor.submitRead(key, () -> {
+                TrackedPromise.markStarted(promise);
+                task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Storage executor rejected read: " + e.getMessage());
+            promise.reject("ERR_STORAGE_BUSY", "Secure storage is busy: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queues a read of several keys (or every key when null) on the storage executor
+     */
+    private void submitRead(Collection<String> keys, Promise promise, Runnable task) {
+        try {
+            storageExecutor.submitRead(keys, () -> {
+                TrackedPromise.markStarted(promise);
+                task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Storage executor rejected read: " + e.getMessage());
+            promise.reject("ERR_STORAGE_BUSY", "Secure storage is busy: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queues a write of one key on the storage executor, rejecting the promise if the queue is full
+     */
+    private void submitWrite(String key, Promise promise, Runnable task) {
+        try {
+            storageExecutor.submitWrite(key, () -> {
+                TrackedPromise.markStarted(promise);
+                task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Storage executor rejected write: " + e.getMessage());
+            promise.reject("ERR_STORAGE_BUSY", "Secure storage is busy: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queues a write of several keys (or every key when null) on the storage executor
+     *
+     * @return false if the executor rejected the write, which then never runs
+     */
+    private boolean submitWrite(Collection<String> keys, Promise promise, Runnable task) {
+        try {
+            storageExecutor.submitWrite(keys, () -> {
+                TrackedPromise.markStarted(promise);
+                task.run();
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Storage executor rejected write: " + e.getMessage());
+            promise.reject("ERR_STORAGE_BUSY", "Secure storage is busy: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Loads hot keys the startup warm-up did not cover, such as keys of non-default services
+     */
+    private void loadMissingHotValues() {
+        for (String scopedKey : hotValues.getHotKeys()) {
+            if (hotValues.lookup(scopedKey) == null) {
+                reloadHotValue(scopedKey);
+            }
+        }
+    }
+
+    /**
+     * Reloads a hot key's value in the background after a failed write invalidated it
+     */
+    private void reloadHotValue(final String scopedKey) {
+        try {
+            storageExecutor.submitRead(scopedKey, () -> {
+                try {
+                    SecureStore store = storeRegistry.open(SecureStoreRegistry.serviceOf(scopedKey));
+                    if (store != null && hotValues.lookup(scopedKey) == null) {
+                        hotValues.loadIfAbsent(scopedKey, store.get(SecureStoreRegistry.keyOf(scopedKey)));
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "Error reloading hot key: " + e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Storage executor rejected hot key reload: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return The scoped hot keys belonging to a service
+     */
+    private List<String> hotKeysOf(String service) {
+        String normalized = SecureStoreRegistry.normalizeService(service);
+        List<String> keys = new ArrayList<>();
+        for (String scopedKey : hotValues.getHotKeys()) {
+            if (normalized.equals(SecureStoreRegistry.serviceOf(scopedKey))) {
+                keys.add(scopedKey);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Checks that the array entry at the given index is a non-empty string key
+     *
+     * @param array Array holding the key
+     * @param index Index of the key within the array
+     * @return true if the entry can be used as a storage key
+     */
+    private boolean isValidKey(ReadableArray array, int index) {
+        if (array.getType(index) != ReadableType.String) {
+            return false;
+        }
+        String key = array.getString(index);
+        return key != null && !key.isEmpty();
+    }
+
+    /**
+     * Copies a validated bridge array of keys into a list that can be used off the bridge thread
+     */
+    private List<String> toKeyList(ReadableArray keys) {
+        List<String> keyList = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            keyList.add(keys.getString(i));
+        }
+        return keyList;
+    }
+
+    /**
+     * Reads a list of keys or prefixes from a change filter
+     *
+     * @return The list (empty if the filter has none), or null if an entry is null or empty
+     */
+    private List<String> filterKeys(ReadableMap filter, String name) {
+        if (filter == null || !filter.hasKey(name) || filter.isNull(name)) {
+            return new ArrayList<>();
+        }
+        ReadableArray array = filter.getArray(name);
+        for (int i = 0; i < array.size(); i++) {
+            if (!isValidKey(array, i)) {
+                return null;
+            }
+        }
+        return toKeyList(array);
+    }
+
+    /**
+     * Copies keys into a bridge array
+     */
+    private WritableArray toWritableArray(List<String> keys) {
+        WritableArray keyArray = Arguments.createArray();
+        for (String key : keys) {
+            keyArray.pushString(key);
+        }
+        return keyArray;
+    }
+
+    /**
+     * @return The executor key for a blob, distinct from the key of an item with the same name
+     */
+    private static String blobExecutorKey(String service, String key) {
+        return SecureStoreRegistry.scopedKey(service, BLOB_KEY_PREFIX + key);
+    }
+
+    /**
+     * @return The executor key for a binary value, distinct from blob and item keys
+     */
+    private static String bytesExecutorKey(String service, String key) {
+        return blobExecutorKey(service, BYTES_NAME_PREFIX + key);
+    }
+
+    /**
+     * Maps keys of one service to keys that are unique across services
+     */
+    private List<String> toScopedKeys(String service, Collection<String> keys) {
+        List<String> scopedKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            scopedKeys.add(SecureStoreRegistry.scopedKey(service, key));
+        }
+        return scopedKeys;
+    }
+
+    /**
+     * @return The "ERR_..." code at the start of an exception thrown by a synchronous method
+     */
+    private static String errorCodeOf(RuntimeException e) {
+        String message = e.getMessage();
+        int separator = message != null ? message.indexOf(':') : -1;
+        return separator > 0 ? message.substring(0, separator) : "ERR_SECURITY_EXCEPTION";
+    }
+
+    /**
+     * Returns the code to reject a failed store operation with: ERR_SECURITY_UNAVAILABLE when
+     * the data key could not be loaded, as the stored data is intact and a retry may succeed,
+     * otherwise ERR_SECURITY_EXCEPTION
+     */
+    private static String securityErrorCodeOf(Exception e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof EnvelopeCryptoBackend.KeyUnavailableException) {
+                return "ERR_SECURITY_UNAVAILABLE";
+            }
+        }
+        return "ERR_SECURITY_EXCEPTION";
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Conditional write performed by submitUpdate
+     */
+    private abstract static class AtomicUpdate {
+        final String newValue;
+        final Map<String, String> companions;
+
+        AtomicUpdate(String newValue) {
+            this(newValue, Collections.<String, String>emptyMap());
+        }
+
+        /**
+         * @param companions Other keys to write in the same record when newValue is written
+         */
+        AtomicUpdate(String newValue, Map<String, String> companions) {
+            this.newValue = newValue;
+            this.companions = companions;
+        }
+
+        /**
+         * @param current Value currently stored, or null
+         * @return true if newValue should be written
+         */
+        abstract boolean applies(String current);
+
+        /**
+         * @param previous Value stored before the update, or null
+         * @param written Whether newValue was written
+         * @return Value to resolve the promise with
+         */
+        abstract Object outcome(String previous, boolean written);
+    }
+}
@@ -0,0 +1,119 @@
+package com.aitalentmarketplace.modules;
+
+import android.content.Context;
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.concurrent.ExecutionException;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+/**
+ * Provides the CryptoBackend that LogStructuredStore records and BlobStore segments are
+ * encrypted with. Values are encrypted under an in-process data key (see EnvelopeCryptoBackend),
+ * which is itself wrapped by an AES key in the Android Keystore. The Keystore key material
+ * never leaves the Keystore, and is only used to unwrap the data key once per session. A new
+ * data key is only created while no store data sealed under one exists, so a lost key file
+ * makes the stores unavailable instead of silently replacing the key their data needs.
+ */
+final class SecureStoreKeys {
+    private static final String ANDROID_KEYSTORE = "AndroidKeyStore";
+    private static final String LOG_KEY_ALIAS = "aitalentmarketplace_secure_store_log_key";
+    private static final int KEY_SIZE_BITS = 256;
+    private static final String WRAPPED_DATA_KEY_FILE = "data_key.wrapped";
+
+    private static volatile SharedInitializer<EnvelopeCryptoBackend> backend;
+
+    private SecureStoreKeys() {
+        // Static holder, not instantiable
+    }
+
+    /**
+     * Returns the store backend, generating the Keystore key on first use. Concurrent first
+     * calls share one Keystore round trip, and a failure is rethrown without touching the
+     * Keystore again until its backoff expires. The data key is unwrapped on first encryption.
+     *
+     * @param context Any context
+     * @return Backend shared by every store, so they also share its data key and cached Ciphers
+     * @throws GeneralSecurityException if the Keystore is unavailable or key generation fails
+     * @throws IOException if the Keystore cannot be loaded
+     */
+    static EnvelopeCryptoBackend getOrCreateBackend(Context context) throws GeneralSecurityException, IOException {
+        try {
+            return initializer(context).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new GeneralSecurityException("Failed to load secure store key", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading secure store key", e);
+        }
+    }
+
+    /**
+     * Zeroes the unwrapped data key, if it was ever unwrapped; the next store operation
+     * unwraps it again
+     */
+    static void wipeDataKey() {
+        EnvelopeCryptoBackend created = getBackendIfCreated();
+        if (created != null) {
+            created.wipe();
+        }
+    }
+
+    /**
+     * @return The store backend, or null if no store has been opened yet; never blocks
+     */
+    static EnvelopeCryptoBackend getBackendIfCreated() {
+        SharedInitializer<EnvelopeCryptoBackend> current = backend;
+        return current != null ? current.getIfReady() : null;
+    }
+
+    private static SharedInitializer<EnvelopeCryptoBackend> initializer(Context context) {
+        SharedInitializer<EnvelopeCryptoBackend> current = backend;
+        if (current == null) {
+            synchronized (SecureStoreKeys.class) {
+                current = backend;
+                if (current == null) {
+                    final File directory = SecureStoreRegistry.storeDirectory(context);
+                    final File wrappedKeyFile = new File(directory, WRAPPED_DATA_KEY_FILE);
+                    current = new SharedInitializer<>(() -> {
+                        final CryptoBackend master = new KeystoreCryptoBackend(loadOrGenerateLogKey());
+                        return new EnvelopeCryptoBackend(master, wrappedKeyFile,
+                                () -> SecureStoreRegistry.mayHoldDataKeyRecords(directory, master));
+                    }, SecureStoreRegistry.OPEN_RETRY_BACKOFF_MS, SecureStoreRegistry.OPEN_MAX_BACKOFF_MS);
+                    backend = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static SecretKey loadOrGenerateLogKey() throws GeneralSecurityException, IOException {
+        KeyStore keyStore = KeyStore.getInstance(ANDROID_KEYSTORE);
+        keyStore.load(null);
+        if (keyStore.containsAlias(LOG_KEY_ALIAS)) {
+            return (SecretKey) keyStore.getKey(LOG_KEY_ALIAS, null);
+        }
+
+        KeyGenerator generator = KeyGenerator.getInstance(KeyProperties.KEY_ALGORITHM_AES, ANDROID_KEYSTORE);
+        generator.init(new KeyGenParameterSpec.Builder(LOG_KEY_ALIAS,
+                KeyProperties.PURPOSE_ENCRYPT | KeyProperties.PURPOSE_DECRYPT)
+                .setBlockModes(KeyProperties.BLOCK_MODE_GCM)
+                .setEncryptionPaddings(KeyProperties.ENCRYPTION_PADDING_NONE)
+                .setKeySize(KEY_SIZE_BITS)
+                .build());
+        return generator.generateKey();
+    }
+}
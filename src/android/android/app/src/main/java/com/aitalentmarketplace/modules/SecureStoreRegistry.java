@@ -0,0 +1,412 @@
+package com.aitalentmarketplace.modules;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Maps SecureStorageModule service namespaces to their own encrypted stores.
+ *
+ * Each service gets a separate store that is opened on first use, so clearing or enumerating
+ * one service, or writing to it, only touches that service's file. Opening goes through a
+ * SharedInitializer per service, so concurrent first calls share one attempt and a failure is
+ * not retried until its backoff expires. The default service keeps
+ * the original store name (and is opened by SecureStoreWarmup), so data written before
+ * namespaces were honored stays where JS expects it.
+ *
+ * Stores are LogStructuredStore files. A service whose data is still in an
+ * EncryptedSharedPreferences file of the same name is migrated into a log in the background,
+ * starting the first time it is opened: a MigrationEngine copies the entries a bounded batch at
+ * a time and checkpoints after every batch, so a migration cut short by a process kill resumes
+ * on the next launch. Until it completes, the service is served by a MigratingSecureStore that
+ * writes to the log and reads entries not yet copied from the preferences file, which is
+ * deleted once every entry has moved. If the log cannot be created, the preferences file keeps
+ * serving that service until a later launch migrates it.
+ */
+final class SecureStoreRegistry {
+    private static final String TAG = "SecureStoreRegistry";
+    static final String DEFAULT_SERVICE = "ai.talent.marketplace";
+    private static final String SERVICE_PREFERENCES_PREFIX = SecureStoreWarmup.SHARED_PREFERENCES_NAME + "_";
+    private static final String LOG_DIRECTORY = "secure_store";
+    private static final String LOG_EXTENSION = ".log";
+    private static final String BLOB_DIRECTORY_EXTENSION = ".blobs";
+    private static final String MIGRATION_EXTENSION = ".migration";
+    private static final int MIGRATION_BATCH_SIZE = 32;
+    private static final long MIGRATION_RETRY_DELAY_MS = 30 * 1000;
+    private static final char SCOPE_SEPARATOR = '\u0000';
+    static final long OPEN_RETRY_BACKOFF_MS = 1000;
+    static final long OPEN_MAX_BACKOFF_MS = 60 * 1000;
+
+    private static final Executor compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SecureStoreCompaction");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private static final ScheduledExecutorService migrationExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SecureStoreMigration");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private static final AtomicInteger pendingMigrations = new AtomicInteger();
+
+    private final Context context;
+    private final long warmupTimeoutMs;
+    private final Map<String, SharedInitializer<SecureStore>> stores = new HashMap<>();
+    private final Map<String, BlobStore> blobStores = new HashMap<>();
+
+    SecureStoreRegistry(Context context, long warmupTimeoutMs) {
+        this.context = context.getApplicationContext();
+        this.warmupTimeoutMs = warmupTimeoutMs;
+    }
+
+    /**
+     * Returns the store for a service, opening it if needed
+     *
+     * @param service Service namespace; null or empty selects the default service
+     * @return The store, or null if it could not be opened
+     */
+    SecureStore open(String service) {
+        String normalized = normalizeService(service);
+        if (DEFAULT_SERVICE.equals(normalized)) {
+            return SecureStoreWarmup.awaitStore(context, warmupTimeoutMs);
+        }
+
+        SharedInitializer<SecureStore> initializer;
+        synchronized (stores) {
+            initializer = stores.get(normalized);
+            if (initializer == null) {
+                final String name = storeNameFor(normalized);
+                initializer = new SharedInitializer<>(() -> openStore(context, name),
+                        OPEN_RETRY_BACKOFF_MS, OPEN_MAX_BACKOFF_MS);
+                stores.put(normalized, initializer);
+            }
+        }
+
+        // Opened outside the map lock, so services open in parallel while concurrent
+        // callers for the same service share one attempt
+        try {
+            return initializer.get(warmupTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            Log.w(TAG, "Timed out after " + warmupTimeoutMs + "ms opening secure store for " + normalized);
+            return null;
+        } catch (ExecutionException e) {
+            return null; // Already logged by the failed attempt
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Returns the blob store for a service, creating it if needed. Each service's blobs live in
+     * their own directory next to its log.
+     *
+     * @param service Service namespace; null or empty selects the default service
+     * @return The blob store, or null if the Keystore key is unavailable
+     */
+    BlobStore openBlobs(String service) {
+        String normalized = normalizeService(service);
+        synchronized (blobStores) {
+            BlobStore blobs = blobStores.get(normalized);
+            if (blobs != null) {
+                return blobs;
+            }
+
+            try {
+                File directory = new File(storeDirectory(context), storeNameFor(normalized) + BLOB_DIRECTORY_EXTENSION);
+                blobs = new BlobStore(directory, SecureStoreKeys.getOrCreateBackend(context));
+            } catch (GeneralSecurityException | IOException e) {
+                Log.e(TAG, "Failed to open blob store for " + normalized + ": " + e.getMessage(), e);
+                return null;
+            }
+            blobStores.put(normalized, blobs);
+            return blobs;
+        }
+    }
+
+    /**
+     * Opens the log-structured store with the given name. If the EncryptedSharedPreferences file
+     * of the same name still exists, its entries are migrated into the log in the background and
+     * the returned store reads through to the file until they have all moved.
+     *
+     * @param context Application context
+     * @param name Store name, which is also the name of the legacy preferences file
+     * @return The store, or null if neither the log nor the legacy file could be opened
+     */
+    static SecureStore openStore(Context context, String name) {
+        File logFile = new File(storeDirectory(context), name + LOG_EXTENSION);
+        File checkpointFile = new File(storeDirectory(context), name + MIGRATION_EXTENSION);
+        File legacyFile = new File(new File(context.getApplicationInfo().dataDir, "shared_prefs"), name + ".xml");
+
+        try {
+            EnvelopeCryptoBackend crypto = SecureStoreKeys.getOrCreateBackend(context);
+            File directory = logFile.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Failed to create " + directory);
+            }
+
+            if (!legacyFile.exists()) {
+                // Nothing to migrate; a checkpoint here was left by a migration killed after
+                // deleting the preferences file
+                checkpointFile.delete();
+                return openLog(name, logFile, crypto);
+            }
+
+            if (logFile.exists() && !checkpointFile.exists()) {
+                // Written by an earlier version, which migrated in one go and was interrupted
+                // after the log held every entry
+                if (!legacyFile.delete()) {
+                    Log.w(TAG, "Failed to delete migrated preferences file " + name);
+                }
+                return openLog(name, logFile, crypto);
+            }
+
+            SharedPreferences legacy = SecureStoreWarmup.openSecurePreferences(context, name);
+            if (legacy == null) {
+                return null;
+            }
+            return migrateInBackground(name, new EncryptedPreferencesStore(legacy), logFile, checkpointFile,
+                    legacyFile, crypto);
+        } catch (GeneralSecurityException e) {
+            Log.e(TAG, "Security exception opening secure store " + name + ": " + e.getMessage(), e);
+        } catch (IOException e) {
+            Log.e(TAG, "IO exception opening secure store " + name + ": " + e.getMessage(), e);
+        }
+
+        // The log is unusable; keep serving the preferences file if there is one
+        if (legacyFile.exists()) {
+            SharedPreferences legacy = SecureStoreWarmup.openSecurePreferences(context, name);
+            if (legacy != null) {
+                return new EncryptedPreferencesStore(legacy);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Number of stores whose migration has started but not yet completed
+     */
+    static int getPendingMigrations() {
+        return pendingMigrations.get();
+    }
+
+    /**
+     * Opens a log, re-encrypting it in the background if it still holds records encrypted
+     * directly with the Keystore key
+     */
+    private static LogStructuredStore openLog(String name, File logFile, EnvelopeCryptoBackend crypto)
+            throws IOException, GeneralSecurityException {
+        long legacyOpens = crypto.getLegacyOpens();
+        LogStructuredStore store = LogStructuredStore.open(logFile, crypto, compactionExecutor);
+        if (crypto.getLegacyOpens() != legacyOpens) {
+            reencryptInBackground(name, store);
+        }
+        return store;
+    }
+
+    /**
+     * Compacts a log that still holds records encrypted directly with the Keystore key, as
+     * written before envelope encryption. Compaction rewrites every live value under the data
+     * key, so later launches no longer pay a Keystore operation for them.
+     */
+    private static void reencryptInBackground(final String name, final LogStructuredStore store) {
+        compactionExecutor.execute(() -> {
+            try {
+                store.compact();
+                Log.i(TAG, "Re-encrypted " + name + " under the data key");
+            } catch (IOException | GeneralSecurityException e) {
+                Log.w(TAG, "Failed to re-encrypt " + name + ": " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Starts, or resumes from its checkpoint, the migration of a preferences store into a log.
+     * The checkpoint is written before the log is created, so a log found next to a preferences
+     * file without a checkpoint can only be one an earlier version finished writing.
+     *
+     * @return Store serving the service while the migration runs
+     */
+    private static SecureStore migrateInBackground(String name, EncryptedPreferencesStore legacy, File logFile,
+                                                   File checkpointFile, File legacyFile, EnvelopeCryptoBackend crypto)
+            throws IOException, GeneralSecurityException {
+        PreferencesToLogStep step = new PreferencesToLogStep(legacyFile);
+        MigrationEngine engine = new MigrationEngine(checkpointFile, Collections.<MigrationEngine.Step>singletonList(step),
+                MIGRATION_BATCH_SIZE);
+        engine.recordStart();
+
+        MigratingSecureStore store = new MigratingSecureStore(openLog(name, logFile, crypto), legacy);
+        step.store = store;
+        pendingMigrations.incrementAndGet();
+        migrationExecutor.execute(() -> runMigrationBatch(name, engine, SystemClock.elapsedRealtime()));
+        return store;
+    }
+
+    /**
+     * Runs one migration batch and queues the next, so the migrations of several services
+     * interleave and no batch holds up the service's writes for long
+     */
+    private static void runMigrationBatch(final String name, final MigrationEngine engine, final long startedAt) {
+        try {
+            if (engine.runBatch()) {
+                migrationExecutor.execute(() -> runMigrationBatch(name, engine, startedAt));
+                return;
+            }
+            engine.deleteCheckpoint();
+            pendingMigrations.decrementAndGet();
+            Log.i(TAG, "Migrated " + name + " to version " + engine.getCompletedVersion() + " in "
+                    + (SystemClock.elapsedRealtime() - startedAt) + "ms");
+        } catch (Exception e) {
+            MigrationEngine.Step step = engine.currentStep();
+            Log.w(TAG, "Migration step " + (step != null ? step.getName() : "?") + " of " + name
+                    + " failed, retrying in " + MIGRATION_RETRY_DELAY_MS + "ms: " + e.getMessage(), e);
+            migrationExecutor.schedule(() -> runMigrationBatch(name, engine, startedAt),
+                    MIGRATION_RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @param service Service namespace as passed from JS
+     * @return The namespace, with null or empty mapped to the default service
+     */
+    static String normalizeService(String service) {
+        return service == null || service.isEmpty() ? DEFAULT_SERVICE : service;
+    }
+
+    /**
+     * Builds a key that is unique across services, for the executor, caches and snapshots
+     *
+     * @param service Service namespace (normalized or not)
+     * @param key Key within the service
+     * @return Combined key
+     */
+    static String scopedKey(String service, String key) {
+        return normalizeService(service) + SCOPE_SEPARATOR + key;
+    }
+
+    /**
+     * @param scopedKey Key built by scopedKey()
+     * @return The service part of the key
+     */
+    static String serviceOf(String scopedKey) {
+        int separator = scopedKey.indexOf(SCOPE_SEPARATOR);
+        return separator < 0 ? DEFAULT_SERVICE : scopedKey.substring(0, separator);
+    }
+
+    /**
+     * @param scopedKey Key built by scopedKey()
+     * @return The key within its service
+     */
+    static String keyOf(String scopedKey) {
+        int separator = scopedKey.indexOf(SCOPE_SEPARATOR);
+        return separator < 0 ? scopedKey : scopedKey.substring(separator + 1);
+    }
+
+    /**
+     * @return Directory holding every service's log and blobs, and the wrapped data key
+     */
+    static File storeDirectory(Context context) {
+        return new File(context.getNoBackupFilesDir(), LOG_DIRECTORY);
+    }
+
+    /**
+     * Tells whether the store directory may hold data sealed under the data key, in which case
+     * a missing wrapped key file means the key was lost. Blobs were only ever sealed under the
+     * data key; a log is only data-key data if its newest record does not open with the master
+     * key, as logs written before envelope encryption were sealed with it directly.
+     *
+     * @param directory Directory returned by storeDirectory()
+     * @param master Keystore backend the data key is wrapped with
+     */
+    static boolean mayHoldDataKeyRecords(File directory, CryptoBackend master)
+            throws IOException, GeneralSecurityException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return false;
+        }
+        for (File file : files) {
+            if (file.getName().endsWith(BLOB_DIRECTORY_EXTENSION)) {
+                String[] blobs = file.list();
+                if (blobs != null && blobs.length > 0) {
+                    return true;
+                }
+            } else if (file.getName().endsWith(LOG_EXTENSION)
+                    && !LogStructuredStore.lastRecordOpensWith(file, master)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The name of a service's store files; the default service keeps the original name
+     */
+    private static String storeNameFor(String normalizedService) {
+        return DEFAULT_SERVICE.equals(normalizedService)
+                ? SecureStoreWarmup.SHARED_PREFERENCES_NAME
+                : preferencesNameFor(normalizedService);
+    }
+
+    /**
+     * Derives a preferences file name for a non-default service. The hash suffix keeps
+     * services that differ only in characters replaced by the sanitizer apart.
+     */
+    private static String preferencesNameFor(String service) {
+        String sanitized = service.replaceAll("[^A-Za-z0-9._-]", "_");
+        return SERVICE_PREFERENCES_PREFIX + sanitized + "_" + Integer.toHexString(service.hashCode());
+    }
+
+    /**
+     * Version 1: copies the entries of an EncryptedSharedPreferences file into the log, then
+     * clears and deletes the file
+     */
+    private static final class PreferencesToLogStep implements MigrationEngine.Step {
+        private final File legacyFile;
+        MigratingSecureStore store; // Set before the first batch runs
+
+        PreferencesToLogStep(File legacyFile) {
+            this.legacyFile = legacyFile;
+        }
+
+        @Override
+        public int getVersion() {
+            return 1;
+        }
+
+        @Override
+        public String getName() {
+            return "EncryptedSharedPreferences to log";
+        }
+
+        @Override
+        public String migrateBatch(String cursor, int maxEntries) throws IOException {
+            return store.copyBatch(cursor, maxEntries);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            store.completeMigration();
+            if (legacyFile.exists() && !legacyFile.delete()) {
+                throw new IOException("Failed to delete migrated preferences file " + legacyFile.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.aitalentmarketplace.modules;
+
+import androidx.security.crypto.EncryptedSharedPreferences; // androidx.security:security-crypto:1.1.0-alpha06
+import androidx.security.crypto.MasterKey; // androidx.security:security-crypto:1.1.0-alpha06
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Opens the encrypted secure store in the background as soon as the process starts.
+ *
+ * Loading the Keystore key and replaying the store's log (or, on the first launch after an
+ * upgrade, migrating the EncryptedSharedPreferences file) take long enough to show up on the JS
+ * auth-restore path, so MainApplication starts this warm-up from onCreate and
+ * SecureStorageModule awaits the same SharedInitializer instead of opening the store itself.
+ *
+ * The warm-up also preloads the values of the hot keys registered by JS on a previous run, so
+ * SecureStorageModule.getItemSync can serve them as soon as the store is open.
+ */
+public final class SecureStoreWarmup {
+    private static final String TAG = "SecureStoreWarmup";
+    static final String SHARED_PREFERENCES_NAME = "aitalentmarketplace_secure_storage";
+    private static final String WARMUP_PROBE_KEY = "__warmup_probe__";
+    private static final String METADATA_PREFERENCES_NAME = "aitalentmarketplace_secure_storage_meta";
+    private static final String HOT_KEYS_PREFERENCE = "hot_keys";
+
+    private static final HotValueSnapshot hotValues = new HotValueSnapshot();
+
+    private static volatile SharedInitializer<SecureStore> initializer;
+    private static volatile long warmupDurationMs = -1;
+    private static MasterKey masterKey; // Guarded by SecureStoreWarmup.class
+
+    private SecureStoreWarmup() {
+        // Static holder, not instantiable
+    }
+
+    /**
+     * Starts opening the secure store on a background thread. Has no effect while an attempt is
+     * running, once one has succeeded, or while a failed attempt is still inside its backoff.
+     *
+     * @param context Any context; the application context is retained
+     */
+    public static void start(Context context) {
+        initializer(context).start(runnable -> new Thread(runnable, TAG).start());
+    }
+
+    /**
+     * Waits for the store to open and returns it. Every caller shares the warm-up's attempt; if
+     * none has been started, or the last one failed and its backoff has expired, the calling
+     * thread makes a new attempt. A failure inside its backoff is returned immediately.
+     *
+     * @param context Context used to open the store
+     * @param timeoutMs Maximum time to wait for a running attempt
+     * @return The default secure store, or null if it could not be opened in time
+     */
+    static SecureStore awaitStore(Context context, long timeoutMs) {
+        try {
+            return initializer(context).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            Log.w(TAG, "Timed out after " + timeoutMs + "ms waiting for secure store warm-up");
+            return null;
+        } catch (ExecutionException e) {
+            return null; // Already logged by the failed attempt
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * @return true once an attempt to open the store has finished, whether or not it succeeded
+     */
+    static boolean isFinished() {
+        SharedInitializer<SecureStore> current = initializer;
+        return current != null && current.isDone();
+    }
+
+    /**
+     * @return true once the store is open
+     */
+    static boolean isReady() {
+        SharedInitializer<SecureStore> current = initializer;
+        return current != null && current.getIfReady() != null;
+    }
+
+    /**
+     * @return The process-wide snapshot of hot key values
+     */
+    static HotValueSnapshot hotValues() {
+        return hotValues;
+    }
+
+    /**
+     * Persists the hot key names (not their values) so the next warm-up preloads them
+     *
+     * @param context Any context
+     * @param keys Hot key names
+     */
+    static void persistHotKeys(Context context, Set<String> keys) {
+        context.getApplicationContext()
+                .getSharedPreferences(METADATA_PREFERENCES_NAME, Context.MODE_PRIVATE)
+                .edit()
+                .putStringSet(HOT_KEYS_PREFERENCE, keys)
+                .apply();
+    }
+
+    private static SharedInitializer<SecureStore> initializer(Context context) {
+        SharedInitializer<SecureStore> current = initializer;
+        if (current == null) {
+            synchronized (SecureStoreWarmup.class) {
+                current = initializer;
+                if (current == null) {
+                    final Context appContext = context.getApplicationContext();
+                    current = new SharedInitializer<>(() -> openDefaultStore(appContext),
+                            SecureStoreRegistry.OPEN_RETRY_BACKOFF_MS, SecureStoreRegistry.OPEN_MAX_BACKOFF_MS);
+                    initializer = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Opens the default store and preloads its hot values, recording how long it took
+     */
+    private static SecureStore openDefaultStore(Context context) {
+        long startedAt = SystemClock.elapsedRealtime();
+        SecureStore store = null;
+        try {
+            store = SecureStoreRegistry.openStore(context, SHARED_PREFERENCES_NAME);
+            if (store != null) {
+                preloadHotValues(context, store);
+            }
+            return store;
+        } finally {
+            warmupDurationMs = SystemClock.elapsedRealtime() - startedAt;
+            Log.i(TAG, "Secure store warm-up finished in " + warmupDurationMs + "ms"
+                    + (store != null ? "" : " (failed)"));
+        }
+    }
+
+    /**
+     * Registers the persisted hot keys and decrypts the values of those in the default
+     * service into the snapshot; other services are loaded when their store is first opened
+     */
+    private static void preloadHotValues(Context context, SecureStore defaultStore) {
+        try {
+            Set<String> keys = context
+                    .getSharedPreferences(METADATA_PREFERENCES_NAME, Context.MODE_PRIVATE)
+                    .getStringSet(HOT_KEYS_PREFERENCE, Collections.<String>emptySet());
+            hotValues.setHotKeys(keys);
+            for (String scopedKey : keys) {
+                if (SecureStoreRegistry.DEFAULT_SERVICE.equals(SecureStoreRegistry.serviceOf(scopedKey))) {
+                    hotValues.loadIfAbsent(scopedKey, defaultStore.get(SecureStoreRegistry.keyOf(scopedKey)));
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to preload hot keys: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return How long the warm-up took in milliseconds, or -1 if it has not finished
+     */
+    static long getWarmupDurationMs() {
+        return warmupDurationMs;
+    }
+
+    /**
+     * Creates the MasterKey (once per process) and opens an EncryptedSharedPreferences file,
+     * touching it once so the preferences file is parsed before the first real read. Only used
+     * to migrate or fall back to stores written before the log-structured format
+     *
+     * @param context Application context
+     * @param name Preferences file name
+     * @return The encrypted shared preferences instance, or null if creation fails
+     */
+    static SharedPreferences openSecurePreferences(Context context, String name) {
+        try {
+            // Create or get master key; serialized so concurrent migrations build it once
+            MasterKey key;
+            synchronized (SecureStoreWarmup.class) {
+                if (masterKey == null) {
+                    masterKey = new MasterKey.Builder(context)
+                            .setKeyScheme(MasterKey.KeyScheme.AES256_GCM)
+                            .build();
+                }
+                key = masterKey;
+            }
+
+            // Create the EncryptedSharedPreferences
+            SharedPreferences prefs = EncryptedSharedPreferences.create(
+                    context,
+                    name,
+                    key,
+                    EncryptedSharedPreferences.PrefKeyEncryptionScheme.AES256_SIV,
+                    EncryptedSharedPreferences.PrefValueEncryptionScheme.AES256_GCM
+            );
+
+            // Blocks until the XML is loaded and exercises the key cipher
+            prefs.contains(WARMUP_PROBE_KEY);
+            return prefs;
+        } catch (GeneralSecurityException e) {
+            Log.e(TAG, "Security exception opening secure store: " + e.getMessage(), e);
+            return null;
+        } catch (IOException e) {
+            Log.e(TAG, "IO exception opening secure store: " + e.getMessage(), e);
+            return null;
+        } catch (Exception e) {
+            Log.e(TAG, "Unexpected error opening secure store: " + e.getMessage(), e);
+            return null;
+        }
+    }
+}
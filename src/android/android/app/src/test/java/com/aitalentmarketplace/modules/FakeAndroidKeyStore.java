@@ -0,0 +1,187 @@
+package com.aitalentmarketplace.modules;
+
+import android.security.keystore.KeyGenParameterSpec;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.Key;
+import java.security.KeyStoreException;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.security.cert.Certificate;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.KeyGeneratorSpi;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * In-memory stand-in for the "AndroidKeyStore" JCA provider, which Robolectric does not have.
+ *
+ * Supports what SecureStoreKeys needs: loading the key store, looking keys up by alias, and
+ * generating AES keys from a KeyGenParameterSpec. Keys are plain SecretKeySpecs, so the JDK's
+ * own AES/GCM cipher encrypts with them.
+ */
+final class FakeAndroidKeyStore {
+    private static final String PROVIDER_NAME = "AndroidKeyStore";
+    private static final Map<String, SecretKey> keys = new ConcurrentHashMap<>();
+
+    private FakeAndroidKeyStore() {
+        // Static holder, not instantiable
+    }
+
+    /**
+     * Registers the provider, replacing one left behind by another Robolectric sandbox whose
+     * KeyGenParameterSpec is a different class
+     */
+    static synchronized void install() {
+        Provider installed = Security.getProvider(PROVIDER_NAME);
+        if (installed instanceof KeyStoreProvider) {
+            return;
+        }
+        Security.removeProvider(PROVIDER_NAME);
+        Security.addProvider(new KeyStoreProvider());
+    }
+
+    public static final class KeyStoreProvider extends Provider {
+        public KeyStoreProvider() {
+            super(PROVIDER_NAME, 1.0, "In-memory Android Keystore for tests");
+            put("KeyStore." + PROVIDER_NAME, KeyStoreSpi.class.getName());
+            put("KeyGenerator.AES", AesKeyGenerator.class.getName());
+        }
+    }
+
+    public static final class KeyStoreSpi extends java.security.KeyStoreSpi {
+        @Override
+        public Key engineGetKey(String alias, char[] password) {
+            return keys.get(alias);
+        }
+
+        @Override
+        public Certificate[] engineGetCertificateChain(String alias) {
+            return null;
+        }
+
+        @Override
+        public Certificate engineGetCertificate(String alias) {
+            return null;
+        }
+
+        @Override
+        public Date engineGetCreationDate(String alias) {
+            return keys.containsKey(alias) ? new Date() : null;
+        }
+
+        @Override
+        public void engineSetKeyEntry(String alias, Key key, char[] password, Certificate[] chain)
+                throws KeyStoreException {
+            if (!(key instanceof SecretKey)) {
+                throw new KeyStoreException("Only secret keys are supported");
+            }
+            keys.put(alias, (SecretKey) key);
+        }
+
+        @Override
+        public void engineSetKeyEntry(String alias, byte[] key, Certificate[] chain) throws KeyStoreException {
+            throw new KeyStoreException("Encoded key entries are not supported");
+        }
+
+        @Override
+        public void engineSetCertificateEntry(String alias, Certificate certificate) throws KeyStoreException {
+            throw new KeyStoreException("Certificate entries are not supported");
+        }
+
+        @Override
+        public void engineDeleteEntry(String alias) {
+            keys.remove(alias);
+        }
+
+        @Override
+        public Enumeration<String> engineAliases() {
+            return Collections.enumeration(keys.keySet());
+        }
+
+        @Override
+        public boolean engineContainsAlias(String alias) {
+            return keys.containsKey(alias);
+        }
+
+        @Override
+        public int engineSize() {
+            return keys.size();
+        }
+
+        @Override
+        public boolean engineIsKeyEntry(String alias) {
+            return keys.containsKey(alias);
+        }
+
+        @Override
+        public boolean engineIsCertificateEntry(String alias) {
+            return false;
+        }
+
+        @Override
+        public String engineGetCertificateAlias(Certificate certificate) {
+            return null;
+        }
+
+        @Override
+        public void engineStore(OutputStream stream, char[] password) {
+            // Nothing to persist
+        }
+
+        @Override
+        public void engineLoad(InputStream stream, char[] password) {
+            // Always loaded
+        }
+    }
+
+    public static final class AesKeyGenerator extends KeyGeneratorSpi {
+        private String alias;
+        private int keySizeBits = 256;
+        private SecureRandom random = new SecureRandom();
+
+        @Override
+        protected void engineInit(SecureRandom random) {
+            throw new UnsupportedOperationException("A KeyGenParameterSpec is required");
+        }
+
+        @Override
+        protected void engineInit(AlgorithmParameterSpec params, SecureRandom random)
+                throws InvalidAlgorithmParameterException {
+            if (!(params instanceof KeyGenParameterSpec)) {
+                throw new InvalidAlgorithmParameterException("Expected a KeyGenParameterSpec");
+            }
+            KeyGenParameterSpec spec = (KeyGenParameterSpec) params;
+            alias = spec.getKeystoreAlias();
+            if (spec.getKeySize() > 0) {
+                keySizeBits = spec.getKeySize();
+            }
+            if (random != null) {
+                this.random = random;
+            }
+        }
+
+        @Override
+        protected void engineInit(int keySize, SecureRandom random) {
+            throw new UnsupportedOperationException("A KeyGenParameterSpec is required");
+        }
+
+        @Override
+        protected SecretKey engineGenerateKey() {
+            byte[] material = new byte[keySizeBits / 8];
+            random.nextBytes(material);
+            SecretKey key = new SecretKeySpec(material, "AES");
+            keys.put(alias, key);
+            return key;
+        }
+    }
+}
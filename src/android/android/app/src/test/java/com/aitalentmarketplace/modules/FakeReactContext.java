@@ -0,0 +1,25 @@
+package com.aitalentmarketplace.modules;
+
+import android.app.Activity;
+import android.app.Application;
+
+import com.facebook.react.bridge.ReactApplicationContext; // React Native 0.72.x
+
+/**
+ * ReactApplicationContext backed by the Robolectric application, with no catalyst instance
+ * behind it. getCurrentActivity returns the given activity, as it would while the app is in
+ * the foreground.
+ */
+final class FakeReactContext extends ReactApplicationContext {
+    private final Activity currentActivity;
+
+    FakeReactContext(Application application, Activity currentActivity) {
+        super(application);
+        this.currentActivity = currentActivity;
+    }
+
+    @Override
+    public Activity getCurrentActivity() {
+        return currentActivity;
+    }
+}
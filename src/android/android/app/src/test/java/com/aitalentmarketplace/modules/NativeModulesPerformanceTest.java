@@ -0,0 +1,169 @@
+package com.aitalentmarketplace.modules;
+
+import android.app.Activity;
+
+import com.aitalentmarketplace.NativeMetrics;
+import com.facebook.react.bridge.JavaOnlyMap; // React Native 0.72.x
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives thousands of calls through SecureStorageModule, NotificationModule and
+ * BiometricModule the way the bridge would, and checks each scenario's throughput and
+ * allocation against perf-budgets.properties (see PerformanceBudget).
+ *
+ * Storage calls run against real encrypted logs in the Robolectric app's files directory, with
+ * FakeAndroidKeyStore holding the key. Each scenario is warmed up first so JIT compilation and
+ * store opening stay out of the measurement. Runs in the perfTest task, which ./gradlew test depends on.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+@Category(PerformanceTests.class)
+public class NativeModulesPerformanceTest {
+    private static final String SERVICE = "perf_harness";
+    private static final int KEY_COUNT = 256;
+    private static final int WARMUP_CALLS = 1000;
+    private static final int MEASURED_CALLS = 5000;
+    private static final int MAX_IN_FLIGHT = 64; // Well inside StorageExecutor's queue limit
+    private static final long CALL_TIMEOUT_SECONDS = 30;
+
+    /**
+     * One bridge call, which must settle the promise it is given
+     */
+    private interface BridgeCall {
+        void invoke(int index, Promise promise);
+    }
+
+    private PerformanceBudget budget;
+    private FakeReactContext reactContext;
+    private SecureStorageModule storage;
+    private NotificationModule notifications;
+    private BiometricModule biometrics;
+    private String value;
+
+    @Before
+    public void setUp() {
+        FakeAndroidKeyStore.install();
+        NativeMetrics.resetAll();
+        budget = PerformanceBudget.load();
+
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        reactContext = new FakeReactContext(RuntimeEnvironment.getApplication(), activity);
+        storage = new SecureStorageModule(reactContext);
+        notifications = new NotificationModule(reactContext);
+        biometrics = new BiometricModule(reactContext);
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 128; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        value = builder.toString();
+    }
+
+    @After
+    public void tearDown() {
+        storage.onCatalystInstanceDestroy();
+        notifications.onCatalystInstanceDestroy();
+        biometrics.onCatalystInstanceDestroy();
+    }
+
+    @Test
+    public void setItemStaysWithinBudget() throws InterruptedException {
+        BridgeCall setItem = (i, promise) -> storage.setItem(key(i), value, SERVICE, promise);
+        measure("secureStorage.setItem", setItem);
+
+        assertEquals(WARMUP_CALLS + MEASURED_CALLS,
+                NativeMetrics.forModule("SecureStorageModule").method("setItem").getCalls());
+    }
+
+    @Test
+    public void getItemStaysWithinBudget() throws InterruptedException {
+        drive(KEY_COUNT, (i, promise) -> storage.setItem(key(i), value, SERVICE, promise));
+
+        BridgeCall getItem = (i, promise) -> storage.getItem(key(i), SERVICE, promise);
+        measure("secureStorage.getItem", getItem);
+
+        RecordingPromise promise = new RecordingPromise();
+        storage.getItem(key(7), SERVICE, promise);
+        awaitResolved(promise);
+        assertEquals(value, promise.getValue());
+    }
+
+    @Test
+    public void createLocalNotificationStaysWithinBudget() throws InterruptedException {
+        final ReadableMap notification = JavaOnlyMap.of(
+                "title", "New message",
+                "body", value,
+                "channelId", "messages",
+                "data", JavaOnlyMap.of("conversationId", "42"));
+        measure("notification.createLocalNotification",
+                (i, promise) -> notifications.createLocalNotification(notification, promise));
+    }
+
+    @Test
+    public void isBiometricAvailableStaysWithinBudget() throws InterruptedException {
+        measure("biometric.isBiometricAvailable", (i, promise) -> biometrics.isBiometricAvailable(promise));
+    }
+
+    private static String key(int index) {
+        return "key_" + (index % KEY_COUNT);
+    }
+
+    /**
+     * Warms a scenario up, then times MEASURED_CALLS calls and checks them against its budget
+     */
+    private void measure(String scenario, BridgeCall call) throws InterruptedException {
+        drive(WARMUP_CALLS, call);
+
+        long allocatedBefore = PerformanceBudget.allocatedBytes();
+        long start = System.nanoTime();
+        drive(MEASURED_CALLS, call);
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = PerformanceBudget.allocatedBytes();
+
+        long allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+        budget.check(scenario, MEASURED_CALLS, elapsed, allocated);
+    }
+
+    /**
+     * Makes calls with at most MAX_IN_FLIGHT unsettled at a time, as a busy JS thread would,
+     * and requires every one of them to resolve
+     */
+    private static void drive(int calls, BridgeCall call) throws InterruptedException {
+        RecordingPromise[] inFlight = new RecordingPromise[MAX_IN_FLIGHT];
+        for (int i = 0; i < calls; i++) {
+            int slot = i % MAX_IN_FLIGHT;
+            if (inFlight[slot] != null) {
+                awaitResolved(inFlight[slot]);
+            }
+            inFlight[slot] = new RecordingPromise();
+            call.invoke(i, inFlight[slot]);
+        }
+        for (RecordingPromise promise : inFlight) {
+            if (promise != null) {
+                awaitResolved(promise);
+            }
+        }
+    }
+
+    private static void awaitResolved(RecordingPromise promise) throws InterruptedException {
+        assertTrue("Call did not settle within " + CALL_TIMEOUT_SECONDS + "s",
+                promise.await(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue("Call rejected with " + promise.getCode() + ": " + promise.getMessage(), promise.isResolved());
+    }
+}
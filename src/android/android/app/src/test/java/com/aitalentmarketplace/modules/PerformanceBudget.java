@@ -0,0 +1,133 @@
+package com.aitalentmarketplace.modules;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Throughput and allocation budgets from perf-budgets.properties.
+ *
+ * Each scenario has a minimum throughput in calls per second and a maximum allocation in bytes
+ * per call. A measurement fails only when it misses its budget by more than the tolerance,
+ * which defaults to the file's value and can be overridden with -Pperf.tolerance=0.5 on slow
+ * machines. A failure states the measurement and its budget in the assertion message; every
+ * measurement is also appended to the results file named by the perf.results system property
+ * (build/perf/results.csv under ./gradlew perfTest), one line per scenario and metric.
+ */
+final class PerformanceBudget {
+    private static final String BUDGETS_RESOURCE = "/perf-budgets.properties";
+    private static final String TOLERANCE_PROPERTY = "perf.tolerance";
+    private static final String RESULTS_PROPERTY = "perf.results";
+
+    private final Properties budgets;
+    private final double tolerance;
+
+    private PerformanceBudget(Properties budgets, double tolerance) {
+        this.budgets = budgets;
+        this.tolerance = tolerance;
+    }
+
+    static PerformanceBudget load() {
+        Properties budgets = new Properties();
+        try (InputStream in = PerformanceBudget.class.getResourceAsStream(BUDGETS_RESOURCE)) {
+            if (in == null) {
+                fail(BUDGETS_RESOURCE + " is missing from the test resources");
+            }
+            budgets.load(in);
+        } catch (IOException e) {
+            throw new AssertionError("Failed to read " + BUDGETS_RESOURCE, e);
+        }
+
+        String override = System.getProperty(TOLERANCE_PROPERTY, "");
+        double tolerance = Double.parseDouble(override.isEmpty() ? budgets.getProperty("tolerance") : override);
+        assertTrue("Tolerance must be in [0, 1): " + tolerance, tolerance >= 0 && tolerance < 1);
+        return new PerformanceBudget(budgets, tolerance);
+    }
+
+    /**
+     * @return Bytes allocated so far by all live threads, or -1 if the JVM cannot tell. Threads
+     * that exit between two readings take their allocations with them, so keep the threads
+     * doing the work alive across a measurement.
+     */
+    static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+        if (!hotspot.isThreadAllocatedMemorySupported() || !hotspot.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+
+        long total = 0;
+        for (long bytes : hotspot.getThreadAllocatedBytes(hotspot.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Fails if a scenario's throughput or allocation misses its budget by more than the tolerance
+     *
+     * @param scenario Budget name, e.g. "secureStorage.setItem"
+     * @param calls Number of calls measured
+     * @param elapsedNanos Wall time for all of them
+     * @param allocatedBytes Bytes allocated meanwhile, or a negative value to skip that check
+     */
+    void check(String scenario, int calls, long elapsedNanos, long allocatedBytes) {
+        double callsPerSecond = calls * 1e9 / Math.max(1, elapsedNanos);
+        double minCallsPerSecond = budget(scenario + ".minCallsPerSecond") * (1 - tolerance);
+        record(scenario, "callsPerSecond", callsPerSecond, minCallsPerSecond);
+        assertTrue(String.format(Locale.US, "%s throughput regressed: %.0f calls/s, budget %.0f calls/s",
+                scenario, callsPerSecond, minCallsPerSecond), callsPerSecond >= minCallsPerSecond);
+
+        if (allocatedBytes < 0) {
+            return; // Not measurable on this JVM; the results file has no bytesPerCall line for it
+        }
+        double bytesPerCall = (double) allocatedBytes / calls;
+        double maxBytesPerCall = budget(scenario + ".maxBytesPerCall") * (1 + tolerance);
+        record(scenario, "bytesPerCall", bytesPerCall, maxBytesPerCall);
+        assertTrue(String.format(Locale.US, "%s allocation regressed: %.0f bytes/call, budget %.0f bytes/call",
+                scenario, bytesPerCall, maxBytesPerCall), bytesPerCall <= maxBytesPerCall);
+    }
+
+    /**
+     * Appends "scenario,metric,measured,budget" to the results file, if one was requested
+     */
+    private static void record(String scenario, String metric, double measured, double budget) {
+        String path = System.getProperty(RESULTS_PROPERTY, "");
+        if (path.isEmpty()) {
+            return;
+        }
+        File file = new File(path);
+        File directory = file.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new AssertionError("Failed to create " + directory);
+        }
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file, true), "UTF-8")) {
+            out.write(String.format(Locale.US, "%s,%s,%.0f,%.0f\n", scenario, metric, measured, budget));
+        } catch (IOException e) {
+            throw new AssertionError("Failed to write " + path, e);
+        }
+    }
+
+    private double budget(String name) {
+        String value = budgets.getProperty(name);
+        if (value == null) {
+            fail("No budget " + name + " in " + BUDGETS_RESOURCE);
+        }
+        return Double.parseDouble(value);
+    }
+}
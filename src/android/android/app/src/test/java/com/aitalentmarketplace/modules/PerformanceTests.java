@@ -0,0 +1,9 @@
+package com.aitalentmarketplace.modules;
+
+/**
+ * JUnit category of the wall-clock performance suites. The unit test tasks leave them out and
+ * the perfTest task runs them on their own; ./gradlew test depends on perfTest, so a budget
+ * regression still fails the build.
+ */
+public interface PerformanceTests {
+}
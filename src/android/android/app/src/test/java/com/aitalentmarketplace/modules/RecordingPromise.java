@@ -0,0 +1,109 @@
+package com.aitalentmarketplace.modules;
+
+import com.facebook.react.bridge.Promise; // React Native 0.72.x
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Promise that records how a bridge method settled, so tests can call native modules without
+ * a JS runtime. Methods that hand work to a background executor settle it on another thread;
+ * await blocks until they do.
+ */
+final class RecordingPromise implements Promise {
+    private final CountDownLatch settled = new CountDownLatch(1);
+    private volatile boolean resolved;
+    private volatile Object value;
+    private volatile String code;
+    private volatile String message;
+
+    /**
+     * Waits for the promise to be resolved or rejected
+     *
+     * @return False if it was still pending when the timeout expired
+     */
+    boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return settled.await(timeout, unit);
+    }
+
+    boolean isResolved() {
+        return resolved;
+    }
+
+    Object getValue() {
+        return value;
+    }
+
+    String getCode() {
+        return code;
+    }
+
+    String getMessage() {
+        return message;
+    }
+
+    @Override
+    public void resolve(Object value) {
+        this.value = value;
+        this.resolved = true;
+        settled.countDown();
+    }
+
+    @Override
+    public void reject(String code, String message) {
+        settle(code, message);
+    }
+
+    @Override
+    public void reject(String code, Throwable throwable) {
+        settle(code, throwable.getMessage());
+    }
+
+    @Override
+    public void reject(String code, String message, Throwable throwable) {
+        settle(code, message);
+    }
+
+    @Override
+    public void reject(Throwable throwable) {
+        settle(null, throwable.getMessage());
+    }
+
+    @Override
+    public void reject(Throwable throwable, WritableMap userInfo) {
+        settle(null, throwable.getMessage());
+    }
+
+    @Override
+    public void reject(String code, WritableMap userInfo) {
+        settle(code, null);
+    }
+
+    @Override
+    public void reject(String code, Throwable throwable, WritableMap userInfo) {
+        settle(code, throwable.getMessage());
+    }
+
+    @Override
+    public void reject(String code, String message, WritableMap userInfo) {
+        settle(code, message);
+    }
+
+    @Override
+    public void reject(String code, String message, Throwable throwable, WritableMap userInfo) {
+        settle(code, message);
+    }
+
+    @Override
+    @Deprecated
+    public void reject(String message) {
+        settle(null, message);
+    }
+
+    private void settle(String code, String message) {
+        this.code = code;
+        this.message = message;
+        settled.countDown();
+    }
+}
@@ -0,0 +1,64 @@
+package com.aitalentmarketplace;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording a call in NativeMetrics, which every bridge method pays, alone and with
+ * four threads recording into the same method; plus rendering the Prometheus text.
+ * Run with "-prof gc" to confirm recording stays allocation-free.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NativeMetricsBenchmark {
+    private NativeMetrics module;
+    private long duration;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        module = NativeMetrics.forModule("BenchmarkModule");
+        for (String method : new String[] {"getItem", "setItem", "multiGet", "multiSet", "clear"}) {
+            for (int i = 0; i < 1000; i++) {
+                module.method(method).record(i * 1000L, i * 10000L, i % 100 == 0 ? "ERR_STORAGE_BUSY" : null);
+            }
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        duration = (duration + 7919) & 0xFFFFFFL;
+        module.method("getItem").record(duration, duration * 3, null);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        module.method("getItem").record(123456, 654321, null);
+    }
+
+    @Benchmark
+    public long valueAtPercentile() {
+        return module.method("getItem").getExecution().getValueAtPercentile(99);
+    }
+
+    @Benchmark
+    public String renderPrometheusText() {
+        return PrometheusTextFormat.render(NativeMetrics.snapshot());
+    }
+}
@@ -0,0 +1,88 @@
+package com.aitalentmarketplace.modules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Per-operation cost of CryptoBackend sealing and opening, against a baseline that creates a
+ * new Cipher for every operation as the stores did before the backend cached them
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoBackendBenchmark {
+    private static final byte[] AAD = "ATLS/1".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"64", "4096"})
+    public int valueBytes;
+
+    private SecretKey key;
+    private CryptoBackend crypto;
+    private SecureRandom random;
+    private byte[] plaintext;
+    private byte[] sealed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws GeneralSecurityException {
+        KeyGenerator generator = KeyGenerator.getInstance("AES");
+        generator.init(256);
+        key = generator.generateKey();
+        crypto = new SoftwareCryptoBackend(key);
+        random = new SecureRandom();
+        plaintext = new byte[valueBytes];
+        random.nextBytes(plaintext);
+        sealed = crypto.seal(plaintext, 0, plaintext.length, AAD);
+    }
+
+    @Benchmark
+    public byte[] seal() throws GeneralSecurityException {
+        return crypto.seal(plaintext, 0, plaintext.length, AAD);
+    }
+
+    @Benchmark
+    public byte[] open() throws GeneralSecurityException {
+        return crypto.open(sealed, 0, sealed.length, AAD);
+    }
+
+    @Benchmark
+    public byte[] sealWithNewCipher() throws GeneralSecurityException {
+        byte[] iv = new byte[CryptoBackend.IV_BYTES];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GcmCryptoBackend.GCM_TAG_BITS, iv));
+        cipher.updateAAD(AAD);
+        return cipher.doFinal(plaintext);
+    }
+
+    @Benchmark
+    public byte[] openWithNewCipher() throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, key,
+                new GCMParameterSpec(GcmCryptoBackend.GCM_TAG_BITS, sealed, 0, CryptoBackend.IV_BYTES));
+        cipher.updateAAD(AAD);
+        return cipher.doFinal(sealed, CryptoBackend.IV_BYTES, sealed.length - CryptoBackend.IV_BYTES);
+    }
+}
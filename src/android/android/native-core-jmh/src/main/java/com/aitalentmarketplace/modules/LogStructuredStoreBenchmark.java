@@ -0,0 +1,106 @@
+package com.aitalentmarketplace.modules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads, single-key writes and prefix scans of LogStructuredStore, with SoftwareCryptoBackend in
+ * place of the Android Keystore. Writes append to the log and trigger compaction in the
+ * background as they would on a device.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogStructuredStoreBenchmark {
+    @Param({"100", "1000"})
+    public int keyCount;
+
+    @Param({"64", "4096"})
+    public int valueBytes;
+
+    private File directory;
+    private ExecutorService compactionExecutor;
+    private LogStructuredStore store;
+    private String[] keys;
+    private String value;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("log-store-benchmark").toFile();
+        compactionExecutor = Executors.newSingleThreadExecutor();
+
+        StringBuilder builder = new StringBuilder(valueBytes);
+        for (int i = 0; i < valueBytes; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        value = builder.toString();
+
+        keys = new String[keyCount];
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = (i % 2 == 0 ? "profile_" : "session_") + i;
+            entries.put(keys[i], value);
+        }
+        store = LogStructuredStore.create(new File(directory, "benchmark.log"), SoftwareCryptoBackend.generate(),
+                entries, compactionExecutor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        compactionExecutor.shutdown();
+        compactionExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public String get() {
+        return store.get(keys[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean put() {
+        return store.apply(Collections.singletonMap(keys[nextIndex()], value));
+    }
+
+    @Benchmark
+    public List<String> keysWithPrefix() {
+        return store.keysWithPrefix("session_");
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == keys.length ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,60 @@
+package com.aitalentmarketplace.modules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefix lookups and the encode/decode round trip of the sorted key index
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortedKeyIndexBenchmark {
+    @Param({"100", "10000"})
+    public int keyCount;
+
+    private SortedKeyIndex index;
+    private String encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> keys = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            keys.add("job_" + (i % 10) + "_" + i);
+        }
+        index = new SortedKeyIndex(keys);
+        encoded = index.encode();
+    }
+
+    @Benchmark
+    public List<String> withPrefix() {
+        return index.withPrefix("job_3_");
+    }
+
+    @Benchmark
+    public String encode() {
+        return index.encode();
+    }
+
+    @Benchmark
+    public SortedKeyIndex decode() {
+        return SortedKeyIndex.decode(encoded);
+    }
+}
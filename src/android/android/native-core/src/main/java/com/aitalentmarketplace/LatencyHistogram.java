@@ -0,0 +1,183 @@
+package com.aitalentmarketplace;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free latency histogram with HDR-style log-linear buckets.
+ *
+ * Values are recorded in microseconds. Values below 8 microseconds get a bucket each; above
+ * that, every power of two is split into 8 equal sub-buckets, so a bucket's width is at most
+ * 1/8 of its lower bound (12.5% relative precision) all the way up to about 71 minutes.
+ * Everything is allocated up front, so recording is a handful of atomic increments and never
+ * allocates.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 31; // Largest tracked power of two, in microseconds
+
+    /**
+     * Number of buckets; the last one also takes every value beyond the tracked range
+     */
+    public static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Records one duration
+     *
+     * @param nanos Duration in nanoseconds; negative values are recorded as zero
+     */
+    public void recordNanos(long nanos) {
+        long micros = nanos > 0 ? TimeUnit.NANOSECONDS.toMicros(nanos) : 0;
+        counts.incrementAndGet(bucketIndex(micros));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+
+        long max = maxMicros.get();
+        while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+            max = maxMicros.get();
+        }
+    }
+
+    /**
+     * @return Number of recorded values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return Sum of all recorded values in microseconds
+     */
+    public long getTotalMicros() {
+        return totalMicros.get();
+    }
+
+    /**
+     * @return Largest recorded value in microseconds
+     */
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * @return Mean of the recorded values in microseconds, or 0 if nothing was recorded
+     */
+    public double getMeanMicros() {
+        long recorded = count.get();
+        return recorded == 0 ? 0 : totalMicros.get() / (double) recorded;
+    }
+
+    /**
+     * @param index Bucket index, from 0 to BUCKET_COUNT - 1
+     * @return Number of values recorded in the bucket
+     */
+    public long getBucketCount(int index) {
+        return counts.get(index);
+    }
+
+    /**
+     * Returns the value below which the given share of recorded values fall, accurate to the
+     * width of its bucket. The result is the bucket's upper bound, capped at the recorded maximum.
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return The value in microseconds, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        long max = maxMicros.get();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return A copy of the current counts. Values recorded concurrently may be partly included.
+     */
+    LatencyHistogram copy() {
+        return minus(null);
+    }
+
+    /**
+     * @param baseline Earlier copy of this histogram, or null for none
+     * @return A new histogram of the values recorded since baseline; its maximum is this one's
+     */
+    LatencyHistogram minus(LatencyHistogram baseline) {
+        LatencyHistogram difference = new LatencyHistogram();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            difference.counts.set(i, counts.get(i) - (baseline == null ? 0 : baseline.counts.get(i)));
+        }
+        difference.count.set(count.get() - (baseline == null ? 0 : baseline.count.get()));
+        difference.totalMicros.set(totalMicros.get() - (baseline == null ? 0 : baseline.totalMicros.get()));
+        difference.maxMicros.set(maxMicros.get());
+        return difference;
+    }
+
+    /**
+     * Clears every bucket and counter. Values recorded concurrently may be partly kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+    }
+
+    /**
+     * @param micros Value in microseconds, not negative
+     * @return Index of the bucket holding the value
+     */
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @param index Bucket index
+     * @return Smallest value in microseconds that falls in the bucket
+     */
+    public static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + subBucket) << shift;
+    }
+
+    /**
+     * @param index Bucket index
+     * @return Largest value in microseconds that falls in the bucket (Long.MAX_VALUE for the last one)
+     */
+    public static long bucketUpperBound(int index) {
+        return index == BUCKET_COUNT - 1 ? Long.MAX_VALUE : bucketLowerBound(index + 1) - 1;
+    }
+}
@@ -0,0 +1,150 @@
+package com.aitalentmarketplace;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Call count, error counts by code and latency histograms of one native method.
+ *
+ * Each call is split into queue wait (from the bridge handing the call to the module until its
+ * work starts, e.g. on a storage executor thread) and execution (from then until the promise
+ * settles). Methods that do their work inline record a queue wait of zero.
+ */
+public final class MethodMetrics {
+    private final String module;
+    private final String method;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final ConcurrentHashMap<String, AtomicLong> errorsByCode = new ConcurrentHashMap<>();
+    private final LatencyHistogram queueWait;
+    private final LatencyHistogram execution;
+
+    MethodMetrics(String module, String method) {
+        this(module, method, new LatencyHistogram(), new LatencyHistogram());
+    }
+
+    private MethodMetrics(String module, String method, LatencyHistogram queueWait, LatencyHistogram execution) {
+        this.module = module;
+        this.method = method;
+        this.queueWait = queueWait;
+        this.execution = execution;
+    }
+
+    /**
+     * Records one finished call. Allocates only the first time a given error code is seen.
+     *
+     * @param queueWaitNanos Time from the call until its work started
+     * @param executionNanos Time from the start of the work until the result was delivered
+     * @param errorCode Code the call was rejected with, or null if it succeeded
+     */
+    public void record(long queueWaitNanos, long executionNanos, String errorCode) {
+        calls.incrementAndGet();
+        queueWait.recordNanos(queueWaitNanos);
+        execution.recordNanos(executionNanos);
+        if (errorCode != null) {
+            errors.incrementAndGet();
+            AtomicLong counter = errorsByCode.get(errorCode);
+            if (counter == null) {
+                AtomicLong created = new AtomicLong();
+                counter = errorsByCode.putIfAbsent(errorCode, created);
+                if (counter == null) {
+                    counter = created;
+                }
+            }
+            counter.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return Name of the native module, as exposed to JS
+     */
+    public String getModule() {
+        return module;
+    }
+
+    /**
+     * @return Name of the bridge method
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return Number of finished calls, successful or not
+     */
+    public long getCalls() {
+        return calls.get();
+    }
+
+    /**
+     * @return Number of calls that were rejected
+     */
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * @return Snapshot of rejection counts by error code, sorted by code
+     */
+    public Map<String, Long> getErrorsByCode() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> entry : errorsByCode.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().get());
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return Histogram of the time calls spent waiting before their work started
+     */
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    /**
+     * @return Histogram of the time from the start of the work until the result was delivered
+     */
+    public LatencyHistogram getExecution() {
+        return execution;
+    }
+
+    /**
+     * @return A copy of the current counters and histograms
+     */
+    MethodMetrics copy() {
+        return minus(null);
+    }
+
+    /**
+     * @param baseline Earlier copy of this method's metrics, or null for none
+     * @return New metrics holding only the calls recorded since baseline
+     */
+    MethodMetrics minus(MethodMetrics baseline) {
+        MethodMetrics difference = new MethodMetrics(module, method,
+                queueWait.minus(baseline == null ? null : baseline.queueWait),
+                execution.minus(baseline == null ? null : baseline.execution));
+        difference.calls.set(calls.get() - (baseline == null ? 0 : baseline.calls.get()));
+        difference.errors.set(errors.get() - (baseline == null ? 0 : baseline.errors.get()));
+        for (Map.Entry<String, AtomicLong> entry : errorsByCode.entrySet()) {
+            AtomicLong before = baseline == null ? null : baseline.errorsByCode.get(entry.getKey());
+            long count = entry.getValue().get() - (before == null ? 0 : before.get());
+            if (count != 0) {
+                difference.errorsByCode.put(entry.getKey(), new AtomicLong(count));
+            }
+        }
+        return difference;
+    }
+
+    /**
+     * Clears every counter and histogram
+     */
+    void reset() {
+        calls.set(0);
+        errors.set(0);
+        errorsByCode.clear();
+        queueWait.reset();
+        execution.reset();
+    }
+}
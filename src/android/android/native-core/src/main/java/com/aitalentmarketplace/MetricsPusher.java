@@ -0,0 +1,395 @@
+package com.aitalentmarketplace;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Periodically pushes NativeMetrics to an aggregating push gateway, one that adds each pushed
+ * counter and histogram sample to the series with the same labels instead of replacing it.
+ *
+ * Every device pushes under the same grouping key, so each push carries only what was recorded
+ * since the last accepted one: methods without new calls are left out and the rest are sent as
+ * increments. The gateway's series therefore stay bounded by the label values (method, error
+ * code, app version) rather than growing with the number of installations. A plain Pushgateway
+ * would keep only the last device's increments and must not be used as the endpoint.
+ *
+ * Pushes run on a single minimum-priority daemon thread and are skipped when no call has
+ * finished since the last successful push. The methods are split into batches of at most about
+ * MAX_BATCH_BYTES of text and each batch is sent as one POST, gzip-compressed unless disabled.
+ * A method's increments are only marked as pushed once its batch is accepted, so a failed round
+ * never counts a call twice or drops it. A failed push (I/O error or non-2xx status) abandons
+ * the rest of the round and delays the next round by an exponential back-off with jitter, or by
+ * the server's Retry-After; the normal interval resumes after a success.
+ */
+public final class MetricsPusher {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    private static final int READ_TIMEOUT_MS = 10000;
+    private static final int MAX_BATCH_BYTES = 64 * 1024; // Uncompressed text per request
+    private static final double BACKOFF_JITTER = 0.2;
+
+    private final URL endpoint;
+    private final long intervalMs;
+    private final long maxBackoffMs;
+    private final boolean gzip;
+    private final Random jitter = new Random();
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    private boolean started; // Guarded by lock
+    private boolean stopped; // Guarded by lock
+    private long backoffMs; // Guarded by lock
+    private long retryAfterMs; // Guarded by lock; server-requested delay for the next round, or 0
+    private int consecutiveFailures; // Guarded by lock
+    // Guarded by lock; the metrics of each method as of its last accepted push, by module and method
+    private final Map<String, MethodMetrics> pushed = new HashMap<>();
+    private long pushedRounds; // Guarded by lock
+
+    /**
+     * @param endpoint URL to POST to, usually built with groupingUrl()
+     * @param intervalMs Delay between pushes while they succeed
+     * @param maxBackoffMs Upper bound for the delay after consecutive failures
+     * @param gzip Whether to gzip request bodies
+     */
+    public MetricsPusher(URL endpoint, long intervalMs, long maxBackoffMs, boolean gzip) {
+        this.endpoint = endpoint;
+        this.intervalMs = intervalMs;
+        this.maxBackoffMs = Math.max(intervalMs, maxBackoffMs);
+        this.gzip = gzip;
+        this.backoffMs = intervalMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "NativeMetricsPusher");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Builds a Pushgateway grouping-key URL of the form base/metrics/job/JOB/LABEL/VALUE...
+     * Values containing a slash are sent base64url-encoded, as the Pushgateway expects.
+     *
+     * @param baseUrl Pushgateway base URL, e.g. https://push.example.com
+     * @param job Job name
+     * @param labels Further grouping labels, in order
+     * @return The push URL
+     * @throws MalformedURLException if baseUrl is not a valid URL
+     */
+    public static URL groupingUrl(String baseUrl, String job, Map<String, String> labels) throws MalformedURLException {
+        StringBuilder url = new StringBuilder(baseUrl);
+        while (url.length() > 0 && url.charAt(url.length() - 1) == '/') {
+            url.setLength(url.length() - 1);
+        }
+        url.append("/metrics");
+        appendGroupingLabel(url, "job", job);
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            appendGroupingLabel(url, label.getKey(), label.getValue());
+        }
+        return new URL(url.toString());
+    }
+
+    /**
+     * Schedules the first push one interval from now; later calls do nothing
+     */
+    public void start() {
+        synchronized (lock) {
+            if (started || stopped) {
+                return;
+            }
+            started = true;
+        }
+        schedule(intervalMs);
+    }
+
+    /**
+     * Cancels future pushes. A push already in progress is allowed to finish.
+     */
+    public void stop() {
+        synchronized (lock) {
+            stopped = true;
+        }
+        scheduler.shutdown();
+    }
+
+    /**
+     * Pushes the current metrics once, on the calling thread
+     *
+     * @return true if every batch was accepted or there was nothing new to push
+     */
+    public boolean pushNow() {
+        List<MethodMetrics> current = new ArrayList<>();
+        List<MethodMetrics> increments = new ArrayList<>();
+        synchronized (lock) {
+            for (MethodMetrics method : NativeMetrics.snapshot()) {
+                MethodMetrics copy = method.copy();
+                MethodMetrics baseline = pushed.get(keyOf(copy));
+                if (baseline != null && copy.getCalls() < baseline.getCalls()) {
+                    baseline = null; // Reset since the last push; everything in it is new
+                }
+                MethodMetrics increment = copy.minus(baseline);
+                if (increment.getCalls() > 0) {
+                    current.add(copy);
+                    increments.add(increment);
+                }
+            }
+        }
+        if (increments.isEmpty()) {
+            return true;
+        }
+
+        try {
+            for (int[] batch : batches(increments)) {
+                post(PrometheusTextFormat.render(increments.subList(batch[0], batch[1])).getBytes(UTF_8));
+                synchronized (lock) {
+                    for (MethodMetrics copy : current.subList(batch[0], batch[1])) {
+                        pushed.put(keyOf(copy), copy);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            recordFailure(e instanceof PushRejectedException ? ((PushRejectedException) e).retryAfterMs : 0);
+            return false;
+        }
+
+        synchronized (lock) {
+            pushedRounds++;
+            consecutiveFailures = 0;
+            backoffMs = intervalMs;
+        }
+        return true;
+    }
+
+    /**
+     * @return Number of rounds that failed in a row since the last success
+     */
+    public int getConsecutiveFailures() {
+        synchronized (lock) {
+            return consecutiveFailures;
+        }
+    }
+
+    /**
+     * @return Number of rounds that were pushed successfully
+     */
+    public long getPushedRounds() {
+        synchronized (lock) {
+            return pushedRounds;
+        }
+    }
+
+    /**
+     * @return Delay before the next scheduled round, before jitter
+     */
+    long getNextDelayMs() {
+        synchronized (lock) {
+            if (consecutiveFailures == 0) {
+                return intervalMs;
+            }
+            return retryAfterMs > 0 ? retryAfterMs : backoffMs;
+        }
+    }
+
+    private void schedule(long delayMs) {
+        try {
+            scheduler.schedule(this::runRound, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Stopped concurrently
+        }
+    }
+
+    private void runRound() {
+        synchronized (lock) {
+            if (stopped) {
+                return;
+            }
+        }
+        try {
+            pushNow();
+        } catch (RuntimeException e) {
+            recordFailure(0); // Never let one bad round end the schedule
+        }
+
+        long delayMs = getNextDelayMs();
+        if (getConsecutiveFailures() > 0) {
+            long spread = (long) (delayMs * BACKOFF_JITTER);
+            delayMs += spread > 0 ? (long) (jitter.nextDouble() * 2 * spread) - spread : 0;
+        }
+        schedule(delayMs);
+    }
+
+    private void recordFailure(long serverRetryAfterMs) {
+        synchronized (lock) {
+            backoffMs = Math.min((consecutiveFailures == 0 ? intervalMs : backoffMs) * 2, maxBackoffMs);
+            retryAfterMs = Math.min(serverRetryAfterMs, maxBackoffMs);
+            consecutiveFailures++;
+        }
+    }
+
+    /**
+     * Groups methods into request bodies of about MAX_BATCH_BYTES characters at most, going by
+     * the size of each method's samples rendered on their own. A single method larger than that
+     * gets a batch of its own.
+     *
+     * @return The start (inclusive) and end (exclusive) index of each batch
+     */
+    static List<int[]> batches(List<MethodMetrics> methods) {
+        List<int[]> batches = new ArrayList<>();
+        int start = 0;
+        int length = 0;
+        for (int i = 0; i < methods.size(); i++) {
+            int size = PrometheusTextFormat.render(Collections.singletonList(methods.get(i))).length();
+            if (i > start && length + size > MAX_BATCH_BYTES) {
+                batches.add(new int[] {start, i});
+                start = i;
+                length = 0;
+            }
+            length += size;
+        }
+        if (start < methods.size()) {
+            batches.add(new int[] {start, methods.size()});
+        }
+        return batches;
+    }
+
+    private static String keyOf(MethodMetrics method) {
+        return method.getModule() + '.' + method.getMethod();
+    }
+
+    private void post(byte[] text) throws IOException {
+        byte[] body = gzip ? compress(text) : text;
+        HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setUseCaches(false);
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            connection.setFixedLengthStreamingMode(body.length);
+            connection.setRequestProperty("Content-Type", PrometheusTextFormat.CONTENT_TYPE);
+            if (gzip) {
+                connection.setRequestProperty("Content-Encoding", "gzip");
+            }
+
+            OutputStream out = connection.getOutputStream();
+            try {
+                out.write(body);
+            } finally {
+                out.close();
+            }
+
+            int status = connection.getResponseCode();
+            drain(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+            if (status < 200 || status >= 300) {
+                throw new PushRejectedException(status, parseRetryAfterMs(connection.getHeaderField("Retry-After")));
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static byte[] compress(byte[] text) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(text.length / 4 + 64);
+        GZIPOutputStream out = new GZIPOutputStream(compressed);
+        try {
+            out.write(text);
+        } finally {
+            out.close();
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Reads and discards a response body so the connection can be reused
+     */
+    private static void drain(InputStream in) throws IOException {
+        if (in == null) {
+            return;
+        }
+        try {
+            byte[] buffer = new byte[1024];
+            while (in.read(buffer) != -1) {
+                // Discard
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * @return Delay requested by a Retry-After header in seconds, or 0 if absent or not numeric
+     */
+    private static long parseRetryAfterMs(String retryAfter) {
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            return 0; // HTTP dates are not worth parsing here; fall back to our own back-off
+        }
+    }
+
+    private static void appendGroupingLabel(StringBuilder url, String name, String value) {
+        try {
+            if (value.indexOf('/') >= 0 || value.isEmpty()) {
+                url.append('/').append(name).append("@base64/").append(base64Url(value));
+            } else {
+                url.append('/').append(name).append('/').append(URLEncoder.encode(value, "UTF-8").replace("+", "%20"));
+            }
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e); // UTF-8 is always supported
+        }
+    }
+
+    /**
+     * Base64url encoding with padding, which the Pushgateway accepts for label values
+     */
+    private static String base64Url(String value) {
+        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        byte[] bytes = value.getBytes(UTF_8);
+        StringBuilder out = new StringBuilder((bytes.length + 2) / 3 * 4);
+        for (int i = 0; i < bytes.length; i += 3) {
+            int b0 = bytes[i] & 0xff;
+            int b1 = i + 1 < bytes.length ? bytes[i + 1] & 0xff : 0;
+            int b2 = i + 2 < bytes.length ? bytes[i + 2] & 0xff : 0;
+            out.append(alphabet.charAt(b0 >>> 2));
+            out.append(alphabet.charAt(((b0 & 0x03) << 4) | (b1 >>> 4)));
+            out.append(i + 1 < bytes.length ? alphabet.charAt(((b1 & 0x0f) << 2) | (b2 >>> 6)) : '=');
+            out.append(i + 2 < bytes.length ? alphabet.charAt(b2 & 0x3f) : '=');
+        }
+        return out.length() == 0 ? "=" : out.toString();
+    }
+
+    /**
+     * A push the server answered with a non-2xx status
+     */
+    private static final class PushRejectedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        final long retryAfterMs;
+
+        PushRejectedException(int status, long retryAfterMs) {
+            super("Push rejected with HTTP " + status);
+            this.retryAfterMs = retryAfterMs;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.aitalentmarketplace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of per-method metrics for the app's native modules.
+ *
+ * Each module holds the NativeMetrics returned by forModule() and looks up its methods by name
+ * on every call. Lookups are hash-map reads keyed by the method's string literal, and the
+ * counters and histograms behind them are preallocated, so recording a call allocates nothing
+ * once a method has been seen. Registries outlive React instances, so numbers accumulate across
+ * reloads until reset() is called.
+ */
+public final class NativeMetrics {
+    private static final ConcurrentHashMap<String, NativeMetrics> modules = new ConcurrentHashMap<>();
+
+    private final String module;
+    private final ConcurrentHashMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    private NativeMetrics(String module) {
+        this.module = module;
+    }
+
+    /**
+     * Returns the registry of a native module, creating it on first use
+     *
+     * @param module Name of the module, as exposed to JS
+     * @return The module's registry
+     */
+    public static NativeMetrics forModule(String module) {
+        NativeMetrics metrics = modules.get(module);
+        if (metrics == null) {
+            NativeMetrics created = new NativeMetrics(module);
+            metrics = modules.putIfAbsent(module, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * @return Metrics of every method that has been called, sorted by module and method name
+     */
+    public static List<MethodMetrics> snapshot() {
+        List<MethodMetrics> all = new ArrayList<>();
+        for (NativeMetrics metrics : modules.values()) {
+            all.addAll(metrics.methods.values());
+        }
+        Collections.sort(all, new Comparator<MethodMetrics>() {
+            @Override
+            public int compare(MethodMetrics a, MethodMetrics b) {
+                int byModule = a.getModule().compareTo(b.getModule());
+                return byModule != 0 ? byModule : a.getMethod().compareTo(b.getMethod());
+            }
+        });
+        return all;
+    }
+
+    /**
+     * Clears the counters and histograms of every method
+     */
+    public static void resetAll() {
+        for (NativeMetrics metrics : modules.values()) {
+            for (MethodMetrics method : metrics.methods.values()) {
+                method.reset();
+            }
+        }
+    }
+
+    /**
+     * Returns the metrics of one of this module's methods, creating them on first use
+     *
+     * @param method Name of the bridge method
+     * @return The method's metrics
+     */
+    public MethodMetrics method(String method) {
+        MethodMetrics metrics = methods.get(method);
+        if (metrics == null) {
+            MethodMetrics created = new MethodMetrics(module, method);
+            metrics = methods.putIfAbsent(method, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * @return Name of the module
+     */
+    public String getModule() {
+        return module;
+    }
+}
@@ -0,0 +1,138 @@
+package com.aitalentmarketplace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes NativeMetrics in the Prometheus text exposition format (version 0.0.4).
+ *
+ * Each method's counters become native_method_calls_total and native_method_errors_total
+ * samples labelled with module, method and (for errors) code. Its two latency histograms become
+ * native_method_queue_wait_seconds and native_method_execution_seconds histograms. The
+ * fine-grained LatencyHistogram buckets are folded into a fixed set of Prometheus buckets: a
+ * fine bucket is counted under the smallest bound its whole range fits below, so a "le" count
+ * never includes a value above that bound.
+ */
+public final class PrometheusTextFormat {
+    /**
+     * Content type of the rendered text
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String CALLS = "native_method_calls_total";
+    private static final String ERRORS = "native_method_errors_total";
+    private static final String QUEUE_WAIT = "native_method_queue_wait_seconds";
+    private static final String EXECUTION = "native_method_execution_seconds";
+
+    private static final long[] BUCKET_BOUNDS_MICROS = {
+            500, 1000, 2500, 5000, 10000, 25000, 50000, 100000, 250000, 500000,
+            1000000, 2500000, 5000000, 10000000
+    };
+    private static final String[] BUCKET_LABELS = {
+            "0.0005", "0.001", "0.0025", "0.005", "0.01", "0.025", "0.05", "0.1", "0.25", "0.5",
+            "1", "2.5", "5", "10"
+    };
+    private static final double MICROS_PER_SECOND = 1000000.0;
+
+    private PrometheusTextFormat() {
+        // Static helpers, not instantiable
+    }
+
+    /**
+     * Renders every metric family separately, so callers can split them across requests
+     * without splitting a family
+     *
+     * @param methods Metrics to render, e.g. NativeMetrics.snapshot()
+     * @return One block of text per metric family, each ending in a newline
+     */
+    public static List<String> renderFamilies(List<MethodMetrics> methods) {
+        StringBuilder calls = header(CALLS, "counter", "Native bridge calls that finished, successfully or not");
+        StringBuilder errors = header(ERRORS, "counter", "Native bridge calls that were rejected, by error code");
+        StringBuilder queueWait = header(QUEUE_WAIT, "histogram",
+                "Time from a native bridge call until its work started");
+        StringBuilder execution = header(EXECUTION, "histogram",
+                "Time from the start of a native bridge call's work until its promise settled");
+
+        for (MethodMetrics method : methods) {
+            String labels = "module=\"" + escape(method.getModule()) + "\",method=\"" + escape(method.getMethod()) + "\"";
+            calls.append(CALLS).append('{').append(labels).append("} ").append(method.getCalls()).append('\n');
+            for (Map.Entry<String, Long> entry : method.getErrorsByCode().entrySet()) {
+                errors.append(ERRORS).append('{').append(labels)
+                        .append(",code=\"").append(escape(entry.getKey())).append("\"} ")
+                        .append(entry.getValue()).append('\n');
+            }
+            appendHistogram(queueWait, QUEUE_WAIT, labels, method.getQueueWait());
+            appendHistogram(execution, EXECUTION, labels, method.getExecution());
+        }
+
+        List<String> families = new ArrayList<>(4);
+        families.add(calls.toString());
+        families.add(errors.toString());
+        families.add(queueWait.toString());
+        families.add(execution.toString());
+        return families;
+    }
+
+    /**
+     * @param methods Metrics to render
+     * @return The complete exposition text
+     */
+    public static String render(List<MethodMetrics> methods) {
+        StringBuilder text = new StringBuilder();
+        for (String family : renderFamilies(methods)) {
+            text.append(family);
+        }
+        return text.toString();
+    }
+
+    private static StringBuilder header(String name, String type, String help) {
+        return new StringBuilder()
+                .append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Appends the cumulative buckets, sum and count of one histogram. The count is taken from
+     * the buckets themselves so the +Inf bucket and _count always agree.
+     */
+    private static void appendHistogram(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        long cumulative = 0;
+        int fine = 0;
+        for (int bound = 0; bound < BUCKET_BOUNDS_MICROS.length; bound++) {
+            while (fine < LatencyHistogram.BUCKET_COUNT
+                    && LatencyHistogram.bucketUpperBound(fine) <= BUCKET_BOUNDS_MICROS[bound]) {
+                cumulative += histogram.getBucketCount(fine++);
+            }
+            out.append(name).append("_bucket{").append(labels)
+                    .append(",le=\"").append(BUCKET_LABELS[bound]).append("\"} ").append(cumulative).append('\n');
+        }
+        while (fine < LatencyHistogram.BUCKET_COUNT) {
+            cumulative += histogram.getBucketCount(fine++);
+        }
+        out.append(name).append("_bucket{").append(labels).append(",le=\"+Inf\"} ").append(cumulative).append('\n');
+        out.append(name).append("_sum{").append(labels).append("} ")
+                .append(histogram.getTotalMicros() / MICROS_PER_SECOND).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(cumulative).append('\n');
+    }
+
+    /**
+     * Escapes a label value as the exposition format requires
+     */
+    static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\') {
+                escaped.append("\\\\");
+            } else if (c == '"') {
+                escaped.append("\\\"");
+            } else if (c == '\n') {
+                escaped.append("\\n");
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,271 @@
+package com.aitalentmarketplace.modules;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Stores large secure values as individually encrypted files, one per value, so reading or
+ * writing a multi-megabyte payload never touches the other secrets of the service.
+ *
+ * A blob is split into SEGMENT_BYTES segments, each encrypted separately with AES-GCM under its
+ * own random IV. Every segment authenticates the file header (which holds a random file ID, the
+ * segment count and the total length) and its own index, so segments cannot be reordered,
+ * dropped or moved between files without decryption failing. Segment offsets follow from the
+ * header, and reads decrypt straight out of a read-only memory mapping of the file.
+ *
+ * File names are the SHA-256 of the blob name, so names are not visible on disk. Writes go to a
+ * temporary file that is renamed over the old one, so readers see either the old or the new blob.
+ */
+final class BlobStore {
+    static final int SEGMENT_BYTES = 64 * 1024;
+    static final int MAX_BLOB_BYTES = 64 * 1024 * 1024;
+
+    private static final int MAGIC = 0x41544242; // "ATBB"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FILE_ID_BYTES = 16;
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 4 + 4 + FILE_ID_BYTES;
+    private static final int IV_BYTES = CryptoBackend.IV_BYTES;
+    private static final int TAG_BYTES = CryptoBackend.TAG_BYTES;
+    private static final String BLOB_EXTENSION = ".blob";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    private final File directory;
+    private final CryptoBackend crypto;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param directory Directory holding this store's blob files; created on first write
+     * @param crypto Backend the segments are encrypted with
+     */
+    BlobStore(File directory, CryptoBackend crypto) {
+        this.directory = directory;
+        this.crypto = crypto;
+    }
+
+    /**
+     * Encrypts and stores a value, replacing any previous value under the same name
+     *
+     * @param name Blob name
+     * @param value Value to store
+     * @throws IOException if the blob file cannot be written
+     * @throws GeneralSecurityException if encryption fails
+     */
+    void put(String name, String value) throws IOException, GeneralSecurityException {
+        byte[] plaintext = value.getBytes(StandardCharsets.UTF_8);
+        try {
+            put(name, plaintext);
+        } finally {
+            Arrays.fill(plaintext, (byte) 0);
+        }
+    }
+
+    /**
+     * Encrypts and stores a binary value as is, replacing any previous value under the same name
+     *
+     * @param name Blob name
+     * @param plaintext Value to store; not modified or retained
+     * @throws IOException if the blob file cannot be written
+     * @throws GeneralSecurityException if encryption fails
+     */
+    void put(String name, byte[] plaintext) throws IOException, GeneralSecurityException {
+        if (plaintext.length > MAX_BLOB_BYTES) {
+            throw new IllegalArgumentException("Blob of " + plaintext.length + " bytes exceeds the "
+                    + MAX_BLOB_BYTES + " byte limit");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create " + directory);
+        }
+
+        File target = fileFor(name);
+        File temporary = new File(target.getPath() + TEMPORARY_EXTENSION);
+        writeBlob(temporary, plaintext);
+        if (!temporary.renameTo(target)) {
+            temporary.delete();
+            throw new IOException("Failed to move " + temporary + " to " + target);
+        }
+    }
+
+    /**
+     * Reads and decrypts a value
+     *
+     * @param name Blob name
+     * @return The value, or null if no blob is stored under the name
+     * @throws IOException if the file is truncated or not a blob file
+     * @throws GeneralSecurityException if any segment fails to authenticate
+     */
+    String get(String name) throws IOException, GeneralSecurityException {
+        byte[] plaintext = getBytes(name);
+        if (plaintext == null) {
+            return null;
+        }
+        try {
+            return new String(plaintext, StandardCharsets.UTF_8);
+        } finally {
+            Arrays.fill(plaintext, (byte) 0);
+        }
+    }
+
+    /**
+     * Reads and decrypts a binary value
+     *
+     * @param name Blob name
+     * @return The value, which the caller should zero once done with it, or null if no blob is
+     *         stored under the name
+     * @throws IOException if the file is truncated or not a blob file
+     * @throws GeneralSecurityException if any segment fails to authenticate
+     */
+    byte[] getBytes(String name) throws IOException, GeneralSecurityException {
+        File file = fileFor(name);
+        if (!file.exists()) {
+            return null;
+        }
+
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        byte[] plaintext = null;
+        boolean complete = false;
+        try {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Truncated blob header");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            byte[] header = new byte[HEADER_BYTES];
+            mapped.get(header);
+            ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+            if (headerBuffer.getInt() != MAGIC || headerBuffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Unrecognized blob format");
+            }
+            int segmentBytes = headerBuffer.getInt();
+            int segmentCount = headerBuffer.getInt();
+            int length = headerBuffer.getInt();
+            if (segmentBytes <= 0 || length < 0 || length > MAX_BLOB_BYTES
+                    || segmentCount != segmentCount(length, segmentBytes)
+                    || size != encryptedSize(length, segmentCount)) {
+                throw new IOException("Blob header does not match file size");
+            }
+
+            plaintext = new byte[length];
+            ByteBuffer output = ByteBuffer.wrap(plaintext);
+            for (int segment = 0; segment < segmentCount; segment++) {
+                int plainLength = Math.min(segmentBytes, length - segment * segmentBytes);
+                ByteBuffer input = mapped.slice();
+                input.limit(IV_BYTES + plainLength + TAG_BYTES);
+
+                crypto.open(input, output, segmentAad(header, segment));
+                mapped.position(mapped.position() + IV_BYTES + plainLength + TAG_BYTES);
+            }
+            complete = true;
+            return plaintext;
+        } finally {
+            raf.close();
+            if (plaintext != null && !complete) {
+                Arrays.fill(plaintext, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Deletes a value
+     *
+     * @param name Blob name
+     * @return true if the blob no longer exists
+     */
+    boolean remove(String name) {
+        File file = fileFor(name);
+        return !file.exists() || file.delete();
+    }
+
+    /**
+     * Deletes every blob in the store
+     *
+     * @return true if every blob file was deleted
+     */
+    boolean clear() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return true;
+        }
+
+        boolean success = true;
+        for (File file : files) {
+            if (file.getName().endsWith(BLOB_EXTENSION) || file.getName().endsWith(TEMPORARY_EXTENSION)) {
+                success &= file.delete();
+            }
+        }
+        return success;
+    }
+
+    private void writeBlob(File file, byte[] plaintext) throws IOException, GeneralSecurityException {
+        int segmentCount = segmentCount(plaintext.length, SEGMENT_BYTES);
+        byte[] fileId = new byte[FILE_ID_BYTES];
+        random.nextBytes(fileId);
+
+        ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_BYTES);
+        headerBuffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(SEGMENT_BYTES)
+                .putInt(segmentCount).putInt(plaintext.length).put(fileId);
+        byte[] header = headerBuffer.array();
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = raf.getChannel();
+            channel.truncate(0);
+            writeFully(channel, ByteBuffer.wrap(header));
+
+            for (int segment = 0; segment < segmentCount; segment++) {
+                int offset = segment * SEGMENT_BYTES;
+                int plainLength = Math.min(SEGMENT_BYTES, plaintext.length - offset);
+
+                byte[] sealed = crypto.seal(plaintext, offset, plainLength, segmentAad(header, segment));
+                writeFully(channel, ByteBuffer.wrap(sealed));
+            }
+            channel.force(true);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private File fileFor(String name) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(name.getBytes(StandardCharsets.UTF_8));
+            StringBuilder fileName = new StringBuilder(digest.length * 2 + BLOB_EXTENSION.length());
+            for (byte b : digest) {
+                fileName.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return new File(directory, fileName.append(BLOB_EXTENSION).toString());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Required on every JVM and Android
+        }
+    }
+
+    /**
+     * Additional authenticated data for a segment: the whole header plus the segment index
+     */
+    private static byte[] segmentAad(byte[] header, int segment) {
+        return ByteBuffer.allocate(header.length + 4).put(header).putInt(segment).array();
+    }
+
+    private static int segmentCount(int length, int segmentBytes) {
+        return length == 0 ? 1 : (int) ((length + (long) segmentBytes - 1) / segmentBytes);
+    }
+
+    private static long encryptedSize(int length, int segmentCount) {
+        return HEADER_BYTES + (long) segmentCount * (IV_BYTES + TAG_BYTES) + length;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.aitalentmarketplace.modules;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects secure store changes between flushes and hands each subscription the ones its filter
+ * matches, so a burst of writes reaches JS as one batched event instead of one per key.
+ *
+ * Changes to the same key coalesce: only the latest one since the last flush is kept, in the
+ * position of that latest change. A clear drops the pending changes of its service. Changes
+ * no subscription matches are not recorded at all, so writes cost nothing while nobody listens.
+ * Changes carry the key and the kind of change, never the value.
+ *
+ * Thread-safe.
+ */
+final class ChangeBatcher {
+    static final String SET = "set";
+    static final String REMOVE = "remove";
+    static final String CLEAR = "clear";
+
+    /**
+     * One change to a service's store
+     */
+    static final class Change {
+        final String service;
+        final String key; // Null for CLEAR
+        final String type;
+
+        Change(String service, String key, String type) {
+            this.service = service;
+            this.key = key;
+            this.type = type;
+        }
+    }
+
+    /**
+     * Keys of one service a subscription is interested in
+     */
+    static final class Filter {
+        private final String service;
+        private final Set<String> keys;
+        private final List<String> prefixes;
+
+        /**
+         * @param service Service whose changes match
+         * @param keys Keys that match; with prefixes, empty matches every key of the service
+         * @param prefixes Key prefixes that match
+         */
+        Filter(String service, Collection<String> keys, Collection<String> prefixes) {
+            this.service = service;
+            this.keys = new HashSet<>(keys);
+            this.prefixes = new ArrayList<>(prefixes);
+        }
+
+        boolean matches(Change change) {
+            if (!service.equals(change.service)) {
+                return false;
+            }
+            if (change.key == null || (keys.isEmpty() && prefixes.isEmpty()) || keys.contains(change.key)) {
+                return true;
+            }
+            for (String prefix : prefixes) {
+                if (change.key.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final Map<String, Filter> subscriptions = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Change> pending = new LinkedHashMap<>();
+    private long recorded;
+    private long coalesced;
+    private long batches;
+
+    /**
+     * Adds or replaces a subscription
+     */
+    synchronized void subscribe(String id, Filter filter) {
+        subscriptions.put(id, filter);
+    }
+
+    /**
+     * Removes a subscription; its pending changes are dropped at the next flush
+     */
+    synchronized void unsubscribe(String id) {
+        subscriptions.remove(id);
+    }
+
+    /**
+     * Removes every subscription and pending change
+     */
+    synchronized void reset() {
+        subscriptions.clear();
+        pending.clear();
+    }
+
+    /**
+     * Records that a key was set or removed
+     *
+     * @param type SET or REMOVE
+     * @return true if this is the first pending change, i.e. a flush should be scheduled
+     */
+    synchronized boolean record(String service, String key, String type) {
+        Change change = new Change(service, key, type);
+        if (!isWatched(change)) {
+            return false;
+        }
+        String pendingKey = service + '\u0000' + key;
+        if (pending.remove(pendingKey) != null) {
+            coalesced++;
+        }
+        recorded++;
+        pending.put(pendingKey, change);
+        return pending.size() == 1;
+    }
+
+    /**
+     * Records that a service was cleared
+     *
+     * @return true if this is the first pending change, i.e. a flush should be scheduled
+     */
+    synchronized boolean recordClear(String service) {
+        Change change = new Change(service, null, CLEAR);
+        if (!isWatched(change)) {
+            return false;
+        }
+        Iterator<Change> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().service.equals(service)) {
+                iterator.remove();
+                coalesced++;
+            }
+        }
+        recorded++;
+        pending.put(service + '\u0000', change);
+        return pending.size() == 1;
+    }
+
+    /**
+     * Takes the pending changes
+     *
+     * @return Subscription ID to the changes it matches, in the order they were made; only
+     *         subscriptions with at least one change are included
+     */
+    synchronized Map<String, List<Change>> drain() {
+        if (pending.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, List<Change>> batch = new LinkedHashMap<>();
+        for (Map.Entry<String, Filter> subscription : subscriptions.entrySet()) {
+            List<Change> matched = null;
+            for (Change change : pending.values()) {
+                if (subscription.getValue().matches(change)) {
+                    if (matched == null) {
+                        matched = new ArrayList<>();
+                    }
+                    matched.add(change);
+                }
+            }
+            if (matched != null) {
+                batch.put(subscription.getKey(), matched);
+            }
+        }
+        pending.clear();
+        if (!batch.isEmpty()) {
+            batches++;
+        }
+        return batch;
+    }
+
+    synchronized int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    synchronized long getRecorded() {
+        return recorded;
+    }
+
+    /**
+     * @return Number of recorded changes replaced by a later change before they were flushed
+     */
+    synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return Number of flushes that delivered at least one change
+     */
+    synchronized long getBatches() {
+        return batches;
+    }
+
+    private boolean isWatched(Change change) {
+        for (Filter filter : subscriptions.values()) {
+            if (filter.matches(change)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
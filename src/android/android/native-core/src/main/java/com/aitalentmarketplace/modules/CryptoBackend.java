@@ -0,0 +1,51 @@
+package com.aitalentmarketplace.modules;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+
+/**
+ * Authenticated encryption used by LogStructuredStore and BlobStore.
+ *
+ * Sealed data is [IV_BYTES iv][ciphertext + TAG_BYTES tag], AES-GCM under a key the backend
+ * owns, with a fresh random IV per seal. Implementations must be safe to call from any number
+ * of threads at once.
+ */
+interface CryptoBackend {
+    int IV_BYTES = 12;
+    int TAG_BYTES = 16;
+
+    /**
+     * Encrypts and authenticates part of an array
+     *
+     * @param plaintext Data to encrypt
+     * @param offset Start of the data in plaintext
+     * @param length Number of bytes to encrypt
+     * @param aad Additional data authenticated with, but not stored in, the result
+     * @return IV_BYTES + length + TAG_BYTES bytes of sealed data
+     * @throws GeneralSecurityException if encryption fails
+     */
+    byte[] seal(byte[] plaintext, int offset, int length, byte[] aad) throws GeneralSecurityException;
+
+    /**
+     * Verifies and decrypts sealed data held in an array
+     *
+     * @param sealed Array holding the sealed data
+     * @param offset Start of the sealed data
+     * @param length Length of the sealed data, IV and tag included
+     * @param aad The additional data it was sealed with
+     * @return The plaintext
+     * @throws GeneralSecurityException if the data was tampered with, or sealed with another key or AAD
+     */
+    byte[] open(byte[] sealed, int offset, int length, byte[] aad) throws GeneralSecurityException;
+
+    /**
+     * Verifies and decrypts sealed data from a buffer, such as a memory-mapped file, into another
+     *
+     * @param sealed Sealed data between its position and limit; consumed entirely
+     * @param output Receives the plaintext at its position
+     * @param aad The additional data it was sealed with
+     * @return Number of plaintext bytes written to output
+     * @throws GeneralSecurityException if the data was tampered with, or sealed with another key or AAD
+     */
+    int open(ByteBuffer sealed, ByteBuffer output, byte[] aad) throws GeneralSecurityException;
+}
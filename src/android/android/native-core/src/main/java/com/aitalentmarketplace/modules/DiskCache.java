@@ -0,0 +1,515 @@
+package com.aitalentmarketplace.modules;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.AEADBadTagException;
+
+/**
+ * Size-bounded, persistent LRU cache of string values with a time-to-live per entry.
+ *
+ * Each entry is its own file, named by the SHA-256 of its key, so reading one entry never
+ * parses the others. Only a small index (file name, size, expiry) is held in memory; it is
+ * rebuilt from the file headers the first time the cache is used, ordered by each file's
+ * modification time, which sweep() updates for entries read since the previous sweep. When
+ * the files exceed the byte budget, the least recently used entries are deleted.
+ *
+ * Expired entries are dropped when read and by sweep(). Entries can be encrypted with a
+ * CryptoBackend, which is only created the first time an encrypted entry is written or read;
+ * an encrypted entry that no longer authenticates (for example because its key was reset) is
+ * dropped like an expired one.
+ *
+ * File layout: [int magic][int format version][int flags][long expires at, epoch ms]
+ * [int payload length][payload], where the payload is the UTF-8 value, or the value sealed with
+ * the header and file name as additional authenticated data.
+ *
+ * The index is thread-safe, but writes of one key must not run concurrently with each other.
+ */
+final class DiskCache {
+    private static final int FLAG_ENCRYPTED = 1;
+    private static final int MAGIC = 0x41544345; // "ATCE"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 8 + 4;
+    private static final String ENTRY_EXTENSION = ".cache";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    private final File directory;
+    private final SharedInitializer.Factory<? extends CryptoBackend> cryptoFactory;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // Guarded by lock
+    private boolean loaded; // Guarded by lock
+    private long maxBytes; // Guarded by lock
+    private long totalBytes; // Guarded by lock
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * @param directory Directory holding the entry files; created on first write
+     * @param maxBytes Budget for the total size of the entry files
+     * @param cryptoFactory Supplies the backend encrypted entries are sealed with
+     */
+    DiskCache(File directory, long maxBytes, SharedInitializer.Factory<? extends CryptoBackend> cryptoFactory) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.cryptoFactory = cryptoFactory;
+    }
+
+    /**
+     * Stores a value, replacing any previous value under the same key, and evicts the least
+     * recently used entries if the cache is now over its budget
+     *
+     * @param key Cache key
+     * @param value Value to store
+     * @param ttlMs Time-to-live in milliseconds; must be positive
+     * @param encrypted Whether to encrypt the value on disk
+     * @throws IllegalArgumentException if the entry alone exceeds the budget
+     * @throws IOException if the entry file cannot be written
+     * @throws GeneralSecurityException if encryption fails
+     */
+    void put(String key, String value, long ttlMs, boolean encrypted) throws IOException, GeneralSecurityException {
+        if (ttlMs <= 0) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        ensureLoaded();
+
+        String name = fileName(key);
+        byte[] plaintext = value.getBytes(StandardCharsets.UTF_8);
+        File temporary = new File(directory, name + TEMPORARY_EXTENSION);
+        long size;
+        long expiresAtMillis = System.currentTimeMillis() + ttlMs;
+        try {
+            int flags = encrypted ? FLAG_ENCRYPTED : 0;
+            int payloadLength = encrypted
+                    ? CryptoBackend.IV_BYTES + plaintext.length + CryptoBackend.TAG_BYTES : plaintext.length;
+            size = HEADER_BYTES + (long) payloadLength;
+            if (size > getMaxBytes()) {
+                remove(key);
+                throw new IllegalArgumentException("Cache entry of " + size + " bytes exceeds the "
+                        + getMaxBytes() + " byte budget");
+            }
+
+            byte[] header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(FORMAT_VERSION)
+                    .putInt(flags).putLong(expiresAtMillis).putInt(payloadLength).array();
+            byte[] payload = encrypted
+                    ? crypto().seal(plaintext, 0, plaintext.length, aad(header, name)) : plaintext;
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Failed to create " + directory);
+            }
+            writeEntry(temporary, header, payload);
+        } catch (IOException e) {
+            temporary.delete();
+            throw e;
+        } finally {
+            if (encrypted) {
+                Arrays.fill(plaintext, (byte) 0);
+            }
+        }
+
+        synchronized (lock) {
+            File target = new File(directory, name + ENTRY_EXTENSION);
+            if (!temporary.renameTo(target)) {
+                temporary.delete();
+                throw new IOException("Failed to move " + temporary + " to " + target);
+            }
+            Entry previous = entries.put(name, new Entry(size, expiresAtMillis));
+            if (previous != null) {
+                totalBytes -= previous.size;
+            }
+            totalBytes += size;
+            trimToBudgetLocked();
+        }
+    }
+
+    /**
+     * Reads a value, counting a hit or miss
+     *
+     * @param key Cache key
+     * @return The value, or null if absent, expired or no longer readable
+     * @throws IOException if the entry file cannot be read
+     * @throws GeneralSecurityException if the crypto backend is unavailable
+     */
+    String get(String key) throws IOException, GeneralSecurityException {
+        ensureLoaded();
+        String name = fileName(key);
+        synchronized (lock) {
+            Entry entry = entries.get(name);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+                removeLocked(name);
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            entry.accessed = true;
+        }
+
+        byte[] file;
+        try {
+            file = readFile(new File(directory, name + ENTRY_EXTENSION));
+        } catch (FileNotFoundException e) {
+            dropUnreadable(name); // Evicted or removed while it was being read
+            return null;
+        }
+
+        ByteBuffer header = ByteBuffer.wrap(file);
+        if (file.length < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+            dropUnreadable(name);
+            return null;
+        }
+        int flags = header.getInt();
+        header.getLong();
+        int payloadLength = header.getInt();
+        if (payloadLength != file.length - HEADER_BYTES) {
+            dropUnreadable(name);
+            return null;
+        }
+
+        if ((flags & FLAG_ENCRYPTED) == 0) {
+            hits.incrementAndGet();
+            return new String(file, HEADER_BYTES, payloadLength, StandardCharsets.UTF_8);
+        }
+
+        byte[] plaintext;
+        try {
+            plaintext = crypto().open(file, HEADER_BYTES, payloadLength,
+                    aad(Arrays.copyOf(file, HEADER_BYTES), name));
+        } catch (AEADBadTagException e) {
+            dropUnreadable(name);
+            return null;
+        }
+        try {
+            hits.incrementAndGet();
+            return new String(plaintext, StandardCharsets.UTF_8);
+        } finally {
+            Arrays.fill(plaintext, (byte) 0);
+        }
+    }
+
+    /**
+     * Deletes an entry
+     *
+     * @param key Cache key
+     * @return true if the entry no longer exists
+     */
+    boolean remove(String key) {
+        ensureLoaded();
+        String name = fileName(key);
+        synchronized (lock) {
+            return removeLocked(name);
+        }
+    }
+
+    /**
+     * Deletes every entry
+     *
+     * @return true if every entry file was deleted
+     */
+    boolean clear() {
+        synchronized (lock) {
+            entries.clear();
+            totalBytes = 0;
+            loaded = true;
+
+            File[] files = directory.listFiles();
+            if (files == null) {
+                return true;
+            }
+            boolean success = true;
+            for (File file : files) {
+                if (file.getName().endsWith(ENTRY_EXTENSION) || file.getName().endsWith(TEMPORARY_EXTENSION)) {
+                    success &= file.delete();
+                }
+            }
+            return success;
+        }
+    }
+
+    /**
+     * Deletes expired entries, and records which entries were read since the previous sweep in
+     * their files' modification times, so the LRU order survives a restart
+     *
+     * @return Number of expired entries deleted
+     */
+    int sweep() {
+        ensureLoaded();
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        List<String> accessed = new ArrayList<>();
+        synchronized (lock) {
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> entry = iterator.next();
+                if (entry.getValue().expiresAtMillis <= now) {
+                    iterator.remove();
+                    totalBytes -= entry.getValue().size;
+                    new File(directory, entry.getKey() + ENTRY_EXTENSION).delete();
+                    expired++;
+                } else if (entry.getValue().accessed) {
+                    entry.getValue().accessed = false;
+                    accessed.add(entry.getKey());
+                }
+            }
+        }
+        expirations.addAndGet(expired);
+
+        // Entries are listed least recently used first; space their times a millisecond apart
+        // so the next load restores the same order
+        for (int i = 0; i < accessed.size(); i++) {
+            new File(directory, accessed.get(i) + ENTRY_EXTENSION).setLastModified(now - accessed.size() + 1 + i);
+        }
+        return expired;
+    }
+
+    /**
+     * Changes the byte budget, evicting entries right away if the cache is over the new budget
+     *
+     * @param maxBytes Budget for the total size of the entry files
+     */
+    void setMaxBytes(long maxBytes) {
+        ensureLoaded();
+        synchronized (lock) {
+            this.maxBytes = maxBytes;
+            trimToBudgetLocked();
+        }
+    }
+
+    long getMaxBytes() {
+        synchronized (lock) {
+            return maxBytes;
+        }
+    }
+
+    /**
+     * @return Total size of the entry files, including expired entries not yet swept
+     */
+    long getTotalBytes() {
+        ensureLoaded();
+        synchronized (lock) {
+            return totalBytes;
+        }
+    }
+
+    /**
+     * @return Number of entries, including expired entries not yet swept
+     */
+    int size() {
+        ensureLoaded();
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    long getEvictions() {
+        return evictions.get();
+    }
+
+    long getExpirations() {
+        return expirations.get();
+    }
+
+    /**
+     * Builds the index from the entry file headers on first use. Expired entries, unreadable
+     * files and temporary files left by an interrupted write are deleted.
+     */
+    private void ensureLoaded() {
+        synchronized (lock) {
+            if (loaded) {
+                return;
+            }
+            loaded = true;
+
+            File[] files = directory.listFiles();
+            if (files == null) {
+                return;
+            }
+            List<File> entryFiles = new ArrayList<>();
+            for (File file : files) {
+                if (file.getName().endsWith(ENTRY_EXTENSION)) {
+                    entryFiles.add(file);
+                } else if (file.getName().endsWith(TEMPORARY_EXTENSION)) {
+                    file.delete();
+                }
+            }
+            Collections.sort(entryFiles, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+
+            long now = System.currentTimeMillis();
+            for (File file : entryFiles) {
+                long expiresAtMillis = readExpiry(file);
+                if (expiresAtMillis <= now) {
+                    file.delete();
+                    continue;
+                }
+                String fileName = file.getName();
+                long size = file.length();
+                entries.put(fileName.substring(0, fileName.length() - ENTRY_EXTENSION.length()),
+                        new Entry(size, expiresAtMillis));
+                totalBytes += size;
+            }
+            trimToBudgetLocked();
+        }
+    }
+
+    /**
+     * @return The expiry recorded in an entry file's header, or Long.MIN_VALUE if the file is
+     *         not a valid entry
+     */
+    private static long readExpiry(File file) {
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try {
+                if (raf.length() < HEADER_BYTES) {
+                    return Long.MIN_VALUE;
+                }
+                byte[] bytes = new byte[HEADER_BYTES];
+                raf.readFully(bytes);
+                ByteBuffer header = ByteBuffer.wrap(bytes);
+                if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                    return Long.MIN_VALUE;
+                }
+                header.getInt();
+                long expiresAtMillis = header.getLong();
+                return header.getInt() == raf.length() - HEADER_BYTES ? expiresAtMillis : Long.MIN_VALUE;
+            } finally {
+                raf.close();
+            }
+        } catch (IOException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private void trimToBudgetLocked() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> evicted = eldest.next();
+            eldest.remove();
+            totalBytes -= evicted.getValue().size;
+            new File(directory, evicted.getKey() + ENTRY_EXTENSION).delete();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private boolean removeLocked(String name) {
+        Entry entry = entries.remove(name);
+        if (entry != null) {
+            totalBytes -= entry.size;
+        }
+        File file = new File(directory, name + ENTRY_EXTENSION);
+        return !file.exists() || file.delete();
+    }
+
+    /**
+     * Drops an entry whose file is missing, truncated or fails to authenticate, and counts the
+     * read as a miss
+     */
+    private void dropUnreadable(String name) {
+        synchronized (lock) {
+            removeLocked(name);
+        }
+        misses.incrementAndGet();
+    }
+
+    private CryptoBackend crypto() throws GeneralSecurityException {
+        try {
+            CryptoBackend crypto = cryptoFactory.create();
+            if (crypto == null) {
+                throw new GeneralSecurityException("No crypto backend for encrypted cache entries");
+            }
+            return crypto;
+        } catch (GeneralSecurityException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GeneralSecurityException("Failed to create the cache crypto backend: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeEntry(File file, byte[] header, byte[] payload) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(0);
+            raf.write(header);
+            raf.write(payload);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static byte[] readFile(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            long length = raf.length();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Cache entry file is too large");
+            }
+            byte[] bytes = new byte[(int) length];
+            raf.readFully(bytes);
+            return bytes;
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Additional authenticated data of an encrypted entry: its header plus its file name, so an
+     * entry file cannot be moved to another key
+     */
+    private static byte[] aad(byte[] header, String name) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(header.length + nameBytes.length).put(header).put(nameBytes).array();
+    }
+
+    private static String fileName(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return name.toString();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Required on every JVM and Android
+        }
+    }
+
+    /**
+     * Index entry: the size of an entry's file and its expiry deadline
+     */
+    private static final class Entry {
+        final long size;
+        final long expiresAtMillis;
+        boolean accessed; // Guarded by lock; read since the previous sweep
+
+        Entry(long size, long expiresAtMillis) {
+            this.size = size;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
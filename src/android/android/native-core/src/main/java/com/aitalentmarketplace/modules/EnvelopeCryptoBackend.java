@@ -0,0 +1,336 @@
+package com.aitalentmarketplace.modules;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * CryptoBackend using envelope encryption: values are encrypted in-process under a random
+ * AES-256 data key, and only the data key is encrypted by the master backend.
+ *
+ * With an Android Keystore master key every operation is a binder call into keystore2; here
+ * the Keystore is used once per session, to unwrap the data key, and every value operation
+ * after that stays in the process. The wrapped data key lives in its own file and is created
+ * on first use, unless the SealedData check says data sealed under a data key already exists:
+ * the key file was then lost, and a new key would leave that data unreadable, so the backend
+ * fails with KeyUnavailableException instead. Every failure to load or unwrap the data key,
+ * including a Keystore or I/O error, is a KeyUnavailableException, never an authentication
+ * failure, so callers treat it as the store being unavailable rather than its data as corrupt.
+ * wipe() zeroes the unwrapped key and drops the Ciphers holding its key
+ * schedule; the next operation unwraps it again.
+ *
+ * Data sealed directly by the master backend, before this class existed, still opens: when
+ * the data key fails to authenticate a value, the master backend is tried. Such legacy opens
+ * are counted so callers can rewrite the data under the data key.
+ *
+ * Wrapped key file layout: [int magic][int format version][sealed data key], with the header
+ * as the sealed key's additional authenticated data.
+ */
+final class EnvelopeCryptoBackend extends GcmCryptoBackend {
+    private static final int MAGIC = 0x4154444b; // "ATDK"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int DATA_KEY_BYTES = 32;
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    /**
+     * Tells whether data sealed under a data key may exist, which makes a missing wrapped key
+     * file a lost key rather than a first run
+     */
+    interface SealedData {
+        /**
+         * @return true if data that only a data key opens may exist
+         * @throws IOException if the data cannot be inspected; the key is then not created
+         * @throws GeneralSecurityException if the data cannot be inspected
+         */
+        boolean mayExist() throws IOException, GeneralSecurityException;
+    }
+
+    /**
+     * The data key cannot be loaded right now, or was lost; the data sealed under it is intact
+     */
+    static final class KeyUnavailableException extends GeneralSecurityException {
+        private static final long serialVersionUID = 1L;
+
+        KeyUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private final CryptoBackend master;
+    private final File wrappedKeyFile;
+    private final SealedData sealedData;
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong unwraps = new AtomicLong();
+    private final AtomicLong legacyOpens = new AtomicLong();
+
+    private volatile DataKey dataKey; // Written under this
+
+    /**
+     * @param master Backend that wraps the data key, and that legacy data was sealed with
+     * @param wrappedKeyFile File holding the wrapped data key; created on first use
+     * @param sealedData Consulted before creating the data key
+     */
+    EnvelopeCryptoBackend(CryptoBackend master, File wrappedKeyFile, SealedData sealedData) {
+        this.master = master;
+        this.wrappedKeyFile = wrappedKeyFile;
+        this.sealedData = sealedData;
+    }
+
+    @Override
+    SecretKey key() throws GeneralSecurityException {
+        DataKey current = dataKey;
+        if (current != null && current.acquire()) {
+            return current;
+        }
+        return unwrap(); // Not unwrapped yet, or wiped since it was read
+    }
+
+    @Override
+    void releaseKey(SecretKey key) {
+        ((DataKey) key).release();
+    }
+
+    @Override
+    void initEncrypt(Cipher cipher, SecretKey key) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, iv));
+    }
+
+    @Override
+    public byte[] open(byte[] sealed, int offset, int length, byte[] aad) throws GeneralSecurityException {
+        try {
+            return super.open(sealed, offset, length, aad);
+        } catch (AEADBadTagException e) {
+            byte[] plaintext = master.open(sealed, offset, length, aad);
+            legacyOpens.incrementAndGet();
+            return plaintext;
+        }
+    }
+
+    @Override
+    public int open(ByteBuffer sealed, ByteBuffer output, byte[] aad) throws GeneralSecurityException {
+        int sealedPosition = sealed.position();
+        int outputPosition = output.position();
+        try {
+            return super.open(sealed, output, aad);
+        } catch (AEADBadTagException e) {
+            sealed.position(sealedPosition);
+            output.position(outputPosition);
+            int written = master.open(sealed, output, aad);
+            legacyOpens.incrementAndGet();
+            return written;
+        }
+    }
+
+    /**
+     * Zeroes the unwrapped data key and scrubs every cached Cipher. Operations that already
+     * hold the key finish with it, and it is zeroed as soon as the last of them has
+     * initialized its Cipher; later operations unwrap it again.
+     */
+    void wipe() {
+        synchronized (this) {
+            DataKey current = dataKey;
+            if (current == null) {
+                return;
+            }
+            dataKey = null;
+            current.destroy();
+        }
+        // Outside the lock: discardCiphers waits for operations in progress, which may be
+        // waiting in unwrap(). A Cipher initialized with a new key meanwhile is scrubbed too.
+        discardCiphers();
+    }
+
+    /**
+     * @return true if the data key is currently unwrapped in memory
+     */
+    boolean isUnwrapped() {
+        return dataKey != null;
+    }
+
+    /**
+     * @return How many times the data key has been unwrapped (or generated) by this backend
+     */
+    long getUnwraps() {
+        return unwraps.get();
+    }
+
+    /**
+     * @return How many values were sealed by the master backend rather than the data key
+     */
+    long getLegacyOpens() {
+        return legacyOpens.get();
+    }
+
+    /**
+     * @return The data key, unwrapping it if needed, already acquired for the caller
+     */
+    private synchronized DataKey unwrap() throws GeneralSecurityException {
+        // wipe() clears and destroys the key under this lock, so a key read here cannot be
+        // wiped before acquire
+        DataKey current = dataKey;
+        if (current != null && current.acquire()) {
+            return current;
+        }
+
+        byte[] material = null;
+        try {
+            if (wrappedKeyFile.exists()) {
+                material = readDataKey();
+            } else if (sealedData.mayExist()) {
+                throw new IOException("Wrapped data key file is missing, but data sealed under it exists");
+            } else {
+                material = createDataKey();
+            }
+            current = new DataKey(material);
+            current.acquire();
+            dataKey = current;
+            unwraps.incrementAndGet();
+            return current;
+        } catch (IOException | GeneralSecurityException e) {
+            // Also a Keystore failure or a corrupt key file: never an AEADBadTagException, which
+            // open() would take for a value sealed by the master backend
+            throw new KeyUnavailableException("Failed to load the data key: " + e.getMessage(), e);
+        } finally {
+            if (material != null) {
+                Arrays.fill(material, (byte) 0);
+            }
+        }
+    }
+
+    private byte[] readDataKey() throws IOException, GeneralSecurityException {
+        byte[] file;
+        RandomAccessFile in = new RandomAccessFile(wrappedKeyFile, "r");
+        try {
+            if (in.length() > HEADER_BYTES + IV_BYTES + DATA_KEY_BYTES + TAG_BYTES) {
+                throw new IOException("Wrapped data key file is too long");
+            }
+            file = new byte[(int) in.length()];
+            in.readFully(file);
+        } finally {
+            in.close();
+        }
+
+        ByteBuffer header = ByteBuffer.wrap(file);
+        if (file.length < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+            throw new IOException("Unrecognized wrapped data key format");
+        }
+        byte[] material = master.open(file, HEADER_BYTES, file.length - HEADER_BYTES, header());
+        if (material.length != DATA_KEY_BYTES) {
+            Arrays.fill(material, (byte) 0);
+            throw new GeneralSecurityException("Unexpected data key length " + material.length);
+        }
+        return material;
+    }
+
+    /**
+     * Generates a data key and writes it wrapped, atomically, so a crash never leaves a
+     * partial key file behind
+     */
+    private byte[] createDataKey() throws IOException, GeneralSecurityException {
+        byte[] material = new byte[DATA_KEY_BYTES];
+        random.nextBytes(material);
+        byte[] sealed = master.seal(material, 0, material.length, header());
+
+        File directory = wrappedKeyFile.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create " + directory);
+        }
+        File temporary = new File(wrappedKeyFile.getPath() + TEMPORARY_EXTENSION);
+        FileOutputStream out = new FileOutputStream(temporary);
+        try {
+            out.write(header());
+            out.write(sealed);
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+        if (!temporary.renameTo(wrappedKeyFile)) {
+            temporary.delete();
+            throw new IOException("Failed to move " + temporary + " to " + wrappedKeyFile);
+        }
+        return material;
+    }
+
+    private static byte[] header() {
+        return ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(FORMAT_VERSION).array();
+    }
+
+    /**
+     * AES key whose only copy of the material can be zeroed. Providers copy the material when
+     * a Cipher is initialized, so an operation holds the key from key() until its Cipher is
+     * initialized; destroying a key in use only zeroes it once the last such holder is done.
+     */
+    private static final class DataKey implements SecretKey {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] material;
+        private int holders; // Guarded by this
+        private boolean destroyed; // Guarded by this
+
+        DataKey(byte[] material) {
+            this.material = material.clone();
+        }
+
+        /**
+         * @return false if the key was destroyed, in which case it must not be used
+         */
+        synchronized boolean acquire() {
+            if (destroyed) {
+                return false;
+            }
+            holders++;
+            return true;
+        }
+
+        synchronized void release() {
+            if (--holders == 0 && destroyed) {
+                Arrays.fill(material, (byte) 0);
+            }
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return "AES";
+        }
+
+        @Override
+        public String getFormat() {
+            return "RAW";
+        }
+
+        @Override
+        public synchronized byte[] getEncoded() {
+            if (destroyed && holders == 0) {
+                throw new IllegalStateException("Data key was wiped");
+            }
+            return material.clone();
+        }
+
+        @Override
+        public synchronized void destroy() {
+            destroyed = true;
+            if (holders == 0) {
+                Arrays.fill(material, (byte) 0);
+            }
+        }
+
+        @Override
+        public synchronized boolean isDestroyed() {
+            return destroyed;
+        }
+    }
+}
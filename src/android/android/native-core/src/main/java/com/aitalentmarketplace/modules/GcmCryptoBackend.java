@@ -0,0 +1,170 @@
+package com.aitalentmarketplace.modules;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * CryptoBackend over a javax.crypto AES/GCM/NoPadding Cipher.
+ *
+ * Cipher.getInstance walks the installed providers on every call, which costs more than
+ * encrypting a small value, so each thread keeps one Cipher and re-initializes it per
+ * operation. A Cipher is not thread-safe; each one sits in a slot owned by its thread, and the
+ * slot's lock (never contended outside discardCiphers) is held for the whole operation. The
+ * slots are also kept in a registry, so discardCiphers can reach every thread's Cipher.
+ * Subclasses decide how the IV for encryption is chosen.
+ */
+abstract class GcmCryptoBackend implements CryptoBackend {
+    private static final String CIPHER_TRANSFORMATION = "AES/GCM/NoPadding";
+    static final int GCM_TAG_BITS = TAG_BYTES * 8;
+
+    private final ThreadLocal<CipherSlot> slots = new ThreadLocal<CipherSlot>() {
+        @Override
+        protected CipherSlot initialValue() {
+            return new CipherSlot();
+        }
+    };
+    private final Set<CipherSlot> liveSlots = new HashSet<>(); // Slots holding a Cipher; guarded by itself
+
+    /**
+     * @return The key to encrypt and decrypt with; passed to releaseKey once the Cipher is initialized
+     * @throws GeneralSecurityException if the key is no longer available
+     */
+    abstract SecretKey key() throws GeneralSecurityException;
+
+    /**
+     * Called once a Cipher has been initialized with a key returned by key()
+     */
+    void releaseKey(SecretKey key) {
+        // Nothing to release by default
+    }
+
+    /**
+     * Initializes the cipher for encryption under a fresh random IV
+     */
+    abstract void initEncrypt(Cipher cipher, SecretKey key) throws GeneralSecurityException;
+
+    @Override
+    public byte[] seal(byte[] plaintext, int offset, int length, byte[] aad) throws GeneralSecurityException {
+        CipherSlot slot = slots.get();
+        synchronized (slot) {
+            Cipher cipher = cipher(slot);
+            SecretKey key = key();
+            try {
+                initEncrypt(cipher, key);
+            } finally {
+                releaseKey(key);
+            }
+            byte[] iv = cipher.getIV();
+            if (iv == null || iv.length != IV_BYTES) {
+                throw new GeneralSecurityException("Unexpected GCM IV length " + (iv == null ? 0 : iv.length));
+            }
+            cipher.updateAAD(aad);
+
+            byte[] sealed = new byte[IV_BYTES + cipher.getOutputSize(length)];
+            System.arraycopy(iv, 0, sealed, 0, IV_BYTES);
+            int written = cipher.doFinal(plaintext, offset, length, sealed, IV_BYTES);
+            return IV_BYTES + written == sealed.length ? sealed : Arrays.copyOf(sealed, IV_BYTES + written);
+        }
+    }
+
+    @Override
+    public byte[] open(byte[] sealed, int offset, int length, byte[] aad) throws GeneralSecurityException {
+        if (length < IV_BYTES + TAG_BYTES) {
+            throw new GeneralSecurityException("Sealed data of " + length + " bytes is too short");
+        }
+        CipherSlot slot = slots.get();
+        synchronized (slot) {
+            Cipher cipher = cipher(slot);
+            initDecrypt(cipher, new GCMParameterSpec(GCM_TAG_BITS, sealed, offset, IV_BYTES));
+            cipher.updateAAD(aad);
+            return cipher.doFinal(sealed, offset + IV_BYTES, length - IV_BYTES);
+        }
+    }
+
+    @Override
+    public int open(ByteBuffer sealed, ByteBuffer output, byte[] aad) throws GeneralSecurityException {
+        if (sealed.remaining() < IV_BYTES + TAG_BYTES) {
+            throw new GeneralSecurityException("Sealed data of " + sealed.remaining() + " bytes is too short");
+        }
+        byte[] iv = new byte[IV_BYTES];
+        sealed.get(iv);
+        CipherSlot slot = slots.get();
+        synchronized (slot) {
+            Cipher cipher = cipher(slot);
+            initDecrypt(cipher, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            cipher.updateAAD(aad);
+            return cipher.doFinal(sealed, output);
+        }
+    }
+
+    private void initDecrypt(Cipher cipher, GCMParameterSpec parameters) throws GeneralSecurityException {
+        SecretKey key = key();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, key, parameters);
+        } finally {
+            releaseKey(key);
+        }
+    }
+
+    /**
+     * Re-initializes every thread's cached Cipher under a throwaway key, overwriting the key
+     * schedule it held, and drops it; each thread creates a new Cipher on its next call. Waits
+     * for operations in progress to finish first, so it must not be called while holding a
+     * lock that key() takes.
+     */
+    void discardCiphers() {
+        List<CipherSlot> discarded;
+        synchronized (liveSlots) {
+            discarded = new ArrayList<>(liveSlots);
+            liveSlots.clear();
+        }
+        for (CipherSlot slot : discarded) {
+            synchronized (slot) {
+                if (slot.cipher != null) {
+                    scrub(slot.cipher);
+                    slot.cipher = null;
+                }
+            }
+        }
+    }
+
+    private static void scrub(Cipher cipher) {
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(new byte[16], "AES"),
+                    new GCMParameterSpec(GCM_TAG_BITS, new byte[IV_BYTES]));
+        } catch (GeneralSecurityException | RuntimeException e) {
+            // A provider that keeps the key outside the process (e.g. the Keystore) may refuse a
+            // raw key; it holds no key schedule here, and the Cipher is dropped either way
+        }
+    }
+
+    /**
+     * Caller holds the slot's lock
+     */
+    private Cipher cipher(CipherSlot slot) throws GeneralSecurityException {
+        if (slot.cipher == null) {
+            slot.cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+            synchronized (liveSlots) {
+                liveSlots.add(slot);
+            }
+        }
+        return slot.cipher;
+    }
+
+    /**
+     * One thread's cached Cipher
+     */
+    private static final class CipherSlot {
+        Cipher cipher; // Guarded by this
+    }
+}
@@ -0,0 +1,112 @@
+package com.aitalentmarketplace.modules;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the values of a small set of "hot" secure-storage keys, such as the auth
+ * token read by every API request. It backs SecureStorageModule.getItemSync, which must answer
+ * without waiting on the storage executor or decrypting anything.
+ *
+ * A key that is hot but has not been loaded yet has no entry, which lets the synchronous getter
+ * fail fast instead of blocking. A loaded key whose value does not exist is stored as a
+ * Value holding null.
+ */
+final class HotValueSnapshot {
+    private final Set<String> hotKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final ConcurrentHashMap<String, Value> values = new ConcurrentHashMap<>();
+
+    /**
+     * Replaces the set of hot keys. Values of keys that are no longer hot are dropped.
+     *
+     * @param keys New set of hot keys
+     */
+    void setHotKeys(Collection<String> keys) {
+        Set<String> next = new HashSet<>(keys);
+        hotKeys.retainAll(next);
+        hotKeys.addAll(next);
+        values.keySet().retainAll(next);
+    }
+
+    /**
+     * @return A copy of the current hot keys
+     */
+    Set<String> getHotKeys() {
+        return new HashSet<>(hotKeys);
+    }
+
+    /**
+     * @param key Storage key
+     * @return true if the key's value is kept in the snapshot
+     */
+    boolean isHot(String key) {
+        return hotKeys.contains(key);
+    }
+
+    /**
+     * @param key Storage key
+     * @return The loaded value, or null if the key is not hot or has not been loaded yet
+     */
+    Value lookup(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Records the current value of a hot key; ignored for other keys
+     *
+     * @param key Storage key
+     * @param value Current value, or null if the key has no value
+     */
+    void update(String key, String value) {
+        if (hotKeys.contains(key)) {
+            values.put(key, new Value(value));
+        }
+    }
+
+    /**
+     * Records the value of a hot key read from the store, unless a newer value was already
+     * recorded by a write; ignored for other keys
+     *
+     * @param key Storage key
+     * @param value Value read from the store, or null if the key has no value
+     */
+    void loadIfAbsent(String key, String value) {
+        if (hotKeys.contains(key)) {
+            values.putIfAbsent(key, new Value(value));
+        }
+    }
+
+    /**
+     * Forgets the value of a key so it is reloaded before being served again
+     *
+     * @param key Storage key
+     */
+    void invalidate(String key) {
+        values.remove(key);
+    }
+
+    /**
+     * Records that the given hot keys are now absent, after their store was cleared
+     *
+     * @param keys Keys to mark; keys that are not hot are ignored
+     */
+    void markAbsent(Collection<String> keys) {
+        for (String key : keys) {
+            update(key, null);
+        }
+    }
+
+    /**
+     * Loaded value of a hot key; value is null when the key is not stored
+     */
+    static final class Value {
+        final String value;
+
+        Value(String value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,761 @@
+package com.aitalentmarketplace.modules;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.crypto.AEADBadTagException;
+
+/**
+ * SecureStore that appends AES-GCM encrypted records to a single file.
+ *
+ * Each apply() appends one record holding all of its puts and removes, so a write costs one
+ * append and fsync however large the store is, where an EncryptedSharedPreferences commit
+ * rewrites the whole file. An in-memory hash index maps every key to the offset of the record
+ * holding its latest value, and get() reads and decrypts only that record. The index is rebuilt
+ * by replaying the log when the store is opened. A crash mid-append can leave a torn record at
+ * the end of the file, which is truncated away:
+ * - a length prefix that is incomplete, zero, out of range or runs past the end of the file,
+ *   as long as no more than one record's worth of bytes follows it;
+ * - a complete-looking last record that fails authentication, if an earlier record of the log
+ *   authenticated under the same key or its tag was never written (all zeros).
+ * Any other record that cannot be read or decrypted fails the open and leaves the file
+ * untouched, so a corrupt record or an unavailable key never costs the records after it.
+ *
+ * Overwritten and removed values stay in the file as dead bytes. Once they make up more than
+ * COMPACTION_DEAD_RATIO of a file of at least COMPACTION_MIN_BYTES, the live values are copied
+ * to a new file on the compaction executor while reads and writes carry on. Records appended in
+ * the meantime are copied across before the new file replaces the old one.
+ *
+ * File layout: an 8-byte header (magic, format version) followed by records of the form
+ * [int length][byte ivLength][iv][ciphertext + GCM tag]. A record decrypts to an operation
+ * count followed by [byte op][int keyLength][key] and, for puts, [int valueLength][value].
+ */
+final class LogStructuredStore implements SecureStore {
+    static final double COMPACTION_DEAD_RATIO = 0.5;
+    static final long COMPACTION_MIN_BYTES = 64 * 1024;
+
+    private static final int MAGIC = 0x41544c53; // "ATLS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int LENGTH_BYTES = 4;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final int COMPACTION_BATCH_BYTES = 16 * 1024;
+    private static final byte[] RECORD_AAD = "ATLS/1".getBytes(StandardCharsets.UTF_8);
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+
+    private final File file;
+    private final CryptoBackend crypto;
+    private final Executor compactionExecutor;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean(false);
+    private final AtomicLong compactions = new AtomicLong();
+    private final AtomicLong compactionFailures = new AtomicLong();
+
+    // Guarded by lock
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    private LogIndex index = new LogIndex();
+    private long fileLength;
+    private long epoch; // Bumped by clear() so an in-progress compaction knows to give up
+
+    private LogStructuredStore(File file, CryptoBackend crypto, Executor compactionExecutor) {
+        this.file = file;
+        this.crypto = crypto;
+        this.compactionExecutor = compactionExecutor;
+    }
+
+    /**
+     * Opens (creating if needed) a log file and rebuilds its index
+     *
+     * @param file Log file
+     * @param crypto Backend the records are encrypted with
+     * @param compactionExecutor Executor that runs background compactions
+     * @return The opened store
+     * @throws IOException if the file cannot be read, is not a log written by this class, or
+     *         holds a malformed record before its end
+     * @throws GeneralSecurityException if a record cannot be decrypted; the file is left as is
+     */
+    static LogStructuredStore open(File file, CryptoBackend crypto, Executor compactionExecutor)
+            throws IOException, GeneralSecurityException {
+        deleteIfExists(temporaryFile(file));
+        deleteIfExists(compactionFile(file));
+
+        LogStructuredStore store = new LogStructuredStore(file, crypto, compactionExecutor);
+        store.load();
+        return store;
+    }
+
+    /**
+     * Atomically creates a log file holding the given entries, then opens it. Used to migrate
+     * another store: the file only appears under its final name once every entry is on disk.
+     *
+     * @param file Log file to create; replaced if it exists
+     * @param crypto Backend to encrypt the records with
+     * @param entries Initial contents
+     * @param compactionExecutor Executor that runs background compactions
+     * @return The opened store
+     */
+    static LogStructuredStore create(File file, CryptoBackend crypto, Map<String, String> entries,
+                                     Executor compactionExecutor) throws IOException, GeneralSecurityException {
+        File temporary = temporaryFile(file);
+        RandomAccessFile out = new RandomAccessFile(temporary, "rw");
+        try {
+            FileChannel outChannel = out.getChannel();
+            outChannel.truncate(0);
+            writeFully(outChannel, header(), 0);
+            if (!entries.isEmpty()) {
+                writeFully(outChannel, ByteBuffer.wrap(encodeRecord(crypto, entries)), HEADER_BYTES);
+            }
+            outChannel.force(true);
+        } finally {
+            out.close();
+        }
+
+        if (!temporary.renameTo(file)) {
+            deleteIfExists(temporary);
+            throw new IOException("Failed to move " + temporary + " to " + file);
+        }
+        return open(file, crypto, compactionExecutor);
+    }
+
+    /**
+     * Tells whether the newest record of a log opens with the given backend, without opening
+     * the store. Used to tell a log written before a backend change from one written after it.
+     *
+     * @param file Log file
+     * @param crypto Backend to try
+     * @return true if it opens, or the log holds no complete record
+     * @throws IOException if the file cannot be read or is not a log written by this class
+     * @throws GeneralSecurityException if decryption fails for another reason than authentication
+     */
+    static boolean lastRecordOpensWith(File file, CryptoBackend crypto) throws IOException, GeneralSecurityException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            FileChannel source = in.getChannel();
+            long size = source.size();
+            if (size < HEADER_BYTES) {
+                return true;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(source, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IOException("Unrecognized secure store log format in " + file);
+            }
+
+            long previous = -1;
+            long last = -1;
+            for (long position = HEADER_BYTES; position < size; ) {
+                int length = recordLength(source, position, size);
+                if (length < 0) {
+                    break; // Torn or malformed; only complete records are tried
+                }
+                previous = last;
+                last = position;
+                position += LENGTH_BYTES + length;
+            }
+            if (last < 0) {
+                return true;
+            }
+            byte[] payload = readRecord(source, last, size);
+            if (isUnwritten(payload)) {
+                // A torn last append tells nothing about the key; try the record before it
+                if (previous < 0) {
+                    return true;
+                }
+                payload = readRecord(source, previous, size);
+            }
+            try {
+                decrypt(crypto, payload);
+                return true;
+            } catch (AEADBadTagException e) {
+                return false;
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    @Override
+    public String get(String key) {
+        lock.readLock().lock();
+        try {
+            Long offset = index.offsets.get(key);
+            if (offset == null) {
+                return null;
+            }
+            return decodeOperations(decrypt(crypto, readRecord(channel, offset, fileLength))).get(key);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to read secure store record: " + e.getMessage(), e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean apply(Map<String, String> entries) {
+        if (entries.isEmpty()) {
+            return true;
+        }
+
+        byte[] record;
+        try {
+            record = encodeRecord(crypto, entries); // Encrypt outside the lock
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt secure store record: " + e.getMessage(), e);
+        }
+
+        lock.writeLock().lock();
+        try {
+            long offset = fileLength;
+            try {
+                writeFully(channel, ByteBuffer.wrap(record), offset);
+                channel.force(false);
+            } catch (IOException e) {
+                truncateQuietly(offset);
+                return false;
+            }
+            fileLength += record.length;
+            index.apply(offset, record.length, entries);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        scheduleCompactionIfNeeded();
+        return true;
+    }
+
+    @Override
+    public boolean clear() {
+        lock.writeLock().lock();
+        try {
+            epoch++;
+            channel.truncate(HEADER_BYTES);
+            channel.force(true);
+            fileLength = HEADER_BYTES;
+            index = new LogIndex();
+            return true;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> keys() {
+        lock.readLock().lock();
+        try {
+            return index.keys.all();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> keysWithPrefix(String prefix) {
+        lock.readLock().lock();
+        try {
+            return index.keys.withPrefix(prefix);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Current size of the log file in bytes
+     */
+    long getFileLength() {
+        lock.readLock().lock();
+        try {
+            return fileLength;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Bytes of the log file taken up by overwritten or removed values
+     */
+    long getDeadBytes() {
+        lock.readLock().lock();
+        try {
+            return index.deadBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long getCompactions() {
+        return compactions.get();
+    }
+
+    long getCompactionFailures() {
+        return compactionFailures.get();
+    }
+
+    /**
+     * Rewrites the log so it holds only live values. Safe to call concurrently with reads and
+     * writes; returns without replacing the file if the store is cleared meanwhile.
+     */
+    void compact() throws IOException, GeneralSecurityException {
+        Map<Long, List<String>> liveKeysByRecord = new LinkedHashMap<>();
+        FileChannel source;
+        long snapshotEnd;
+        long snapshotEpoch;
+
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, Long> entry : index.offsets.entrySet()) {
+                List<String> keys = liveKeysByRecord.get(entry.getValue());
+                if (keys == null) {
+                    keys = new ArrayList<>();
+                    liveKeysByRecord.put(entry.getValue(), keys);
+                }
+                keys.add(entry.getKey());
+            }
+            source = channel;
+            snapshotEnd = fileLength;
+            snapshotEpoch = epoch;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        File compacted = compactionFile(file);
+        RandomAccessFile out = new RandomAccessFile(compacted, "rw");
+        boolean replaced = false;
+        try {
+            FileChannel outChannel = out.getChannel();
+            outChannel.truncate(0);
+            writeFully(outChannel, header(), 0);
+            LogIndex compactedIndex = new LogIndex();
+            long position = HEADER_BYTES;
+
+            // Copy live values without holding the lock; records below snapshotEnd never change
+            // unless the store is cleared, which the epoch check below detects
+            Map<String, String> batch = new LinkedHashMap<>();
+            int batchBytes = 0;
+            for (Map.Entry<Long, List<String>> record : liveKeysByRecord.entrySet()) {
+                Map<String, String> operations =
+                        decodeOperations(decrypt(crypto, readRecord(source, record.getKey(), snapshotEnd)));
+                for (String liveKey : record.getValue()) {
+                    String value = operations.get(liveKey);
+                    batch.put(liveKey, value);
+                    batchBytes += liveKey.length() + (value != null ? value.length() : 0);
+                    if (batchBytes >= COMPACTION_BATCH_BYTES) {
+                        position = appendRecord(outChannel, position, batch, compactedIndex);
+                        batch.clear();
+                        batchBytes = 0;
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                position = appendRecord(outChannel, position, batch, compactedIndex);
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (epoch != snapshotEpoch) {
+                    return;
+                }
+
+                // Carry over records appended while the live values were being copied
+                long tail = snapshotEnd;
+                while (tail < fileLength) {
+                    byte[] payload = readRecord(channel, tail, fileLength);
+                    Map<String, String> operations = decodeOperations(decrypt(crypto, payload));
+                    int recordLength = LENGTH_BYTES + payload.length;
+                    ByteBuffer copy = ByteBuffer.allocate(recordLength);
+                    copy.putInt(payload.length).put(payload).flip();
+                    writeFully(outChannel, copy, position);
+                    compactedIndex.apply(position, recordLength, operations);
+                    position += recordLength;
+                    tail += recordLength;
+                }
+                outChannel.force(true);
+                out.close();
+
+                if (!compacted.renameTo(file)) {
+                    throw new IOException("Failed to move " + compacted + " to " + file);
+                }
+                replaced = true;
+
+                raf.close();
+                raf = new RandomAccessFile(file, "rw");
+                channel = raf.getChannel();
+                index = compactedIndex;
+                fileLength = position;
+                compactions.incrementAndGet();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            out.close();
+            if (!replaced) {
+                deleteIfExists(compacted);
+            }
+        }
+    }
+
+    private void load() throws IOException, GeneralSecurityException {
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+        long size = channel.size();
+
+        if (size < HEADER_BYTES) {
+            // New file, or one whose header never made it to disk
+            channel.truncate(0);
+            writeFully(channel, header(), 0);
+            channel.force(true);
+            fileLength = HEADER_BYTES;
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+            raf.close();
+            throw new IOException("Unrecognized secure store log format in " + file);
+        }
+
+        long position = HEADER_BYTES;
+        boolean authenticated = false; // Whether a record opened, proving the key is the right one
+        try {
+            while (position < size) {
+                if (recordLength(channel, position, size) < 0) {
+                    if (size - position > LENGTH_BYTES + MAX_RECORD_BYTES) {
+                        throw new IOException("Malformed record at offset " + position + " of " + file);
+                    }
+                    break; // Torn tail: the length prefix of the last append never fully made it to disk
+                }
+                byte[] payload = readRecord(channel, position, size);
+                byte[] plaintext;
+                try {
+                    plaintext = decrypt(crypto, payload);
+                } catch (GeneralSecurityException e) {
+                    boolean last = position + LENGTH_BYTES + payload.length == size;
+                    boolean unauthentic = e instanceof AEADBadTagException || isUnwritten(payload);
+                    if (!last || !unauthentic || !(authenticated || isUnwritten(payload))) {
+                        throw e;
+                    }
+                    break; // Torn tail: the body of the last append never fully made it to disk
+                }
+                index.apply(position, LENGTH_BYTES + payload.length, decodeOperations(plaintext));
+                authenticated = true;
+                position += LENGTH_BYTES + payload.length;
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            raf.close();
+            throw e;
+        }
+
+        if (position < size) {
+            // Only the last append can be incomplete, and it was never acknowledged
+            channel.truncate(position);
+            channel.force(true);
+        }
+        fileLength = position;
+    }
+
+    /**
+     * @return The payload length declared by the record at position, or -1 if its length prefix
+     *         is incomplete, out of range or declares a body running past size
+     */
+    private static int recordLength(FileChannel source, long position, long size) throws IOException {
+        if (position + LENGTH_BYTES > size) {
+            return -1;
+        }
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(LENGTH_BYTES);
+        readFully(source, lengthBuffer, position);
+        int length = lengthBuffer.getInt(0);
+        return length > 0 && length <= MAX_RECORD_BYTES && position + LENGTH_BYTES + length <= size ? length : -1;
+    }
+
+    /**
+     * @return true if the payload's GCM tag is all zeros, as left by an append whose last block
+     *         was allocated but never written; a real tag is all zeros with probability 2^-128
+     */
+    private static boolean isUnwritten(byte[] payload) {
+        if (payload.length < CryptoBackend.TAG_BYTES) {
+            return true;
+        }
+        for (int i = payload.length - CryptoBackend.TAG_BYTES; i < payload.length; i++) {
+            if (payload[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void scheduleCompactionIfNeeded() {
+        boolean needed;
+        lock.readLock().lock();
+        try {
+            needed = fileLength >= COMPACTION_MIN_BYTES && index.deadBytes > fileLength * COMPACTION_DEAD_RATIO;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (!needed || !compactionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            compactionExecutor.execute(() -> {
+                try {
+                    compact();
+                } catch (IOException | GeneralSecurityException | RuntimeException e) {
+                    compactionFailures.incrementAndGet();
+                } finally {
+                    compactionScheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            compactionScheduled.set(false);
+        }
+    }
+
+    private long appendRecord(FileChannel outChannel, long position, Map<String, String> operations,
+                              LogIndex target) throws IOException, GeneralSecurityException {
+        byte[] record = encodeRecord(crypto, operations);
+        writeFully(outChannel, ByteBuffer.wrap(record), position);
+        target.apply(position, record.length, operations);
+        return position + record.length;
+    }
+
+    private void truncateQuietly(long length) {
+        try {
+            channel.truncate(length);
+        } catch (IOException e) {
+            // The partial record is discarded as a torn tail when the log is next opened
+        }
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        return header;
+    }
+
+    /**
+     * Serializes and encrypts a set of operations into a complete, length-prefixed record
+     */
+    private static byte[] encodeRecord(CryptoBackend crypto, Map<String, String> operations)
+            throws GeneralSecurityException {
+        byte[] plaintext = encodeOperations(operations);
+        try {
+            byte[] sealed = crypto.seal(plaintext, 0, plaintext.length, RECORD_AAD);
+
+            int payloadLength = 1 + sealed.length;
+            if (payloadLength > MAX_RECORD_BYTES) {
+                throw new IllegalArgumentException("Record of " + payloadLength + " bytes exceeds the "
+                        + MAX_RECORD_BYTES + " byte limit");
+            }
+            ByteBuffer record = ByteBuffer.allocate(LENGTH_BYTES + payloadLength);
+            record.putInt(payloadLength).put((byte) CryptoBackend.IV_BYTES).put(sealed);
+            return record.array();
+        } finally {
+            Arrays.fill(plaintext, (byte) 0);
+        }
+    }
+
+    private static byte[] decrypt(CryptoBackend crypto, byte[] payload) throws GeneralSecurityException {
+        // The IV length is stored for format compatibility; AES-GCM IVs are always IV_BYTES
+        if ((payload[0] & 0xff) != CryptoBackend.IV_BYTES) {
+            throw new GeneralSecurityException("Malformed record IV");
+        }
+        return crypto.open(payload, 1, payload.length - 1, RECORD_AAD);
+    }
+
+    private static byte[] encodeOperations(Map<String, String> operations) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(operations.size());
+            for (Map.Entry<String, String> operation : operations.entrySet()) {
+                out.writeByte(operation.getValue() != null ? OP_PUT : OP_REMOVE);
+                writeString(out, operation.getKey());
+                if (operation.getValue() != null) {
+                    writeString(out, operation.getValue());
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // In-memory streams do not fail
+        }
+    }
+
+    /**
+     * Parses decrypted record contents into key to value, with null values for removes.
+     * The plaintext buffer is wiped afterwards.
+     */
+    private static Map<String, String> decodeOperations(byte[] plaintext) throws IOException {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(plaintext);
+            int count = buffer.getInt();
+            if (count < 0) {
+                throw new IOException("Malformed record operation count");
+            }
+
+            Map<String, String> operations = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                byte op = buffer.get();
+                String operationKey = readString(buffer);
+                if (op == OP_PUT) {
+                    operations.put(operationKey, readString(buffer));
+                } else if (op == OP_REMOVE) {
+                    operations.put(operationKey, null);
+                } else {
+                    throw new IOException("Unknown record operation " + op);
+                }
+            }
+            return operations;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated record contents", e);
+        } finally {
+            Arrays.fill(plaintext, (byte) 0);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Malformed record string length " + length);
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * Reads the payload (everything after the length prefix) of the record at position
+     *
+     * @throws IOException if the record is incomplete or extends beyond limit
+     */
+    private static byte[] readRecord(FileChannel source, long position, long limit) throws IOException {
+        if (position + LENGTH_BYTES > limit) {
+            throw new EOFException("Incomplete record header at offset " + position);
+        }
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(LENGTH_BYTES);
+        readFully(source, lengthBuffer, position);
+        int length = lengthBuffer.getInt(0);
+        if (length <= 0 || length > MAX_RECORD_BYTES || position + LENGTH_BYTES + length > limit) {
+            throw new EOFException("Incomplete record at offset " + position);
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(source, payload, position + LENGTH_BYTES);
+        return payload.array();
+    }
+
+    private static void readFully(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (source.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of secure store log");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static File temporaryFile(File file) {
+        return new File(file.getPath() + ".tmp");
+    }
+
+    private static File compactionFile(File file) {
+        return new File(file.getPath() + ".compact");
+    }
+
+    private static void deleteIfExists(File file) {
+        if (file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    /**
+     * Where each key's latest value lives, and how much of the file is dead
+     */
+    private static final class LogIndex {
+        final Map<String, Long> offsets = new HashMap<>();
+        final Map<Long, RecordInfo> records = new HashMap<>();
+        final SortedKeyIndex keys = new SortedKeyIndex();
+        long deadBytes;
+
+        /**
+         * Records the operations of the record at offset, releasing records they supersede
+         */
+        void apply(long offset, int recordLength, Map<String, String> operations) {
+            RecordInfo record = new RecordInfo(recordLength);
+            for (Map.Entry<String, String> operation : operations.entrySet()) {
+                Long previous = operation.getValue() != null
+                        ? offsets.put(operation.getKey(), offset)
+                        : offsets.remove(operation.getKey());
+                if (previous != null) {
+                    release(previous);
+                }
+                if (operation.getValue() != null) {
+                    record.liveKeys++;
+                    keys.add(operation.getKey());
+                } else {
+                    keys.remove(operation.getKey());
+                }
+            }
+
+            if (record.liveKeys > 0) {
+                records.put(offset, record);
+            } else {
+                deadBytes += recordLength;
+            }
+        }
+
+        private void release(long offset) {
+            RecordInfo record = records.get(offset);
+            if (record != null && --record.liveKeys == 0) {
+                records.remove(offset);
+                deadBytes += record.length;
+            }
+        }
+    }
+
+    private static final class RecordInfo {
+        final int length;
+        int liveKeys;
+
+        RecordInfo(int length) {
+            this.length = length;
+        }
+    }
+}
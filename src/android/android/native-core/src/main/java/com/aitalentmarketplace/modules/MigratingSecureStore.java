@@ -0,0 +1,173 @@
+package com.aitalentmarketplace.modules;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * SecureStore that serves a store while its entries are copied into a new one, so a format
+ * migration can run in the background instead of blocking the first read after an update.
+ *
+ * Writes go to the target. Reads try the target first and fall through to the source for
+ * entries not copied yet; removals are applied to both, so a removed entry cannot reappear
+ * from the source. copyBatch() copies entries the target does not have yet, in the order of
+ * the SHA-256 of their keys, which is stable while keys are added and removed and lets the
+ * cursor be recorded without revealing key names. Writes and batches are serialized, so a
+ * batch never overwrites a value written while the migration runs. Once completeMigration()
+ * has been called, only the target is used.
+ */
+final class MigratingSecureStore implements SecureStore {
+    private final SecureStore target;
+    private final SecureStore source;
+    private final Object writeLock = new Object();
+    private volatile boolean migrated;
+
+    /**
+     * @param target Store the entries are moving to; receives every write
+     * @param source Store the entries are moving from
+     */
+    MigratingSecureStore(SecureStore target, SecureStore source) {
+        this.target = target;
+        this.source = source;
+    }
+
+    @Override
+    public String get(String key) {
+        String value = target.get(key);
+        if (value != null || migrated) {
+            return value;
+        }
+        return source.get(key);
+    }
+
+    @Override
+    public boolean apply(Map<String, String> entries) {
+        synchronized (writeLock) {
+            if (!migrated) {
+                Map<String, String> removals = new HashMap<>();
+                for (Map.Entry<String, String> entry : entries.entrySet()) {
+                    if (entry.getValue() == null) {
+                        removals.put(entry.getKey(), null);
+                    }
+                }
+                // Removed from the source first, so a failed write cannot resurrect the old value
+                if (!removals.isEmpty() && !source.apply(removals)) {
+                    return false;
+                }
+            }
+            return target.apply(entries);
+        }
+    }
+
+    @Override
+    public boolean clear() {
+        synchronized (writeLock) {
+            boolean success = migrated || source.clear();
+            return target.clear() && success;
+        }
+    }
+
+    @Override
+    public List<String> keys() {
+        if (migrated) {
+            return target.keys();
+        }
+        Set<String> keys = new TreeSet<>(target.keys());
+        keys.addAll(source.keys());
+        return new ArrayList<>(keys);
+    }
+
+    @Override
+    public List<String> keysWithPrefix(String prefix) {
+        if (migrated) {
+            return target.keysWithPrefix(prefix);
+        }
+        Set<String> keys = new TreeSet<>(target.keysWithPrefix(prefix));
+        keys.addAll(source.keysWithPrefix(prefix));
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * Copies the next entries the target does not have yet. Safe to repeat with the same cursor.
+     *
+     * @param cursor Cursor returned by the previous batch, or null to start
+     * @param maxEntries Maximum number of source entries to look at
+     * @return Cursor of the next batch, or null if every entry has been copied
+     * @throws IOException if the target did not commit the batch
+     */
+    String copyBatch(String cursor, int maxEntries) throws IOException {
+        synchronized (writeLock) {
+            TreeMap<String, String> keysByHash = new TreeMap<>();
+            for (String key : source.keys()) {
+                keysByHash.put(hash(key), key);
+            }
+            Map<String, String> pending = cursor != null ? keysByHash.tailMap(cursor, false) : keysByHash;
+            Set<String> copied = new HashSet<>(target.keys());
+
+            Map<String, String> batch = new LinkedHashMap<>();
+            String last = null;
+            int visited = 0;
+            for (Map.Entry<String, String> entry : pending.entrySet()) {
+                if (visited++ == maxEntries) {
+                    break;
+                }
+                last = entry.getKey();
+                if (!copied.contains(entry.getValue())) {
+                    String value = source.get(entry.getValue());
+                    if (value != null) {
+                        batch.put(entry.getValue(), value);
+                    }
+                }
+            }
+
+            if (!batch.isEmpty() && !target.apply(batch)) {
+                throw new IOException("Failed to commit a migration batch of " + batch.size() + " entries");
+            }
+            return visited > maxEntries ? last : null;
+        }
+    }
+
+    /**
+     * Switches to serving only the target and clears the source. Safe to repeat.
+     *
+     * @throws IOException if the source could not be cleared
+     */
+    void completeMigration() throws IOException {
+        synchronized (writeLock) {
+            migrated = true;
+            if (!source.clear()) {
+                throw new IOException("Failed to clear the migrated store");
+            }
+        }
+    }
+
+    /**
+     * @return true once completeMigration() has been called
+     */
+    boolean isMigrated() {
+        return migrated;
+    }
+
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Required on every JVM and Android
+        }
+    }
+}
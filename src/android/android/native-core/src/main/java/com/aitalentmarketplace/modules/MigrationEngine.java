@@ -0,0 +1,216 @@
+package com.aitalentmarketplace.modules;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs versioned storage format migrations a bounded batch at a time, checkpointing after every
+ * batch so a migration interrupted by a crash or process kill resumes where it stopped.
+ *
+ * Each step moves the data from version getVersion() - 1 to getVersion(). Steps run in version
+ * order, and a step's batches are handed the cursor the previous batch returned. Because the
+ * checkpoint is written after the batch has been applied, a kill between the two repeats that
+ * batch, so batches and finish() must be idempotent.
+ *
+ * Checkpoint file layout: [int magic][int format version][int completed version]
+ * [boolean batches done][boolean has cursor][UTF cursor], replaced atomically after every
+ * batch. Cursors must not contain secrets, as the checkpoint is not encrypted.
+ *
+ * Not thread-safe; run batches from one thread at a time.
+ */
+final class MigrationEngine {
+    private static final int MAGIC = 0x41544d43; // "ATMC"
+    private static final int FORMAT_VERSION = 1;
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    /**
+     * One versioned migration
+     */
+    interface Step {
+        /**
+         * @return The version the data is at once this step has finished; at least 1
+         */
+        int getVersion();
+
+        /**
+         * @return Name of the step, for logging
+         */
+        String getName();
+
+        /**
+         * Migrates the next batch of entries. Running a batch again with the same cursor must
+         * leave the data as running it once does.
+         *
+         * @param cursor Cursor returned by the previous batch, or null for the first batch
+         * @param maxEntries Maximum number of entries to migrate
+         * @return Cursor to resume from, or null if every entry has been migrated
+         * @throws Exception if the batch failed; it is retried from the same cursor
+         */
+        String migrateBatch(String cursor, int maxEntries) throws Exception;
+
+        /**
+         * Completes the step once every batch has run, e.g. by deleting the old store.
+         * May be called again after a kill.
+         *
+         * @throws Exception if the step could not be completed; it is retried
+         */
+        void finish() throws Exception;
+    }
+
+    private final File checkpointFile;
+    private final List<Step> steps;
+    private final int batchSize;
+
+    private int completedVersion;
+    private String cursor;
+    private boolean finishing; // Every batch of the current step has run
+
+    /**
+     * Reads the checkpoint, if there is one
+     *
+     * @param checkpointFile File the progress is recorded in
+     * @param steps Migrations to run, in any order
+     * @param batchSize Maximum number of entries migrated per batch
+     * @throws IOException if the checkpoint exists but cannot be read
+     */
+    MigrationEngine(File checkpointFile, List<Step> steps, int batchSize) throws IOException {
+        List<Step> ordered = new ArrayList<>(steps);
+        Collections.sort(ordered, (a, b) -> Integer.compare(a.getVersion(), b.getVersion()));
+        for (int i = 0; i < ordered.size(); i++) {
+            if (ordered.get(i).getVersion() < 1
+                    || (i > 0 && ordered.get(i).getVersion() == ordered.get(i - 1).getVersion())) {
+                throw new IllegalArgumentException("Step versions must be positive and distinct");
+            }
+        }
+        this.checkpointFile = checkpointFile;
+        this.steps = ordered;
+        this.batchSize = batchSize;
+        readCheckpoint();
+    }
+
+    /**
+     * @return The version of the last step that has completed, or 0 if none has
+     */
+    int getCompletedVersion() {
+        return completedVersion;
+    }
+
+    /**
+     * @return true once every step has completed
+     */
+    boolean isComplete() {
+        return currentStep() == null;
+    }
+
+    /**
+     * @return The step the next batch belongs to, or null if every step has completed
+     */
+    Step currentStep() {
+        for (Step step : steps) {
+            if (step.getVersion() > completedVersion) {
+                return step;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs the next batch of the current step, or finishes the step once its batches are done,
+     * and records the progress
+     *
+     * @return true if work remains
+     * @throws Exception if the batch or the checkpoint failed; calling again retries it
+     */
+    boolean runBatch() throws Exception {
+        Step step = currentStep();
+        if (step == null) {
+            return false;
+        }
+
+        if (!finishing) {
+            String next = step.migrateBatch(cursor, batchSize);
+            writeCheckpoint(completedVersion, next == null, next);
+            cursor = next;
+            finishing = next == null;
+            return true;
+        }
+
+        step.finish();
+        writeCheckpoint(step.getVersion(), false, null);
+        completedVersion = step.getVersion();
+        cursor = null;
+        finishing = false;
+        return !isComplete();
+    }
+
+    /**
+     * Writes the checkpoint if it does not exist yet, so the migration is known to have started
+     * before the first batch creates any new file
+     *
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void recordStart() throws IOException {
+        if (!checkpointFile.exists()) {
+            writeCheckpoint(completedVersion, finishing, cursor);
+        }
+    }
+
+    /**
+     * Deletes the checkpoint once every step has completed and nothing will read it again
+     */
+    void deleteCheckpoint() {
+        checkpointFile.delete();
+    }
+
+    private void readCheckpoint() throws IOException {
+        if (!checkpointFile.exists()) {
+            return;
+        }
+        DataInputStream in = new DataInputStream(new FileInputStream(checkpointFile));
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unrecognized migration checkpoint format");
+            }
+            completedVersion = in.readInt();
+            finishing = in.readBoolean();
+            cursor = in.readBoolean() ? in.readUTF() : null;
+        } finally {
+            in.close();
+        }
+    }
+
+    private void writeCheckpoint(int version, boolean batchesDone, String nextCursor) throws IOException {
+        File directory = checkpointFile.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create " + directory);
+        }
+        File temporary = new File(checkpointFile.getPath() + TEMPORARY_EXTENSION);
+        FileOutputStream file = new FileOutputStream(temporary);
+        try {
+            DataOutputStream out = new DataOutputStream(file);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(version);
+            out.writeBoolean(batchesDone);
+            out.writeBoolean(nextCursor != null);
+            if (nextCursor != null) {
+                out.writeUTF(nextCursor);
+            }
+            out.flush();
+            file.getFD().sync();
+        } finally {
+            file.close();
+        }
+        if (!temporary.renameTo(checkpointFile)) {
+            temporary.delete();
+            throw new IOException("Failed to move " + temporary + " to " + checkpointFile);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.aitalentmarketplace.modules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans how a burst of local notifications is posted, so that dozens of events cost a handful
+ * of NotificationManager calls instead of one each, which Android would throttle and cap.
+ *
+ * Notifications are grouped by their group key. Within a batch a later notification with the
+ * same key replaces an earlier one. Each group posts only its most recent notifications as
+ * children, up to a limit; the older ones are folded into the group's summary, which lists the
+ * most recent lines of the whole group.
+ */
+final class NotificationBatch {
+    /**
+     * One notification of the batch
+     */
+    static final class Item {
+        final int index; // Position in the request
+        final String group;
+        final String key; // Server ID key, or null
+        final String title;
+        final String text;
+
+        Item(int index, String group, String key, String title, String text) {
+            this.index = index;
+            this.group = group;
+            this.key = key;
+            this.title = title;
+            this.text = text;
+        }
+    }
+
+    /**
+     * The notifications of one group, oldest first
+     */
+    static final class Group {
+        final String key;
+        final List<Item> posted; // Posted as children
+        final List<Item> folded; // Only listed in the summary
+
+        Group(String key, List<Item> posted, List<Item> folded) {
+            this.key = key;
+            this.posted = posted;
+            this.folded = folded;
+        }
+
+        int size() {
+            return posted.size() + folded.size();
+        }
+
+        /**
+         * @return true if the group has more than one notification and needs a summary
+         */
+        boolean needsSummary() {
+            return size() > 1;
+        }
+
+        /**
+         * @return The most recent notification of the group
+         */
+        Item latest() {
+            return posted.get(posted.size() - 1);
+        }
+
+        /**
+         * @return The title every notification of the group shares, e.g. a conversation
+         *         name, or null if they differ
+         */
+        String commonTitle() {
+            String title = latest().title;
+            for (Item item : all()) {
+                if (title == null ? item.title != null : !title.equals(item.title)) {
+                    return null;
+                }
+            }
+            return title;
+        }
+
+        /**
+         * @param maxLines Maximum number of lines
+         * @return Summary lines, most recent first; the title is left out when the whole group
+         *         shares it
+         */
+        List<String> summaryLines(int maxLines) {
+            boolean withTitle = commonTitle() == null;
+            List<Item> items = all();
+            List<String> lines = new ArrayList<>();
+            for (int i = items.size() - 1; i >= 0 && lines.size() < maxLines; i--) {
+                Item item = items.get(i);
+                lines.add(withTitle && item.title != null ? item.title + ": " + item.text : item.text);
+            }
+            return lines;
+        }
+
+        private List<Item> all() {
+            List<Item> items = new ArrayList<>(folded);
+            items.addAll(posted);
+            return items;
+        }
+    }
+
+    private NotificationBatch() {
+        // Static helpers, not instantiable
+    }
+
+    /**
+     * @param items Notifications in the order they happened
+     * @param maxChildrenPerGroup Maximum number of notifications posted per group
+     * @return Groups in the order their first notification appears
+     */
+    static List<Group> plan(List<Item> items, int maxChildrenPerGroup) {
+        // A later notification with the same key replaces an earlier one, in the later position
+        LinkedHashMap<String, Item> latestByKey = new LinkedHashMap<>();
+        for (Item item : items) {
+            String dedupKey = item.key != null ? "k" + item.key : "i" + item.index;
+            latestByKey.remove(dedupKey);
+            latestByKey.put(dedupKey, item);
+        }
+
+        Map<String, List<Item>> byGroup = new LinkedHashMap<>();
+        for (Item item : items) {
+            if (!byGroup.containsKey(item.group)) {
+                byGroup.put(item.group, new ArrayList<Item>());
+            }
+        }
+        for (Item item : latestByKey.values()) {
+            byGroup.get(item.group).add(item);
+        }
+
+        List<Group> groups = new ArrayList<>();
+        for (Map.Entry<String, List<Item>> entry : byGroup.entrySet()) {
+            List<Item> groupItems = entry.getValue();
+            if (groupItems.isEmpty()) {
+                continue; // Every notification moved to a later one's group
+            }
+            int split = Math.max(0, groupItems.size() - maxChildrenPerGroup);
+            groups.add(new Group(entry.getKey(),
+                    Collections.unmodifiableList(new ArrayList<>(groupItems.subList(split, groupItems.size()))),
+                    Collections.unmodifiableList(new ArrayList<>(groupItems.subList(0, split)))));
+        }
+        return groups;
+    }
+}
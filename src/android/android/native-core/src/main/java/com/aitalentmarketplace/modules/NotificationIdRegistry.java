@@ -0,0 +1,331 @@
+package com.aitalentmarketplace.modules;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Allocates notification IDs and remembers which one was used for each server message or job,
+ * so a repeat delivery replaces its notification in place instead of stacking a duplicate.
+ *
+ * IDs come from a counter rather than the clock, so two notifications in the same millisecond
+ * get different IDs. The counter is persisted a block at a time: the file records the end of
+ * the block being handed out, and only crossing into the next block rewrites it, so a restart
+ * continues after every ID handed out before it. The key map keeps the most recently used
+ * mappings up to a limit, evicting the least recently used. Group summaries are mapped in a
+ * namespace of their own, marked by a leading NUL that server keys are not allowed to start
+ * with, so no server key can take a summary's ID. Adding or removing a mapping does not
+ * write the file on the calling thread: it schedules one write on the writer executor, and every
+ * change made before that write runs is persisted by it, so a burst of new mappings costs a
+ * single write. A mapping lost to a crash before its write only means a repeat delivery gets a
+ * new ID. A failed write does not fail the call, as the ID is still good for this process; it is
+ * counted, and the next write persists the current state.
+ *
+ * File layout: [int magic][int format version][int reserved up to][int mapping count]
+ * then per mapping, least recently used first: [UTF key][int notification ID]. Written to a
+ * temporary file and renamed over the old one.
+ *
+ * Thread-safe.
+ */
+final class NotificationIdRegistry {
+    /**
+     * The ID mapped to a key, and whether the key already had it
+     */
+    static final class Mapping {
+        final int id;
+        final boolean existed; // true if a notification for the key may already be shown
+
+        Mapping(int id, boolean existed) {
+            this.id = id;
+            this.existed = existed;
+        }
+    }
+
+    static final int FIRST_ID = 1000; // Lower IDs are never allocated, so fixed IDs there cannot collide
+
+    private static final String SUMMARY_PREFIX = "\u0000summary:";
+
+    private static final int MAGIC = 0x41544e49; // "ATNI"
+    private static final int FORMAT_VERSION = 1;
+    private static final int BLOCK_SIZE = 64;
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    private final File file;
+    private final int maxMappings;
+    private final Executor writer;
+    private final LinkedHashMap<String, Integer> idsByKey = new LinkedHashMap<>(16, 0.75f, true);
+    private int nextId = FIRST_ID;
+    private int reservedUpTo = FIRST_ID; // Exclusive end of the persisted block
+    private long version; // Bumped by every change that has to be persisted
+    private boolean writeScheduled;
+
+    private final Object writeLock = new Object(); // Taken after this, never before
+    private long writtenVersion; // Guarded by writeLock
+    private long writeFailures; // Guarded by writeLock
+
+    private final Runnable scheduledWrite = new Runnable() {
+        @Override
+        public void run() {
+            Snapshot snapshot;
+            synchronized (NotificationIdRegistry.this) {
+                writeScheduled = false;
+                snapshot = snapshot();
+            }
+            persist(snapshot);
+        }
+    };
+
+    /**
+     * Loads the registry. A missing or unreadable file starts an empty one.
+     *
+     * @param file File the counter and mappings are kept in
+     * @param maxMappings Number of key mappings to keep
+     * @param writer Executor that writes changed mappings in the background
+     */
+    NotificationIdRegistry(File file, int maxMappings, Executor writer) {
+        this.file = file;
+        this.maxMappings = maxMappings;
+        this.writer = writer;
+        load();
+    }
+
+    /**
+     * @return A notification ID no other call has returned since the counter last wrapped
+     */
+    synchronized int allocate() {
+        if (nextId == Integer.MAX_VALUE) {
+            nextId = FIRST_ID; // Mapped IDs are skipped below; anything older is long gone
+        }
+        int id = nextId;
+        while (idsByKey.containsValue(id)) {
+            id = id == Integer.MAX_VALUE - 1 ? FIRST_ID : id + 1;
+        }
+        nextId = id + 1;
+        // Past the reserved block, or wrapped back below it
+        if (nextId > reservedUpTo || reservedUpTo - nextId > BLOCK_SIZE) {
+            // Written before the ID is handed out, so a restart never hands it out again
+            reservedUpTo = (int) Math.min((long) nextId + BLOCK_SIZE, Integer.MAX_VALUE);
+            version++;
+            persist(snapshot());
+        }
+        return id;
+    }
+
+    /**
+     * Returns the ID mapped to a key, allocating and recording one if there is none, in one step
+     *
+     * @param key Server message or job ID, namespaced by the caller
+     * @return The notification ID for the key, and whether it was already mapped
+     * @throws IllegalArgumentException if the key starts with NUL
+     */
+    synchronized Mapping map(String key) {
+        checkServerKey(key);
+        return mapKey(key);
+    }
+
+    private Mapping mapKey(String key) { // Caller holds this
+        Integer existing = idsByKey.get(key);
+        if (existing != null) {
+            return new Mapping(existing, true);
+        }
+        int id = allocate();
+        idsByKey.put(key, id);
+        Iterator<Integer> eldest = idsByKey.values().iterator();
+        while (idsByKey.size() > maxMappings) {
+            eldest.next();
+            eldest.remove();
+        }
+        changed();
+        return new Mapping(id, false);
+    }
+
+    /**
+     * Returns the ID mapped to a key, allocating and recording one if there is none
+     *
+     * @param key Server message or job ID, namespaced by the caller
+     * @return The notification ID for the key
+     */
+    synchronized int idFor(String key) {
+        return map(key).id;
+    }
+
+    /**
+     * Returns the ID of a group's summary notification, allocating and recording one if there is
+     * none. Summary IDs never collide with the ID of a server key, whatever the group is called.
+     *
+     * @param group Group key
+     * @return The notification ID for the group's summary
+     */
+    synchronized int summaryIdFor(String group) {
+        return mapKey(SUMMARY_PREFIX + group).id;
+    }
+
+    /**
+     * @return The ID mapped to the key, or null if it has none
+     */
+    synchronized Integer find(String key) {
+        checkServerKey(key);
+        return idsByKey.get(key);
+    }
+
+    /**
+     * Removes a key's mapping, so its next notification gets a new ID
+     *
+     * @return The ID that was mapped, or null if there was none
+     */
+    synchronized Integer forget(String key) {
+        checkServerKey(key);
+        Integer id = idsByKey.remove(key);
+        if (id != null) {
+            changed();
+        }
+        return id;
+    }
+
+    /**
+     * Writes pending changes on the calling thread, e.g. before the process is expected to end
+     */
+    void flush() {
+        Snapshot snapshot;
+        synchronized (this) {
+            snapshot = snapshot();
+        }
+        persist(snapshot);
+    }
+
+    synchronized int getMappingCount() {
+        return idsByKey.size();
+    }
+
+    /**
+     * @return Number of writes that failed; the state they would have written stays in memory
+     */
+    long getWriteFailures() {
+        synchronized (writeLock) {
+            return writeFailures;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the key is in the namespace kept for summaries
+     */
+    private static void checkServerKey(String key) {
+        if (key.startsWith("\u0000")) {
+            throw new IllegalArgumentException("Notification keys cannot start with NUL");
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                    throw new IOException("Unrecognized notification ID file format");
+                }
+                int reserved = in.readInt();
+                int count = in.readInt();
+                Map<String, Integer> loaded = new LinkedHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    loaded.put(in.readUTF(), in.readInt());
+                }
+                idsByKey.putAll(loaded);
+                nextId = Math.max(reserved, FIRST_ID);
+                reservedUpTo = nextId;
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            // Start over; IDs may repeat ones still on screen, which at worst replaces them
+            idsByKey.clear();
+            nextId = FIRST_ID;
+            reservedUpTo = FIRST_ID;
+        }
+    }
+
+    /**
+     * Schedules a write of the current state, unless one is already waiting to run. Guarded by this.
+     */
+    private void changed() {
+        version++;
+        if (!writeScheduled) {
+            writeScheduled = true;
+            writer.execute(scheduledWrite);
+        }
+    }
+
+    /**
+     * Copies the state to write. Guarded by this.
+     */
+    private Snapshot snapshot() {
+        return new Snapshot(version, reservedUpTo, new LinkedHashMap<>(idsByKey));
+    }
+
+    /**
+     * Writes a snapshot unless a newer one has been written already
+     */
+    private void persist(Snapshot snapshot) {
+        synchronized (writeLock) {
+            if (snapshot.version <= writtenVersion) {
+                return;
+            }
+            try {
+                writeFile(snapshot);
+                writtenVersion = snapshot.version;
+            } catch (IOException e) {
+                writeFailures++;
+            }
+        }
+    }
+
+    private void writeFile(Snapshot snapshot) throws IOException {
+        File directory = file.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create " + directory);
+        }
+        File temporary = new File(file.getPath() + TEMPORARY_EXTENSION);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(snapshot.reservedUpTo);
+            out.writeInt(snapshot.idsByKey.size());
+            for (Map.Entry<String, Integer> entry : snapshot.idsByKey.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+        } finally {
+            out.close();
+        }
+        if (!temporary.renameTo(file)) {
+            temporary.delete();
+            throw new IOException("Failed to move " + temporary + " to " + file);
+        }
+    }
+
+    /**
+     * State copied for a write, so the file can be written without holding the registry's lock
+     */
+    private static final class Snapshot {
+        final long version;
+        final int reservedUpTo;
+        final Map<String, Integer> idsByKey;
+
+        Snapshot(long version, int reservedUpTo, Map<String, Integer> idsByKey) {
+            this.version = version;
+            this.reservedUpTo = reservedUpTo;
+            this.idsByKey = idsByKey;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.aitalentmarketplace.modules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paces notification posts to what Android accepts. The system drops updates an app posts
+ * faster than about ten per second, so posts are released by a token bucket: up to burstSize
+ * at once, then postsPerSecond.
+ *
+ * Posts waiting for a token coalesce by notification ID: a newer post replaces the pending one,
+ * keeping its place in line, so only the latest version of a notification is ever posted.
+ * Waiting posts are released highest priority first, then in the order they were first queued.
+ * Times are passed in by the caller, in milliseconds of a monotonic clock.
+ *
+ * Thread-safe.
+ *
+ * @param <T> The notification to post
+ */
+final class NotificationPostQueue<T> {
+    /**
+     * A post released by take()
+     */
+    static final class Post<T> {
+        final int id;
+        final int priority;
+        final T notification;
+        final long queuedAtMillis; // When the first post it replaced was queued
+        private final long sequence;
+
+        Post(int id, int priority, T notification, long queuedAtMillis, long sequence) {
+            this.id = id;
+            this.priority = priority;
+            this.notification = notification;
+            this.queuedAtMillis = queuedAtMillis;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final Comparator<Post<?>> RELEASE_ORDER = new Comparator<Post<?>>() {
+        @Override
+        public int compare(Post<?> a, Post<?> b) {
+            if (a.priority != b.priority) {
+                return a.priority > b.priority ? -1 : 1;
+            }
+            return a.sequence < b.sequence ? -1 : (a.sequence == b.sequence ? 0 : 1);
+        }
+    };
+
+    private final int burstSize;
+    private final double tokensPerMilli;
+    private final Map<Integer, Post<T>> pending = new HashMap<>();
+    private double tokens;
+    private long refilledAtMillis;
+    private long nextSequence;
+
+    private long offered;
+    private long coalesced;
+    private long deferred;
+    private long released;
+
+    /**
+     * @param burstSize Number of posts released at once after a quiet period
+     * @param postsPerSecond Sustained number of posts released per second
+     * @param nowMillis Current time
+     */
+    NotificationPostQueue(int burstSize, double postsPerSecond, long nowMillis) {
+        this.burstSize = burstSize;
+        this.tokensPerMilli = postsPerSecond / 1000;
+        this.tokens = burstSize;
+        this.refilledAtMillis = nowMillis;
+    }
+
+    /**
+     * Queues a post, replacing the pending one with the same ID
+     *
+     * @param id Notification ID
+     * @param priority Release priority; higher goes first
+     * @param notification Notification to post
+     * @param nowMillis Current time
+     * @return true if the post can be released right away; otherwise it waits for take() after
+     *         delayMillis()
+     */
+    synchronized boolean offer(int id, int priority, T notification, long nowMillis) {
+        refill(nowMillis);
+        offered++;
+        Post<T> replaced = pending.get(id);
+        if (replaced != null) {
+            coalesced++;
+            pending.put(id, new Post<>(id, priority, notification, replaced.queuedAtMillis, replaced.sequence));
+            return false; // Already counted as deferred, or already due
+        }
+        pending.put(id, new Post<>(id, priority, notification, nowMillis, nextSequence++));
+        if (pending.size() > tokens) {
+            deferred++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drops a pending post, e.g. because its notification was cancelled
+     *
+     * @return true if a post was pending for the ID
+     */
+    synchronized boolean remove(int id) {
+        return pending.remove(id) != null;
+    }
+
+    /**
+     * Drops every pending post
+     */
+    synchronized void clear() {
+        pending.clear();
+    }
+
+    /**
+     * Releases as many pending posts as there are tokens for, in release order
+     *
+     * @param nowMillis Current time
+     * @return The posts to make now, possibly none
+     */
+    synchronized List<Post<T>> take(long nowMillis) {
+        refill(nowMillis);
+        int count = Math.min(pending.size(), (int) tokens);
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        List<Post<T>> ready = new ArrayList<>(pending.values());
+        Collections.sort(ready, RELEASE_ORDER);
+        ready = new ArrayList<>(ready.subList(0, count));
+        for (Post<T> post : ready) {
+            pending.remove(post.id);
+        }
+        tokens -= count;
+        released += count;
+        return ready;
+    }
+
+    /**
+     * @param nowMillis Current time
+     * @return Milliseconds until take() can release a post, 0 if it can now, or -1 if nothing
+     *         is pending
+     */
+    synchronized long delayMillis(long nowMillis) {
+        if (pending.isEmpty()) {
+            return -1;
+        }
+        refill(nowMillis);
+        if (tokens >= 1) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerMilli);
+    }
+
+    synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    synchronized long getOffered() {
+        return offered;
+    }
+
+    /**
+     * @return Number of posts replaced by a newer post for the same ID before being released
+     */
+    synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return Number of posts that had to wait for a token
+     */
+    synchronized long getDeferred() {
+        return deferred;
+    }
+
+    synchronized long getReleased() {
+        return released;
+    }
+
+    private void refill(long nowMillis) {
+        if (nowMillis > refilledAtMillis) {
+            tokens = Math.min(burstSize, tokens + (nowMillis - refilledAtMillis) * tokensPerMilli);
+            refilledAtMillis = nowMillis;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.aitalentmarketplace.modules;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One encrypted key-value store backing a SecureStorageModule service namespace.
+ *
+ * Implementations are not required to be thread-safe for writes; SecureStorageModule only
+ * mutates a store from the StorageExecutor writer thread. Reads may run concurrently.
+ */
+interface SecureStore {
+
+    /**
+     * @param key Key to look up
+     * @return The decrypted value, or null if the key is not stored
+     */
+    String get(String key);
+
+    /**
+     * Writes and removes entries in a single transaction
+     *
+     * @param entries Key to new value; a null value removes the key
+     * @return true if the transaction was committed
+     */
+    boolean apply(Map<String, String> entries);
+
+    /**
+     * Removes every entry
+     *
+     * @return true if the store was cleared
+     */
+    boolean clear();
+
+    /**
+     * @return The keys currently stored, in ascending order
+     */
+    List<String> keys();
+
+    /**
+     * @param prefix Prefix to match; an empty prefix matches every key
+     * @return The stored keys starting with prefix, in ascending order
+     */
+    List<String> keysWithPrefix(String prefix);
+}
@@ -0,0 +1,220 @@
+package com.aitalentmarketplace.modules;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded LRU cache of decrypted secure-storage values with per-key time-to-live.
+ *
+ * Values are held as char arrays and overwritten with zeros when they are evicted, expire,
+ * are invalidated or the cache is cleared, so plaintext does not linger on the heap waiting
+ * for garbage collection. The cache is disabled until configured.
+ *
+ * Every invalidation bumps a generation counter. Callers read the generation before fetching
+ * a value from the backing store and pass it to put(), which drops the value if the key may
+ * have been written in the meantime.
+ */
+final class SecureValueCache {
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> keyTtlNanos = new HashMap<>();
+
+    private boolean enabled;
+    private int maxEntries;
+    private long defaultTtlNanos;
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * Enables or reconfigures the cache. Existing entries are wiped.
+     *
+     * @param enabled Whether values should be cached at all
+     * @param maxEntries Maximum number of cached values
+     * @param defaultTtlMs Time-to-live for keys without their own entry in keyTtlsMs
+     * @param keyTtlsMs Per-key time-to-live in milliseconds; 0 means the key is never cached
+     */
+    void configure(boolean enabled, int maxEntries, long defaultTtlMs, Map<String, Long> keyTtlsMs) {
+        synchronized (lock) {
+            clearLocked();
+            this.enabled = enabled && maxEntries > 0;
+            this.maxEntries = maxEntries;
+            this.defaultTtlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, defaultTtlMs));
+            keyTtlNanos.clear();
+            for (Map.Entry<String, Long> ttl : keyTtlsMs.entrySet()) {
+                keyTtlNanos.put(ttl.getKey(), TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttl.getValue())));
+            }
+        }
+    }
+
+    /**
+     * @return true if the cache has been enabled through configure()
+     */
+    boolean isEnabled() {
+        synchronized (lock) {
+            return enabled;
+        }
+    }
+
+    /**
+     * @return The current generation, to be passed to put() after reading the backing store
+     */
+    long generation() {
+        synchronized (lock) {
+            return generation;
+        }
+    }
+
+    /**
+     * Looks up a cached value, counting a hit or miss
+     *
+     * @param key Cache key
+     * @return The cached value, or null if absent, expired or the cache is disabled
+     */
+    String get(String key) {
+        synchronized (lock) {
+            if (!enabled) {
+                return null;
+            }
+
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+
+            if (System.nanoTime() - entry.expiresAtNanos >= 0) {
+                entries.remove(key);
+                entry.wipe();
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+
+            hits.incrementAndGet();
+            return new String(entry.value);
+        }
+    }
+
+    /**
+     * Caches a value read from the backing store, unless the key was invalidated after
+     * readGeneration was taken or the key is configured not to be cached
+     *
+     * @param key Cache key
+     * @param ttlKey Name the key's time-to-live is configured under
+     * @param value Decrypted value; null values are not cached
+     * @param readGeneration Result of generation() taken before the value was read
+     */
+    void put(String key, String ttlKey, String value, long readGeneration) {
+        if (value == null) {
+            return;
+        }
+
+        synchronized (lock) {
+            if (!enabled || readGeneration != generation) {
+                return;
+            }
+
+            Long ttl = keyTtlNanos.get(ttlKey);
+            long ttlNanos = ttl != null ? ttl : defaultTtlNanos;
+            if (ttlNanos <= 0) {
+                return;
+            }
+
+            Entry previous = entries.put(key, new Entry(value.toCharArray(), System.nanoTime() + ttlNanos));
+            if (previous != null) {
+                previous.wipe();
+            }
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                evicted.wipe();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drops and wipes the cached value for one key
+     *
+     * @param key Cache key
+     */
+    void invalidate(String key) {
+        synchronized (lock) {
+            generation++;
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                entry.wipe();
+            }
+        }
+    }
+
+    /**
+     * Drops and wipes every cached value
+     */
+    void invalidateAll() {
+        synchronized (lock) {
+            clearLocked();
+        }
+    }
+
+    /**
+     * @return Number of values currently cached, including ones that have expired but not been touched
+     */
+    int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    long getEvictions() {
+        return evictions.get();
+    }
+
+    long getExpirations() {
+        return expirations.get();
+    }
+
+    private void clearLocked() {
+        generation++;
+        for (Entry entry : entries.values()) {
+            entry.wipe();
+        }
+        entries.clear();
+    }
+
+    /**
+     * Cached plaintext and its expiry deadline
+     */
+    private static final class Entry {
+        final char[] value;
+        final long expiresAtNanos;
+
+        Entry(char[] value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        void wipe() {
+            Arrays.fill(value, '\0');
+        }
+    }
+}
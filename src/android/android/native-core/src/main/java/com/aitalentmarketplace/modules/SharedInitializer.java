@@ -0,0 +1,205 @@
+package com.aitalentmarketplace.modules;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs an expensive initialization (opening a store, loading a Keystore key) at most once at a
+ * time, with every concurrent caller awaiting the same future instead of starting its own.
+ *
+ * A successful result is kept for the life of the object. A failure is cached too: callers
+ * arriving within the backoff window get the same failure immediately rather than paying for
+ * another attempt, and the window doubles after each consecutive failure up to a maximum. The
+ * first caller after the window closes starts a new attempt.
+ *
+ * @param <T> Type of the initialized value
+ */
+final class SharedInitializer<T> {
+
+    /**
+     * Performs the initialization
+     */
+    interface Factory<T> {
+        /**
+         * @return The initialized value; null is treated as a failure
+         * @throws Exception if initialization fails
+         */
+        T create() throws Exception;
+    }
+
+    private final Factory<T> factory;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final Object lock = new Object();
+    private Attempt attempt; // Guarded by lock
+    private long backoffNanos; // Guarded by lock
+    private long retryAtNanos; // Guarded by lock
+    private int consecutiveFailures; // Guarded by lock
+
+    /**
+     * @param factory Initialization to run
+     * @param initialBackoffMs How long a failure is cached before the first retry
+     * @param maxBackoffMs Upper bound for the doubling backoff
+     */
+    SharedInitializer(Factory<T> factory, long initialBackoffMs, long maxBackoffMs) {
+        this.factory = factory;
+        this.initialBackoffNanos = TimeUnit.MILLISECONDS.toNanos(initialBackoffMs);
+        this.maxBackoffNanos = TimeUnit.MILLISECONDS.toNanos(maxBackoffMs);
+        this.backoffNanos = initialBackoffNanos;
+    }
+
+    /**
+     * Starts an attempt on the executor unless one is running, has succeeded, or failed
+     * within the backoff window
+     *
+     * @param executor Executor to run the attempt on
+     */
+    void start(Executor executor) {
+        Attempt started = startAttemptIfNeeded();
+        if (started != null) {
+            try {
+                executor.execute(started);
+            } catch (RejectedExecutionException e) {
+                started.run(); // Never leave waiters on an attempt that will not run
+            }
+        }
+    }
+
+    /**
+     * Returns the initialized value, running an attempt on the calling thread if none is
+     * running and no success or recent failure is cached. Callers that arrive while an attempt
+     * is running wait for it.
+     *
+     * @param timeout Maximum time to wait for a running attempt
+     * @param unit Unit of timeout
+     * @return The initialized value
+     * @throws ExecutionException if the attempt failed (its cause is the factory's exception)
+     * @throws TimeoutException if a running attempt did not finish in time
+     * @throws InterruptedException if the caller was interrupted while waiting
+     */
+    T get(long timeout, TimeUnit unit) throws ExecutionException, TimeoutException, InterruptedException {
+        Attempt started = startAttemptIfNeeded();
+        if (started != null) {
+            started.run();
+            return started.get();
+        }
+
+        Attempt current;
+        synchronized (lock) {
+            current = attempt;
+        }
+        return current.get(timeout, unit);
+    }
+
+    /**
+     * Like get(), but waits for a running attempt without a time limit
+     */
+    T get() throws ExecutionException, InterruptedException {
+        try {
+            return get(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(e); // Cannot happen with an unbounded wait
+        }
+    }
+
+    /**
+     * @return The initialized value if an attempt has succeeded, otherwise null; never blocks
+     */
+    T getIfReady() {
+        Attempt current;
+        synchronized (lock) {
+            current = attempt;
+        }
+        if (current == null || !current.isDone()) {
+            return null;
+        }
+        try {
+            return current.get();
+        } catch (ExecutionException | InterruptedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true once at least one attempt has finished, whether or not it succeeded
+     */
+    boolean isDone() {
+        synchronized (lock) {
+            return attempt != null && attempt.isDone();
+        }
+    }
+
+    /**
+     * @return Number of failed attempts since the last success
+     */
+    int getConsecutiveFailures() {
+        synchronized (lock) {
+            return consecutiveFailures;
+        }
+    }
+
+    /**
+     * Creates a new attempt if the current one is missing, or failed and its backoff has expired
+     *
+     * @return The new attempt, which the caller must run, or null to reuse the current one
+     */
+    private Attempt startAttemptIfNeeded() {
+        synchronized (lock) {
+            if (attempt != null && !(attempt.failed && System.nanoTime() - retryAtNanos >= 0)) {
+                return null;
+            }
+            attempt = new Attempt();
+            return attempt;
+        }
+    }
+
+    private void recordFailure() {
+        synchronized (lock) {
+            consecutiveFailures++;
+            retryAtNanos = System.nanoTime() + backoffNanos;
+            backoffNanos = Math.min(backoffNanos * 2, maxBackoffNanos);
+        }
+    }
+
+    private void recordSuccess() {
+        synchronized (lock) {
+            consecutiveFailures = 0;
+            backoffNanos = initialBackoffNanos;
+        }
+    }
+
+    /**
+     * One initialization attempt; records its outcome before waiters are released
+     */
+    private final class Attempt extends FutureTask<T> {
+        volatile boolean failed; // Written before the future completes
+
+        Attempt() {
+            super(() -> {
+                T value = factory.create();
+                if (value == null) {
+                    throw new IllegalStateException("Initialization produced no value");
+                }
+                return value;
+            });
+        }
+
+        @Override
+        protected void set(T value) {
+            recordSuccess();
+            super.set(value);
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            recordFailure();
+            failed = true;
+            super.setException(t);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.aitalentmarketplace.modules;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * CryptoBackend over an AES key held in process memory, encrypting with whichever provider
+ * the platform prefers. Runs on a plain JVM, so tests and benchmarks can use the stores
+ * without an Android Keystore.
+ */
+final class SoftwareCryptoBackend extends GcmCryptoBackend {
+    private static final int KEY_SIZE_BITS = 256;
+
+    private final SecretKey key;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param key AES key to encrypt with
+     */
+    SoftwareCryptoBackend(SecretKey key) {
+        this.key = key;
+    }
+
+    /**
+     * @return A backend with a new random AES-256 key
+     */
+    static SoftwareCryptoBackend generate() throws GeneralSecurityException {
+        KeyGenerator generator = KeyGenerator.getInstance("AES");
+        generator.init(KEY_SIZE_BITS);
+        return new SoftwareCryptoBackend(generator.generateKey());
+    }
+
+    @Override
+    SecretKey key() {
+        return key;
+    }
+
+    @Override
+    void initEncrypt(Cipher cipher, SecretKey key) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, iv));
+    }
+}
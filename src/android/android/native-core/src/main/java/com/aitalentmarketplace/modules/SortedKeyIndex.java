@@ -0,0 +1,115 @@
+package com.aitalentmarketplace.modules;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Sorted set of the keys held by a secure store, kept so key enumeration and prefix scans do
+ * not have to decrypt every stored value.
+ *
+ * The index is persisted as a single encoded string alongside the data it describes, where it
+ * is encrypted like any other value. Each key is written as its length, a colon and the key
+ * itself, so keys may contain any character.
+ */
+final class SortedKeyIndex {
+    private static final char LENGTH_SEPARATOR = ':';
+
+    private final TreeSet<String> keys;
+
+    SortedKeyIndex() {
+        this.keys = new TreeSet<>();
+    }
+
+    SortedKeyIndex(Collection<String> keys) {
+        this.keys = new TreeSet<>(keys);
+    }
+
+    /**
+     * @return A copy of this index that can be modified without affecting it
+     */
+    SortedKeyIndex copy() {
+        return new SortedKeyIndex(keys);
+    }
+
+    void add(String key) {
+        keys.add(key);
+    }
+
+    void remove(String key) {
+        keys.remove(key);
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    /**
+     * @return Every key, in ascending order
+     */
+    List<String> all() {
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * @param prefix Prefix to match; an empty prefix matches every key
+     * @return The keys starting with prefix, in ascending order
+     */
+    List<String> withPrefix(String prefix) {
+        List<String> matches = new ArrayList<>();
+        SortedSet<String> tail = keys.tailSet(prefix);
+        for (String key : tail) {
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            matches.add(key);
+        }
+        return matches;
+    }
+
+    /**
+     * @return The index in its persisted form
+     */
+    String encode() {
+        StringBuilder encoded = new StringBuilder();
+        for (String key : keys) {
+            encoded.append(key.length()).append(LENGTH_SEPARATOR).append(key);
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Parses an index written by encode()
+     *
+     * @param encoded Persisted index
+     * @return The index
+     * @throws IllegalArgumentException if the string is not a valid encoded index
+     */
+    static SortedKeyIndex decode(String encoded) {
+        SortedKeyIndex index = new SortedKeyIndex();
+        int position = 0;
+        while (position < encoded.length()) {
+            int separator = encoded.indexOf(LENGTH_SEPARATOR, position);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Truncated key index at offset " + position);
+            }
+
+            int length;
+            try {
+                length = Integer.parseInt(encoded.substring(position, separator));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid key length at offset " + position, e);
+            }
+
+            int end = separator + 1 + length;
+            if (length < 0 || end > encoded.length()) {
+                throw new IllegalArgumentException("Key at offset " + position + " overruns the index");
+            }
+            index.keys.add(encoded.substring(separator + 1, end));
+            position = end;
+        }
+        return index;
+    }
+}
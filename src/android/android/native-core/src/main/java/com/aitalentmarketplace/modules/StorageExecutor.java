@@ -0,0 +1,332 @@
+package com.aitalentmarketplace.modules;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-writer/multi-reader executor for secure storage work.
+ *
+ * Writes run one at a time on a dedicated writer thread, in submission order. Reads run
+ * in parallel on a small reader pool, except when a write for the same key is still
+ * queued, in which case the read is queued behind it on the writer thread. A write also
+ * waits for reads of its keys that were submitted before it, so requests for any one key
+ * are executed in the order they were submitted. A null key set means "every key"
+ * (used for clear and full-store enumeration).
+ */
+final class StorageExecutor {
+    private static final String ALL_KEYS = "\u0000*";
+
+    private final Object lock = new Object();
+    private final Map<String, Integer> pendingWrites = new HashMap<>();
+    private final Map<String, Integer> inFlightReads = new HashMap<>();
+    private int totalInFlightReads;
+
+    private final ExecutorService writer;
+    private final ExecutorService readers;
+    private final int maxQueueDepth;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxObservedQueueDepth = new AtomicInteger();
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Creates the executor and its threads
+     *
+     * @param name Prefix used for the worker thread names
+     * @param readerThreads Number of threads serving reads
+     * @param maxQueueDepth Maximum number of queued and running tasks before submissions are rejected
+     */
+    StorageExecutor(String name, int readerThreads, int maxQueueDepth) {
+        this.maxQueueDepth = maxQueueDepth;
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), namedThreads(name + "-writer"));
+        this.readers = new ThreadPoolExecutor(readerThreads, readerThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), namedThreads(name + "-reader"));
+    }
+
+    /**
+     * Submits a read of a single key
+     *
+     * @param key Key read by the task
+     * @param task Work to run
+     * @throws RejectedExecutionException if the queue is full or the executor is shut down
+     */
+    void submitRead(String key, Runnable task) {
+        submitRead(Collections.singletonList(key), task);
+    }
+
+    /**
+     * Submits a read of several keys, or of every key when keys is null
+     *
+     * @param keys Keys read by the task, or null for the whole store
+     * @param task Work to run
+     * @throws RejectedExecutionException if the queue is full or the executor is shut down
+     */
+    void submitRead(Collection<String> keys, Runnable task) {
+        final Collection<String> readKeys = keys != null ? keys : Collections.singletonList(ALL_KEYS);
+        final long submittedAt = System.nanoTime();
+        reserveSlot();
+
+        boolean routeToWriter;
+        synchronized (lock) {
+            routeToWriter = hasPendingWrite(keys);
+            if (!routeToWriter) {
+                for (String key : readKeys) {
+                    increment(inFlightReads, key);
+                    totalInFlightReads++;
+                }
+            }
+        }
+
+        try {
+            if (routeToWriter) {
+                // A write for one of these keys is queued; read behind it to keep per-key order
+                writer.execute(() -> runTask(task, submittedAt));
+            } else {
+                readers.execute(() -> {
+                    try {
+                        runTask(task, submittedAt);
+                    } finally {
+                        releaseReads(readKeys);
+                    }
+                });
+            }
+        } catch (RejectedExecutionException e) {
+            if (!routeToWriter) {
+                releaseReads(readKeys);
+            }
+            releaseSlot();
+            rejectedTasks.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Submits a write of a single key
+     *
+     * @param key Key modified by the task
+     * @param task Work to run
+     * @throws RejectedExecutionException if the queue is full or the executor is shut down
+     */
+    void submitWrite(String key, Runnable task) {
+        submitWrite(Collections.singletonList(key), task);
+    }
+
+    /**
+     * Submits a write of several keys, or of every key when keys is null
+     *
+     * @param keys Keys modified by the task, or null for the whole store
+     * @param task Work to run
+     * @throws RejectedExecutionException if the queue is full or the executor is shut down
+     */
+    void submitWrite(Collection<String> keys, Runnable task) {
+        final Collection<String> writeKeys = keys != null ? keys : Collections.singletonList(ALL_KEYS);
+        final long submittedAt = System.nanoTime();
+        reserveSlot();
+
+        synchronized (lock) {
+            for (String key : writeKeys) {
+                increment(pendingWrites, key);
+            }
+        }
+
+        try {
+            writer.execute(() -> {
+                try {
+                    awaitReadsDrained(keys);
+                    runTask(task, submittedAt);
+                } finally {
+                    synchronized (lock) {
+                        for (String key : writeKeys) {
+                            decrement(pendingWrites, key);
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            synchronized (lock) {
+                for (String key : writeKeys) {
+                    decrement(pendingWrites, key);
+                }
+            }
+            releaseSlot();
+            rejectedTasks.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Number of tasks queued or running right now
+     */
+    int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return Highest queue depth observed since creation
+     */
+    int getMaxQueueDepth() {
+        return maxObservedQueueDepth.get();
+    }
+
+    /**
+     * @return Number of tasks that have finished running
+     */
+    long getCompletedTasks() {
+        return completedTasks.get();
+    }
+
+    /**
+     * @return Number of submissions rejected because the queue was full or shut down
+     */
+    long getRejectedTasks() {
+        return rejectedTasks.get();
+    }
+
+    /**
+     * @return Total time tasks spent between submission and start of execution, in nanoseconds
+     */
+    long getTotalWaitNanos() {
+        return totalWaitNanos.get();
+    }
+
+    /**
+     * @return Longest time a single task waited before executing, in nanoseconds
+     */
+    long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    /**
+     * Stops accepting work. Tasks already queued still run to completion.
+     */
+    void shutdown() {
+        writer.shutdown();
+        readers.shutdown();
+    }
+
+    private void runTask(Runnable task, long submittedAt) {
+        long waitNanos = System.nanoTime() - submittedAt;
+        totalWaitNanos.addAndGet(waitNanos);
+        long currentMax;
+        while (waitNanos > (currentMax = maxWaitNanos.get())
+                && !maxWaitNanos.compareAndSet(currentMax, waitNanos)) {
+            // Retry until the maximum is updated or another thread recorded a larger wait
+        }
+
+        try {
+            task.run();
+        } finally {
+            completedTasks.incrementAndGet();
+            releaseSlot();
+        }
+    }
+
+    private void reserveSlot() {
+        int depth = queueDepth.incrementAndGet();
+        if (depth > maxQueueDepth) {
+            queueDepth.decrementAndGet();
+            rejectedTasks.incrementAndGet();
+            throw new RejectedExecutionException("Secure storage queue is full (" + maxQueueDepth + " tasks)");
+        }
+
+        int currentMax;
+        while (depth > (currentMax = maxObservedQueueDepth.get())
+                && !maxObservedQueueDepth.compareAndSet(currentMax, depth)) {
+            // Retry until the maximum is updated or another thread recorded a deeper queue
+        }
+    }
+
+    private void releaseSlot() {
+        queueDepth.decrementAndGet();
+    }
+
+    private void releaseReads(Collection<String> readKeys) {
+        synchronized (lock) {
+            for (String key : readKeys) {
+                decrement(inFlightReads, key);
+                totalInFlightReads--;
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Blocks the writer thread until reads of the given keys submitted before this write have finished
+     */
+    private void awaitReadsDrained(Collection<String> keys) {
+        synchronized (lock) {
+            while (keys == null ? totalInFlightReads > 0 : hasInFlightRead(keys)) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean hasPendingWrite(Collection<String> keys) {
+        if (keys == null) {
+            return !pendingWrites.isEmpty();
+        }
+        if (pendingWrites.containsKey(ALL_KEYS)) {
+            return true;
+        }
+        for (String key : keys) {
+            if (pendingWrites.containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasInFlightRead(Collection<String> keys) {
+        if (inFlightReads.containsKey(ALL_KEYS)) {
+            return true;
+        }
+        for (String key : keys) {
+            if (inFlightReads.containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void increment(Map<String, Integer> counts, String key) {
+        Integer count = counts.get(key);
+        counts.put(key, count == null ? 1 : count + 1);
+    }
+
+    private static void decrement(Map<String, Integer> counts, String key) {
+        Integer count = counts.get(key);
+        if (count == null || count <= 1) {
+            counts.remove(key);
+        } else {
+            counts.put(key, count - 1);
+        }
+    }
+
+    private static ThreadFactory namedThreads(final String name) {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
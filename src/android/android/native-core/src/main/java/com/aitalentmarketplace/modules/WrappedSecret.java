@@ -0,0 +1,125 @@
+package com.aitalentmarketplace.modules;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.MGF1ParameterSpec;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Seals secrets to an RSA key pair whose private key can only be used after the user has
+ * authenticated. Sealing only needs the public key, so secrets are stored without a prompt;
+ * opening needs an RSA Cipher over the private key, which BiometricPrompt unlocks as a
+ * CryptoObject. Each secret is encrypted with AES-GCM under its own random key, which is the
+ * only part encrypted with RSA, so secrets of any length cost one RSA operation.
+ *
+ * Record layout: [byte format version][short wrapped key length][wrapped AES key]
+ * [12-byte IV][ciphertext with GCM tag]. The name the secret is stored under is authenticated
+ * as associated data, so a record copied to another name does not open.
+ */
+final class WrappedSecret {
+    static final String RSA_TRANSFORMATION = "RSA/ECB/OAEPWithSHA-256AndMGF1Padding";
+    // The Android Keystore only supports SHA-1 for MGF1, so both sides spell the parameters out
+    static final OAEPParameterSpec OAEP_PARAMETERS = new OAEPParameterSpec("SHA-256", "MGF1",
+            MGF1ParameterSpec.SHA1, PSource.PSpecified.DEFAULT);
+
+    private static final String AES_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final byte FORMAT_VERSION = 1;
+    private static final int KEY_SIZE_BYTES = 32;
+    private static final int IV_SIZE_BYTES = 12;
+    private static final int TAG_SIZE_BITS = 128;
+    private static final SecureRandom random = new SecureRandom();
+
+    private WrappedSecret() {
+        // Static helpers, not instantiable
+    }
+
+    /**
+     * @param publicKey Public half of the key pair, usable outside the Keystore
+     * @param name Name the secret is stored under
+     * @param plaintext Secret to seal; not modified
+     * @return The sealed record
+     * @throws GeneralSecurityException if encryption fails
+     */
+    static byte[] seal(PublicKey publicKey, String name, byte[] plaintext) throws GeneralSecurityException {
+        byte[] key = new byte[KEY_SIZE_BYTES];
+        byte[] iv = new byte[IV_SIZE_BYTES];
+        random.nextBytes(key);
+        random.nextBytes(iv);
+        try {
+            Cipher rsa = Cipher.getInstance(RSA_TRANSFORMATION);
+            rsa.init(Cipher.ENCRYPT_MODE, publicKey, OAEP_PARAMETERS);
+            byte[] wrappedKey = rsa.doFinal(key);
+
+            Cipher aes = Cipher.getInstance(AES_TRANSFORMATION);
+            aes.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(TAG_SIZE_BITS, iv));
+            aes.updateAAD(name.getBytes(StandardCharsets.UTF_8));
+            byte[] ciphertext = aes.doFinal(plaintext);
+
+            return ByteBuffer.allocate(3 + wrappedKey.length + iv.length + ciphertext.length)
+                    .put(FORMAT_VERSION)
+                    .putShort((short) wrappedKey.length)
+                    .put(wrappedKey)
+                    .put(iv)
+                    .put(ciphertext)
+                    .array();
+        } finally {
+            Arrays.fill(key, (byte) 0);
+        }
+    }
+
+    /**
+     * Creates the Cipher that opens records, ready to hand to BiometricPrompt. Initializing it
+     * does not need the user to authenticate; only using it does.
+     *
+     * @param privateKey Private half of the key pair
+     * @throws GeneralSecurityException if the key cannot be used, e.g. because it was
+     *         invalidated by a biometric enrollment
+     */
+    static Cipher newUnwrapCipher(PrivateKey privateKey) throws GeneralSecurityException {
+        Cipher rsa = Cipher.getInstance(RSA_TRANSFORMATION);
+        rsa.init(Cipher.DECRYPT_MODE, privateKey, OAEP_PARAMETERS);
+        return rsa;
+    }
+
+    /**
+     * @param unwrapCipher Cipher from newUnwrapCipher, unlocked by the user if the key requires it
+     * @param name Name the secret was stored under
+     * @param record Sealed record
+     * @return The plaintext; zero it when done
+     * @throws GeneralSecurityException if the record is malformed, was sealed under another name
+     *         or key, or has been tampered with
+     */
+    static byte[] open(Cipher unwrapCipher, String name, byte[] record) throws GeneralSecurityException {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        if (record.length < 3 || buffer.get() != FORMAT_VERSION) {
+            throw new GeneralSecurityException("Unrecognized sealed secret format");
+        }
+        int wrappedLength = buffer.getShort() & 0xffff;
+        if (buffer.remaining() < wrappedLength + IV_SIZE_BYTES + TAG_SIZE_BITS / 8) {
+            throw new GeneralSecurityException("Truncated sealed secret");
+        }
+        byte[] wrappedKey = new byte[wrappedLength];
+        byte[] iv = new byte[IV_SIZE_BYTES];
+        buffer.get(wrappedKey).get(iv);
+
+        byte[] key = unwrapCipher.doFinal(wrappedKey);
+        try {
+            Cipher aes = Cipher.getInstance(AES_TRANSFORMATION);
+            aes.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(TAG_SIZE_BITS, iv));
+            aes.updateAAD(name.getBytes(StandardCharsets.UTF_8));
+            return aes.doFinal(record, buffer.position(), buffer.remaining());
+        } finally {
+            Arrays.fill(key, (byte) 0);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.aitalentmarketplace;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Exposition format and push behaviour of MetricsPusher, against a local stand-in Pushgateway
+ */
+public class MetricsPusherTest {
+    private HttpServer server;
+    private final List<String> bodies = Collections.synchronizedList(new ArrayList<String>());
+    private final AtomicInteger status = new AtomicInteger(200);
+    private volatile String retryAfter;
+
+    @Before
+    public void setUp() throws IOException {
+        NativeMetrics.resetAll();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/metrics", exchange -> {
+            InputStream in = exchange.getRequestBody();
+            if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                in = new GZIPInputStream(in);
+            }
+            bodies.add(new String(readAll(in), "UTF-8"));
+            if (retryAfter != null) {
+                exchange.getResponseHeaders().add("Retry-After", retryAfter);
+            }
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void rendersCountersAndCumulativeHistograms() {
+        MethodMetrics getItem = NativeMetrics.forModule("SecureStorageModule").method("getItem");
+        getItem.record(TimeUnit.MICROSECONDS.toNanos(300), TimeUnit.MILLISECONDS.toNanos(3), null);
+        getItem.record(0, TimeUnit.MILLISECONDS.toNanos(40), "ERR_STORAGE_BUSY");
+
+        String text = PrometheusTextFormat.render(NativeMetrics.snapshot());
+        String labels = "module=\"SecureStorageModule\",method=\"getItem\"";
+        assertTrue(text, text.contains("# TYPE native_method_execution_seconds histogram\n"));
+        assertTrue(text, text.contains("native_method_calls_total{" + labels + "} 2\n"));
+        assertTrue(text, text.contains("native_method_errors_total{" + labels + ",code=\"ERR_STORAGE_BUSY\"} 1\n"));
+        assertTrue(text, text.contains("native_method_execution_seconds_bucket{" + labels + ",le=\"0.001\"} 0\n"));
+        assertTrue(text, text.contains("native_method_execution_seconds_bucket{" + labels + ",le=\"0.005\"} 1\n"));
+        assertTrue(text, text.contains("native_method_execution_seconds_bucket{" + labels + ",le=\"0.05\"} 2\n"));
+        assertTrue(text, text.contains("native_method_execution_seconds_bucket{" + labels + ",le=\"+Inf\"} 2\n"));
+        assertTrue(text, text.contains("native_method_execution_seconds_count{" + labels + "} 2\n"));
+        assertTrue(text, text.contains("native_method_queue_wait_seconds_bucket{" + labels + ",le=\"0.0005\"} 2\n"));
+        assertEquals("a\\\"b\\\\c\\nd", PrometheusTextFormat.escape("a\"b\\c\nd"));
+    }
+
+    @Test
+    public void pushesGzippedTextAndSkipsUnchangedRounds() throws Exception {
+        NativeMetrics.forModule("BiometricModule").method("isBiometricAvailable").record(0, 1000, null);
+        MetricsPusher pusher = new MetricsPusher(pushUrl(), 60000, 600000, true);
+
+        assertTrue(pusher.pushNow());
+        assertEquals(1, bodies.size());
+        assertTrue(bodies.get(0), bodies.get(0).contains(
+                "native_method_calls_total{module=\"BiometricModule\",method=\"isBiometricAvailable\"} 1\n"));
+        assertEquals(1, pusher.getPushedRounds());
+
+        assertTrue(pusher.pushNow()); // Nothing new since the last push
+        assertEquals(1, bodies.size());
+    }
+
+    @Test
+    public void pushesOnlyIncrementsAndKeepsRejectedOnesForTheNextRound() throws Exception {
+        MethodMetrics getItem = NativeMetrics.forModule("SecureStorageModule").method("getItem");
+        MethodMetrics setItem = NativeMetrics.forModule("SecureStorageModule").method("setItem");
+        getItem.record(0, 1000, null);
+        getItem.record(0, 1000, "ERR_STORAGE_BUSY");
+        setItem.record(0, 1000, null);
+        MetricsPusher pusher = new MetricsPusher(pushUrl(), 60000, 600000, false);
+        assertTrue(pusher.pushNow());
+
+        getItem.record(0, 1000, null);
+        status.set(503);
+        assertFalse(pusher.pushNow());
+        getItem.record(0, 1000, null);
+        status.set(200);
+        assertTrue(pusher.pushNow());
+
+        String last = bodies.get(bodies.size() - 1);
+        String labels = "module=\"SecureStorageModule\",method=\"getItem\"";
+        assertTrue(last, last.contains("native_method_calls_total{" + labels + "} 2\n"));
+        assertTrue(last, last.contains("native_method_execution_seconds_count{" + labels + "} 2\n"));
+        assertFalse(last, last.contains("ERR_STORAGE_BUSY")); // No new errors
+        assertFalse(last, last.contains("setItem")); // No new calls
+
+        NativeMetrics.resetAll();
+        getItem.record(0, 1000, null);
+        assertTrue(pusher.pushNow());
+        last = bodies.get(bodies.size() - 1);
+        assertTrue(last, last.contains("native_method_calls_total{" + labels + "} 1\n"));
+    }
+
+    @Test
+    public void backsOffAfterFailuresAndHonorsRetryAfter() throws Exception {
+        NativeMetrics.forModule("NotificationModule").method("cancelNotification").record(0, 1000, null);
+        MetricsPusher pusher = new MetricsPusher(pushUrl(), 1000, 5000, false);
+
+        status.set(500);
+        assertFalse(pusher.pushNow());
+        assertEquals(1, pusher.getConsecutiveFailures());
+        assertEquals(2000, pusher.getNextDelayMs());
+        assertFalse(pusher.pushNow());
+        assertEquals(4000, pusher.getNextDelayMs());
+        assertFalse(pusher.pushNow());
+        assertEquals(5000, pusher.getNextDelayMs()); // Capped
+
+        status.set(429);
+        retryAfter = "3";
+        assertFalse(pusher.pushNow());
+        assertEquals(3000, pusher.getNextDelayMs());
+
+        status.set(202);
+        retryAfter = null;
+        assertTrue(pusher.pushNow());
+        assertEquals(0, pusher.getConsecutiveFailures());
+        assertEquals(1000, pusher.getNextDelayMs());
+    }
+
+    @Test
+    public void buildsGroupingUrls() throws Exception {
+        Map<String, String> labels = new LinkedHashMap<>();
+        labels.put("platform", "android tv");
+        labels.put("app_version", "1.0/beta");
+        assertEquals("https://push.example.com/metrics/job/mobile_native/platform/android%20tv/app_version@base64/MS4wL2JldGE=",
+                MetricsPusher.groupingUrl("https://push.example.com/", "mobile_native", labels).toString());
+    }
+
+    @Test
+    public void batchesCoverEveryMethodOnceWithinTheSizeLimit() {
+        NativeMetrics module = NativeMetrics.forModule("SecureStorageModule");
+        for (int i = 0; i < 40; i++) {
+            module.method("method" + i).record(0, 1000, null);
+        }
+        List<MethodMetrics> methods = NativeMetrics.snapshot();
+        List<int[]> batches = MetricsPusher.batches(methods);
+        assertTrue(batches.size() > 1);
+
+        int next = 0;
+        for (int[] batch : batches) {
+            assertEquals(next, batch[0]);
+            assertTrue(PrometheusTextFormat.render(methods.subList(batch[0], batch[1])).length() <= 64 * 1024);
+            next = batch[1];
+        }
+        assertEquals(methods.size(), next);
+    }
+
+    private URL pushUrl() throws IOException {
+        return MetricsPusher.groupingUrl("http://127.0.0.1:" + server.getAddress().getPort(),
+                "mobile_native", Collections.singletonMap("platform", "test"));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,85 @@
+package com.aitalentmarketplace;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Bucketing and percentiles of LatencyHistogram, and per-method recording in NativeMetrics
+ */
+public class NativeMetricsTest {
+
+    @Before
+    public void setUp() {
+        NativeMetrics.resetAll();
+    }
+
+    @Test
+    public void bucketsCoverEveryValueWithBoundedRelativeError() {
+        for (long micros = 0; micros < 1 << 20; micros += 1 + micros / 64) {
+            int index = LatencyHistogram.bucketIndex(micros);
+            long lower = LatencyHistogram.bucketLowerBound(index);
+            long upper = LatencyHistogram.bucketUpperBound(index);
+            assertTrue(micros + " below bucket " + index, micros >= lower);
+            assertTrue(micros + " above bucket " + index, micros <= upper);
+            assertTrue("bucket " + index + " too wide", upper - lower <= Math.max(0, lower / 8));
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE / 2));
+    }
+
+    @Test
+    public void percentilesFollowRecordedDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toMicros(1000), histogram.getMaxMicros());
+        assertWithin(500000, histogram.getValueAtPercentile(50));
+        assertWithin(990000, histogram.getValueAtPercentile(99));
+        assertEquals(histogram.getMaxMicros(), histogram.getValueAtPercentile(100));
+        assertWithin(500500, (long) histogram.getMeanMicros());
+    }
+
+    @Test
+    public void methodsRecordCallsAndErrorsByCode() {
+        NativeMetrics module = NativeMetrics.forModule("TestModule");
+        assertSame(module, NativeMetrics.forModule("TestModule"));
+        MethodMetrics getItem = module.method("getItem");
+        assertSame(getItem, module.method("getItem"));
+
+        getItem.record(TimeUnit.MILLISECONDS.toNanos(2), TimeUnit.MILLISECONDS.toNanos(5), null);
+        getItem.record(0, TimeUnit.MILLISECONDS.toNanos(1), "ERR_STORAGE_BUSY");
+        getItem.record(0, TimeUnit.MILLISECONDS.toNanos(1), "ERR_STORAGE_BUSY");
+        getItem.record(0, TimeUnit.MILLISECONDS.toNanos(1), "ERR_INVALID_KEY");
+
+        assertEquals(4, getItem.getCalls());
+        assertEquals(3, getItem.getErrors());
+        Map<String, Long> byCode = getItem.getErrorsByCode();
+        assertEquals(Long.valueOf(2), byCode.get("ERR_STORAGE_BUSY"));
+        assertEquals(Long.valueOf(1), byCode.get("ERR_INVALID_KEY"));
+        assertWithin(2000, getItem.getQueueWait().getMaxMicros());
+        assertWithin(5000, getItem.getExecution().getMaxMicros());
+
+        List<MethodMetrics> snapshot = NativeMetrics.snapshot();
+        assertTrue(snapshot.contains(getItem));
+
+        NativeMetrics.resetAll();
+        assertEquals(0, getItem.getCalls());
+        assertTrue(getItem.getErrorsByCode().isEmpty());
+        assertEquals(0, getItem.getExecution().getCount());
+    }
+
+    private static void assertWithin(long expectedMicros, long actualMicros) {
+        assertTrue("expected ~" + expectedMicros + " but was " + actualMicros,
+                Math.abs(actualMicros - expectedMicros) <= expectedMicros / 8);
+    }
+}
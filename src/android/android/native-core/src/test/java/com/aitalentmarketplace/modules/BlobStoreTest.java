@@ -0,0 +1,115 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Round-trips and tamper detection for BlobStore, using SoftwareCryptoBackend in place of the
+ * Android Keystore
+ */
+public class BlobStoreTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File directory;
+    private BlobStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = temporaryFolder.getRoot();
+        store = new BlobStore(directory, SoftwareCryptoBackend.generate());
+    }
+
+    @Test
+    public void roundTripsSmallEmptyAndMultiSegmentValues() throws Exception {
+        String large = repeat('p', 2 * 1024 * 1024 + 17);
+
+        store.put("small", "{\"email\":\"a@b.c\"}");
+        store.put("empty", "");
+        store.put("large", large);
+
+        assertEquals("{\"email\":\"a@b.c\"}", store.get("small"));
+        assertEquals("", store.get("empty"));
+        assertEquals(large, store.get("large"));
+        assertNull(store.get("missing"));
+    }
+
+    @Test
+    public void storesBinaryValuesAsIs() throws Exception {
+        byte[] everyByte = new byte[256];
+        for (int i = 0; i < everyByte.length; i++) {
+            everyByte[i] = (byte) i;
+        }
+        byte[] multiSegment = new byte[BlobStore.SEGMENT_BYTES + 3];
+        new Random(7).nextBytes(multiSegment);
+
+        store.put("key material", everyByte);
+        store.put("attestation", multiSegment);
+        store.put("empty", new byte[0]);
+
+        assertTrue(Arrays.equals(everyByte, store.getBytes("key material")));
+        assertTrue(Arrays.equals(multiSegment, store.getBytes("attestation")));
+        assertEquals(0, store.getBytes("empty").length);
+        assertNull(store.getBytes("missing"));
+
+        // Raw storage: the file holds the value's bytes plus only the fixed per-segment overhead
+        File[] files = directory.listFiles();
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        assertTrue(total < everyByte.length + multiSegment.length + 3 * 256);
+    }
+
+    @Test
+    public void putReplacesAndRemoveDeletes() throws Exception {
+        store.put("profile", "v1");
+        store.put("profile", "v2");
+        assertEquals("v2", store.get("profile"));
+
+        assertTrue(store.remove("profile"));
+        assertNull(store.get("profile"));
+        assertTrue(store.remove("profile"));
+    }
+
+    @Test
+    public void tamperedSegmentFailsToDecrypt() throws Exception {
+        store.put("payload", repeat('x', BlobStore.SEGMENT_BYTES * 2));
+        File[] files = directory.listFiles();
+        assertEquals(1, files.length);
+
+        RandomAccessFile file = new RandomAccessFile(files[0], "rw");
+        long position = file.length() - 1;
+        file.seek(position);
+        int last = file.read();
+        file.seek(position);
+        file.write(last ^ 1);
+        file.close();
+
+        try {
+            store.get("payload");
+            fail("Expected the tampered blob to be rejected");
+        } catch (GeneralSecurityException expected) {
+            // AEAD tag mismatch
+        }
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,80 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Filtering and per-flush coalescing of the changes SecureStorageModule emits to JS
+ */
+public class ChangeBatcherTest {
+    private ChangeBatcher batcher;
+
+    @Before
+    public void setUp() {
+        batcher = new ChangeBatcher();
+        batcher.subscribe("tokens", new ChangeBatcher.Filter("auth",
+                Arrays.asList("auth_token", "refresh_token"), Collections.<String>emptyList()));
+        batcher.subscribe("drafts", new ChangeBatcher.Filter("auth",
+                Collections.<String>emptyList(), Collections.singletonList("draft_")));
+    }
+
+    @Test
+    public void coalescesABurstIntoTheLatestChangePerKey() {
+        assertTrue(batcher.record("auth", "auth_token", ChangeBatcher.SET));
+        assertFalse(batcher.record("auth", "refresh_token", ChangeBatcher.SET));
+        assertFalse(batcher.record("auth", "auth_token", ChangeBatcher.REMOVE));
+        assertFalse(batcher.record("auth", "draft_1", ChangeBatcher.SET));
+
+        Map<String, List<ChangeBatcher.Change>> batch = batcher.drain();
+        List<ChangeBatcher.Change> tokens = batch.get("tokens");
+        assertEquals(2, tokens.size());
+        assertEquals("refresh_token", tokens.get(0).key);
+        assertEquals("auth_token", tokens.get(1).key);
+        assertEquals(ChangeBatcher.REMOVE, tokens.get(1).type);
+        assertEquals("draft_1", batch.get("drafts").get(0).key);
+        assertEquals(1, batcher.getCoalesced());
+        assertEquals(1, batcher.getBatches());
+
+        assertTrue(batcher.drain().isEmpty());
+        assertTrue(batcher.record("auth", "auth_token", ChangeBatcher.SET)); // Starts the next batch
+    }
+
+    @Test
+    public void recordsOnlyChangesSomeSubscriptionWatches() {
+        assertFalse(batcher.record("auth", "profile", ChangeBatcher.SET));
+        assertFalse(batcher.record("other", "auth_token", ChangeBatcher.SET));
+        assertEquals(0, batcher.getRecorded());
+
+        batcher.unsubscribe("tokens");
+        assertFalse(batcher.record("auth", "auth_token", ChangeBatcher.SET));
+        assertTrue(batcher.drain().isEmpty());
+    }
+
+    @Test
+    public void clearReplacesThePendingChangesOfItsService() {
+        batcher.subscribe("other", new ChangeBatcher.Filter("other",
+                Collections.<String>emptyList(), Collections.<String>emptyList()));
+        batcher.record("auth", "auth_token", ChangeBatcher.SET);
+        batcher.record("other", "anything", ChangeBatcher.SET);
+        batcher.recordClear("auth");
+        batcher.record("auth", "draft_2", ChangeBatcher.SET);
+
+        Map<String, List<ChangeBatcher.Change>> batch = batcher.drain();
+        List<ChangeBatcher.Change> tokens = batch.get("tokens");
+        assertEquals(1, tokens.size());
+        assertEquals(ChangeBatcher.CLEAR, tokens.get(0).type);
+        assertNull(tokens.get(0).key);
+        assertEquals(2, batch.get("drafts").size()); // The clear, then the write after it
+        assertEquals("anything", batch.get("other").get(0).key);
+    }
+}
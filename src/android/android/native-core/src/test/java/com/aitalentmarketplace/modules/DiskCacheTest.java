@@ -0,0 +1,148 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Expiry, LRU eviction against the byte budget, persistence and encrypted entries of
+ * DiskCache, using SoftwareCryptoBackend in place of the Android Keystore
+ */
+public class DiskCacheTest {
+    private static final long HOUR_MS = 60 * 60 * 1000;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File directory;
+    private CryptoBackend crypto;
+    private DiskCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = temporaryFolder.getRoot();
+        crypto = SoftwareCryptoBackend.generate();
+        cache = new DiskCache(directory, 1024 * 1024, () -> crypto);
+    }
+
+    @Test
+    public void roundTripsPlainAndEncryptedValues() throws Exception {
+        cache.put("jobs", "[{\"id\":1}]", HOUR_MS, false);
+        cache.put("profile", "{\"email\":\"a@b.c\"}", HOUR_MS, true);
+        cache.put("empty", "", HOUR_MS, true);
+
+        assertEquals("[{\"id\":1}]", cache.get("jobs"));
+        assertEquals("{\"email\":\"a@b.c\"}", cache.get("profile"));
+        assertEquals("", cache.get("empty"));
+        assertNull(cache.get("missing"));
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        cache.put("jobs", "[]", HOUR_MS, true);
+        assertEquals("[]", cache.get("jobs"));
+        assertTrue(cache.remove("jobs"));
+        assertNull(cache.get("jobs"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void expiredEntriesAreDroppedOnReadAndBySweep() throws Exception {
+        cache.put("short", "a", 1, false);
+        cache.put("swept", "b", 1, false);
+        cache.put("long", "c", HOUR_MS, false);
+        Thread.sleep(20);
+
+        assertNull(cache.get("short"));
+        assertEquals(1, cache.sweep());
+        assertEquals(1, cache.size());
+        assertEquals("c", cache.get("long"));
+        assertEquals(2, cache.getExpirations());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntriesOverTheBudget() throws Exception {
+        String value = repeat('v', 1000);
+        cache.setMaxBytes(3500);
+        cache.put("a", value, HOUR_MS, false);
+        cache.put("b", value, HOUR_MS, false);
+        cache.put("c", value, HOUR_MS, false);
+        assertEquals(value, cache.get("a")); // b is now the least recently used
+
+        cache.put("d", value, HOUR_MS, false);
+        assertNull(cache.get("b"));
+        assertEquals(value, cache.get("a"));
+        assertEquals(value, cache.get("c"));
+        assertEquals(value, cache.get("d"));
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.getTotalBytes() <= 3500);
+
+        try {
+            cache.put("huge", repeat('h', 4000), HOUR_MS, false);
+            fail("Expected an entry larger than the budget to be rejected");
+        } catch (IllegalArgumentException expected) {
+            // Never cached
+        }
+        assertNull(cache.get("huge"));
+    }
+
+    @Test
+    public void reloadsTheIndexFromDiskInLeastRecentlyUsedOrder() throws Exception {
+        String value = repeat('v', 1000);
+        cache.put("a", value, HOUR_MS, true);
+        cache.put("b", value, HOUR_MS, false);
+        cache.put("expired", value, 1, false);
+        Thread.sleep(20);
+        assertEquals(value, cache.get("a"));
+        cache.sweep(); // Records on disk that a was read after b was written
+
+        DiskCache reopened = new DiskCache(directory, 1024 * 1024, () -> crypto);
+        assertEquals(2, reopened.size());
+        assertEquals(cache.getTotalBytes(), reopened.getTotalBytes());
+
+        reopened.setMaxBytes(reopened.getTotalBytes() - 1);
+        assertNull(reopened.get("b"));
+        assertEquals(value, reopened.get("a"));
+    }
+
+    @Test
+    public void dropsEntriesThatNoLongerAuthenticate() throws Exception {
+        cache.put("profile", "secret", HOUR_MS, true);
+        File[] files = directory.listFiles();
+        assertEquals(1, files.length);
+        RandomAccessFile raf = new RandomAccessFile(files[0], "rw");
+        try {
+            raf.seek(raf.length() - 1);
+            int last = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(last ^ 1);
+        } finally {
+            raf.close();
+        }
+
+        assertNull(cache.get("profile"));
+        assertEquals(0, cache.size());
+        assertEquals(0, directory.listFiles().length);
+
+        // The same happens when the key the entries were sealed with is gone
+        cache.put("profile", "secret", HOUR_MS, true);
+        crypto = SoftwareCryptoBackend.generate();
+        assertNull(cache.get("profile"));
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,158 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Data key lifecycle of EnvelopeCryptoBackend: one unwrap per session, wiping, and reading
+ * values sealed directly by the master backend, and refusing to replace a lost data key. SoftwareCryptoBackend stands in for the
+ * Keystore master key.
+ */
+public class EnvelopeCryptoBackendTest {
+    private static final byte[] AAD = "aad".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] VALUE = "secret value".getBytes(StandardCharsets.UTF_8);
+    private static final EnvelopeCryptoBackend.SealedData NO_SEALED_DATA = () -> false;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File wrappedKeyFile;
+    private CryptoBackend master;
+
+    @Before
+    public void setUp() throws Exception {
+        wrappedKeyFile = new File(temporaryFolder.getRoot(), "data_key.wrapped");
+        master = SoftwareCryptoBackend.generate();
+    }
+
+    @Test
+    public void unwrapsOncePerSessionAndKeepsTheKeyAcrossSessions() throws Exception {
+        EnvelopeCryptoBackend crypto = new EnvelopeCryptoBackend(master, wrappedKeyFile, NO_SEALED_DATA);
+        assertFalse(crypto.isUnwrapped());
+
+        byte[] sealed = crypto.seal(VALUE, 0, VALUE.length, AAD);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(Arrays.equals(VALUE, crypto.open(sealed, 0, sealed.length, AAD)));
+        }
+        assertTrue(crypto.isUnwrapped());
+        assertEquals(1, crypto.getUnwraps());
+        assertTrue(wrappedKeyFile.exists());
+
+        // A new session unwraps the same data key from the file
+        EnvelopeCryptoBackend nextSession = new EnvelopeCryptoBackend(master, wrappedKeyFile, NO_SEALED_DATA);
+        assertTrue(Arrays.equals(VALUE, nextSession.open(sealed, 0, sealed.length, AAD)));
+        assertEquals(0, nextSession.getLegacyOpens());
+
+        // The data key really is separate from the master key
+        try {
+            master.open(sealed, 0, sealed.length, AAD);
+            throw new AssertionError("Master key opened data sealed under the data key");
+        } catch (javax.crypto.AEADBadTagException expected) {
+            // Sealed under the data key only
+        }
+    }
+
+    @Test
+    public void wipeForcesANewUnwrap() throws Exception {
+        EnvelopeCryptoBackend crypto = new EnvelopeCryptoBackend(master, wrappedKeyFile, NO_SEALED_DATA);
+        byte[] sealed = crypto.seal(VALUE, 0, VALUE.length, AAD);
+
+        crypto.wipe();
+        assertFalse(crypto.isUnwrapped());
+        assertTrue(Arrays.equals(VALUE, crypto.open(sealed, 0, sealed.length, AAD)));
+        assertTrue(crypto.isUnwrapped());
+        assertEquals(2, crypto.getUnwraps());
+    }
+
+    @Test
+    public void opensValuesSealedByTheMasterKey() throws Exception {
+        EnvelopeCryptoBackend crypto = new EnvelopeCryptoBackend(master, wrappedKeyFile, NO_SEALED_DATA);
+        byte[] legacy = master.seal(VALUE, 0, VALUE.length, AAD);
+
+        assertTrue(Arrays.equals(VALUE, crypto.open(legacy, 0, legacy.length, AAD)));
+        ByteBuffer output = ByteBuffer.allocate(VALUE.length);
+        assertEquals(VALUE.length, crypto.open(ByteBuffer.wrap(legacy), output, AAD));
+        assertTrue(Arrays.equals(VALUE, output.array()));
+        assertEquals(2, crypto.getLegacyOpens());
+    }
+
+    @Test
+    public void lostOrUnreadableDataKeyIsUnavailableNotReplaced() throws Exception {
+        new EnvelopeCryptoBackend(master, wrappedKeyFile, NO_SEALED_DATA).seal(VALUE, 0, VALUE.length, AAD);
+        assertTrue(wrappedKeyFile.exists());
+
+        // Wrapped by another master key, e.g. the Keystore key could not be used
+        assertKeyUnavailable(new EnvelopeCryptoBackend(SoftwareCryptoBackend.generate(), wrappedKeyFile, NO_SEALED_DATA));
+
+        assertTrue(wrappedKeyFile.delete());
+        assertKeyUnavailable(new EnvelopeCryptoBackend(master, wrappedKeyFile, () -> true));
+        assertFalse(wrappedKeyFile.exists()); // No new key was created
+    }
+
+    @Test
+    public void operationsSurviveConcurrentWipes() throws Exception {
+        final EnvelopeCryptoBackend crypto = new EnvelopeCryptoBackend(master, wrappedKeyFile, NO_SEALED_DATA);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        for (int i = 0; i < 2000; i++) {
+                            byte[] sealed = crypto.seal(VALUE, 0, VALUE.length, AAD);
+                            if (!Arrays.equals(VALUE, crypto.open(sealed, 0, sealed.length, AAD))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            executor.submit(() -> {
+                while (running.get()) {
+                    crypto.wipe();
+                    Thread.yield();
+                }
+                return null;
+            });
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+        assertEquals(0, crypto.getLegacyOpens());
+    }
+
+    private static void assertKeyUnavailable(EnvelopeCryptoBackend crypto) throws Exception {
+        try {
+            crypto.seal(VALUE, 0, VALUE.length, AAD);
+            fail("Expected the data key to be unavailable");
+        } catch (EnvelopeCryptoBackend.KeyUnavailableException expected) {
+            // The data sealed under the key stays as it is
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Hot key membership, load-versus-write races and invalidation of the hot value snapshot
+ */
+public class HotValueSnapshotTest {
+
+    @Test
+    public void settingHotKeysDropsValuesOfKeysNoLongerHot() {
+        HotValueSnapshot snapshot = new HotValueSnapshot();
+        snapshot.setHotKeys(Arrays.asList("auth", "refresh"));
+        snapshot.update("auth", "token");
+        snapshot.update("refresh", "rotating");
+
+        snapshot.setHotKeys(Arrays.asList("auth", "profile"));
+        assertEquals("token", snapshot.lookup("auth").value);
+        assertNull(snapshot.lookup("refresh"));
+        assertFalse(snapshot.isHot("refresh"));
+        assertTrue(snapshot.isHot("profile"));
+        assertNull(snapshot.lookup("profile")); // Hot but not loaded yet
+
+        snapshot.update("refresh", "ignored");
+        assertNull(snapshot.lookup("refresh"));
+    }
+
+    @Test
+    public void loadDoesNotOverwriteANewerWrite() {
+        HotValueSnapshot snapshot = new HotValueSnapshot();
+        snapshot.setHotKeys(Collections.singletonList("auth"));
+
+        // A load read "old" from the store, and a write recorded "new" before the load finished
+        snapshot.update("auth", "new");
+        snapshot.loadIfAbsent("auth", "old");
+        assertEquals("new", snapshot.lookup("auth").value);
+
+        snapshot.setHotKeys(Collections.singletonList("other"));
+        snapshot.loadIfAbsent("auth", "ignored"); // No longer hot
+        assertNull(snapshot.lookup("auth"));
+    }
+
+    @Test
+    public void invalidatedKeyIsUnloadedButStaysHot() {
+        HotValueSnapshot snapshot = new HotValueSnapshot();
+        snapshot.setHotKeys(Collections.singletonList("auth"));
+        snapshot.markAbsent(Collections.singletonList("auth"));
+        HotValueSnapshot.Value absent = snapshot.lookup("auth");
+        assertNotNull(absent); // Loaded, and known not to be stored
+        assertNull(absent.value);
+
+        snapshot.invalidate("auth");
+        assertNull(snapshot.lookup("auth"));
+        assertTrue(snapshot.isHot("auth"));
+
+        snapshot.loadIfAbsent("auth", "reloaded");
+        assertEquals("reloaded", snapshot.lookup("auth").value);
+    }
+}
@@ -0,0 +1,221 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks LogStructuredStore against the SecureStore contract SecureStorageModule relies on,
+ * plus recovery and compaction. Uses SoftwareCryptoBackend in place of the Android Keystore.
+ */
+public class LogStructuredStoreTest {
+    private static final Executor DIRECT = Runnable::run;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File logFile;
+    private CryptoBackend crypto;
+
+    @Before
+    public void setUp() throws Exception {
+        logFile = new File(temporaryFolder.getRoot(), "store.log");
+        crypto = SoftwareCryptoBackend.generate();
+    }
+
+    @Test
+    public void putGetRemoveAndClear() throws Exception {
+        LogStructuredStore store = LogStructuredStore.open(logFile, crypto, DIRECT);
+
+        assertTrue(store.apply(entries("auth_token", "a", "refresh_token", "r")));
+        assertEquals("a", store.get("auth_token"));
+        assertEquals("r", store.get("refresh_token"));
+        assertNull(store.get("missing"));
+
+        assertTrue(store.apply(entries("auth_token", null)));
+        assertNull(store.get("auth_token"));
+        assertEquals(Collections.singletonList("refresh_token"), store.keys());
+
+        assertTrue(store.clear());
+        assertNull(store.get("refresh_token"));
+        assertTrue(store.keys().isEmpty());
+    }
+
+    @Test
+    public void keysAreSortedAndPrefixScannable() throws Exception {
+        LogStructuredStore store = LogStructuredStore.open(logFile, crypto, DIRECT);
+        store.apply(entries("user:2", "b", "auth", "x", "user:1", "a"));
+
+        assertEquals(Arrays.asList("auth", "user:1", "user:2"), store.keys());
+        assertEquals(Arrays.asList("user:1", "user:2"), store.keysWithPrefix("user:"));
+        assertTrue(store.keysWithPrefix("zzz").isEmpty());
+    }
+
+    @Test
+    public void reopenReplaysLog() throws Exception {
+        LogStructuredStore store = LogStructuredStore.open(logFile, crypto, DIRECT);
+        store.apply(entries("a", "1", "b", "2"));
+        store.apply(entries("a", "3"));
+        store.apply(entries("b", null));
+
+        LogStructuredStore reopened = LogStructuredStore.open(logFile, crypto, DIRECT);
+        assertEquals("3", reopened.get("a"));
+        assertNull(reopened.get("b"));
+        assertEquals(Collections.singletonList("a"), reopened.keys());
+    }
+
+    @Test
+    public void tornTailIsTruncated() throws Exception {
+        LogStructuredStore store = LogStructuredStore.open(logFile, crypto, DIRECT);
+        store.apply(entries("a", "1"));
+        long intactLength = store.getFileLength();
+        store.apply(entries("b", "2"));
+
+        RandomAccessFile file = new RandomAccessFile(logFile, "rw");
+        file.setLength(file.length() - 3);
+        file.close();
+
+        LogStructuredStore reopened = LogStructuredStore.open(logFile, crypto, DIRECT);
+        assertEquals("1", reopened.get("a"));
+        assertNull(reopened.get("b"));
+        assertEquals(intactLength, reopened.getFileLength());
+
+        assertTrue(reopened.apply(entries("b", "4")));
+        assertEquals("4", LogStructuredStore.open(logFile, crypto, DIRECT).get("b"));
+    }
+
+    @Test
+    public void zeroLengthTailIsTruncated() throws Exception {
+        LogStructuredStore store = LogStructuredStore.open(logFile, crypto, DIRECT);
+        store.apply(entries("a", "1"));
+        long intactLength = store.getFileLength();
+
+        // The file grew but none of the append reached the disk
+        RandomAccessFile file = new RandomAccessFile(logFile, "rw");
+        file.setLength(intactLength + 64);
+        file.close();
+
+        LogStructuredStore reopened = LogStructuredStore.open(logFile, crypto, DIRECT);
+        assertEquals("1", reopened.get("a"));
+        assertEquals(intactLength, reopened.getFileLength());
+        assertEquals(intactLength, logFile.length());
+    }
+
+    @Test
+    public void zeroFilledTailBodyIsTruncated() throws Exception {
+        LogStructuredStore store = LogStructuredStore.open(logFile, crypto, DIRECT);
+        store.apply(entries("a", "1"));
+        long intactLength = store.getFileLength();
+        store.apply(entries("b", "2"));
+        long fullLength = store.getFileLength();
+
+        // The length prefix reached the disk, the body did not
+        RandomAccessFile file = new RandomAccessFile(logFile, "rw");
+        file.seek(intactLength + 4);
+        file.write(new byte[(int) (fullLength - intactLength - 4)]);
+        file.close();
+
+        LogStructuredStore reopened = LogStructuredStore.open(logFile, crypto, DIRECT);
+        assertEquals("1", reopened.get("a"));
+        assertNull(reopened.get("b"));
+        assertEquals(intactLength, logFile.length());
+        assertTrue(LogStructuredStore.lastRecordOpensWith(logFile, crypto));
+
+        // Also when it is the only record, so no earlier one vouches for the key
+        LogStructuredStore.create(logFile, crypto, Collections.<String, String>emptyMap(), DIRECT)
+                .apply(entries("c", "3"));
+        file = new RandomAccessFile(logFile, "rw");
+        file.seek(8 + 4);
+        file.write(new byte[(int) (file.length() - 12)]);
+        file.close();
+        assertTrue(LogStructuredStore.open(logFile, crypto, DIRECT).keys().isEmpty());
+        assertEquals(8, logFile.length());
+    }
+
+    @Test
+    public void unreadableRecordFailsTheOpenAndLeavesTheLogAlone() throws Exception {
+        LogStructuredStore store = LogStructuredStore.open(logFile, crypto, DIRECT);
+        store.apply(entries("a", "1"));
+        store.apply(entries("b", "2"));
+        long length = logFile.length();
+
+        assertOpenFails(SoftwareCryptoBackend.generate()); // e.g. the data key could not be recovered
+        assertEquals(length, logFile.length());
+        assertTrue(LogStructuredStore.lastRecordOpensWith(logFile, crypto));
+        assertFalse(LogStructuredStore.lastRecordOpensWith(logFile, SoftwareCryptoBackend.generate()));
+
+        RandomAccessFile file = new RandomAccessFile(logFile, "rw");
+        file.seek(30); // Inside the first record's ciphertext
+        int original = file.read();
+        file.seek(30);
+        file.write(original ^ 1);
+        file.close();
+
+        assertOpenFails(crypto);
+        assertEquals(length, logFile.length()); // The record after it is still there
+    }
+
+    @Test
+    public void createMigratesEntriesAtomically() throws Exception {
+        LogStructuredStore store = LogStructuredStore.create(logFile, crypto, entries("a", "1", "b", "2"), DIRECT);
+
+        assertEquals("1", store.get("a"));
+        assertEquals("2", store.get("b"));
+        assertTrue(!new File(logFile.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void compactsOnceMostOfTheFileIsDead() throws Exception {
+        LogStructuredStore store = LogStructuredStore.open(logFile, crypto, DIRECT);
+        char[] filler = new char[1024];
+        Arrays.fill(filler, 'x');
+        String value = new String(filler);
+
+        store.apply(entries("kept", "k"));
+        for (int i = 0; store.getCompactions() == 0 && i < 1000; i++) {
+            store.apply(entries("churn", value + i));
+        }
+
+        assertEquals(1, store.getCompactions());
+        assertTrue(store.getFileLength() < LogStructuredStore.COMPACTION_MIN_BYTES);
+        assertEquals("k", store.get("kept"));
+        assertTrue(store.get("churn").startsWith(value));
+
+        LogStructuredStore reopened = LogStructuredStore.open(logFile, crypto, DIRECT);
+        assertEquals(store.get("churn"), reopened.get("churn"));
+        assertEquals(Arrays.asList("churn", "kept"), reopened.keys());
+    }
+
+    private static Map<String, String> entries(String... keysAndValues) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            entries.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return entries;
+    }
+
+    private void assertOpenFails(CryptoBackend backend) throws Exception {
+        try {
+            LogStructuredStore.open(logFile, backend, DIRECT);
+            fail("Expected the open to fail");
+        } catch (GeneralSecurityException expected) {
+            // The record does not decrypt
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Batched, checkpointed migration of a store into a LogStructuredStore through
+ * MigratingSecureStore, including reads and writes while it runs and resuming after a kill
+ */
+public class MigrationEngineTest {
+    private static final Executor DIRECT = Runnable::run;
+    private static final int ENTRIES = 10;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File logFile;
+    private File checkpointFile;
+    private CryptoBackend crypto;
+    private MemoryStore legacy;
+
+    @Before
+    public void setUp() throws Exception {
+        logFile = new File(temporaryFolder.getRoot(), "store.log");
+        checkpointFile = new File(temporaryFolder.getRoot(), "store.migration");
+        crypto = SoftwareCryptoBackend.generate();
+        legacy = new MemoryStore();
+        Map<String, String> entries = new HashMap<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            entries.put("key" + i, "value" + i);
+        }
+        legacy.apply(entries);
+    }
+
+    @Test
+    public void migratesInBatchesWhileServingReadsAndWrites() throws Exception {
+        MigratingSecureStore store = new MigratingSecureStore(LogStructuredStore.open(logFile, crypto, DIRECT), legacy);
+        MigrationEngine engine = newEngine(store);
+        engine.recordStart();
+
+        assertTrue(engine.runBatch());
+        assertEquals("value0", store.get("key0")); // Copied or read through, either way visible
+        assertEquals(ENTRIES, store.keys().size());
+
+        store.apply(Collections.singletonMap("key1", "updated"));
+        store.apply(Collections.<String, String>singletonMap("key2", null));
+        store.apply(Collections.singletonMap("added", "new"));
+
+        int batches = 1;
+        while (engine.runBatch()) {
+            batches++;
+        }
+        assertEquals(3, batches); // Three batches of up to four entries, then finish()
+        assertTrue(engine.isComplete());
+        assertTrue(store.isMigrated());
+        assertTrue(legacy.keys().isEmpty());
+
+        LogStructuredStore log = LogStructuredStore.open(logFile, crypto, DIRECT);
+        assertEquals("updated", log.get("key1"));
+        assertNull(log.get("key2"));
+        assertEquals("new", log.get("added"));
+        assertEquals("value9", log.get("key9"));
+        assertEquals(ENTRIES, log.keys().size());
+    }
+
+    @Test
+    public void resumesFromTheCheckpointAfterAKill() throws Exception {
+        MigratingSecureStore store = new MigratingSecureStore(LogStructuredStore.open(logFile, crypto, DIRECT), legacy);
+        MigrationEngine engine = newEngine(store);
+        engine.recordStart();
+        assertTrue(engine.runBatch());
+        assertTrue(engine.runBatch());
+
+        // A new process reopens the log and the checkpoint
+        CountingStore counting = new CountingStore(LogStructuredStore.open(logFile, crypto, DIRECT));
+        MigratingSecureStore resumed = new MigratingSecureStore(counting, legacy);
+        MigrationEngine resumedEngine = newEngine(resumed);
+        assertFalse(resumedEngine.isComplete());
+        while (resumedEngine.runBatch()) {
+            // Runs the remaining batch and finish()
+        }
+
+        assertEquals(ENTRIES - 8, counting.written); // Only the entries the first process had not copied
+        assertEquals(1, resumedEngine.getCompletedVersion());
+        assertEquals(ENTRIES, LogStructuredStore.open(logFile, crypto, DIRECT).keys().size());
+
+        resumedEngine.deleteCheckpoint();
+        assertFalse(checkpointFile.exists());
+    }
+
+    private MigrationEngine newEngine(final MigratingSecureStore store) throws Exception {
+        MigrationEngine.Step step = new MigrationEngine.Step() {
+            @Override
+            public int getVersion() {
+                return 1;
+            }
+
+            @Override
+            public String getName() {
+                return "memory to log";
+            }
+
+            @Override
+            public String migrateBatch(String cursor, int maxEntries) throws Exception {
+                return store.copyBatch(cursor, maxEntries);
+            }
+
+            @Override
+            public void finish() throws Exception {
+                store.completeMigration();
+            }
+        };
+        return new MigrationEngine(checkpointFile, Collections.singletonList(step), 4);
+    }
+
+    /**
+     * In-memory stand-in for the EncryptedSharedPreferences store
+     */
+    private static class MemoryStore implements SecureStore {
+        private final TreeMap<String, String> entries = new TreeMap<>();
+
+        @Override
+        public String get(String key) {
+            return entries.get(key);
+        }
+
+        @Override
+        public boolean apply(Map<String, String> changes) {
+            for (Map.Entry<String, String> change : changes.entrySet()) {
+                if (change.getValue() == null) {
+                    entries.remove(change.getKey());
+                } else {
+                    entries.put(change.getKey(), change.getValue());
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean clear() {
+            entries.clear();
+            return true;
+        }
+
+        @Override
+        public List<String> keys() {
+            return new ArrayList<>(entries.keySet());
+        }
+
+        @Override
+        public List<String> keysWithPrefix(String prefix) {
+            List<String> keys = new ArrayList<>();
+            for (String key : entries.keySet()) {
+                if (key.startsWith(prefix)) {
+                    keys.add(key);
+                }
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * Counts the entries written to the wrapped store
+     */
+    private static class CountingStore implements SecureStore {
+        private final SecureStore delegate;
+        int written;
+
+        CountingStore(SecureStore delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String get(String key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        public boolean apply(Map<String, String> entries) {
+            written += entries.size();
+            return delegate.apply(entries);
+        }
+
+        @Override
+        public boolean clear() {
+            return delegate.clear();
+        }
+
+        @Override
+        public List<String> keys() {
+            return delegate.keys();
+        }
+
+        @Override
+        public List<String> keysWithPrefix(String prefix) {
+            return delegate.keysWithPrefix(prefix);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Grouping, per-key replacement and the per-group child cap of batched local notifications
+ */
+public class NotificationBatchTest {
+
+    @Test
+    public void capsChildrenPerGroupAndFoldsTheRestIntoTheSummary() {
+        List<NotificationBatch.Item> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(new NotificationBatch.Item(i, "conversation:1", "message:" + i, "Alice", "Message " + i));
+        }
+        items.add(new NotificationBatch.Item(10, "channel:job_matches", "job:5", "New match", "Android developer"));
+
+        List<NotificationBatch.Group> groups = NotificationBatch.plan(items, 4);
+        assertEquals(2, groups.size());
+
+        NotificationBatch.Group conversation = groups.get(0);
+        assertEquals(10, conversation.size());
+        assertEquals(4, conversation.posted.size());
+        assertEquals(6, conversation.posted.get(0).index); // The four most recent are posted
+        assertEquals(9, conversation.latest().index);
+        assertTrue(conversation.needsSummary());
+        assertEquals("Alice", conversation.commonTitle());
+        assertEquals(Arrays.asList("Message 9", "Message 8", "Message 7"), conversation.summaryLines(3));
+
+        NotificationBatch.Group jobs = groups.get(1);
+        assertEquals(1, jobs.size());
+        assertFalse(jobs.needsSummary());
+    }
+
+    @Test
+    public void laterNotificationsReplaceEarlierOnesWithTheSameKey() {
+        List<NotificationBatch.Group> groups = NotificationBatch.plan(Arrays.asList(
+                new NotificationBatch.Item(0, "channel:messages", "message:1", "Alice", "Hi"),
+                new NotificationBatch.Item(1, "channel:messages", "message:2", "Bob", "Hello"),
+                new NotificationBatch.Item(2, "channel:messages", "message:1", "Alice", "Hi (edited)"),
+                new NotificationBatch.Item(3, "channel:messages", null, "Carol", "Hey"),
+                new NotificationBatch.Item(4, "channel:messages", null, "Carol", "Hey")), 8);
+
+        NotificationBatch.Group group = groups.get(0);
+        assertEquals(4, group.size()); // Unkeyed notifications are never merged
+        assertEquals(2, group.posted.get(1).index);
+        assertNull(group.commonTitle());
+        assertEquals(Arrays.asList("Carol: Hey", "Carol: Hey", "Alice: Hi (edited)", "Bob: Hello"),
+                group.summaryLines(5));
+    }
+}
@@ -0,0 +1,128 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Uniqueness of allocated notification IDs, in place updates through the key map, and
+ * persistence across restarts
+ */
+public class NotificationIdRegistryTest {
+    private static final Executor DIRECT = Runnable::run;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(temporaryFolder.getRoot(), "notification_ids");
+    }
+
+    @Test
+    public void allocatesDistinctIdsInABurst() throws Exception {
+        NotificationIdRegistry registry = new NotificationIdRegistry(file, 100, DIRECT);
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            int id = registry.allocate();
+            assertTrue(id >= NotificationIdRegistry.FIRST_ID);
+            assertTrue(ids.add(id));
+        }
+
+        // A restart continues after every ID handed out before it
+        NotificationIdRegistry restarted = new NotificationIdRegistry(file, 100, DIRECT);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(ids.add(restarted.allocate()));
+        }
+    }
+
+    @Test
+    public void repeatDeliveriesReuseTheMappedId() throws Exception {
+        NotificationIdRegistry registry = new NotificationIdRegistry(file, 100, DIRECT);
+        int message = registry.idFor("message:42");
+        int job = registry.idFor("job:7");
+        assertTrue(message != job);
+        assertEquals(message, registry.idFor("message:42"));
+
+        NotificationIdRegistry restarted = new NotificationIdRegistry(file, 100, DIRECT);
+        assertEquals(message, restarted.idFor("message:42"));
+        assertEquals(job, (int) restarted.find("job:7"));
+
+        assertEquals(job, (int) restarted.forget("job:7"));
+        assertNull(restarted.find("job:7"));
+        assertTrue(restarted.idFor("job:7") != job);
+    }
+
+    @Test
+    public void summaryIdsDoNotCollideWithServerKeys() throws Exception {
+        NotificationIdRegistry registry = new NotificationIdRegistry(file, 100, DIRECT);
+        int summary = registry.summaryIdFor("x");
+        int server = registry.idFor("group:x");
+        assertTrue(summary != server);
+        assertEquals(summary, new NotificationIdRegistry(file, 100, DIRECT).summaryIdFor("x"));
+
+        try {
+            registry.idFor("\u0000summary:x");
+            fail("Expected a key in the summary namespace to be rejected");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+        assertEquals(summary, registry.summaryIdFor("x"));
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedMappings() throws Exception {
+        NotificationIdRegistry registry = new NotificationIdRegistry(file, 2, DIRECT);
+        int first = registry.idFor("a");
+        registry.idFor("b");
+        registry.idFor("a"); // b is now the least recently used
+        registry.idFor("c");
+
+        assertEquals(2, registry.getMappingCount());
+        assertNull(registry.find("b"));
+        assertEquals(first, (int) new NotificationIdRegistry(file, 2, DIRECT).find("a"));
+    }
+
+    @Test
+    public void writesABurstOfNewMappingsOnceInTheBackground() throws Exception {
+        List<Runnable> writes = new ArrayList<>();
+        NotificationIdRegistry registry = new NotificationIdRegistry(file, 100, writes::add);
+        NotificationIdRegistry.Mapping first = registry.map("message:1");
+        assertFalse(first.existed);
+        for (int i = 2; i <= 10; i++) {
+            registry.map("message:" + i);
+        }
+        NotificationIdRegistry.Mapping repeat = registry.map("message:1");
+        assertTrue(repeat.existed);
+        assertEquals(first.id, repeat.id);
+        assertEquals(1, writes.size());
+        assertNull(new NotificationIdRegistry(file, 100, DIRECT).find("message:1")); // Not written yet
+
+        writes.remove(0).run();
+        NotificationIdRegistry restarted = new NotificationIdRegistry(file, 100, DIRECT);
+        assertEquals(10, restarted.getMappingCount());
+        assertEquals(first.id, (int) restarted.find("message:1"));
+
+        registry.forget("message:2");
+        registry.flush();
+        assertNull(new NotificationIdRegistry(file, 100, DIRECT).find("message:2"));
+        writes.remove(0).run(); // Nothing newer left to write
+        assertEquals(0, registry.getWriteFailures());
+    }
+}
@@ -0,0 +1,56 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Token bucket pacing, per-ID coalescing and priority order of notification posts
+ */
+public class NotificationPostQueueTest {
+
+    @Test
+    public void releasesABurstThenPacesTheRestAndKeepsOnlyTheLatestUpdate() {
+        NotificationPostQueue<String> queue = new NotificationPostQueue<>(2, 10, 0);
+        assertTrue(queue.offer(1, 0, "a", 0));
+        assertTrue(queue.offer(2, 0, "b", 0));
+        assertFalse(queue.offer(3, 0, "c1", 0)); // No token left
+        assertFalse(queue.offer(3, 0, "c2", 0));
+        assertFalse(queue.offer(3, 0, "c3", 0));
+        assertEquals(1, queue.getDeferred());
+        assertEquals(2, queue.getCoalesced());
+
+        assertEquals(2, queue.take(0).size());
+        assertEquals(100, queue.delayMillis(0)); // Ten per second
+        assertTrue(queue.take(50).isEmpty());
+
+        List<NotificationPostQueue.Post<String>> later = queue.take(100);
+        assertEquals(1, later.size());
+        assertEquals("c3", later.get(0).notification);
+        assertEquals(0, later.get(0).queuedAtMillis);
+        assertEquals(-1, queue.delayMillis(100));
+        assertEquals(5, queue.getOffered());
+        assertEquals(3, queue.getReleased());
+    }
+
+    @Test
+    public void releasesHigherPrioritiesFirstAndDropsRemovedPosts() {
+        NotificationPostQueue<String> queue = new NotificationPostQueue<>(1, 1, 0);
+        queue.take(0);
+        queue.offer(1, 0, "general", 0);
+        queue.offer(2, 1, "message", 0);
+        queue.offer(3, 1, "payment", 0);
+        queue.offer(4, 0, "cancelled", 0);
+        assertTrue(queue.remove(4));
+        assertEquals(3, queue.getPendingCount());
+
+        assertEquals("message", queue.take(1000).get(0).notification);
+        assertEquals("payment", queue.take(2000).get(0).notification);
+        assertEquals("general", queue.take(3000).get(0).notification);
+        assertEquals(0, queue.getPendingCount());
+    }
+}
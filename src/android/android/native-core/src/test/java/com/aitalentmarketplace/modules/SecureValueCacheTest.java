@@ -0,0 +1,117 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Generation checks, LRU eviction, time-to-live and wiping of the decrypted value cache
+ */
+public class SecureValueCacheTest {
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+
+    @Test
+    public void putWithAGenerationOlderThanAnInvalidationIsDropped() {
+        SecureValueCache cache = cache(4, HOUR_MS, Collections.<String, Long>emptyMap());
+        long readGeneration = cache.generation();
+        cache.invalidate("token"); // A write landed while the value was being read
+        cache.put("token", "token", "stale", readGeneration);
+        assertNull(cache.get("token"));
+
+        cache.put("token", "token", "fresh", cache.generation());
+        assertEquals("fresh", cache.get("token"));
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedValueAndZeroesIt() throws Exception {
+        SecureValueCache cache = cache(2, HOUR_MS, Collections.<String, Long>emptyMap());
+        cache.put("a", "a", "alpha", cache.generation());
+        cache.put("b", "b", "bravo", cache.generation());
+        char[] evicted = cachedChars(cache, "b"); // Before the get: the lookup also touches b
+        assertEquals("alpha", cache.get("a")); // b is now the least recently used
+
+        cache.put("c", "c", "charlie", cache.generation());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get("b"));
+        assertEquals("alpha", cache.get("a"));
+        assertEquals("charlie", cache.get("c"));
+        assertZeroed(evicted);
+    }
+
+    @Test
+    public void expiredValuesAreDroppedAndZeroed() throws Exception {
+        Map<String, Long> ttls = new HashMap<>();
+        ttls.put("short", 1L);
+        SecureValueCache cache = cache(4, HOUR_MS, ttls);
+        cache.put("short", "short", "brief", cache.generation());
+        cache.put("long", "long", "lasting", cache.generation());
+        char[] expired = cachedChars(cache, "short");
+        Thread.sleep(20);
+
+        assertNull(cache.get("short"));
+        assertEquals(1, cache.getExpirations());
+        assertEquals("lasting", cache.get("long"));
+        assertZeroed(expired);
+    }
+
+    @Test
+    public void invalidatedAndClearedValuesAreZeroed() throws Exception {
+        SecureValueCache cache = cache(4, HOUR_MS, Collections.<String, Long>emptyMap());
+        cache.put("a", "a", "alpha", cache.generation());
+        cache.put("b", "b", "bravo", cache.generation());
+        char[] invalidated = cachedChars(cache, "a");
+        char[] cleared = cachedChars(cache, "b");
+
+        cache.invalidate("a");
+        assertZeroed(invalidated);
+        cache.invalidateAll();
+        assertZeroed(cleared);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void keyWithAZeroTimeToLiveIsNeverCached() {
+        Map<String, Long> ttls = new HashMap<>();
+        ttls.put("password", 0L);
+        SecureValueCache cache = cache(4, HOUR_MS, ttls);
+        cache.put("service:password", "password", "secret", cache.generation());
+        cache.put("service:email", "email", "user@example.com", cache.generation());
+
+        assertEquals(1, cache.size());
+        assertNull(cache.get("service:password"));
+        assertEquals("user@example.com", cache.get("service:email"));
+    }
+
+    private static SecureValueCache cache(int maxEntries, long defaultTtlMs, Map<String, Long> keyTtlsMs) {
+        SecureValueCache cache = new SecureValueCache();
+        cache.configure(true, maxEntries, defaultTtlMs, keyTtlsMs);
+        return cache;
+    }
+
+    /**
+     * @return The char array the cache holds for key, which it must zero once the value is
+     *         dropped. Like get(), this marks the key as recently used.
+     */
+    private static char[] cachedChars(SecureValueCache cache, String key) throws Exception {
+        Field entriesField = SecureValueCache.class.getDeclaredField("entries");
+        entriesField.setAccessible(true);
+        Object entry = ((Map<?, ?>) entriesField.get(cache)).get(key);
+        Field valueField = entry.getClass().getDeclaredField("value");
+        valueField.setAccessible(true);
+        return (char[]) valueField.get(entry);
+    }
+
+    private static void assertZeroed(char[] value) {
+        for (char c : value) {
+            assertTrue("Dropped value was not zeroed", c == '\0');
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Coalescing and failure backoff of SharedInitializer
+ */
+public class SharedInitializerTest {
+
+    @Test
+    public void concurrentCallersShareOneAttempt() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final SharedInitializer<String> initializer = new SharedInitializer<>(() -> {
+            attempts.incrementAndGet();
+            release.await();
+            return "store";
+        }, 1000, 60000);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] results = new Future<?>[8];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = callers.submit(() -> initializer.get(5, TimeUnit.SECONDS));
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<?> result : results) {
+                assertEquals("store", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, attempts.get());
+            assertEquals("store", initializer.getIfReady());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failureIsCachedUntilBackoffExpires() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        SharedInitializer<String> initializer = new SharedInitializer<>(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("Keystore unavailable");
+            }
+            return "store";
+        }, 200, 5000);
+
+        expectFailure(initializer);
+        expectFailure(initializer);
+        assertEquals(1, attempts.get());
+        assertEquals(1, initializer.getConsecutiveFailures());
+        assertNull(initializer.getIfReady());
+
+        Thread.sleep(300);
+        expectFailure(initializer); // Second attempt; backoff doubles to 400ms
+        assertEquals(2, attempts.get());
+
+        Thread.sleep(150);
+        expectFailure(initializer); // Still inside the doubled backoff
+        assertEquals(2, attempts.get());
+
+        Thread.sleep(400);
+        assertEquals("store", initializer.get(1, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get());
+        assertEquals(0, initializer.getConsecutiveFailures());
+    }
+
+    @Test
+    public void nullResultCountsAsFailure() throws Exception {
+        SharedInitializer<String> initializer = new SharedInitializer<>(() -> null, 1000, 1000);
+
+        expectFailure(initializer);
+        assertTrue(initializer.isDone());
+        assertNull(initializer.getIfReady());
+    }
+
+    private static void expectFailure(SharedInitializer<String> initializer) throws Exception {
+        try {
+            initializer.get(1, TimeUnit.SECONDS);
+            fail("Expected initialization to fail");
+        } catch (ExecutionException expected) {
+            // Cached or fresh failure
+        }
+    }
+}
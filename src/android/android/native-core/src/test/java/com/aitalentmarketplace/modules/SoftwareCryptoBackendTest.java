@@ -0,0 +1,105 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Sealed data layout, tamper detection and concurrent use of the cached Ciphers
+ */
+public class SoftwareCryptoBackendTest {
+    private static final byte[] AAD = "aad".getBytes(StandardCharsets.UTF_8);
+
+    private CryptoBackend crypto;
+
+    @Before
+    public void setUp() throws Exception {
+        crypto = SoftwareCryptoBackend.generate();
+    }
+
+    @Test
+    public void sealsWithFreshIvAndOpensFromArraysAndBuffers() throws Exception {
+        byte[] plaintext = "secret value".getBytes(StandardCharsets.UTF_8);
+        byte[] padded = new byte[plaintext.length + 4];
+        System.arraycopy(plaintext, 0, padded, 2, plaintext.length);
+
+        byte[] first = crypto.seal(padded, 2, plaintext.length, AAD);
+        byte[] second = crypto.seal(plaintext, 0, plaintext.length, AAD);
+        assertEquals(CryptoBackend.IV_BYTES + plaintext.length + CryptoBackend.TAG_BYTES, first.length);
+        assertFalse(Arrays.equals(Arrays.copyOf(first, CryptoBackend.IV_BYTES),
+                Arrays.copyOf(second, CryptoBackend.IV_BYTES)));
+
+        assertTrue(Arrays.equals(plaintext, crypto.open(first, 0, first.length, AAD)));
+
+        ByteBuffer output = ByteBuffer.allocate(plaintext.length);
+        assertEquals(plaintext.length, crypto.open(ByteBuffer.wrap(second), output, AAD));
+        assertTrue(Arrays.equals(plaintext, output.array()));
+    }
+
+    @Test
+    public void rejectsTamperingWrongAadAndWrongKey() throws Exception {
+        byte[] sealed = crypto.seal(new byte[32], 0, 32, AAD);
+
+        byte[] flipped = sealed.clone();
+        flipped[CryptoBackend.IV_BYTES + 3] ^= 1;
+        assertOpenFails(crypto, flipped, AAD);
+        assertOpenFails(crypto, sealed, "other".getBytes(StandardCharsets.UTF_8));
+        assertOpenFails(SoftwareCryptoBackend.generate(), sealed, AAD);
+        assertOpenFails(crypto, Arrays.copyOf(sealed, CryptoBackend.IV_BYTES + 4), AAD);
+
+        // A failed open must not poison the thread's cached Cipher
+        assertEquals(32, crypto.open(sealed, 0, sealed.length, AAD).length);
+    }
+
+    @Test
+    public void threadsShareOneBackend() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final byte[] plaintext = ("thread " + t).getBytes(StandardCharsets.UTF_8);
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        for (int i = 0; i < 500; i++) {
+                            byte[] sealed = crypto.seal(plaintext, 0, plaintext.length, AAD);
+                            if (!Arrays.equals(plaintext, crypto.open(sealed, 0, sealed.length, AAD))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertOpenFails(CryptoBackend crypto, byte[] sealed, byte[] aad) {
+        try {
+            crypto.open(sealed, 0, sealed.length, aad);
+            fail("Expected open to fail");
+        } catch (GeneralSecurityException expected) {
+            // Authentication failed as it should
+        }
+    }
+}
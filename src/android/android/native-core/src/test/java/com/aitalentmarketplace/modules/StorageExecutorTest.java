@@ -0,0 +1,110 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Per-key ordering, whole-store writes and queue bounds of the storage executor. Every
+ * ordering is forced with latches, so the tests do not depend on thread timing.
+ */
+public class StorageExecutorTest {
+    private static final int QUEUE_DEPTH = 256;
+
+    private final StorageExecutor executor = new StorageExecutor("test", 2, QUEUE_DEPTH);
+    private final CountDownLatch gate = new CountDownLatch(1);
+
+    @After
+    public void tearDown() {
+        gate.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void readAfterWriteOfTheSameKeySeesTheWrite() throws Exception {
+        AtomicInteger value = new AtomicInteger();
+        AtomicInteger seen = new AtomicInteger(-1);
+        CountDownLatch read = new CountDownLatch(1);
+
+        executor.submitWrite("other", this::awaitGate); // Holds the writer thread
+        executor.submitWrite("key", () -> value.set(1));
+        // Reader threads are idle, so without per-key ordering this read would run now and see 0
+        executor.submitRead("key", () -> {
+            seen.set(value.get());
+            read.countDown();
+        });
+        gate.countDown();
+
+        assertTrue(read.await(5, TimeUnit.SECONDS));
+        assertEquals(1, seen.get());
+    }
+
+    @Test
+    public void wholeStoreWriteExcludesEveryReader() throws Exception {
+        AtomicInteger runningReads = new AtomicInteger();
+        AtomicInteger readsDuringWrite = new AtomicInteger(-1);
+        AtomicBoolean written = new AtomicBoolean();
+        AtomicBoolean laterReadSawWrite = new AtomicBoolean();
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.submitRead("a", () -> {
+            runningReads.incrementAndGet();
+            readStarted.countDown();
+            awaitGate();
+            runningReads.decrementAndGet();
+        });
+        assertTrue(readStarted.await(5, TimeUnit.SECONDS));
+
+        executor.submitWrite((Collection<String>) null, () -> {
+            readsDuringWrite.set(runningReads.get());
+            written.set(true);
+        });
+        // Submitted while the write waits for the first read, and for a different key
+        executor.submitRead("b", () -> {
+            laterReadSawWrite.set(written.get());
+            done.countDown();
+        });
+        gate.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, readsDuringWrite.get());
+        assertTrue(laterReadSawWrite.get());
+    }
+
+    @Test
+    public void fullQueueRejectsSubmissions() throws Exception {
+        executor.submitWrite("key", this::awaitGate);
+        for (int i = 1; i < QUEUE_DEPTH; i++) {
+            executor.submitWrite("key" + i, () -> { }); // Queued behind the first write
+        }
+        assertEquals(QUEUE_DEPTH, executor.getQueueDepth());
+
+        try {
+            executor.submitWrite("key", () -> { });
+            fail("Expected the full queue to reject the write");
+        } catch (RejectedExecutionException expected) {
+            // Expected
+        }
+        assertEquals(1, executor.getRejectedTasks());
+        assertEquals(QUEUE_DEPTH, executor.getQueueDepth());
+    }
+
+    private void awaitGate() {
+        try {
+            gate.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
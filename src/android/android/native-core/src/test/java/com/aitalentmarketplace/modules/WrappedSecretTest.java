@@ -0,0 +1,64 @@
+package com.aitalentmarketplace.modules;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Sealing and opening biometric-gated secrets, with a software RSA key pair in place of the
+ * authentication-bound Android Keystore key
+ */
+public class WrappedSecretTest {
+    private static KeyPair keyPair;
+
+    @BeforeClass
+    public static void generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+    }
+
+    @Test
+    public void opensWhatWasSealedWithThePublicKey() throws Exception {
+        byte[] secret = "{\"email\":\"a@b.c\",\"password\":\"correct horse battery staple\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] record = WrappedSecret.seal(keyPair.getPublic(), "biometric_credentials", secret);
+
+        assertArrayEquals(secret, WrappedSecret.open(
+                WrappedSecret.newUnwrapCipher(keyPair.getPrivate()), "biometric_credentials", record));
+
+        byte[] large = new byte[64 * 1024]; // Larger than RSA could encrypt directly
+        assertArrayEquals(large, WrappedSecret.open(WrappedSecret.newUnwrapCipher(keyPair.getPrivate()),
+                "large", WrappedSecret.seal(keyPair.getPublic(), "large", large)));
+    }
+
+    @Test
+    public void rejectsRecordsMovedToAnotherNameOrTamperedWith() throws Exception {
+        byte[] record = WrappedSecret.seal(keyPair.getPublic(), "a", "secret".getBytes(StandardCharsets.UTF_8));
+        assertRejected("b", record);
+
+        byte[] tampered = record.clone();
+        tampered[tampered.length - 1] ^= 1;
+        assertRejected("a", tampered);
+
+        byte[] truncated = new byte[20];
+        System.arraycopy(record, 0, truncated, 0, truncated.length);
+        assertRejected("a", truncated);
+    }
+
+    private static void assertRejected(String name, byte[] record) throws Exception {
+        try {
+            WrappedSecret.open(WrappedSecret.newUnwrapCipher(keyPair.getPrivate()), name, record);
+            fail("Expected the record to be rejected");
+        } catch (GeneralSecurityException expected) {
+            // AEADBadTagException or a format error
+        }
+    }
+}
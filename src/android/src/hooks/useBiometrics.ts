@@ -27,7 +27,7 @@ import {
 } from '../utils/biometrics';
 import { 
   saveBiometricCredentials, 
-  getBiometricCredentials, 
+  getUserCredentials, 
   deleteBiometricCredentials 
 } from '../utils/keychain';
 
@@ -168,8 +168,8 @@ export function useBiometrics(): UseBiometricsReturnType {
         return false;
       }
       
-      // Check if we have the necessary credentials stored
-      const credentials = await getBiometricCredentials();
+      // Check if we have the remembered credentials that get sealed for biometric login
+      const credentials = await getUserCredentials();
       if (!credentials) {
         setError('No stored credentials available for biometric setup');
         return false;
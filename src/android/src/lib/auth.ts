@@ -48,17 +48,20 @@ import {
   saveUserCredentials, 
   getUserCredentials, 
   deleteUserCredentials, 
-  saveBiometricCredentials, 
   getBiometricCredentials, 
   deleteBiometricCredentials, 
-  clearAllSecureItems 
+  clearAllSecureItems,
+  getAuthTokens
 } from '../utils/keychain';
 
 // Import biometric authentication utilities
 import { 
   isBiometricAvailable, 
   getBiometricType, 
-  authenticateWithBiometrics 
+  authenticateWithBiometrics,
+  saveBiometricSecret,
+  getSecretWithBiometrics,
+  deleteBiometricSecret
 } from '../utils/biometrics';
 
 // Import external libraries
@@ -91,13 +94,91 @@ const TOKEN_REFRESH_THRESHOLD = 5 * 60 * 1000;
 // Timeout for offline authentication (5 days)
 const OFFLINE_AUTH_TIMEOUT = 5 * 24 * 60 * 60 * 1000;
 
+// Name of the biometric login credentials sealed to the biometric-bound Keystore key
+const BIOMETRIC_CREDENTIALS_SECRET = 'biometric_login_credentials';
+
+/**
+ * Thrown by loginWithBiometrics when a biometric enrollment invalidated the key the
+ * credentials were sealed to. Biometric login has then been disabled, and is enabled again
+ * by signing in with the password.
+ */
+export class BiometricKeyInvalidatedError extends Error {
+  constructor() {
+    super('Biometric login was turned off because the enrolled biometrics changed. Sign in with your password to turn it on again.');
+    this.name = 'BiometricKeyInvalidatedError';
+  }
+}
+
+/**
+ * Seals credentials for biometric login to the biometric-bound key that loginWithBiometrics
+ * reads them back through. They are only kept sealed: the plaintext copy earlier versions kept
+ * in secure storage, readable without a prompt, is deleted.
+ * 
+ * @returns True if the credentials were sealed
+ */
+async function storeBiometricCredentials(credentials: { email: string; password: string }): Promise<boolean> {
+  const sealed = await saveBiometricSecret(BIOMETRIC_CREDENTIALS_SECRET, JSON.stringify(credentials));
+  if (sealed) {
+    await deleteBiometricCredentials();
+  }
+  return sealed;
+}
+
+/**
+ * Removes the credentials stored by storeBiometricCredentials, and any plaintext copy left by
+ * an earlier version
+ */
+async function removeBiometricCredentials(): Promise<void> {
+  await deleteBiometricCredentials();
+  await deleteBiometricSecret(BIOMETRIC_CREDENTIALS_SECRET);
+}
+
+// Pending or finished move of the plaintext biometric credentials, run once per launch
+let legacyBiometricCredentialsMove: Promise<void> | null = null;
+
+/**
+ * Moves biometric credentials stored in plaintext by an earlier version into the sealed
+ * secret, then deletes the plaintext copy. The copy is only deleted once it is sealed, so a
+ * failed move is retried on the next launch.
+ */
+function moveLegacyBiometricCredentials(): Promise<void> {
+  if (!legacyBiometricCredentialsMove) {
+    legacyBiometricCredentialsMove = (async () => {
+      try {
+        const legacy = await getBiometricCredentials();
+        if (legacy && await storeBiometricCredentials(legacy)) {
+          console.info('Moved biometric login credentials into the biometric-bound key');
+        }
+      } catch (error) {
+        console.error('Error moving legacy biometric credentials:', error);
+      }
+    })();
+  }
+  return legacyBiometricCredentialsMove;
+}
+
+/**
+ * Reads the auth state persisted by login, register and the biometric toggles
+ * 
+ * @returns The persisted state, or null if there is none or it cannot be read
+ */
+async function getPersistedAuthState(): Promise<AuthState | null> {
+  try {
+    const authStateString = await AsyncStorage.getItem(AUTH_PERSIST_KEY);
+    return authStateString ? JSON.parse(authStateString) as AuthState : null;
+  } catch (error) {
+    console.error('Error reading persisted auth state:', error);
+    return null;
+  }
+}
+
 /**
  * Authenticates a user with email and password
  * 
  * @param credentials User login credentials
  * @returns Authentication result with user data and tokens
  */
-export async function login(credentials: LoginFormValues): Promise<{ user: any; token: string; refreshToken: string }> {
+export async function login(credentials: LoginFormValues): Promise<{ user: any; token: string; refreshToken: string; biometricsEnabled: boolean }> {
   try {
     // Validate credentials format
     if (!credentials.email || !credentials.password) {
@@ -135,13 +216,11 @@ export async function login(credentials: LoginFormValues): Promise<{ user: any;
       });
     }
     
-    // Enable biometric authentication if requested
-    if (credentials.useBiometrics) {
-      await saveBiometricCredentials({
-        email: credentials.email,
-        password: credentials.password
-      });
-    }
+    // Enable biometric authentication if requested and the credentials could be sealed
+    const biometricsEnabled = !!credentials.useBiometrics && await storeBiometricCredentials({
+      email: credentials.email,
+      password: credentials.password
+    });
     
     // Store auth state for offline access
     await AsyncStorage.setItem(AUTH_PERSIST_KEY, JSON.stringify({
@@ -152,11 +231,11 @@ export async function login(credentials: LoginFormValues): Promise<{ user: any;
       loading: false,
       error: null,
       requiresTwoFactor: false,
-      biometricsEnabled: credentials.useBiometrics
+      biometricsEnabled
     }));
     
     // Return authentication result
-    return { user, token, refreshToken };
+    return { user, token, refreshToken, biometricsEnabled };
   } catch (error) {
     const errorDetails = handleAxiosError(error);
     throw new Error(errorDetails.message || 'Login failed. Please check your credentials and try again.');
@@ -167,8 +246,10 @@ export async function login(credentials: LoginFormValues): Promise<{ user: any;
  * Authenticates a user using biometric authentication (fingerprint, face)
  * 
  * @returns Authentication result or null if biometrics fail
+ * @throws BiometricKeyInvalidatedError if a biometric enrollment invalidated the sealed
+ *   credentials, in which case biometric login has been disabled
  */
-export async function loginWithBiometrics(): Promise<{ user: any; token: string; refreshToken: string } | null> {
+export async function loginWithBiometrics(): Promise<{ user: any; token: string; refreshToken: string; biometricsEnabled: boolean } | null> {
   try {
     // Check if biometric authentication is available
     const isBiometricAvail = await isBiometricAvailable();
@@ -184,28 +265,35 @@ export async function loginWithBiometrics(): Promise<{ user: any; token: string;
       return null;
     }
     
-    // Prompt for biometric authentication
-    const authResult = await authenticateWithBiometrics({
+    const promptOptions = {
       promptTitle: 'Sign in to AI Talent Marketplace',
       promptSubtitle: `Authenticate using your ${biometricType.toLowerCase()}`,
       promptDescription: 'Please verify your identity to continue',
       cancelButtonText: 'Use Password Instead'
-    });
-    
-    // Check the result of biometric authentication
-    if (authResult !== BiometricAuthResult.SUCCESS) {
+    };
+
+    // Credentials stored in plaintext by an earlier version are sealed first
+    await moveLegacyBiometricCredentials();
+
+    // Credentials sealed to the biometric-bound key come back from the prompt in one native call
+    const sealed = await getSecretWithBiometrics(BIOMETRIC_CREDENTIALS_SECRET, promptOptions);
+    if (sealed.result === BiometricAuthResult.KEY_INVALIDATED) {
+      // The sealed credentials are gone; a new enrollment must not inherit the old login
+      console.warn('Biometric enrollment changed, disabling biometric login');
+      await disableBiometrics();
+      throw new BiometricKeyInvalidatedError();
+    }
+    if (sealed.result !== BiometricAuthResult.SUCCESS) {
       console.warn('Biometric authentication failed or was cancelled');
       return null;
     }
-    
-    // Retrieve stored credentials for biometric authentication
-    const credentials = await getBiometricCredentials();
-    if (!credentials) {
+    if (!sealed.secret) {
       console.warn('No stored credentials for biometric authentication');
       return null;
     }
-    
-    // Use the stored credentials to log in
+
+    // Use the unsealed credentials to log in
+    const credentials = JSON.parse(sealed.secret) as AuthCredentials;
     return await login({
       email: credentials.email,
       password: credentials.password,
@@ -213,6 +301,9 @@ export async function loginWithBiometrics(): Promise<{ user: any; token: string;
       useBiometrics: true
     });
   } catch (error) {
+    if (error instanceof BiometricKeyInvalidatedError) {
+      throw error;
+    }
     console.error('Error during biometric authentication:', error);
     return null;
   }
@@ -224,7 +315,7 @@ export async function loginWithBiometrics(): Promise<{ user: any; token: string;
  * @param userData Registration form data
  * @returns Registration result with user data and tokens
  */
-export async function register(userData: RegisterFormValues): Promise<{ user: any; token: string; refreshToken: string }> {
+export async function register(userData: RegisterFormValues): Promise<{ user: any; token: string; refreshToken: string; biometricsEnabled: boolean }> {
   try {
     // Validate registration data
     if (!userData.email || !userData.password || !userData.confirmPassword) {
@@ -255,13 +346,11 @@ export async function register(userData: RegisterFormValues): Promise<{ user: an
     await saveAuthToken(token);
     await saveRefreshToken(refreshToken);
     
-    // Store credentials for biometric authentication if enabled
-    if (userData.enableBiometrics) {
-      await saveBiometricCredentials({
-        email: userData.email,
-        password: userData.password
-      });
-    }
+    // Store credentials for biometric authentication if enabled and they could be sealed
+    const biometricsEnabled = !!userData.enableBiometrics && await storeBiometricCredentials({
+      email: userData.email,
+      password: userData.password
+    });
     
     // Store auth state for offline access
     await AsyncStorage.setItem(AUTH_PERSIST_KEY, JSON.stringify({
@@ -272,11 +361,11 @@ export async function register(userData: RegisterFormValues): Promise<{ user: an
       loading: false,
       error: null,
       requiresTwoFactor: false,
-      biometricsEnabled: userData.enableBiometrics
+      biometricsEnabled
     }));
     
     // Return registration result
-    return { user, token, refreshToken };
+    return { user, token, refreshToken, biometricsEnabled };
   } catch (error) {
     const errorDetails = handleAxiosError(error);
     throw new Error(errorDetails.message || 'Registration failed. Please try again.');
@@ -307,7 +396,7 @@ export async function logout(): Promise<boolean> {
     await deleteAuthToken();
     await deleteRefreshToken();
     await deleteUserCredentials();
-    await deleteBiometricCredentials();
+    await removeBiometricCredentials();
     
     // Clear persisted auth state
     await AsyncStorage.removeItem(AUTH_PERSIST_KEY);
@@ -429,13 +518,19 @@ export async function changePassword(data: ChangePasswordFormValues): Promise<{
       });
     }
     
-    // Update biometric credentials if they exist
-    const biometricCredentials = await getBiometricCredentials();
-    if (biometricCredentials) {
-      await saveBiometricCredentials({
-        email: biometricCredentials.email,
+    // Re-seal the biometric login credentials with the new password; credentials that can no
+    // longer log in are removed rather than kept
+    const authState = await getPersistedAuthState();
+    if (authState && authState.biometricsEnabled) {
+      const email = storedCredentials ? storedCredentials.email : authState.user && authState.user.email;
+      const resealed = email ? await storeBiometricCredentials({
+        email,
         password: data.newPassword
-      });
+      }) : false;
+      if (!resealed) {
+        console.warn('Could not re-seal biometric login credentials, disabling biometric login');
+        await disableBiometrics();
+      }
     }
     
     // Return success response
@@ -701,7 +796,9 @@ export async function enableBiometrics(): Promise<BiometricAuthResult> {
     
     // If authentication successful, store credentials for biometric login
     if (authResult === BiometricAuthResult.SUCCESS) {
-      await saveBiometricCredentials(credentials);
+      if (!await storeBiometricCredentials(credentials)) {
+        return BiometricAuthResult.FAILED;
+      }
       
       // Update stored auth state with biometrics enabled
       const authStateString = await AsyncStorage.getItem(AUTH_PERSIST_KEY);
@@ -729,7 +826,7 @@ export async function enableBiometrics(): Promise<BiometricAuthResult> {
 export async function disableBiometrics(): Promise<boolean> {
   try {
     // Delete stored biometric credentials
-    await deleteBiometricCredentials();
+    await removeBiometricCredentials();
     
     // Update stored auth state with biometrics disabled
     const authStateString = await AsyncStorage.getItem(AUTH_PERSIST_KEY);
@@ -848,8 +945,11 @@ export function hasPermission(permission: AuthPermission): boolean {
  */
 export async function getAuthState(): Promise<AuthState | null> {
   try {
-    // Get current authentication token
-    const token = await getAuthToken();
+    // Seal plaintext biometric credentials left by an earlier version, without delaying startup
+    moveLegacyBiometricCredentials();
+    
+    // Get both tokens in one native call
+    const { authToken: token, refreshToken: storedRefreshToken } = await getAuthTokens();
     if (!token) {
       return null;
     }
@@ -876,20 +976,12 @@ export async function getAuthState(): Promise<AuthState | null> {
         if (newToken) {
           const newDecoded = jwt_decode<JwtPayload>(newToken);
           
-          // Get refresh token
+          // Get the refresh token, which the refresh may have rotated
           const refreshToken = await getRefreshToken();
           
-          // Check if biometric authentication is enabled
-          const biometricCredentials = await getBiometricCredentials();
-          
-          // Use previously stored auth state if available
-          const authStateString = await AsyncStorage.getItem(AUTH_PERSIST_KEY);
-          let user = null;
-          
-          if (authStateString) {
-            const storedAuthState = JSON.parse(authStateString) as AuthState;
-            user = storedAuthState.user;
-          }
+          // Use previously stored auth state, including whether biometric login is enabled
+          const storedAuthState = await getPersistedAuthState();
+          const user = storedAuthState ? storedAuthState.user : null;
           
           // Return updated auth state
           return {
@@ -904,25 +996,14 @@ export async function getAuthState(): Promise<AuthState | null> {
             loading: false,
             error: null,
             requiresTwoFactor: false,
-            biometricsEnabled: biometricCredentials !== null
+            biometricsEnabled: storedAuthState !== null && storedAuthState.biometricsEnabled === true
           };
         }
       }
       
-      // Get refresh token
-      const refreshToken = await getRefreshToken();
-      
-      // Check if biometric authentication is enabled
-      const biometricCredentials = await getBiometricCredentials();
-      
-      // Use previously stored auth state if available
-      const authStateString = await AsyncStorage.getItem(AUTH_PERSIST_KEY);
-      let user = null;
-      
-      if (authStateString) {
-        const storedAuthState = JSON.parse(authStateString) as AuthState;
-        user = storedAuthState.user;
-      }
+      // Use previously stored auth state, including whether biometric login is enabled
+      const storedAuthState = await getPersistedAuthState();
+      const user = storedAuthState ? storedAuthState.user : null;
       
       // Store token in localStorage for permission checks
       if (typeof localStorage !== 'undefined') {
@@ -938,11 +1019,11 @@ export async function getAuthState(): Promise<AuthState | null> {
           role: decoded.role,
         },
         token,
-        refreshToken,
+        refreshToken: storedRefreshToken,
         loading: false,
         error: null,
         requiresTwoFactor: false,
-        biometricsEnabled: biometricCredentials !== null
+        biometricsEnabled: storedAuthState !== null && storedAuthState.biometricsEnabled === true
       };
     } catch (decodeError) {
       console.error('Error decoding token:', decodeError);
@@ -967,7 +1048,7 @@ export async function getAuthState(): Promise<AuthState | null> {
  */
 export async function handleOfflineAuthentication(
   credentials: LoginFormValues
-): Promise<{ user: any; token: string; refreshToken: string } | null> {
+): Promise<{ user: any; token: string; refreshToken: string; biometricsEnabled: boolean } | null> {
   try {
     // Check if network is available
     const networkState = await NetInfo.fetch();
@@ -1019,7 +1100,8 @@ export async function handleOfflineAuthentication(
       return {
         user: authState.user!,
         token: authState.token,
-        refreshToken: authState.refreshToken!
+        refreshToken: authState.refreshToken!,
+        biometricsEnabled: authState.biometricsEnabled === true
       };
     } catch (decodeError) {
       console.error('Error decoding offline token:', decodeError);
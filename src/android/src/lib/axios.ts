@@ -29,11 +29,11 @@ import NetInfo from '@react-native-community/netinfo'; // @react-native-communit
 
 import { 
   getAuthToken,
+  getAuthTokenSync,
+  enableSyncTokenReads,
   getRefreshToken,
-  saveAuthToken,
-  saveRefreshToken,
-  deleteAuthToken,
-  deleteRefreshToken
+  rotateAuthTokens,
+  deleteAuthToken
 } from '../utils/keychain';
 
 // API Configuration Constants
@@ -68,8 +68,10 @@ const setupAxiosInterceptors = (axiosInstance: AxiosInstance): void => {
       // Clone the config to avoid modifying the original
       const newConfig = { ...config };
       
-      // Get authentication token from secure storage
-      const token = await getAuthToken();
+      // Get authentication token from the native in-memory snapshot, falling back
+      // to the async secure storage read when the snapshot is not available yet
+      const syncToken = getAuthTokenSync();
+      const token = syncToken !== undefined ? syncToken : await getAuthToken();
       
       // If token exists, add it to the Authorization header
       if (token) {
@@ -143,15 +145,38 @@ const setupAxiosInterceptors = (axiosInstance: AxiosInstance): void => {
   );
 };
 
+// Refresh shared by every caller while it is in flight, so parallel 401s trigger one request
+let refreshInFlight: Promise<string | null> | null = null;
+
+/**
+ * Attempts to refresh the authentication token when it expires.
+ * Concurrent callers share a single refresh request.
+ * 
+ * @returns Promise that resolves to the new token if successful, null otherwise
+ */
+const refreshAuthToken = (): Promise<string | null> => {
+  if (!refreshInFlight) {
+    refreshInFlight = performTokenRefresh().finally(() => {
+      refreshInFlight = null;
+    });
+  }
+  return refreshInFlight;
+};
+
 /**
- * Attempts to refresh the authentication token when it expires
+ * Exchanges the stored refresh token for new tokens. Both tokens are stored by one native
+ * compare-and-set on the refresh token, so if another refresh (for example from auth.ts) rotated
+ * it first, this one keeps the winner's tokens instead of overwriting or deleting them, and the
+ * auth token it then reads is already the winner's.
  * 
  * @returns Promise that resolves to the new token if successful, null otherwise
  */
-const refreshAuthToken = async (): Promise<string | null> => {
+const performTokenRefresh = async (): Promise<string | null> => {
+  let refreshToken: string | null = null;
+
   try {
     // Get the refresh token from secure storage
-    const refreshToken = await getRefreshToken();
+    refreshToken = await getRefreshToken();
     
     // If no refresh token exists, we can't refresh
     if (!refreshToken) {
@@ -179,10 +204,13 @@ const refreshAuthToken = async (): Promise<string | null> => {
     if (response.data && response.data.token && response.data.refreshToken) {
       const { token, refreshToken: newRefreshToken } = response.data;
       
-      // Save the new tokens in secure storage
-      await saveAuthToken(token);
-      await saveRefreshToken(newRefreshToken);
-      
+      // Rotate both tokens in one write, only if nobody else has since the request started
+      const rotation = await rotateAuthTokens(refreshToken, newRefreshToken, token);
+      if (!rotation.swapped) {
+        // Another refresh won the race and already stored its auth token with its refresh token
+        return rotation.value ? await getAuthToken() : null;
+      }
+
       return token;
     }
     
@@ -192,9 +220,16 @@ const refreshAuthToken = async (): Promise<string | null> => {
   } catch (error) {
     console.error('Token refresh error:', error);
     
-    // Clean up by deleting the tokens since they're no longer valid
-    await deleteAuthToken();
-    await deleteRefreshToken();
+    // Clean up the tokens since they're no longer valid, unless another refresh has
+    // already replaced them with working ones
+    if (refreshToken) {
+      const rotation = await rotateAuthTokens(refreshToken, null, null);
+      if (!rotation.swapped) {
+        return rotation.value ? await getAuthToken() : null;
+      }
+    } else {
+      await deleteAuthToken();
+    }
     
     return null;
   }
@@ -372,6 +407,9 @@ const handleAxiosError = (error: AxiosError<any>): { message: string; status?: n
 // Initialize the Axios instance with interceptors
 setupAxiosInterceptors(api);
 
+// Keep the tokens in native memory so the request interceptor can read them synchronously
+enableSyncTokenReads();
+
 // Default export of the configured Axios instance
 export default api;
 
@@ -7,6 +7,11 @@
  * 
  * For sensitive data like authentication tokens and credentials, use the keychain
  * utility instead.
+ *
+ * Cached data (cacheData, cacheJobs, cacheUserProfile) is kept by the native CacheModule
+ * when it is available: one file per entry with its own expiry, a size budget with
+ * least-recently-used eviction and a background sweep of expired entries, so reading one
+ * cached entry never loads or parses the others. AsyncStorage is used as a fallback.
  * 
  * Features:
  * - Namespaced storage keys
@@ -19,7 +24,7 @@
  */
 
 import AsyncStorage from '@react-native-async-storage/async-storage'; // ^1.18.2
-import { Platform } from 'react-native'; // 0.72.x
+import { NativeModules, Platform } from 'react-native'; // 0.72.x
 import { isSecureStorageAvailable } from '../utils/keychain';
 
 // Storage constants
@@ -31,6 +36,10 @@ export const JOB_CACHE_KEY = 'jobs_cache';
 export const PROFILE_CACHE_KEY = 'profile_cache';
 export const LAST_SYNC_KEY = 'last_sync';
 export const CACHE_EXPIRY_TIME = 24 * 60 * 60 * 1000; // 24 hours in milliseconds
+export const OFFLINE_CACHE_EXPIRY_TIME = 30 * 24 * 60 * 60 * 1000; // 30 days, for jobs and profile
+
+// Reference to the native CacheModule, when this build includes it
+const CacheModule = NativeModules.CacheModule;
 
 // Types for internal use
 interface CacheItem<T> {
@@ -342,12 +351,14 @@ export const cachingEnabled = async (): Promise<boolean> => {
  * @param key Cache key
  * @param data Data to cache
  * @param expiryTime Expiration time in milliseconds (default: 24 hours)
+ * @param encrypted Whether the native cache should encrypt the entry on disk
  * @returns Promise resolving to true if successful, false otherwise
  */
 export const cacheData = async <T>(
   key: string, 
   data: T, 
-  expiryTime: number = CACHE_EXPIRY_TIME
+  expiryTime: number = CACHE_EXPIRY_TIME,
+  encrypted: boolean = false
 ): Promise<boolean> => {
   if (!key || key.trim() === '') {
     console.error('Cannot cache data with empty key');
@@ -361,6 +372,10 @@ export const cacheData = async <T>(
   }
 
   const cacheKey = `${CACHE_STORAGE_KEY}:${key}`;
+
+  if (CacheModule) {
+    return await setNativeCacheItem(cacheKey, data, expiryTime, encrypted);
+  }
   
   // Create cache object
   const cacheItem: CacheItem<T> = {
@@ -372,6 +387,30 @@ export const cacheData = async <T>(
   return await storeData(cacheKey, cacheItem);
 };
 
+/**
+ * Stores data in the native cache. Expiry is tracked natively, so only the data itself
+ * is serialized.
+ *
+ * @param cacheKey Prefixed cache key
+ * @param data Data to cache
+ * @param expiryTime Expiration time in milliseconds
+ * @param encrypted Whether to encrypt the entry on disk
+ * @returns Promise resolving to true if successful, false otherwise
+ */
+const setNativeCacheItem = async <T>(
+  cacheKey: string,
+  data: T,
+  expiryTime: number,
+  encrypted: boolean
+): Promise<boolean> => {
+  try {
+    return await CacheModule.setItem(cacheKey, JSON.stringify(data), expiryTime, encrypted);
+  } catch (error) {
+    console.error(`Error caching data for key ${cacheKey}:`, error);
+    return false;
+  }
+};
+
 /**
  * Retrieves data from cache if not expired
  * 
@@ -385,6 +424,17 @@ export const getCachedData = async <T>(key: string): Promise<T | null> => {
   }
 
   const cacheKey = `${CACHE_STORAGE_KEY}:${key}`;
+
+  if (CacheModule) {
+    try {
+      // Absent and expired entries resolve to null without being read
+      const value: string | null = await CacheModule.getItem(cacheKey);
+      return value === null ? null : JSON.parse(value);
+    } catch (error) {
+      console.error(`Error retrieving cache for key ${key}:`, error);
+      return null;
+    }
+  }
   
   // Get cache item
   const cacheItem = await getData<CacheItem<T>>(cacheKey, null);
@@ -419,6 +469,16 @@ export const removeCachedData = async (key: string): Promise<boolean> => {
   }
 
   const cacheKey = `${CACHE_STORAGE_KEY}:${key}`;
+
+  if (CacheModule) {
+    try {
+      await CacheModule.removeItem(cacheKey);
+    } catch (error) {
+      console.error(`Error removing cache for key ${key}:`, error);
+      return false;
+    }
+  }
+
   return await removeData(cacheKey);
 };
 
@@ -429,6 +489,11 @@ export const removeCachedData = async (key: string): Promise<boolean> => {
  */
 export const clearCache = async (): Promise<boolean> => {
   try {
+    if (CacheModule) {
+      await CacheModule.clear();
+    }
+
+    // Also drops entries cached in AsyncStorage before the native cache was available
     const allKeys = await getAllKeys();
     const cacheKeys = allKeys.filter(key => key.startsWith(`${CACHE_STORAGE_KEY}:`));
     
@@ -443,6 +508,34 @@ export const clearCache = async (): Promise<boolean> => {
   }
 };
 
+/**
+ * Moves a value cached in AsyncStorage before the native cache was available into the native
+ * cache, then deletes the AsyncStorage copy, so it expires like any other entry instead of
+ * coming back whenever the native entry is gone. The copy was written with the last sync
+ * time, so it keeps what is left of its expiry, and is dropped if none is.
+ * 
+ * @param key Cache key the value was stored under in AsyncStorage
+ * @param encrypted Whether to encrypt the native entry on disk
+ * @returns Promise resolving to the value if it has not expired, null otherwise
+ */
+const moveLegacyCacheItem = async <T>(key: string, encrypted: boolean): Promise<T | null> => {
+  const legacy = await getData<T>(key);
+  if (legacy === null) {
+    return null;
+  }
+
+  const lastSync = await getLastSyncTime();
+  const remaining = lastSync !== null ? OFFLINE_CACHE_EXPIRY_TIME - (Date.now() - lastSync) : 0;
+  if (remaining <= 0) {
+    await removeData(key);
+    return null;
+  }
+  if (await setNativeCacheItem(`${CACHE_STORAGE_KEY}:${key}`, legacy, remaining, encrypted)) {
+    await removeData(key);
+  }
+  return legacy;
+};
+
 /**
  * Caches job listing data for offline access
  * 
@@ -455,9 +548,14 @@ export const cacheJobs = async (jobs: Array<object>): Promise<boolean> => {
     return false;
   }
   
-  const result = await storeData(JOB_CACHE_KEY, jobs);
+  const result = CacheModule
+    ? await setNativeCacheItem(`${CACHE_STORAGE_KEY}:${JOB_CACHE_KEY}`, jobs, OFFLINE_CACHE_EXPIRY_TIME, false)
+    : await storeData(JOB_CACHE_KEY, jobs);
   
   if (result) {
+    if (CacheModule) {
+      await removeData(JOB_CACHE_KEY); // An older copy cached before the native cache
+    }
     await updateLastSyncTime();
   }
   
@@ -470,6 +568,14 @@ export const cacheJobs = async (jobs: Array<object>): Promise<boolean> => {
  * @returns Promise resolving to cached jobs if available, null otherwise
  */
 export const getCachedJobs = async (): Promise<Array<object> | null> => {
+  if (CacheModule) {
+    const jobs = await getCachedData<Array<object>>(JOB_CACHE_KEY);
+    if (jobs !== null) {
+      return jobs;
+    }
+    // Jobs cached in AsyncStorage before the native cache was available
+    return await moveLegacyCacheItem<Array<object>>(JOB_CACHE_KEY, false);
+  }
   return await getData(JOB_CACHE_KEY, null);
 };
 
@@ -485,9 +591,15 @@ export const cacheUserProfile = async (profile: object): Promise<boolean> => {
     return false;
   }
   
-  const result = await storeData(PROFILE_CACHE_KEY, profile);
+  // The profile holds personal data, so the native cache encrypts it on disk
+  const result = CacheModule
+    ? await setNativeCacheItem(`${CACHE_STORAGE_KEY}:${PROFILE_CACHE_KEY}`, profile, OFFLINE_CACHE_EXPIRY_TIME, true)
+    : await storeData(PROFILE_CACHE_KEY, profile);
   
   if (result) {
+    if (CacheModule) {
+      await removeData(PROFILE_CACHE_KEY); // An older copy cached before the native cache
+    }
     await updateLastSyncTime();
   }
   
@@ -500,6 +612,14 @@ export const cacheUserProfile = async (profile: object): Promise<boolean> => {
  * @returns Promise resolving to cached profile if available, null otherwise
  */
 export const getCachedUserProfile = async (): Promise<object | null> => {
+  if (CacheModule) {
+    const profile = await getCachedData<object>(PROFILE_CACHE_KEY);
+    if (profile !== null) {
+      return profile;
+    }
+    // Profile cached in AsyncStorage before the native cache was available
+    return await moveLegacyCacheItem<object>(PROFILE_CACHE_KEY, true);
+  }
   return await getData(PROFILE_CACHE_KEY, null);
 };
 
@@ -559,10 +679,12 @@ export const getStorageInfo = async (): Promise<object> => {
     const lastSyncTime = await getLastSyncTime();
     
     const isSecureAvailable = await isSecureStorageAvailable();
+    const nativeCacheStats = CacheModule ? await CacheModule.getStats() : null;
     
     return {
       totalItems: allKeys.length,
-      cacheItems: cacheKeys.length,
+      cacheItems: cacheKeys.length + (nativeCacheStats ? nativeCacheStats.entries : 0),
+      nativeCache: nativeCacheStats,
       lastSyncTime,
       isStorageAvailable: true,
       isSecureStorageAvailable: isSecureAvailable,
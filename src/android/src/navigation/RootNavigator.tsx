@@ -7,6 +7,9 @@ import { StatusBar, View, StyleSheet } from 'react-native'; // react-native 0.72
 import AuthNavigator from './AuthNavigator';
 import DashboardNavigator from './DashboardNavigator';
 import { useAuth } from '../hooks/useAuth';
+import { useAppDispatch } from '../store';
+import { syncAuthTokens } from '../store/slices/authSlice';
+import { onAuthTokensChanged } from '../utils/keychain';
 import { Spinner, SpinnerSize } from '../components/common/Spinner';
 
 // Define the root navigator component
@@ -19,12 +22,20 @@ const Stack = createNativeStackNavigator();
 const RootNavigator: React.FC = () => {
   // Access authentication state using useAuth hook
   const { isAuthenticated, isLoading, restoreAuthState } = useAuth();
+  const dispatch = useAppDispatch();
 
   // Initialize auth state restoration on component mount with useEffect
   useEffect(() => {
     restoreAuthState();
   }, [restoreAuthState]);
 
+  // Keep the stored tokens in the auth state when they are rotated or removed, without polling
+  useEffect(() => {
+    return onAuthTokensChanged(() => {
+      dispatch(syncAuthTokens());
+    });
+  }, [dispatch]);
+
   // Render loading spinner while authentication state is being determined
   if (isLoading) {
     return (
@@ -35,7 +35,8 @@ import {
   loginWithBiometrics, 
   enableBiometrics, 
   disableBiometrics,
-  getAuthState
+  getAuthState,
+  BiometricKeyInvalidatedError
 } from '../../lib/auth';
 
 import {
@@ -44,7 +45,8 @@ import {
   deleteAuthToken,
   saveRefreshToken,
   getRefreshToken,
-  deleteRefreshToken
+  deleteRefreshToken,
+  getAuthTokens
 } from '../../utils/keychain';
 
 import {
@@ -85,7 +87,7 @@ export const loginUser = createAsyncThunk(
         user: result.user,
         token: result.token,
         refreshToken: result.refreshToken,
-        biometricsEnabled: credentials.useBiometrics
+        biometricsEnabled: result.biometricsEnabled
       };
     } catch (error) {
       // Handle authentication errors
@@ -112,7 +114,7 @@ export const registerUser = createAsyncThunk(
         user: result.user,
         token: result.token,
         refreshToken: result.refreshToken,
-        biometricsEnabled: registerData.enableBiometrics
+        biometricsEnabled: result.biometricsEnabled
       };
     } catch (error) {
       // Handle registration errors
@@ -202,7 +204,7 @@ export const resetUserPassword = createAsyncThunk(
  */
 export const loginWithBiometric = createAsyncThunk(
   'auth/loginWithBiometric',
-  async (_, { rejectWithValue }) => {
+  async (_, { dispatch, rejectWithValue }) => {
     try {
       // Call the loginWithBiometrics function
       const result = await loginWithBiometrics();
@@ -216,9 +218,13 @@ export const loginWithBiometric = createAsyncThunk(
         user: result.user,
         token: result.token,
         refreshToken: result.refreshToken,
-        biometricsEnabled: true
+        biometricsEnabled: result.biometricsEnabled
       };
     } catch (error) {
+      if (error instanceof BiometricKeyInvalidatedError) {
+        // Biometric login was disabled; reflect it in the state
+        await dispatch(toggleBiometrics(false));
+      }
       // Handle biometric authentication errors
       return rejectWithValue((error as Error).message);
     }
@@ -277,6 +283,25 @@ export const restoreAuthState = createAsyncThunk(
   }
 );
 
+/**
+ * Async thunk for re-reading the stored tokens after they changed
+ * 
+ * Dispatched by the token change listener (see onAuthTokensChanged) when a token is rotated,
+ * for example by the axios refresh interceptor, or removed outside this slice. Both tokens
+ * are read in one native call. If that read fails, e.g. because the store is busy, the thunk
+ * is rejected and the session is left as it is.
+ */
+export const syncAuthTokens = createAsyncThunk(
+  'auth/syncTokens',
+  async (_, { rejectWithValue }) => {
+    try {
+      return await getAuthTokens();
+    } catch (error) {
+      return rejectWithValue((error as Error).message);
+    }
+  }
+);
+
 /**
  * Async thunk for checking biometric authentication availability
  * 
@@ -532,6 +557,26 @@ export const authSlice = createSlice({
         state.error = action.payload as string;
       });
     
+    // Sync tokens changed in secure storage; login and logout set their own state
+    builder
+      .addCase(syncAuthTokens.fulfilled, (state, action) => {
+        if (!state.isAuthenticated) {
+          return;
+        }
+        if (!action.payload.authToken) {
+          // The read succeeded and the token is gone: signed out elsewhere, e.g. a failed
+          // refresh cleared the tokens
+          state.isAuthenticated = false;
+          state.user = null;
+          state.token = null;
+          state.refreshToken = null;
+          state.requiresTwoFactor = false;
+          return;
+        }
+        state.token = action.payload.authToken;
+        state.refreshToken = action.payload.refreshToken;
+      });
+    
     // Check biometric availability (doesn't affect auth state, just informational)
     builder
       .addCase(checkBiometricAvailability.pending, (state) => {
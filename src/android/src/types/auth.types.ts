@@ -237,6 +237,7 @@ export enum BiometricAuthResult {
   CANCELED = 'canceled',
   NOT_AVAILABLE = 'not_available',
   NOT_ENROLLED = 'not_enrolled',
+  KEY_INVALIDATED = 'key_invalidated',
 }
 
 /**
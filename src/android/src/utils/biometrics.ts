@@ -118,4 +118,92 @@ export async function authenticateWithBiometrics(
     console.error('Error during biometric authentication:', error);
     return BiometricAuthResult.FAILED;
   }
-}
\ No newline at end of file
+}
+
+/**
+ * Stores a secret that can only be read back through a biometric prompt. The secret is
+ * sealed to a Keystore key that requires biometric authentication, so no prompt is shown now.
+ * 
+ * @param {string} key - Name to store the secret under
+ * @param {string} value - The secret
+ * @returns {Promise<boolean>} A promise that resolves to true if the secret was stored
+ */
+export async function saveBiometricSecret(key: string, value: string): Promise<boolean> {
+  try {
+    if (Platform.OS !== 'android') {
+      console.warn('Biometric authentication is only supported on Android');
+      return false;
+    }
+
+    return await BiometricModule.setBiometricSecret(key, value);
+  } catch (error) {
+    console.error('Error saving biometric secret:', error);
+    return false;
+  }
+}
+
+/**
+ * Prompts for biometric authentication and returns the secret stored under the key in the
+ * same native call. The secret is decrypted with the key the prompt unlocked, so it is only
+ * available after a successful biometric match.
+ * 
+ * @param {string} key - Name the secret was stored under
+ * @param {BiometricAuthOptions} options - Optional configuration for the biometric prompt
+ * @returns {Promise<{ result: BiometricAuthResult; secret: string | null }>} The outcome of the
+ *   prompt and, on success, the secret. SUCCESS with a null secret means none is stored, in
+ *   which case no prompt was shown. KEY_INVALIDATED means a biometric enrollment deleted every
+ *   stored secret, which have to be stored again.
+ */
+export async function getSecretWithBiometrics(
+  key: string,
+  options?: Partial<BiometricAuthOptions>
+): Promise<{ result: BiometricAuthResult; secret: string | null }> {
+  if (Platform.OS !== 'android') {
+    console.warn('Biometric authentication is only supported on Android');
+    return { result: BiometricAuthResult.NOT_AVAILABLE, secret: null };
+  }
+
+  try {
+    const secret = await BiometricModule.getSecretWithBiometrics(key, {
+      title: options?.promptTitle || DEFAULT_BIOMETRIC_PROMPT_TITLE,
+      subtitle: options?.promptSubtitle || DEFAULT_BIOMETRIC_PROMPT_SUBTITLE,
+      description: options?.promptDescription || DEFAULT_BIOMETRIC_PROMPT_DESCRIPTION,
+      cancelButtonText: options?.cancelButtonText || DEFAULT_BIOMETRIC_CANCEL_TEXT
+    });
+    return { result: BiometricAuthResult.SUCCESS, secret: secret || null };
+  } catch (error: any) {
+    switch (error?.code) {
+      case 'ERR_BIOMETRIC_CANCELED':
+        return { result: BiometricAuthResult.CANCELED, secret: null };
+      case 'ERR_BIOMETRIC_UNAVAILABLE':
+        return { result: BiometricAuthResult.NOT_AVAILABLE, secret: null };
+      case 'ERR_NO_BIOMETRICS':
+        return { result: BiometricAuthResult.NOT_ENROLLED, secret: null };
+      case 'ERR_BIOMETRIC_KEY_INVALIDATED':
+        // A biometric enrollment invalidated the key; every stored secret has been deleted
+        return { result: BiometricAuthResult.KEY_INVALIDATED, secret: null };
+      default:
+        console.error('Error retrieving biometric secret:', error);
+        return { result: BiometricAuthResult.FAILED, secret: null };
+    }
+  }
+}
+
+/**
+ * Deletes a secret stored with saveBiometricSecret
+ * 
+ * @param {string} key - Name the secret was stored under
+ * @returns {Promise<boolean>} A promise that resolves to true if the secret is gone
+ */
+export async function deleteBiometricSecret(key: string): Promise<boolean> {
+  try {
+    if (Platform.OS !== 'android') {
+      return false;
+    }
+
+    return await BiometricModule.removeBiometricSecret(key);
+  } catch (error) {
+    console.error('Error deleting biometric secret:', error);
+    return false;
+  }
+}
@@ -16,7 +16,7 @@
  * @version 1.0.0
  */
 
-import { NativeModules, Platform } from 'react-native'; // react-native v0.72.x
+import { NativeEventEmitter, NativeModules, Platform } from 'react-native'; // react-native v0.72.x
 import { AuthCredentials } from '../types/auth.types';
 
 // Key constants for secure storage
@@ -29,6 +29,11 @@ const SECURE_STORAGE_SERVICE = 'ai.talent.marketplace';
 // Reference to the native SecureStorageModule
 const SecureStorageModule = NativeModules.SecureStorageModule;
 
+// Event the native module emits, at most once per frame, with the changes each subscription matched
+const SECURE_STORAGE_CHANGE_EVENT = 'SecureStorageChanged';
+let secureStorageEmitter: NativeEventEmitter | null = null;
+let nextChangeSubscriptionId = 0;
+
 /**
  * Securely stores the authentication token in the Android secure storage
  * 
@@ -65,6 +70,44 @@ export const getAuthToken = async (): Promise<string | null> => {
   }
 };
 
+/**
+ * Synchronously reads the authentication token from the native in-memory snapshot.
+ * This avoids a promise round trip on the request hot path, but only works once
+ * the token has been registered with enableSyncTokenReads and the secure store
+ * has finished initializing.
+ * 
+ * @returns The token string, null if no token is stored, or undefined if the
+ * synchronous read is unavailable and getAuthToken should be used instead
+ */
+export const getAuthTokenSync = (): string | null | undefined => {
+  if (typeof SecureStorageModule?.getItemSync !== 'function') {
+    return undefined;
+  }
+
+  try {
+    return SecureStorageModule.getItemSync(AUTH_TOKEN_KEY, SECURE_STORAGE_SERVICE) || null;
+  } catch (error) {
+    // Not ready yet or not registered; callers fall back to the async getter
+    return undefined;
+  }
+};
+
+/**
+ * Registers the auth and refresh tokens as hot keys so they are kept in native
+ * memory and preloaded on later launches for getAuthTokenSync
+ * 
+ * @returns Promise resolving to true if the keys were registered, false otherwise
+ */
+export const enableSyncTokenReads = async (): Promise<boolean> => {
+  try {
+    await SecureStorageModule.setHotKeys([AUTH_TOKEN_KEY, REFRESH_TOKEN_KEY], SECURE_STORAGE_SERVICE);
+    return true;
+  } catch (error) {
+    console.error('Error registering hot secure storage keys:', error);
+    return false;
+  }
+};
+
 /**
  * Removes the authentication token from the Android secure storage
  * 
@@ -131,6 +174,37 @@ export const deleteRefreshToken = async (): Promise<boolean> => {
   }
 };
 
+/**
+ * Atomically replaces the stored refresh token, but only if it still equals the token a refresh
+ * was started with, and stores the matching auth token in the same native write. Parallel
+ * refreshes use this so a slower one cannot overwrite (or, on failure, delete) tokens another
+ * refresh has already rotated in, and so a refresh that loses the race reads the winner's auth
+ * token rather than the old one.
+ * 
+ * @param expected The refresh token the caller read before refreshing
+ * @param next The new refresh token, or null to delete it
+ * @param authToken The auth token issued with the new refresh token, or null to delete it
+ * @returns Promise resolving to whether the tokens were replaced and the refresh token now stored
+ */
+export const rotateAuthTokens = async (
+  expected: string,
+  next: string | null,
+  authToken: string | null
+): Promise<{ swapped: boolean; value: string | null }> => {
+  try {
+    return await SecureStorageModule.compareAndSetWith(
+      REFRESH_TOKEN_KEY,
+      expected,
+      next,
+      [[AUTH_TOKEN_KEY, authToken]],
+      SECURE_STORAGE_SERVICE
+    );
+  } catch (error) {
+    console.error('Error rotating auth tokens in secure storage:', error);
+    return { swapped: false, value: null };
+  }
+};
+
 /**
  * Securely stores user login credentials in the Android secure storage
  * 
@@ -351,6 +425,302 @@ export const deleteSecureItem = async (key: string): Promise<boolean> => {
   }
 };
 
+/**
+ * Retrieves several values from the Android secure storage in a single native call
+ * 
+ * @param keys The keys of the values to retrieve
+ * @returns Promise resolving to a map of key to stored value (null when absent)
+ */
+export const getSecureItems = async (keys: string[]): Promise<Record<string, string | null>> => {
+  if (!keys || keys.length === 0) {
+    return {};
+  }
+
+  try {
+    return await SecureStorageModule.multiGet(keys, SECURE_STORAGE_SERVICE);
+  } catch (error) {
+    console.error('Error retrieving secure items:', error);
+    return keys.reduce((result, key) => ({ ...result, [key]: null }), {} as Record<string, string | null>);
+  }
+};
+
+/**
+ * Stores several values in the Android secure storage in a single native call and write
+ * 
+ * @param items Map of key to value; non-string values are JSON-stringified
+ * @returns Promise resolving to true if all items were stored, false otherwise
+ */
+export const saveSecureItems = async (items: Record<string, any>): Promise<boolean> => {
+  const pairs = Object.keys(items).map((key) => [
+    key,
+    typeof items[key] === 'string' ? items[key] : JSON.stringify(items[key]),
+  ]);
+
+  if (pairs.length === 0) {
+    return true;
+  }
+
+  try {
+    await SecureStorageModule.multiSet(pairs, SECURE_STORAGE_SERVICE);
+    return true;
+  } catch (error) {
+    console.error('Error saving secure items:', error);
+    return false;
+  }
+};
+
+/**
+ * Removes several values from the Android secure storage in a single native call and write
+ * 
+ * @param keys The keys of the values to delete
+ * @returns Promise resolving to true if all items were deleted, false otherwise
+ */
+export const deleteSecureItems = async (keys: string[]): Promise<boolean> => {
+  if (!keys || keys.length === 0) {
+    return true;
+  }
+
+  try {
+    await SecureStorageModule.multiRemove(keys, SECURE_STORAGE_SERVICE);
+    return true;
+  } catch (error) {
+    console.error('Error deleting secure items:', error);
+    return false;
+  }
+};
+
+/**
+ * Atomically replaces a value if it currently equals an expected value, in a single native call
+ * 
+ * @param key The key to update
+ * @param expected The value the key must hold, or null if it must be absent
+ * @param newValue The value to store, or null to delete the key
+ * @returns Promise resolving to whether the value was swapped and the value now stored
+ */
+export const compareAndSetSecureItem = async (
+  key: string,
+  expected: string | null,
+  newValue: string | null
+): Promise<{ swapped: boolean; value: string | null }> => {
+  try {
+    return await SecureStorageModule.compareAndSet(key, expected, newValue, SECURE_STORAGE_SERVICE);
+  } catch (error) {
+    console.error(`Error in compare-and-set of secure item (${key}):`, error);
+    return { swapped: false, value: null };
+  }
+};
+
+/**
+ * Atomically stores a value and returns the one it replaced, in a single native call
+ * 
+ * @param key The key to update
+ * @param value The value to store, or null to delete the key
+ * @returns Promise resolving to the previous value, or null if there was none or the call failed
+ */
+export const getAndSetSecureItem = async (key: string, value: string | null): Promise<string | null> => {
+  try {
+    return await SecureStorageModule.getAndSet(key, value, SECURE_STORAGE_SERVICE);
+  } catch (error) {
+    console.error(`Error in get-and-set of secure item (${key}):`, error);
+    return null;
+  }
+};
+
+/**
+ * Atomically stores a value only if the key has none, in a single native call
+ * 
+ * @param key The key to set
+ * @param value The value to store
+ * @returns Promise resolving to whether the value was set and the value now stored
+ */
+export const setSecureItemIfAbsent = async (
+  key: string,
+  value: string
+): Promise<{ set: boolean; value: string | null }> => {
+  try {
+    return await SecureStorageModule.setIfAbsent(key, value, SECURE_STORAGE_SERVICE);
+  } catch (error) {
+    console.error(`Error in set-if-absent of secure item (${key}):`, error);
+    return { set: false, value: null };
+  }
+};
+
+/**
+ * Securely stores a large value, such as a cached profile or offline job payload, as its own
+ * encrypted file so it does not slow down reads and writes of other secure items
+ *
+ * @param key The key under which to store the blob (separate from secure item keys)
+ * @param value The value to store; non-string values are JSON-stringified
+ * @returns Promise resolving to true if successful, false otherwise
+ */
+export const saveSecureBlob = async (key: string, value: any): Promise<boolean> => {
+  if (!key || key.trim() === '') {
+    console.error('Invalid blob key provided');
+    return false;
+  }
+
+  try {
+    const valueToStore = typeof value === 'string' ? value : JSON.stringify(value);
+    await SecureStorageModule.setBlob(key, valueToStore, SECURE_STORAGE_SERVICE);
+    return true;
+  } catch (error) {
+    console.error(`Error saving secure blob (${key}):`, error);
+    return false;
+  }
+};
+
+/**
+ * Retrieves a large value stored with saveSecureBlob
+ *
+ * @param key The key of the blob to retrieve
+ * @param parseJson Whether to parse the stored value as JSON
+ * @returns Promise resolving to the stored value, or null if not found
+ */
+export const getSecureBlob = async (key: string, parseJson: boolean = false): Promise<any | null> => {
+  try {
+    const value = await SecureStorageModule.getBlob(key, SECURE_STORAGE_SERVICE);
+
+    if (value === null || value === undefined) {
+      return null;
+    }
+
+    return parseJson ? JSON.parse(value) : value;
+  } catch (error) {
+    console.error(`Error retrieving secure blob (${key}):`, error);
+    return null;
+  }
+};
+
+/**
+ * Removes a large value stored with saveSecureBlob
+ *
+ * @param key The key of the blob to delete
+ * @returns Promise resolving to true if successfully deleted, false otherwise
+ */
+export const deleteSecureBlob = async (key: string): Promise<boolean> => {
+  try {
+    await SecureStorageModule.removeBlob(key, SECURE_STORAGE_SERVICE);
+    return true;
+  } catch (error) {
+    console.error(`Error deleting secure blob (${key}):`, error);
+    return false;
+  }
+};
+
+/**
+ * Securely stores a binary value, such as key material or a signed device attestation. Pass
+ * the base64 the value arrived in as is: it is decoded natively and stored as raw bytes, so
+ * there is no need to decode or re-encode it in JS.
+ *
+ * @param key The key under which to store the value (separate from secure item and blob keys)
+ * @param base64Value The value, base64-encoded
+ * @returns Promise resolving to true if successful, false otherwise
+ */
+export const saveSecureBytes = async (key: string, base64Value: string): Promise<boolean> => {
+  if (!key || key.trim() === '') {
+    console.error('Invalid bytes key provided');
+    return false;
+  }
+
+  try {
+    await SecureStorageModule.setBytes(key, base64Value, SECURE_STORAGE_SERVICE);
+    return true;
+  } catch (error) {
+    console.error(`Error saving secure bytes (${key}):`, error);
+    return false;
+  }
+};
+
+/**
+ * Retrieves a binary value stored with saveSecureBytes
+ *
+ * @param key The key of the value to retrieve
+ * @returns Promise resolving to the value base64-encoded, or null if not found
+ */
+export const getSecureBytes = async (key: string): Promise<string | null> => {
+  try {
+    const value = await SecureStorageModule.getBytes(key, SECURE_STORAGE_SERVICE);
+    return value === null || value === undefined ? null : value;
+  } catch (error) {
+    console.error(`Error retrieving secure bytes (${key}):`, error);
+    return null;
+  }
+};
+
+/**
+ * Removes a binary value stored with saveSecureBytes
+ *
+ * @param key The key of the value to delete
+ * @returns Promise resolving to true if successfully deleted, false otherwise
+ */
+export const deleteSecureBytes = async (key: string): Promise<boolean> => {
+  try {
+    await SecureStorageModule.removeBytes(key, SECURE_STORAGE_SERVICE);
+    return true;
+  } catch (error) {
+    console.error(`Error deleting secure bytes (${key}):`, error);
+    return false;
+  }
+};
+
+/**
+ * Lists the keys stored in the Android secure storage, in ascending order, without reading their values
+ *
+ * @returns Promise resolving to the stored keys (empty if they could not be listed)
+ */
+export const getSecureKeys = async (): Promise<string[]> => {
+  try {
+    return await SecureStorageModule.getAllKeys(SECURE_STORAGE_SERVICE);
+  } catch (error) {
+    console.error('Error listing secure keys:', error);
+    return [];
+  }
+};
+
+/**
+ * Lists the keys in the Android secure storage that start with a prefix, in ascending order,
+ * without reading their values
+ *
+ * @param prefix The prefix to match
+ * @returns Promise resolving to the matching keys (empty if they could not be listed)
+ */
+export const getSecureKeysWithPrefix = async (prefix: string): Promise<string[]> => {
+  try {
+    return await SecureStorageModule.getKeysWithPrefix(prefix, SECURE_STORAGE_SERVICE);
+  } catch (error) {
+    console.error('Error listing secure keys with prefix:', error);
+    return [];
+  }
+};
+
+/**
+ * Retrieves the auth and refresh tokens together, for session restore on cold start
+ * 
+ * Unlike the other getters, a failed read is not reported as absent tokens: callers decide
+ * about the session from the result, and a busy or temporarily unavailable store must not
+ * look like a signed-out user.
+ * 
+ * @returns Promise resolving to both tokens (null when absent)
+ * @throws The native error if the tokens could not be read
+ */
+export const getAuthTokens = async (): Promise<{ authToken: string | null; refreshToken: string | null }> => {
+  const items: Record<string, string | null> =
+    await SecureStorageModule.multiGet([AUTH_TOKEN_KEY, REFRESH_TOKEN_KEY], SECURE_STORAGE_SERVICE);
+  return {
+    authToken: items[AUTH_TOKEN_KEY] || null,
+    refreshToken: items[REFRESH_TOKEN_KEY] || null,
+  };
+};
+
+/**
+ * Removes the auth and refresh tokens together in a single write
+ * 
+ * @returns Promise resolving to true if both tokens were deleted, false otherwise
+ */
+export const deleteAuthTokens = async (): Promise<boolean> => {
+  return deleteSecureItems([AUTH_TOKEN_KEY, REFRESH_TOKEN_KEY]);
+};
+
 /**
  * Removes all sensitive data stored by the app from the Android secure storage
  * 
@@ -383,4 +753,135 @@ export const isSecureStorageAvailable = async (): Promise<boolean> => {
     console.error('Error checking KeyStore availability:', error);
     return false;
   }
-};
\ No newline at end of file
+};
+/**
+ * Options for the native in-memory cache of decrypted secure storage values
+ */
+export interface SecureStorageCacheOptions {
+  enabled?: boolean;
+  maxEntries?: number;
+  defaultTtlMs?: number;
+  ttls?: Record<string, number>;
+}
+
+/**
+ * Enables or reconfigures the native cache of decrypted values. The cache is
+ * wiped whenever the app is backgrounded and on every write to a cached key.
+ * 
+ * @param options Cache size and time-to-live settings; a TTL of 0 excludes a key
+ * @returns Promise resolving to true if the cache was configured, false otherwise
+ */
+export const configureSecureStorageCache = async (options: SecureStorageCacheOptions): Promise<boolean> => {
+  try {
+    return await SecureStorageModule.configureCache(options);
+  } catch (error) {
+    console.error('Error configuring secure storage cache:', error);
+    return false;
+  }
+};
+
+/**
+ * Retrieves hit/miss counters for the native secure storage cache
+ * 
+ * @returns Promise resolving to the cache statistics, or null if unavailable
+ */
+export const getSecureStorageCacheStats = async (): Promise<{
+  enabled: boolean;
+  size: number;
+  hits: number;
+  misses: number;
+  evictions: number;
+  expirations: number;
+} | null> => {
+  try {
+    return await SecureStorageModule.getCacheStats();
+  } catch (error) {
+    console.error('Error retrieving secure storage cache stats:', error);
+    return null;
+  }
+};
+
+/**
+ * Sets how long the app may stay in the background before the native data key
+ * that encrypts secure storage values is wiped from memory. The key is unwrapped
+ * from the Android Keystore again on the next storage call.
+ * 
+ * @param timeoutMs Idle timeout in milliseconds; 0 wipes the key as soon as the app is backgrounded
+ * @returns Promise resolving to true if the timeout was set, false otherwise
+ */
+export const setSecureStorageKeyIdleTimeout = async (timeoutMs: number): Promise<boolean> => {
+  try {
+    return await SecureStorageModule.setDataKeyIdleTimeout(timeoutMs);
+  } catch (error) {
+    console.error('Error setting secure storage key idle timeout:', error);
+    return false;
+  }
+};
+
+/**
+ * A committed change to the secure storage. Values are never included; read the key if its new value is needed.
+ */
+export interface SecureStorageChange {
+  service: string;
+  key: string | null; // null when the whole storage was cleared
+  type: 'set' | 'remove' | 'clear';
+}
+
+/**
+ * Keys a change listener is interested in; without keys and prefixes every key matches
+ */
+export interface SecureStorageChangeFilter {
+  keys?: string[];
+  prefixes?: string[];
+}
+
+/**
+ * Listens for sets, removals and clears of matching keys instead of polling them. Bursts of
+ * writes are coalesced natively and delivered as one batch per frame, with only the latest
+ * change of each key.
+ * 
+ * @param filter Keys and key prefixes to listen for
+ * @param listener Called with the changes matching the filter
+ * @returns Function that removes the listener
+ */
+export const subscribeToSecureStorageChanges = (
+  filter: SecureStorageChangeFilter,
+  listener: (changes: SecureStorageChange[]) => void
+): (() => void) => {
+  if (!secureStorageEmitter) {
+    secureStorageEmitter = new NativeEventEmitter(SecureStorageModule);
+  }
+
+  const subscriptionId = `secure-storage-changes-${++nextChangeSubscriptionId}`;
+  const subscription = secureStorageEmitter.addListener(SECURE_STORAGE_CHANGE_EVENT, (event) => {
+    const changes: SecureStorageChange[] | undefined = event?.subscriptions?.[subscriptionId];
+    if (changes && changes.length > 0) {
+      listener(changes);
+    }
+  });
+
+  SecureStorageModule.subscribeChanges(subscriptionId, {
+    service: SECURE_STORAGE_SERVICE,
+    keys: filter.keys || [],
+    prefixes: filter.prefixes || [],
+  }).catch((error: unknown) => {
+    console.error('Error subscribing to secure storage changes:', error);
+  });
+
+  return () => {
+    subscription.remove();
+    SecureStorageModule.unsubscribeChanges(subscriptionId).catch((error: unknown) => {
+      console.error('Error unsubscribing from secure storage changes:', error);
+    });
+  };
+};
+
+/**
+ * Listens for the auth or refresh token being rotated, removed or cleared
+ * 
+ * @param listener Called with the token changes
+ * @returns Function that removes the listener
+ */
+export const onAuthTokensChanged = (listener: (changes: SecureStorageChange[]) => void): (() => void) => {
+  return subscribeToSecureStorageChanges({ keys: [AUTH_TOKEN_KEY, REFRESH_TOKEN_KEY] }, listener);
+};
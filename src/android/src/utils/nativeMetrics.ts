@@ -0,0 +1,74 @@
+/**
+ * Native Metrics Utility Module
+ *
+ * Provides TypeScript wrappers for reading the per-method call counts, error counts
+ * and latency histograms recorded by the app's Android native modules.
+ *
+ * @version 1.0.0
+ */
+
+import { NativeModules, Platform } from 'react-native'; // react-native 0.72.x
+
+// Reference to the native Android metrics module
+const NativeMetricsModule = NativeModules.NativeMetricsModule;
+
+/**
+ * Latency summary of one phase of a native call, in milliseconds
+ */
+export interface NativeLatencySummary {
+  count: number;
+  meanMs: number;
+  p50Ms: number;
+  p90Ms: number;
+  p99Ms: number;
+  p999Ms: number;
+  maxMs: number;
+}
+
+/**
+ * Metrics of one native method. queueWait covers the time before the native
+ * work started (e.g. waiting for a storage thread); execution covers the rest.
+ */
+export interface NativeMethodMetrics {
+  calls: number;
+  errors: number;
+  errorsByCode: Record<string, number>;
+  queueWait: NativeLatencySummary;
+  execution: NativeLatencySummary;
+}
+
+/**
+ * Retrieves a snapshot of the metrics of every native method called so far
+ *
+ * @returns Promise resolving to a map of "Module.method" to its metrics, or null if unavailable
+ */
+export const getNativeMetrics = async (): Promise<Record<string, NativeMethodMetrics> | null> => {
+  try {
+    if (Platform.OS !== 'android' || !NativeMetricsModule) {
+      return null;
+    }
+
+    return await NativeMetricsModule.getNativeMetrics();
+  } catch (error) {
+    console.error('Error retrieving native metrics:', error);
+    return null;
+  }
+};
+
+/**
+ * Clears every recorded native metric, e.g. before measuring a scenario
+ *
+ * @returns Promise resolving to true if the metrics were cleared, false otherwise
+ */
+export const resetNativeMetrics = async (): Promise<boolean> => {
+  try {
+    if (Platform.OS !== 'android' || !NativeMetricsModule) {
+      return false;
+    }
+
+    return await NativeMetricsModule.resetNativeMetrics();
+  } catch (error) {
+    console.error('Error resetting native metrics:', error);
+    return false;
+  }
+};